@@ -0,0 +1,66 @@
+package com.grupobb.biblioteca.service.eventlog;
+
+import com.grupobb.biblioteca.util.SegmentLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Anexos al log de préstamos desde 8 hilos a la vez, como harían 8 peticiones concurrentes.
+ *
+ * - group: cada hilo espera a que su evento esté en disco; el fsync lo comparten todos los que
+ *   anexaron dentro de la misma ventana de {@code groupCommitMicros}.
+ * - async: el hilo vuelve apenas el registro está en el segmento mapeado.
+ *
+ * Con groupCommitMicros = 0 cada espera dispara su propio fsync (la línea base sin grupo).
+ * Los segmentos son pequeños para que el rolado también entre en la medición.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(8)
+public class LoanEventAppendBenchmark {
+
+    @Param({"0", "500"})
+    public long groupCommitMicros;
+
+    @Param({"group", "async"})
+    public String fsync;
+
+    private Path dir;
+    private SegmentLog log;
+    private final AtomicLong next = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("eventlog-bench");
+        log = new SegmentLog(dir, LoanEvent.RECORD_SIZE, 100_000, groupCommitMicros);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        log.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    @Benchmark
+    public long append() throws InterruptedException {
+        long i = next.incrementAndGet();
+        LoanEvent e = LoanEvent.of(LoanEvent.PRESTAMO, i, i % 5_000, i % 20_000, i % 2_000, 19_000 + (int) (i % 365), 1);
+        long seq = log.append(e::writeTo);
+        if ("group".equals(fsync)) {
+            log.awaitDurable(seq);
+        }
+        return seq;
+    }
+}
@@ -0,0 +1,131 @@
+package com.grupobb.biblioteca.service.eventlog;
+
+import com.grupobb.biblioteca.util.SegmentLog;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Arranque de los contadores de préstamos con {@code loans} préstamos históricos.
+ *
+ * - replayLog: reaplica todos los eventos del log (sin snapshot, el peor caso).
+ * - groupByPrestamos: las cuatro consultas GROUP BY de LoanAggregatesLoader sobre `prestamos`
+ *   (H2 en memoria, modo MySQL), que es lo que el log evita en el arranque.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class LoanEventReplayBenchmark {
+
+    static final String URL = "jdbc:h2:mem:prestamos_bench;DB_CLOSE_DELAY=-1;MODE=MySQL";
+
+    @Param({"1000000"})
+    public int loans;
+
+    private Path dir;
+    private SegmentLog log;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, SQLException {
+        dir = Files.createTempDirectory("eventlog-replay");
+        log = new SegmentLog(dir, LoanEvent.RECORD_SIZE, 1_000_000, 0);
+        SplittableRandom random = new SplittableRandom(42);
+        try (Connection c = DriverManager.getConnection(URL, "sa", "");
+             Statement st = c.createStatement()) {
+            st.execute("drop all objects");
+            st.execute("create table libros (id bigint primary key, autor_id bigint not null)");
+            st.execute("create table prestamos (id bigint primary key, usuario_id bigint not null, "
+                    + "libro_id bigint not null, fecha_prestamo date not null, fecha_devolucion date)");
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement("insert into libros values (?, ?)")) {
+                for (int i = 1; i <= 20_000; i++) {
+                    ps.setLong(1, i);
+                    ps.setLong(2, 1 + i % 2_000);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+            try (PreparedStatement ps = c.prepareStatement("insert into prestamos values (?, ?, ?, ?, ?)")) {
+                for (int i = 1; i <= loans; i++) {
+                    long usuario = 1 + random.nextInt(5_000);
+                    long libro = 1 + random.nextInt(20_000);
+                    int dia = 19_000 + random.nextInt(365);
+                    boolean devuelto = random.nextInt(10) != 0;
+                    ps.setLong(1, i);
+                    ps.setLong(2, usuario);
+                    ps.setLong(3, libro);
+                    ps.setObject(4, LocalDate.ofEpochDay(dia));
+                    ps.setObject(5, devuelto ? LocalDate.ofEpochDay(dia + 7) : null);
+                    ps.addBatch();
+                    if (i % 1000 == 0) {
+                        ps.executeBatch();
+                    }
+                    long autor = 1 + libro % 2_000;
+                    LoanEvent e = LoanEvent.of(LoanEvent.PRESTAMO, i, usuario, libro, autor, dia, -1);
+                    log.append(e::writeTo);
+                    if (devuelto) {
+                        LoanEvent d = LoanEvent.of(LoanEvent.DEVOLUCION, i, usuario, libro, autor, dia + 7, -1);
+                        log.append(d::writeTo);
+                    }
+                }
+                ps.executeBatch();
+            }
+            c.commit();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        log.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    @Benchmark
+    public LoanLogState replayLog() throws IOException {
+        LoanLogState state = new LoanLogState();
+        LoanEvent scratch = new LoanEvent();
+        log.replay(1, (seq, buf, off) -> state.apply(seq, scratch.readFrom(buf, off)));
+        return state;
+    }
+
+    @Benchmark
+    public long groupByPrestamos() throws SQLException {
+        long filas = 0;
+        try (Connection c = DriverManager.getConnection(URL, "sa", "");
+             Statement st = c.createStatement()) {
+            String[] consultas = {
+                    "select usuario_id, count(*) from prestamos where fecha_devolucion is null group by usuario_id",
+                    "select libro_id, count(*) from prestamos group by libro_id",
+                    "select l.autor_id, count(*) from prestamos p join libros l on l.id = p.libro_id group by l.autor_id",
+                    "select fecha_prestamo, count(*) from prestamos group by fecha_prestamo"
+            };
+            for (String sql : consultas) {
+                try (ResultSet rs = st.executeQuery(sql)) {
+                    while (rs.next()) {
+                        filas += rs.getLong(2);
+                    }
+                }
+            }
+        }
+        return filas;
+    }
+}
@@ -0,0 +1,111 @@
+package com.grupobb.biblioteca.service.impl;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.grupobb.biblioteca.dto.Author.AuthorResponse;
+import com.grupobb.biblioteca.dto.Book.BookResponse;
+import com.grupobb.biblioteca.dto.Loan.LoanResponse;
+import com.grupobb.biblioteca.dto.User.UserResponseData;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON frente a CBOR y Smile (ver BinaryFormatsConfig) para los cuatro listados: costo de
+ * codificar (lo que paga el servidor) y de decodificar (lo que paga el cliente) con la misma
+ * configuración de spring.jackson. El tamaño de cada carga se imprime al preparar el estado:
+ * "[Formatos] loans/cbor size=1000: 61234 bytes (58% de JSON)".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BinaryFormatBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"books", "loans", "authors", "users"})
+    public String dto;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<?> value;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws Exception {
+        SampleEntities data = new SampleEntities(size);
+        Class<?> type;
+        switch (dto) {
+            case "books":
+                value = data.books.stream().map(BookServiceImpl::toResponse).toList();
+                type = BookResponse.class;
+                break;
+            case "loans":
+                value = data.loans.stream().map(LoanServiceImpl::toResponse).toList();
+                type = LoanResponse.class;
+                break;
+            case "authors":
+                value = data.authors.stream().map(AuthorServiceImpl::toResponse).toList();
+                type = AuthorResponse.class;
+                break;
+            default:
+                value = data.users.stream().map(UserServiceImpl::toResponse).toList();
+                type = UserResponseData.class;
+        }
+        ObjectMapper mapper = mapper(factory(format));
+        JavaType listType = mapper.getTypeFactory().constructCollectionType(List.class, type);
+        writer = mapper.writerFor(listType);
+        reader = mapper.readerFor(listType);
+        encoded = writer.writeValueAsBytes(value);
+
+        int json = mapper(new JsonFactory()).writerFor(listType).writeValueAsBytes(value).length;
+        System.out.printf(Locale.ROOT, "[Formatos] %s/%s size=%d: %d bytes (%.0f%% de JSON)%n",
+                dto, format, size, encoded.length, 100.0 * encoded.length / json);
+    }
+
+    @Benchmark
+    public byte[] encode() throws Exception {
+        return writer.writeValueAsBytes(value);
+    }
+
+    @Benchmark
+    public List<?> decode() throws Exception {
+        return reader.readValue(encoded);
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "cbor":
+                return new CBORFactory();
+            case "smile":
+                return new SmileFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+
+    // Misma configuración que spring.jackson en application.yml
+    private static ObjectMapper mapper(JsonFactory factory) {
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(factory)
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .timeZone(TimeZone.getTimeZone("UTC"))
+                .build();
+    }
+}
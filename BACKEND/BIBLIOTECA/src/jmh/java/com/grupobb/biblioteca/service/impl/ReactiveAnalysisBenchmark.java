@@ -0,0 +1,55 @@
+package com.grupobb.biblioteca.service.impl;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de los pipelines ejecutarAnalisis* (parallel/runOn, delayElements, filter, map,
+ * timeout, métricas, retry) sin el retardo simulado de 100 ms por elemento, esperando a que
+ * termine cada flujo. Con retardo cero delayElements igual agenda cada elemento en un timer:
+ * es parte del costo real.
+ *
+ * System.out va a un stream nulo: se mide armar los mensajes, no escribirlos en la consola.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ReactiveAnalysisBenchmark {
+
+    @Param({"100", "1000"})
+    public int size;
+
+    private SampleEntities data;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        data = new SampleEntities(size);
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public Object authors() {
+        return AuthorServiceImpl.analisisReactivo(data.authors, Duration.ZERO).count().block();
+    }
+
+    @Benchmark
+    public Object books() {
+        return BookServiceImpl.analisisReactivo(data.books, Duration.ZERO).count().block();
+    }
+
+    @Benchmark
+    public Object loans() {
+        return LoanServiceImpl.analisisReactivo(data.loans, Duration.ZERO).count().block();
+    }
+}
@@ -0,0 +1,51 @@
+package com.grupobb.biblioteca.service.impl;
+
+import com.grupobb.biblioteca.dto.Author.AuthorResponse;
+import com.grupobb.biblioteca.dto.Book.BookResponse;
+import com.grupobb.biblioteca.dto.Loan.LoanResponse;
+import com.grupobb.biblioteca.dto.User.UserResponseData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo entidad -> DTO de los listados (findAll / list de los cuatro servicios), igual que lo
+ * hace cada servicio: stream().map(toResponse).toList(). Correr con -prof gc para ver bytes por
+ * operación; el costo es casi todo asignación de DTOs y de la lista.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseMappingBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private SampleEntities data;
+
+    @Setup
+    public void setUp() {
+        data = new SampleEntities(size);
+    }
+
+    @Benchmark
+    public List<AuthorResponse> authors() {
+        return data.authors.stream().map(AuthorServiceImpl::toResponse).toList();
+    }
+
+    @Benchmark
+    public List<BookResponse> books() {
+        return data.books.stream().map(BookServiceImpl::toResponse).toList();
+    }
+
+    @Benchmark
+    public List<LoanResponse> loans() {
+        return data.loans.stream().map(LoanServiceImpl::toResponse).toList();
+    }
+
+    @Benchmark
+    public List<UserResponseData> users() {
+        return data.users.stream().map(UserServiceImpl::toResponse).toList();
+    }
+}
@@ -0,0 +1,57 @@
+package com.grupobb.biblioteca.service.impl;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.grupobb.biblioteca.dto.Book.BookResponse;
+import com.grupobb.biblioteca.dto.Loan.LoanResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización JSON de los listados grandes con la configuración de spring.jackson de
+ * application.yml (SNAKE_CASE, non_null, fechas ISO, UTC). Se usa un ObjectWriter por tipo de
+ * lista, como el que reutiliza MappingJackson2HttpMessageConverter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResponseSerializationBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private ObjectWriter booksWriter;
+    private ObjectWriter loansWriter;
+    private List<BookResponse> books;
+    private List<LoanResponse> loans;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+                .serializationInclusion(JsonInclude.Include.NON_NULL)
+                .timeZone(TimeZone.getTimeZone("UTC"))
+                .build();
+        SampleEntities data = new SampleEntities(size);
+        books = data.books.stream().map(BookServiceImpl::toResponse).toList();
+        loans = data.loans.stream().map(LoanServiceImpl::toResponse).toList();
+        booksWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, BookResponse.class));
+        loansWriter = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, LoanResponse.class));
+    }
+
+    @Benchmark
+    public byte[] books() throws Exception {
+        return booksWriter.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] loans() throws Exception {
+        return loansWriter.writeValueAsBytes(loans);
+    }
+}
@@ -0,0 +1,65 @@
+package com.grupobb.biblioteca.service.impl;
+
+import com.grupobb.biblioteca.domain.Author;
+import com.grupobb.biblioteca.domain.Book;
+import com.grupobb.biblioteca.domain.Loan;
+import com.grupobb.biblioteca.domain.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Entidades en memoria (sin BD) con la forma de los listados: 1 de cada 4 préstamos activo,
+ * autores y usuarios compartidos entre filas como los trae Hibernate.
+ */
+public final class SampleEntities {
+
+    public final List<Author> authors = new ArrayList<>();
+    public final List<User> users = new ArrayList<>();
+    public final List<Book> books = new ArrayList<>();
+    public final List<Loan> loans = new ArrayList<>();
+
+    public SampleEntities(int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        int distintos = Math.max(1, size / 10);
+        for (int i = 1; i <= distintos; i++) {
+            Author a = new Author();
+            a.setId((long) i);
+            a.setNombre("Autor " + i);
+            a.setNacionalidad(i % 5 == 0 ? null : "Ecuador");
+            authors.add(a);
+            User u = new User();
+            u.setId((long) i);
+            u.setNombre("Usuario " + i);
+            u.setEmail("usuario" + i + "@example.com");
+            users.add(u);
+        }
+        LocalDate hoy = LocalDate.of(2025, 1, 31);
+        for (int i = 1; i <= size; i++) {
+            Book b = new Book();
+            b.setId((long) i);
+            b.setTitulo("Libro de prueba número " + i);
+            b.setAutor(authors.get(random.nextInt(distintos)));
+            b.setDisponible(i % 4 != 0);
+            b.setEjemplaresTotales(2);
+            b.setEjemplaresDisponibles(i % 4 != 0 ? 2 : 0);
+            books.add(b);
+
+            Loan l = new Loan();
+            l.setId((long) i);
+            l.setUsuario(users.get(random.nextInt(distintos)));
+            l.setLibro(b);
+            l.setFechaPrestamo(hoy.minusDays(random.nextInt(60)));
+            l.setFechaVencimiento(l.getFechaPrestamo().plusDays(14));
+            if (i % 4 != 0) {
+                l.setFechaDevolucion(l.getFechaPrestamo().plusDays(1 + random.nextInt(20)));
+            }
+            l.setDiasAtraso(random.nextInt(5));
+            l.setMulta(BigDecimal.valueOf(l.getDiasAtraso() * 50L, 2));
+            loans.add(l);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.grupobb.biblioteca.service.inventory;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput de préstamo + devolución sobre un único título muy solicitado con cientos de
+ * ejemplares y 64 hilos a la vez (H2 en memoria, modo MySQL, mismas sentencias que
+ * BookRepository / BookCopyRepository).
+ *
+ * - atomicCounter: UPDATE condicional del contador (lo que hace {@link CopyInventory}).
+ * - readModifyWrite: SELECT ... FOR UPDATE del contador, resta en Java y UPDATE con el valor.
+ *
+ * Cada operación son dos transacciones (prestar y devolver) para que el stock no se agote.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(64)
+public class CopyCheckoutBenchmark {
+
+    static final String URL = "jdbc:h2:mem:ejemplares_bench;DB_CLOSE_DELAY=-1;MODE=MySQL;LOCK_TIMEOUT=30000";
+    static final long LIBRO_ID = 1L;
+
+    @Param({"200", "800"})
+    public int copies;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        try (Connection c = DriverManager.getConnection(URL, "sa", "");
+             Statement st = c.createStatement()) {
+            st.execute("drop all objects");
+            st.execute("create table libros (id bigint primary key, disponible boolean not null, "
+                    + "ejemplares_totales int not null, ejemplares_disponibles int not null)");
+            st.execute("create table ejemplares (id bigint auto_increment primary key, libro_id bigint not null, "
+                    + "disponible boolean not null, retirado boolean not null)");
+            st.execute("create index idx_ejemplares_libro_disponible on ejemplares (libro_id, disponible)");
+            st.execute("insert into libros values (" + LIBRO_ID + ", true, " + copies + ", " + copies + ")");
+            try (PreparedStatement ps = c.prepareStatement(
+                    "insert into ejemplares (libro_id, disponible, retirado) values (?, true, false)")) {
+                for (int i = 0; i < copies; i++) {
+                    ps.setLong(1, LIBRO_ID);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        Connection c;
+        PreparedStatement checkout;
+        PreparedStatement giveBack;
+        PreparedStatement readForUpdate;
+        PreparedStatement writeCounter;
+        PreparedStatement freeCopy;
+        PreparedStatement markCopy;
+
+        @Setup(Level.Trial)
+        public void open(CopyCheckoutBenchmark db) throws SQLException {
+            c = DriverManager.getConnection(URL, "sa", "");
+            c.setAutoCommit(false);
+            checkout = c.prepareStatement("update libros set disponible = case when ejemplares_disponibles > 1 "
+                    + "then true else false end, ejemplares_disponibles = ejemplares_disponibles - 1 "
+                    + "where id = ? and ejemplares_disponibles > 0");
+            giveBack = c.prepareStatement("update libros set disponible = true, "
+                    + "ejemplares_disponibles = ejemplares_disponibles + 1 "
+                    + "where id = ? and ejemplares_disponibles < ejemplares_totales");
+            readForUpdate = c.prepareStatement("select ejemplares_disponibles from libros where id = ? for update");
+            writeCounter = c.prepareStatement("update libros set ejemplares_disponibles = ?, disponible = ? where id = ?");
+            freeCopy = c.prepareStatement("select id from ejemplares where libro_id = ? and disponible = true "
+                    + "and retirado = false order by id limit 1 for update");
+            markCopy = c.prepareStatement("update ejemplares set disponible = ? where id = ?");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            c.close();
+        }
+
+        long claimCopy() throws SQLException {
+            freeCopy.setLong(1, LIBRO_ID);
+            try (ResultSet rs = freeCopy.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalStateException("Contador y ejemplares desincronizados");
+                }
+                long id = rs.getLong(1);
+                setCopy(id, false);
+                return id;
+            }
+        }
+
+        void setCopy(long id, boolean disponible) throws SQLException {
+            markCopy.setBoolean(1, disponible);
+            markCopy.setLong(2, id);
+            markCopy.executeUpdate();
+        }
+    }
+
+    @Benchmark
+    public long atomicCounter(Session s) throws SQLException {
+        s.checkout.setLong(1, LIBRO_ID);
+        if (s.checkout.executeUpdate() == 0) {
+            s.c.rollback();
+            return -1;
+        }
+        long copia = s.claimCopy();
+        s.c.commit();
+
+        s.setCopy(copia, true);
+        s.giveBack.setLong(1, LIBRO_ID);
+        s.giveBack.executeUpdate();
+        s.c.commit();
+        return copia;
+    }
+
+    @Benchmark
+    public long readModifyWrite(Session s) throws SQLException {
+        int disponibles = readCounter(s);
+        if (disponibles == 0) {
+            s.c.rollback();
+            return -1;
+        }
+        writeCounter(s, disponibles - 1);
+        long copia = s.claimCopy();
+        s.c.commit();
+
+        s.setCopy(copia, true);
+        writeCounter(s, readCounter(s) + 1);
+        s.c.commit();
+        return copia;
+    }
+
+    private static int readCounter(Session s) throws SQLException {
+        s.readForUpdate.setLong(1, LIBRO_ID);
+        try (ResultSet rs = s.readForUpdate.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private static void writeCounter(Session s, int valor) throws SQLException {
+        s.writeCounter.setInt(1, valor);
+        s.writeCounter.setBoolean(2, valor > 0);
+        s.writeCounter.setLong(3, LIBRO_ID);
+        s.writeCounter.executeUpdate();
+    }
+}
@@ -0,0 +1,49 @@
+package com.grupobb.biblioteca.service.stats;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo por préstamo de alimentar el ranking de más prestados (3 ventanas x Space-Saving)
+ * y costo de una consulta con caché vencida.
+ *
+ * La distribución de libros es sesgada (Zipf aproximado) sobre un catálogo de 1M de títulos,
+ * que es el caso donde el sketch reemplaza contadores con más frecuencia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TopBooksLeaderboardBenchmark {
+
+    @Param({"256", "1024"})
+    public int capacity;
+
+    private TopBooksLeaderboard leaderboard;
+    private long[] bookIds;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        leaderboard = new TopBooksLeaderboard(capacity, 0);
+        SplittableRandom random = new SplittableRandom(42);
+        bookIds = new long[1 << 16];
+        for (int i = 0; i < bookIds.length; i++) {
+            bookIds[i] = 1 + (long) (Math.pow(random.nextDouble(), 4) * 1_000_000);
+        }
+        for (long id : bookIds) {
+            leaderboard.record(id);
+        }
+    }
+
+    @Benchmark
+    public void recordLoan() {
+        leaderboard.record(bookIds[next++ & (bookIds.length - 1)]);
+    }
+
+    @Benchmark
+    public Object top10LastDay() {
+        return leaderboard.top(TopBooksLeaderboard.Window.DAY, 10);
+    }
+}
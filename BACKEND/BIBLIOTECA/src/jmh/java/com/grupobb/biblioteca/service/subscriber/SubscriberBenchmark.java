@@ -0,0 +1,56 @@
+package com.grupobb.biblioteca.service.subscriber;
+
+import com.grupobb.biblioteca.service.impl.SampleEntities;
+import org.openjdk.jmh.annotations.*;
+import reactor.core.publisher.Flux;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de los suscriptores propios (backpressure por lotes de {@code batchSize} y los mensajes
+ * por elemento) sobre un Flux síncrono, sin operadores ni hilos de por medio.
+ * System.out va a un stream nulo: se mide armar los mensajes, no escribirlos en la consola.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SubscriberBenchmark {
+
+    @Param({"2", "100"})
+    public int batchSize;
+
+    @Param({"1000"})
+    public int size;
+
+    private SampleEntities data;
+    private PrintStream originalOut;
+
+    @Setup
+    public void setUp() {
+        data = new SampleEntities(size);
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public void authors() {
+        Flux.fromIterable(data.authors).subscribe(new AuthorSubscriber(batchSize));
+    }
+
+    @Benchmark
+    public void books() {
+        Flux.fromIterable(data.books).subscribe(new BookSubscriber(batchSize));
+    }
+
+    @Benchmark
+    public void loans() {
+        Flux.fromIterable(data.loans).subscribe(new LoanSubscriber(batchSize));
+    }
+}
@@ -0,0 +1,138 @@
+package com.grupobb.biblioteca.service.user;
+
+import com.grupobb.biblioteca.util.BloomFilter;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Alta de usuarios con email nuevo (el caso común) sobre una tabla con {@code existing} usuarios
+ * y 16 hilos a la vez (H2 en memoria, modo MySQL, índice único en email).
+ *
+ * - existsThenInsert: SELECT de existencia y luego INSERT (lo que hacía UserServiceImpl).
+ * - bloomThenInsert: se consulta el filtro y solo se va a la BD si dice "quizás"; el INSERT
+ *   se apoya en la restricción única como hace ahora {@link EmailBloomFilter}.
+ * - mightContain: costo aislado de la consulta al filtro (sin BD).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(16)
+public class EmailSignupBenchmark {
+
+    static final String URL = "jdbc:h2:mem:usuarios_bench;DB_CLOSE_DELAY=-1;MODE=MySQL;LOCK_TIMEOUT=30000";
+
+    @Param({"100000"})
+    public int existing;
+
+    BloomFilter filter;
+    final AtomicLong next = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        filter = new BloomFilter(existing * 4L, 0.01);
+        try (Connection c = DriverManager.getConnection(URL, "sa", "");
+             Statement st = c.createStatement()) {
+            st.execute("drop all objects");
+            st.execute("create table usuarios (id bigint auto_increment primary key, "
+                    + "nombre varchar(255) not null, email varchar(255) not null)");
+            st.execute("create unique index uk_usuarios_email on usuarios (email)");
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement("insert into usuarios (nombre, email) values (?, ?)")) {
+                for (int i = 0; i < existing; i++) {
+                    String email = "lector" + i + "@biblioteca.test";
+                    ps.setString(1, "Lector " + i);
+                    ps.setString(2, email);
+                    ps.addBatch();
+                    filter.put(email);
+                    if (i % 1000 == 999) {
+                        ps.executeBatch();
+                    }
+                }
+                ps.executeBatch();
+            }
+            c.commit();
+        }
+        next.set(existing);
+    }
+
+    @State(Scope.Thread)
+    public static class Session {
+        Connection c;
+        PreparedStatement exists;
+        PreparedStatement insert;
+
+        @Setup(Level.Trial)
+        public void open() throws SQLException {
+            c = DriverManager.getConnection(URL, "sa", "");
+            c.setAutoCommit(false);
+            exists = c.prepareStatement("select 1 from usuarios where email = ? limit 1");
+            insert = c.prepareStatement("insert into usuarios (nombre, email) values (?, ?)");
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            c.close();
+        }
+
+        boolean exists(String email) throws SQLException {
+            exists.setString(1, email);
+            try (ResultSet rs = exists.executeQuery()) {
+                return rs.next();
+            }
+        }
+
+        int insert(String email) throws SQLException {
+            insert.setString(1, "Nuevo");
+            insert.setString(2, email);
+            try {
+                int n = insert.executeUpdate();
+                c.commit();
+                return n;
+            } catch (SQLException ex) {
+                c.rollback();
+                return 0;
+            }
+        }
+    }
+
+    @Benchmark
+    public int existsThenInsert(Session s) throws SQLException {
+        String email = nextEmail();
+        if (s.exists(email)) {
+            s.c.rollback();
+            return 0;
+        }
+        return s.insert(email);
+    }
+
+    @Benchmark
+    public int bloomThenInsert(Session s) throws SQLException {
+        String email = nextEmail();
+        if (filter.mightContain(email) && s.exists(email)) {
+            s.c.rollback();
+            return 0;
+        }
+        int n = s.insert(email);
+        filter.put(email);
+        return n;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public boolean mightContain() {
+        return filter.mightContain(nextEmail());
+    }
+
+    private String nextEmail() {
+        return ("Lector" + next.getAndIncrement() + "@Biblioteca.test").toLowerCase(Locale.ROOT);
+    }
+}
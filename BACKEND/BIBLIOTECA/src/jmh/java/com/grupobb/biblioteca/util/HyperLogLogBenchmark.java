@@ -0,0 +1,84 @@
+package com.grupobb.biblioteca.util;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de actualización y estimación de {@link HyperLogLog} en modo disperso y denso,
+ * más un benchmark de exactitud que reporta el error relativo observado como métrica auxiliar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class HyperLogLogBenchmark {
+
+    @Param({"11", "14"})
+    public int precision;
+
+    private HyperLogLog sparse;
+    private HyperLogLog dense;
+    private long next;
+
+    @Setup
+    public void setUp() {
+        sparse = new HyperLogLog(precision);
+        for (int i = 0; i < 20; i++) {
+            sparse.add(i);
+        }
+        dense = new HyperLogLog(precision);
+        for (int i = 0; i < 1_000_000; i++) {
+            dense.add(i);
+        }
+    }
+
+    @Benchmark
+    public void addDense() {
+        dense.add(next++);
+    }
+
+    @Benchmark
+    public HyperLogLog addSparse() {
+        // Copia para que el sketch no se vuelva denso durante la medición
+        HyperLogLog h = sparse.copy();
+        h.add(next++);
+        return h;
+    }
+
+    @Benchmark
+    public long estimateDense() {
+        return dense.estimate();
+    }
+
+    @Benchmark
+    public byte[] serializeDense() {
+        return dense.toBytes();
+    }
+
+    /**
+     * Exactitud: cuenta n usuarios distintos y acumula |estimado - n| / n en un contador auxiliar.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Accuracy {
+        public double relativeErrorSum;
+        public long runs;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void accuracy100k(Accuracy acc, Blackhole bh) {
+        int n = 100_000;
+        HyperLogLog h = new HyperLogLog(precision);
+        long offset = acc.runs * n;
+        for (long i = 0; i < n; i++) {
+            h.add(offset + i);
+        }
+        long est = h.estimate();
+        acc.relativeErrorSum += Math.abs(est - n) / (double) n;
+        acc.runs++;
+        bh.consume(est);
+    }
+}
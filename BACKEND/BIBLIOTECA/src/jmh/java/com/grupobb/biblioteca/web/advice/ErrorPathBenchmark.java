@@ -0,0 +1,76 @@
+package com.grupobb.biblioteca.web.advice;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Camino de error de negocio completo: lanzar la excepción a {@code depth} marcos de
+ * profundidad (una petición Spring ronda los 100), atraparla y armar el cuerpo de la respuesta.
+ *
+ * - legacy: como antes, excepción con traza + HashMap + LocalDateTime.now() por error.
+ * - stackless: NotFoundException (sin traza) + GlobalExceptionHandler/ErrorBody actuales.
+ *
+ * Correr con -prof gc: la diferencia en bytes por operación es casi toda la traza.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ErrorPathBenchmark {
+
+    @Param({"20", "100"})
+    public int depth;
+
+    private GlobalExceptionHandler handler;
+
+    @Setup
+    public void setUp() {
+        handler = new GlobalExceptionHandler(10);
+    }
+
+    @Benchmark
+    public Object legacy() {
+        try {
+            throwAt(depth, true);
+            return null;
+        } catch (LegacyNotFound ex) {
+            Map<String, Object> body = new HashMap<>();
+            body.put("timestamp", LocalDateTime.now());
+            body.put("status", 404);
+            body.put("error", "Not Found");
+            body.put("message", ex.getMessage());
+            return body;
+        }
+    }
+
+    @Benchmark
+    public Object stackless() {
+        try {
+            throwAt(depth, false);
+            return null;
+        } catch (NotFoundException ex) {
+            return handler.handleNotFound(ex);
+        }
+    }
+
+    private static void throwAt(int depth, boolean legacy) {
+        if (depth > 0) {
+            throwAt(depth - 1, legacy);
+            return;
+        }
+        if (legacy) {
+            throw new LegacyNotFound("Libro no encontrado");
+        }
+        throw new NotFoundException("Libro no encontrado");
+    }
+
+    // Lo que eran las excepciones de dominio: RuntimeException con traza completa
+    static final class LegacyNotFound extends RuntimeException {
+        LegacyNotFound(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.grupobb.biblioteca.loadtest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histograma log-lineal de latencias en microsegundos (estilo HdrHistogram, sin dependencia).
+ *
+ * Valores < 256 µs tienen cubeta propia; desde ahí cada potencia de 2 se divide en 128
+ * cubetas, o sea error relativo < 0.8 % hasta ~12 días. Registrar es un incremento atómico,
+ * así lo pueden usar a la vez todos los hilos del cliente HTTP.
+ */
+final class LatencyHistogram {
+
+    private static final int LINEAR = 256;
+    private static final int SUB_BITS = 7;
+    private static final int SUB = 1 << SUB_BITS;
+    private static final int BUCKETS = LINEAR + (63 - 8) * SUB;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long micros) {
+        long v = Math.max(0, micros);
+        counts.incrementAndGet(index(v));
+        total.incrementAndGet();
+        sum.addAndGet(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    long count() {
+        return total.get();
+    }
+
+    double meanMicros() {
+        long n = total.get();
+        return n == 0 ? 0 : (double) sum.get() / n;
+    }
+
+    long maxMicros() {
+        return max.get();
+    }
+
+    // Límite superior de la cubeta que contiene el percentil q (0..1): nunca subestima.
+    long percentileMicros(double q) {
+        long n = total.get();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(q * n));
+        long acc = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            acc += counts.get(i);
+            if (acc >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    static int index(long v) {
+        if (v < LINEAR) {
+            return (int) v;
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(v);
+        int sub = (int) ((v >>> (exp - SUB_BITS)) & (SUB - 1));
+        return LINEAR + (exp - 8) * SUB + sub;
+    }
+
+    static long upperBound(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int exp = (index - LINEAR) / SUB + 8;
+        int sub = (index - LINEAR) % SUB;
+        long base = (1L << exp) | ((long) sub << (exp - SUB_BITS));
+        return base + (1L << (exp - SUB_BITS)) - 1;
+    }
+}
@@ -0,0 +1,218 @@
+package com.grupobb.biblioteca.loadtest;
+
+import com.grupobb.biblioteca.BibliotecaApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Prueba de carga de punta a punta: levanta la app con el perfil {@code render} (H2 en memoria),
+ * la llena con SyntheticDataGenerator, le aplica una mezcla de lecturas, préstamos y devoluciones
+ * con llegadas de modelo abierto (ver OpenLoopDriver) y falla si se incumplen los SLO.
+ *
+ * Uso: {@code ./gradlew loadTest -Pload.rate=500 -Pload.duration=60}. Opciones (--clave=valor):
+ * - rate, duration, warmup (s): llegadas por segundo y duración medida tras el calentamiento.
+ * - mix: pesos por operación, p. ej. books:45,loans:15,checkout:25,return:15.
+ * - books, users, loans, book-skew, seed: tamaño y sesgo de los datos generados y de los préstamos.
+ * - slo.p50-ms, slo.p99-ms, slo.p999-ms, slo.error-rate: límites por operación.
+ * - baseline: resultados de una corrida anterior; falla si un p99 empeora más que {@code tolerance}.
+ * - url: apunta a una app ya levantada en lugar de arrancar una.
+ *
+ * Cada petición lleva X-Client-Id de un usuario al azar, así el límite por cliente de la app
+ * (admission.*) se aplica por usuario y no a todo el generador como una sola IP. Los 429/503
+ * del control de admisión cuentan como errores.
+ *
+ * Los percentiles son de latencia corregida (desde el instante previsto de cada llegada).
+ * Sale con código 1 si algún SLO falla, así la tarea de Gradle falla.
+ */
+public final class LoadTest {
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = parse(args);
+        double rate = Double.parseDouble(opts.getOrDefault("rate", "500"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(opts.getOrDefault("warmup", "15")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(opts.getOrDefault("duration", "60")));
+        int books = Integer.parseInt(opts.getOrDefault("books", "2000"));
+        int users = Integer.parseInt(opts.getOrDefault("users", "1000"));
+        long seed = Long.parseLong(opts.getOrDefault("seed", "42"));
+        Map<Operation, Integer> mix = parseMix(opts.getOrDefault("mix", "books:45,loans:15,checkout:25,return:15"));
+
+        PrintStream out = System.out;
+        ConfigurableApplicationContext context = null;
+        URI base;
+        if (opts.containsKey("url")) {
+            base = URI.create(opts.get("url"));
+        } else {
+            if (Boolean.parseBoolean(opts.getOrDefault("quiet-app", "true"))) {
+                // La app escribe por System.out en cada petición; el informe va por el stream original
+                System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+            }
+            out.println("[LoadTest] Levantando la app (perfil render) con " + books + " libros...");
+            context = SpringApplication.run(BibliotecaApplication.class,
+                    "--spring.profiles.active=render,seed",
+                    "--server.port=0",
+                    "--seed.exit=false",
+                    "--admission.client-header=" + OpenLoopDriver.CLIENT_HEADER,
+                    "--seed.seed=" + seed,
+                    "--seed.books=" + books,
+                    "--seed.authors=" + Math.max(1, books / 10),
+                    "--seed.users=" + users,
+                    "--seed.loans=" + opts.getOrDefault("loans", "5000"));
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            base = URI.create("http://localhost:" + port);
+        }
+
+        out.printf(Locale.ROOT, "[LoadTest] %s: %.0f peticiones/s, %ds de calentamiento + %ds medidos, mezcla %s%n",
+                base, rate, warmup.toSeconds(), duration.toSeconds(), mix);
+        OpenLoopDriver driver = new OpenLoopDriver(base, mix, rate,
+                Integer.parseInt(opts.getOrDefault("max-in-flight", "5000")),
+                books, Double.parseDouble(opts.getOrDefault("book-skew", "1.0")), users, seed,
+                Integer.parseInt(opts.getOrDefault("http-threads", "16")));
+        Map<Operation, OpenLoopDriver.Stats> stats = driver.run(warmup, duration);
+
+        report(out, stats, duration, driver.maxLagMicros());
+        Properties results = toProperties(stats, rate);
+        List<String> fallas = checkSlo(opts, stats, results);
+        Path salida = Path.of(opts.getOrDefault("out", "build/reports/loadtest/results.properties"));
+        Files.createDirectories(salida.toAbsolutePath().getParent());
+        try (Writer w = Files.newBufferedWriter(salida)) {
+            results.store(w, "LoadTest " + rate + " rps");
+        }
+        out.println("[LoadTest] Resultados en " + salida.toAbsolutePath());
+
+        if (context != null) {
+            context.close();
+        }
+        if (fallas.isEmpty()) {
+            out.println("[LoadTest] SLO cumplidos");
+            System.exit(0);
+        }
+        fallas.forEach(f -> out.println("[LoadTest] SLO incumplido: " + f));
+        System.exit(1);
+    }
+
+    private static void report(PrintStream out, Map<Operation, OpenLoopDriver.Stats> stats,
+                               Duration duration, long lagMicros) {
+        out.println();
+        out.printf(Locale.ROOT, "%-28s %8s %7s %7s %7s %8s %8s %8s %8s %8s %11s%n",
+                "operación", "n", "rps", "error%", "rech.", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms",
+                "p99 serv.");
+        stats.forEach((op, s) -> {
+            if (s.attempts() == 0) {
+                return;
+            }
+            out.printf(Locale.ROOT, "%-28s %8d %7.1f %7.2f %7d %8.1f %8.1f %8.1f %8.1f %8.1f %11.1f%n",
+                    op.label, s.attempts(), s.attempts() / (double) duration.toSeconds(), s.errorRate() * 100,
+                    s.rejected.get(), ms(s.latency.percentileMicros(0.50)), ms(s.latency.percentileMicros(0.90)),
+                    ms(s.latency.percentileMicros(0.99)), ms(s.latency.percentileMicros(0.999)),
+                    ms(s.latency.maxMicros()), ms(s.service.percentileMicros(0.99)));
+        });
+        out.printf(Locale.ROOT, "Retraso máximo del generador: %.1f ms%n%n", ms(lagMicros));
+    }
+
+    private static Properties toProperties(Map<Operation, OpenLoopDriver.Stats> stats, double rate) {
+        Properties p = new Properties();
+        p.setProperty("rate", Double.toString(rate));
+        stats.forEach((op, s) -> {
+            String k = op.name().toLowerCase(Locale.ROOT);
+            p.setProperty(k + ".count", Long.toString(s.attempts()));
+            p.setProperty(k + ".error-rate", Double.toString(s.errorRate()));
+            p.setProperty(k + ".p50-ms", Double.toString(ms(s.latency.percentileMicros(0.50))));
+            p.setProperty(k + ".p99-ms", Double.toString(ms(s.latency.percentileMicros(0.99))));
+            p.setProperty(k + ".p999-ms", Double.toString(ms(s.latency.percentileMicros(0.999))));
+        });
+        return p;
+    }
+
+    // Límites absolutos por operación y, si hay línea base, regresión del p99.
+    private static List<String> checkSlo(Map<String, String> opts, Map<Operation, OpenLoopDriver.Stats> stats,
+                                         Properties results) throws IOException {
+        Map<String, Double> limites = new LinkedHashMap<>();
+        limites.put("p50-ms", Double.parseDouble(opts.getOrDefault("slo.p50-ms", "50")));
+        limites.put("p99-ms", Double.parseDouble(opts.getOrDefault("slo.p99-ms", "300")));
+        limites.put("p999-ms", Double.parseDouble(opts.getOrDefault("slo.p999-ms", "1000")));
+        limites.put("error-rate", Double.parseDouble(opts.getOrDefault("slo.error-rate", "0.01")));
+
+        Properties baseline = null;
+        if (opts.containsKey("baseline")) {
+            baseline = new Properties();
+            try (Reader r = Files.newBufferedReader(Path.of(opts.get("baseline")))) {
+                baseline.load(r);
+            }
+        }
+        double tolerance = Double.parseDouble(opts.getOrDefault("tolerance", "0.2"));
+
+        List<String> fallas = new ArrayList<>();
+        for (Map.Entry<Operation, OpenLoopDriver.Stats> e : stats.entrySet()) {
+            if (e.getValue().attempts() == 0) {
+                continue;
+            }
+            String op = e.getKey().name().toLowerCase(Locale.ROOT);
+            limites.forEach((metrica, limite) -> {
+                double valor = Double.parseDouble(results.getProperty(op + "." + metrica));
+                if (valor > limite) {
+                    fallas.add(String.format(Locale.ROOT, "%s %s = %.3f > %.3f", op, metrica, valor, limite));
+                }
+            });
+            if (baseline != null && baseline.containsKey(op + ".p99-ms")) {
+                double antes = Double.parseDouble(baseline.getProperty(op + ".p99-ms"));
+                double ahora = Double.parseDouble(results.getProperty(op + ".p99-ms"));
+                if (ahora > antes * (1 + tolerance)) {
+                    fallas.add(String.format(Locale.ROOT, "%s p99 %.1f ms vs %.1f ms de la línea base (+%.0f%%)",
+                            op, ahora, antes, (ahora / antes - 1) * 100));
+                }
+            }
+        }
+        return fallas;
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> opts = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                int eq = arg.indexOf('=');
+                opts.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+        return opts;
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            int peso = Integer.parseInt(kv[1].trim());
+            if (peso > 0) {
+                weights.put(Operation.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), peso);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("La mezcla no tiene operaciones: " + mix);
+        }
+        return weights;
+    }
+
+    private static double ms(long micros) {
+        return micros / 1000.0;
+    }
+}
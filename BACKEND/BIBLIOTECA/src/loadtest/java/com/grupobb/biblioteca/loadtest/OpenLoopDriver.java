@@ -0,0 +1,216 @@
+package com.grupobb.biblioteca.loadtest;
+
+import com.grupobb.biblioteca.util.ZipfSampler;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generador de carga de modelo abierto: las llegadas siguen un proceso de Poisson de
+ * {@code rate} peticiones/s fijado de antemano y no esperan a que terminen las anteriores,
+ * como los usuarios reales. Si la app se frena, la cola crece en lugar de bajar la carga.
+ *
+ * Corrección de omisión coordinada: la latencia se mide desde el instante en que la petición
+ * debía salir según el calendario, no desde que salió. Si el propio generador se atrasa
+ * (GC, hilos ocupados) esa espera también cuenta. El tiempo de servicio (desde el envío real)
+ * se registra aparte para comparar.
+ *
+ * Peticiones en vuelo acotadas por {@code maxInFlight}: al llegar al tope la petición se
+ * descarta y cuenta como error, no se retrasa.
+ */
+final class OpenLoopDriver {
+
+    static final String CLIENT_HEADER = "X-Client-Id";
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final URI base;
+    private final HttpClient client;
+    private final ExecutorService httpThreads;
+    private final Operation[] mix;
+    private final double rate;
+    private final int maxInFlight;
+    private final ZipfSampler books;
+    private final int users;
+    private final long seed;
+
+    private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+    private final ConcurrentLinkedQueue<Long> activeLoans = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong maxLagMicros = new AtomicLong();
+    private volatile long recordFrom;
+
+    OpenLoopDriver(URI base, Map<Operation, Integer> weights, double rate, int maxInFlight,
+                   int books, double bookSkew, int users, long seed, int httpThreads) {
+        this.base = base;
+        this.rate = rate;
+        this.maxInFlight = maxInFlight;
+        this.books = new ZipfSampler(books, bookSkew);
+        this.users = users;
+        this.seed = seed;
+        this.httpThreads = Executors.newFixedThreadPool(httpThreads);
+        this.client = HttpClient.newBuilder()
+                .executor(this.httpThreads)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        // Tabla de 100 casillas según los pesos: elegir operación es un índice aleatorio
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        this.mix = new Operation[100];
+        int pos = 0;
+        for (Map.Entry<Operation, Integer> e : weights.entrySet()) {
+            int slots = (int) Math.round(100.0 * e.getValue() / totalWeight);
+            for (int i = 0; i < slots && pos < mix.length; i++) {
+                mix[pos++] = e.getKey();
+            }
+        }
+        while (pos < mix.length) {
+            mix[pos] = mix[pos - 1];
+            pos++;
+        }
+        for (Operation op : Operation.values()) {
+            stats.put(op, new Stats());
+        }
+    }
+
+    /**
+     * Corre {@code warmup} + {@code duration}; solo se registran las peticiones cuyo instante
+     * previsto cae después del calentamiento. Espera a que terminen las que quedan en vuelo.
+     */
+    Map<Operation, Stats> run(Duration warmup, Duration duration) throws InterruptedException {
+        SplittableRandom rng = new SplittableRandom(seed);
+        long start = System.nanoTime();
+        recordFrom = start + warmup.toNanos();
+        long end = recordFrom + duration.toNanos();
+        double intended = start;
+        while (true) {
+            // Siguiente llegada de Poisson: separación exponencial de media 1/rate
+            intended += -Math.log(1 - rng.nextDouble()) / rate * 1e9;
+            long at = (long) intended;
+            if (at >= end) {
+                break;
+            }
+            long wait = at - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            } else {
+                maxLagMicros.accumulateAndGet(-wait / 1000, Math::max);
+            }
+            Operation op = mix[rng.nextInt(mix.length)];
+            dispatch(op, at, rng);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        httpThreads.shutdownNow();
+        return stats;
+    }
+
+    // Retraso máximo del propio generador respecto del calendario (si es alto, el cliente es el cuello).
+    long maxLagMicros() {
+        return maxLagMicros.get();
+    }
+
+    private void dispatch(Operation elegida, long intendedNanos, SplittableRandom rng) {
+        // Sin préstamos propios que devolver todavía se presta (la mezcla se recupera sola)
+        Long loanId = elegida == Operation.RETURN ? activeLoans.poll() : null;
+        Operation op = elegida == Operation.RETURN && loanId == null ? Operation.CHECKOUT : elegida;
+        Stats s = stats.get(op);
+        if (inFlight.incrementAndGet() > maxInFlight) {
+            inFlight.decrementAndGet();
+            if (intendedNanos >= recordFrom) {
+                s.dropped.incrementAndGet();
+            }
+            return;
+        }
+        HttpRequest request = request(op, loanId, rng);
+        long sent = System.nanoTime();
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    long done = System.nanoTime();
+                    inFlight.decrementAndGet();
+                    if (intendedNanos >= recordFrom) {
+                        s.latency.record((done - intendedNanos) / 1000);
+                        s.service.record((done - sent) / 1000);
+                        int status = error != null ? 0 : response.statusCode();
+                        if (status == 400 || status == 409) {
+                            // Regla de negocio (sin ejemplares, ya devuelto...): respuesta válida
+                            s.rejected.incrementAndGet();
+                        } else if (status == 0 || status >= 400) {
+                            s.errors.incrementAndGet();
+                        }
+                    }
+                    if (error == null && op == Operation.CHECKOUT && response.statusCode() == 201) {
+                        Matcher m = ID.matcher(response.body());
+                        if (m.find()) {
+                            activeLoans.add(Long.parseLong(m.group(1)));
+                        }
+                    }
+                });
+    }
+
+    // Cada petición va a nombre de un usuario al azar (X-Client-Id), como clientes distintos
+    // frente al límite por cliente de la app
+    private HttpRequest request(Operation op, Long loanId, SplittableRandom rng) {
+        long usuario = 1 + rng.nextInt(users);
+        switch (op) {
+            case BOOKS:
+                return get("/api/books", usuario);
+            case LOANS:
+                return get("/api/loans", usuario);
+            case RETURN:
+                return post("/api/loans/" + loanId + "/return", "", usuario);
+            default:
+                return post("/api/loans", "{\"usuario_id\":" + usuario + ",\"libro_id\":" + books.sample(rng) + "}",
+                        usuario);
+        }
+    }
+
+    private HttpRequest get(String path, long usuario) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header(CLIENT_HEADER, "usuario-" + usuario)
+                .GET()
+                .build();
+    }
+
+    private HttpRequest post(String path, String json, long usuario) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(Duration.ofSeconds(30))
+                .header(CLIENT_HEADER, "usuario-" + usuario)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    static final class Stats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LatencyHistogram service = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong dropped = new AtomicLong();
+
+        long attempts() {
+            return latency.count() + dropped.get();
+        }
+
+        double errorRate() {
+            long n = attempts();
+            return n == 0 ? 0 : (double) (errors.get() + dropped.get()) / n;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.grupobb.biblioteca.loadtest;
+
+/**
+ * Operaciones de la mezcla de carga. El nombre en minúsculas es el que se usa en --mix.
+ */
+enum Operation {
+    BOOKS("GET /api/books"),
+    LOANS("GET /api/loans"),
+    CHECKOUT("POST /api/loans"),
+    RETURN("POST /api/loans/{id}/return");
+
+    final String label;
+
+    Operation(String label) {
+        this.label = label;
+    }
+}
@@ -20,7 +20,8 @@ public class AppConfig {
                             "https://proyecto-avanzada-p1.onrender.com"
                         )
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
-                        .allowedHeaders("*");
+                        .allowedHeaders("*")
+                        .exposedHeaders("Location", "Idempotency-Replayed", "X-Primary-Until", "X-Stale", "Age");
             }
         };
     }
@@ -0,0 +1,35 @@
+package com.grupobb.biblioteca.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Formatos binarios para los mismos DTO, elegidos con la cabecera Accept:
+ * - application/cbor
+ * - application/x-jackson-smile
+ * JSON sigue siendo el formato por defecto (sin Accept o con comodines), porque su conversor va
+ * antes en la lista.
+ *
+ * Spring agrega estos conversores por su cuenta al ver las librerías, pero con un ObjectMapper
+ * sin la configuración de spring.jackson. Estos beans los reemplazan con el builder de Spring
+ * Boot, así los binarios usan los mismos nombres SNAKE_CASE, non_null y fechas ISO que el JSON.
+ * También aceptan cuerpos de petición en esos formatos.
+ */
+@Configuration
+public class BinaryFormatsConfig {
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
@@ -0,0 +1,60 @@
+package com.grupobb.biblioteca.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuración de sedes ({@code branches.*} en application.yml).
+ *
+ * Con {@code enabled: false} hay una sola sede lógica ({@code home}) que usa el DataSource normal;
+ * así el código que recorre sedes (BranchFanOut, jobs) funciona igual en ambos modos.
+ */
+@Component
+@ConfigurationProperties(prefix = "branches")
+public class BranchProperties {
+
+    private boolean enabled = false;
+    private String home = "principal";
+    private int poolSize = 5;
+    private int fanOutThreads = 4;
+    private long fanOutTimeoutMs = 3000;
+    private boolean schemaUpdate = true;
+    private Map<String, Database> databases = new LinkedHashMap<>();
+
+    // Sedes en el orden configurado; solo la principal si el modo multisede está apagado.
+    public List<String> ids() {
+        return enabled ? List.copyOf(databases.keySet()) : List.of(home);
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public String getHome() { return home; }
+    public void setHome(String home) { this.home = home; }
+    public int getPoolSize() { return poolSize; }
+    public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+    public int getFanOutThreads() { return fanOutThreads; }
+    public void setFanOutThreads(int fanOutThreads) { this.fanOutThreads = fanOutThreads; }
+    public long getFanOutTimeoutMs() { return fanOutTimeoutMs; }
+    public void setFanOutTimeoutMs(long fanOutTimeoutMs) { this.fanOutTimeoutMs = fanOutTimeoutMs; }
+    public boolean isSchemaUpdate() { return schemaUpdate; }
+    public void setSchemaUpdate(boolean schemaUpdate) { this.schemaUpdate = schemaUpdate; }
+    public Map<String, Database> getDatabases() { return databases; }
+    public void setDatabases(Map<String, Database> databases) { this.databases = databases; }
+
+    public static class Database {
+        private String url;
+        private String username;
+        private String password;
+
+        public String getUrl() { return url; }
+        public void setUrl(String url) { this.url = url; }
+        public String getUsername() { return username; }
+        public void setUsername(String username) { this.username = username; }
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+    }
+}
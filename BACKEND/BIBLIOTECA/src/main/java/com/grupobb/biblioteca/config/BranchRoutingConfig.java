@@ -0,0 +1,97 @@
+package com.grupobb.biblioteca.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupobb.biblioteca.datasource.BranchRoutingDataSource;
+import com.grupobb.biblioteca.datasource.BranchSchemaUpdater;
+import com.grupobb.biblioteca.web.routing.BranchFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Despliegue multisede: una base de datos (o esquema) por sede, elegida por petición.
+ * Se activa con {@code branches.enabled=true} y reemplaza al DataSource único de Spring Boot;
+ * no se combina con {@code replica.enabled} (DataSourceRoutingConfig).
+ *
+ * - Cada sede de {@code branches.databases} tiene su propio pool Hikari de {@code pool-size}.
+ * - BranchFilter resuelve la sede de la petición (cabecera X-Sede o parámetro sede).
+ * - Al arrancar se aplica el esquema a las sedes distintas de la principal (BranchSchemaUpdater).
+ *
+ * Los índices en memoria (búsqueda, disponibilidad, recomendaciones, estadísticas, colas de
+ * reserva, log de eventos) son solo de la sede principal: se cargan desde ella y solo sus
+ * escrituras los actualizan ({@link com.grupobb.biblioteca.datasource.BranchContext#isHome()}),
+ * porque el mismo id en otra sede es otro libro. En las demás sedes la búsqueda, la
+ * disponibilidad, las posiciones en cola y los contadores se leen de su BD; el ranking, los
+ * prestatarios distintos y las recomendaciones responden 400. Para buscar en todas las sedes
+ * está /api/books/catalog.
+ */
+@Configuration
+@ConditionalOnProperty(name = "branches.enabled", havingValue = "true")
+public class BranchRoutingConfig {
+
+    @Bean
+    @Primary
+    public DataSource dataSource(BranchProperties branches) {
+        if (!branches.getDatabases().containsKey(branches.getHome())) {
+            throw new IllegalStateException("branches.home '" + branches.getHome()
+                    + "' no está en branches.databases");
+        }
+        Map<String, DataSource> porSede = new LinkedHashMap<>();
+        branches.getDatabases().forEach((sede, db) -> {
+            HikariDataSource ds = new HikariDataSource();
+            ds.setPoolName("sede-" + sede);
+            ds.setJdbcUrl(db.getUrl());
+            ds.setUsername(db.getUsername());
+            ds.setPassword(db.getPassword());
+            ds.setMaximumPoolSize(branches.getPoolSize());
+            porSede.put(sede, ds);
+        });
+        BranchRoutingDataSource routing = new BranchRoutingDataSource(porSede, branches.getHome());
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    @Bean
+    public BranchSchemaUpdater branchSchemaUpdater() {
+        return new BranchSchemaUpdater();
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer branchSchemaIntegrator(BranchSchemaUpdater updater) {
+        return properties -> properties.put("hibernate.integrator_provider",
+                (IntegratorProvider) () -> List.of(updater));
+    }
+
+    // Corre cuando ya existen todos los singletons (Hibernate arrancado) y antes de los
+    // ApplicationRunner / ApplicationReadyEvent que leen las tablas.
+    @Bean
+    public SmartInitializingSingleton branchSchemas(BranchProperties branches, BranchSchemaUpdater updater) {
+        return () -> {
+            if (branches.isSchemaUpdate()) {
+                updater.update(branches.ids().stream().filter(s -> !s.equals(branches.getHome())).toList());
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<BranchFilter> branchFilter(BranchProperties branches, ObjectMapper objectMapper) {
+        FilterRegistrationBean<BranchFilter> registration =
+                new FilterRegistrationBean<>(new BranchFilter(branches.ids(), objectMapper));
+        registration.addUrlPatterns("/api/*");
+        // Antes que los filtros que dependen de la sede (IdempotencyFilter, con el orden por defecto)
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 10);
+        return registration;
+    }
+}
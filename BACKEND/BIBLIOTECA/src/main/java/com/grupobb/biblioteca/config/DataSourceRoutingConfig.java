@@ -0,0 +1,85 @@
+package com.grupobb.biblioteca.config;
+
+import com.grupobb.biblioteca.datasource.ReplicaLagMonitor;
+import com.grupobb.biblioteca.datasource.ReplicaRoutingDataSource;
+import com.grupobb.biblioteca.web.routing.ReadYourWritesFilter;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Pool de escritura (primario) + pool de lectura (réplica) con enrutamiento por transacción.
+ * Solo se activa con {@code replica.enabled=true}; sin eso queda el DataSource único de Spring Boot.
+ *
+ * - El primario usa spring.datasource.* y spring.datasource.hikari.* como siempre.
+ * - La réplica usa replica.url / username / password (por defecto las del primario) y su propio
+ *   tamaño de pool, así los listados no compiten con los préstamos por las mismas conexiones.
+ * - El DataSource que ven JPA y JdbcTemplate es el enrutador envuelto en LazyConnectionDataSourceProxy.
+ */
+@Configuration
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primario");
+        return ds;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${replica.url}") String url,
+                                              @Value("${replica.username:}") String username,
+                                              @Value("${replica.password:}") String password,
+                                              @Value("${replica.pool-size:10}") int poolSize) {
+        HikariDataSource ds = new HikariDataSource();
+        ds.setPoolName("replica");
+        ds.setJdbcUrl(url);
+        ds.setDriverClassName(properties.determineDriverClassName());
+        ds.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+        ds.setPassword(username.isEmpty() ? properties.determinePassword() : password);
+        ds.setMaximumPoolSize(poolSize);
+        return ds;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("primaryDataSource") DataSource primary,
+                                               @Qualifier("replicaDataSource") DataSource replica,
+                                               @Value("${replica.max-lag-ms:1000}") long maxLagMs,
+                                               @Value("${replica.heartbeat-ms:1000}") long heartbeatMs) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(primary, replica, maxLagMs, heartbeatMs);
+        monitor.beat();
+        return monitor;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaLagMonitor lagMonitor) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, lagMonitor);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${replica.sticky-ms:5000}") long stickyMs) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(stickyMs));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
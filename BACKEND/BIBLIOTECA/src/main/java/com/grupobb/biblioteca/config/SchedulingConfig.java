@@ -0,0 +1,12 @@
+package com.grupobb.biblioteca.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita las tareas @Scheduled (persistencia periódica de sketches, jobs batch, etc.).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,50 @@
+package com.grupobb.biblioteca.config;
+
+import com.grupobb.biblioteca.datasource.telemetry.SqlTelemetry;
+import com.grupobb.biblioteca.datasource.telemetry.TelemetryDataSource;
+import com.grupobb.biblioteca.web.telemetry.SqlStatementsFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Telemetría de SQL (ver SqlTelemetry): envuelve el DataSource que usan JPA y JdbcTemplate
+ * (el de Spring Boot, el enrutador de réplica o el de sedes) y cuenta sentencias por petición.
+ * Activa por defecto; {@code sql.telemetry.enabled=false} la quita por completo.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.telemetry.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlTelemetryConfig {
+
+    // Estático para no adelantar la creación de esta configuración; SqlTelemetry se resuelve al envolver.
+    @Bean
+    public static BeanPostProcessor telemetryDataSourcePostProcessor(ObjectProvider<SqlTelemetry> telemetry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource ds
+                        && !(bean instanceof TelemetryDataSource)) {
+                    return new TelemetryDataSource(ds, telemetry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementsFilter> sqlStatementsFilter(
+            MeterRegistry registry,
+            @Value("${sql.telemetry.request-warn:20}") int requestWarn) {
+        FilterRegistrationBean<SqlStatementsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementsFilter(registry, requestWarn));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -1,7 +1,14 @@
 package com.grupobb.biblioteca.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.grupobb.biblioteca.interceptor.RequestLoggingInterceptor;
+import com.grupobb.biblioteca.web.admission.AdmissionInterceptor;
+import com.grupobb.biblioteca.web.idempotency.IdempotencyFilter;
+import com.grupobb.biblioteca.web.idempotency.IdempotencyStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -9,10 +16,27 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    @Autowired
+    private AdmissionInterceptor admissionInterceptor;
+
     @Autowired
     private RequestLoggingInterceptor loggingInterceptor;
 
     public void addInterceptors(InterceptorRegistry registry) {
+        // Primero la admisión: lo rechazado sale con 429/503 antes de cualquier otro trabajo
+        registry.addInterceptor(admissionInterceptor).addPathPatterns("/api/**");
         registry.addInterceptor(loggingInterceptor).addPathPatterns("/api/**");
     }
+
+    // Idempotency-Key en las escrituras de /api (ver IdempotencyFilter)
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store,
+                                                                       ObjectMapper objectMapper,
+                                                                       @Value("${idempotency.wait-ms:10000}") long waitMs,
+                                                                       @Value("${admission.client-header:}") String clientHeader) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(store, objectMapper, waitMs, clientHeader));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
 }
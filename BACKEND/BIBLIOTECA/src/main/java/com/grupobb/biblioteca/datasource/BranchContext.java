@@ -0,0 +1,67 @@
+package com.grupobb.biblioteca.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Sede (sucursal) del hilo actual: decide a qué base de datos va cada conexión en
+ * {@link BranchRoutingDataSource}. La fija BranchFilter por petición; las tareas que recorren
+ * varias sedes (jobs, búsquedas en todo el catálogo) la fijan con {@link #call}.
+ * Sin sede explícita se usa la sede principal ({@link #defaultBranch()}).
+ */
+public final class BranchContext {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+    private static volatile String defaultBranch;
+
+    private BranchContext() {
+    }
+
+    public static String current() {
+        String sede = CURRENT.get();
+        return sede != null ? sede : defaultBranch;
+    }
+
+    public static void set(String sede) {
+        CURRENT.set(sede);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // Ejecuta la acción con la sede indicada y restaura la anterior al terminar.
+    public static <T> T call(String sede, Supplier<T> action) {
+        String previa = CURRENT.get();
+        CURRENT.set(sede);
+        try {
+            return action.get();
+        } finally {
+            if (previa == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previa);
+            }
+        }
+    }
+
+    public static void run(String sede, Runnable action) {
+        call(sede, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public static String defaultBranch() {
+        return defaultBranch;
+    }
+
+    // true en la sede principal o sin multisede: la única que reflejan los índices en memoria
+    public static boolean isHome() {
+        return defaultBranch == null || defaultBranch.equals(current());
+    }
+
+    // Lo fija BranchRoutingConfig al arrancar; null cuando hay una sola sede.
+    static void setDefaultBranch(String sede) {
+        defaultBranch = sede;
+    }
+}
@@ -0,0 +1,27 @@
+package com.grupobb.biblioteca.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Un pool por sede; cada conexión se pide al pool de {@link BranchContext#current()}.
+ * Una sede desconocida es un error (sin fallback a la principal) para no escribir nunca
+ * datos de una sede en la base de otra.
+ */
+public class BranchRoutingDataSource extends AbstractRoutingDataSource {
+
+    public BranchRoutingDataSource(Map<String, DataSource> porSede, String principal) {
+        setTargetDataSources(new HashMap<>(porSede));
+        setDefaultTargetDataSource(porSede.get(principal));
+        setLenientFallback(false);
+        BranchContext.setDefaultBranch(principal);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return BranchContext.current();
+    }
+}
@@ -0,0 +1,80 @@
+package com.grupobb.biblioteca.datasource;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.hibernate.tool.schema.TargetType;
+import org.hibernate.tool.schema.internal.ExceptionHandlerHaltImpl;
+import org.hibernate.tool.schema.spi.ContributableMatcher;
+import org.hibernate.tool.schema.spi.ExecutionOptions;
+import org.hibernate.tool.schema.spi.SchemaManagementTool;
+import org.hibernate.tool.schema.spi.SchemaManagementToolCoordinator;
+import org.hibernate.tool.schema.spi.ScriptTargetOutput;
+import org.hibernate.tool.schema.spi.TargetDescriptor;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aplica el esquema de las entidades a todas las sedes.
+ *
+ * {@code ddl-auto} de Hibernate solo actúa sobre la conexión que obtiene al arrancar (la sede
+ * principal). Este Integrator guarda el modelo ya construido y luego ejecuta el SchemaMigrator
+ * de Hibernate (lo mismo que {@code ddl-auto: update}) por cada otra sede con {@link BranchContext} apuntando a ella, de modo que el proveedor de
+ * conexiones de Hibernate (el DataSource enrutado) habla con esa base.
+ * Todas las sedes deben usar el mismo motor que la principal (mismo dialecto).
+ */
+public class BranchSchemaUpdater implements Integrator {
+
+    // Cambios directos sobre la base, sin script
+    private static final TargetDescriptor SOLO_BD = new TargetDescriptor() {
+        @Override
+        public EnumSet<TargetType> getTargetTypes() {
+            return EnumSet.of(TargetType.DATABASE);
+        }
+
+        @Override
+        public ScriptTargetOutput getScriptTargetOutput() {
+            return null;
+        }
+    };
+
+    private volatile Metadata metadata;
+    private volatile SessionFactoryImplementor sessionFactory;
+
+    @Override
+    public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                          SessionFactoryImplementor sessionFactory) {
+        this.metadata = metadata;
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Override
+    public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+        this.metadata = null;
+        this.sessionFactory = null;
+    }
+
+    public void update(List<String> sedes) {
+        if (metadata == null) {
+            throw new IllegalStateException("Hibernate todavía no terminó de arrancar");
+        }
+        ServiceRegistry registry = sessionFactory.getServiceRegistry();
+        Map<String, Object> settings = registry.getService(ConfigurationService.class).getSettings();
+        SchemaManagementTool tool = registry.getService(SchemaManagementTool.class);
+        ExecutionOptions options = SchemaManagementToolCoordinator.buildExecutionOptions(
+                settings, ExceptionHandlerHaltImpl.INSTANCE);
+        for (String sede : sedes) {
+            long t0 = System.currentTimeMillis();
+            BranchContext.run(sede, () -> tool.getSchemaMigrator(settings)
+                    .doMigration(metadata, options, ContributableMatcher.ALL, SOLO_BD));
+            System.out.println("[Sedes] Esquema actualizado en '" + sede + "' en "
+                    + (System.currentTimeMillis() - t0) + "ms");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.grupobb.biblioteca.datasource;
+
+import com.grupobb.biblioteca.domain.BranchScoped;
+import jakarta.persistence.PrePersist;
+
+// Completa la sede de autores, libros, usuarios y préstamos nuevos con la sede del hilo actual.
+public class BranchStampListener {
+
+    @PrePersist
+    public void stamp(Object entity) {
+        if (entity instanceof BranchScoped scoped && scoped.getSede() == null) {
+            scoped.setSede(BranchContext.current());
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.grupobb.biblioteca.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tiempo que cada transacción retiene su conexión, por método de servicio.
+ *
+ * Se mide desde que el gestor de transacciones abre la transacción (ya con conexión) hasta
+ * que termina el commit o rollback, callbacks de {@code AfterCommit} incluidos: lo que pasa
+ * justo después es devolver la conexión al pool. Spring Boot registra este listener en el
+ * gestor de transacciones por ser un bean {@link TransactionExecutionListener}.
+ *
+ * Métrica: db.connection.hold{method="LoanServiceImpl.createLoan", outcome="commit|rollback"}.
+ * Las transacciones de TransactionTemplate (jobs, relay) no tienen nombre: method="programatica".
+ */
+@Component
+public class ConnectionHoldMetrics implements TransactionExecutionListener {
+
+    private final MeterRegistry registry;
+    private final Map<TransactionExecution, Long> inicio = new ConcurrentHashMap<>();
+
+    public ConnectionHoldMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure == null) {
+            inicio.put(transaction, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        record(transaction, commitFailure == null ? "commit" : "error");
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        record(transaction, "rollback");
+    }
+
+    private void record(TransactionExecution transaction, String outcome) {
+        Long t0 = inicio.remove(transaction);
+        if (t0 == null) {
+            return;
+        }
+        Timer.builder("db.connection.hold")
+                .description("Tiempo con la conexión retenida por transacción")
+                .tag("method", method(transaction.getTransactionName()))
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .register(registry)
+                .record(System.nanoTime() - t0, TimeUnit.NANOSECONDS);
+    }
+
+    // "com.x.service.impl.LoanServiceImpl.createLoan" -> "LoanServiceImpl.createLoan"
+    static String method(String transactionName) {
+        if (transactionName == null || transactionName.isEmpty()) {
+            return "programatica";
+        }
+        int metodo = transactionName.lastIndexOf('.');
+        int clase = metodo > 0 ? transactionName.lastIndexOf('.', metodo - 1) : -1;
+        return transactionName.substring(clase + 1);
+    }
+}
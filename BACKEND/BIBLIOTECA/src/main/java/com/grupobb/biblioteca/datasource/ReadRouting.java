@@ -0,0 +1,51 @@
+package com.grupobb.biblioteca.datasource;
+
+/**
+ * Contexto de enrutamiento de lecturas del hilo actual (una petición HTTP).
+ *
+ * Solo las lecturas hechas dentro de una petición registrada con {@link #begin} pueden ir a la
+ * réplica; cargadores de índices, jobs programados y demás tareas internas leen siempre del
+ * primario para no reconstruir estado en memoria a partir de datos atrasados.
+ * La primera escritura de la petición desactiva la réplica para el resto de la petición
+ * (read-your-writes) y avisa al filtro para que el cliente quede "pegado" al primario un rato.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Context> CURRENT = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static void begin(boolean replicaAllowed, Runnable onFirstWrite) {
+        CURRENT.set(new Context(replicaAllowed, onFirstWrite));
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    static boolean replicaAllowed() {
+        Context c = CURRENT.get();
+        return c != null && c.replicaAllowed;
+    }
+
+    static void writeStarted() {
+        Context c = CURRENT.get();
+        if (c != null && !c.wrote) {
+            c.wrote = true;
+            c.replicaAllowed = false;
+            c.onFirstWrite.run();
+        }
+    }
+
+    private static final class Context {
+        boolean replicaAllowed;
+        boolean wrote;
+        final Runnable onFirstWrite;
+
+        Context(boolean replicaAllowed, Runnable onFirstWrite) {
+            this.replicaAllowed = replicaAllowed;
+            this.onFirstWrite = onFirstWrite;
+        }
+    }
+}
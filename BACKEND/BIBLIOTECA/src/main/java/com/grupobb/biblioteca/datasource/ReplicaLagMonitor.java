@@ -0,0 +1,83 @@
+package com.grupobb.biblioteca.datasource;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Mide el retraso de la réplica con un latido: cada {@code replica.heartbeat-ms} se escribe la hora
+ * actual en la tabla {@code latidos_replica} del primario y se lee la que ya llegó a la réplica.
+ * Si supera {@code replica.max-lag-ms}, o la réplica no responde, todas las lecturas vuelven al
+ * primario hasta la siguiente medición buena.
+ *
+ * La réplica se lee antes de escribir el latido nuevo: al día, tiene el anterior, que se escribió
+ * hace un intervalo. Por eso el retraso es {@code ahora - marca - heartbeat-ms}: lo que falta más
+ * allá del último latido. Sin descontarlo, el retraso medido nunca bajaría de heartbeat-ms y con
+ * max-lag-ms igual al intervalo la réplica no se usaría nunca.
+ *
+ * No depende de comandos propios de MySQL (SHOW REPLICA STATUS), así que funciona con cualquier
+ * motor replicado. Hasta la primera medición la réplica se considera no usable.
+ */
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final long maxLagMs;
+    private final long heartbeatMs;
+    private volatile long lagMs = Long.MAX_VALUE;
+    private volatile boolean usable;
+    private boolean tableReady;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, long maxLagMs, long heartbeatMs) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMs = maxLagMs;
+        this.heartbeatMs = heartbeatMs;
+    }
+
+    @Scheduled(fixedDelayString = "${replica.heartbeat-ms:1000}")
+    public synchronized void beat() {
+        long ahora = System.currentTimeMillis();
+        long lag;
+        try {
+            Long marca = replica.queryForObject("select marca from latidos_replica where id = 1", Long.class);
+            lag = marca == null ? Long.MAX_VALUE : Math.max(0, ahora - marca - heartbeatMs);
+        } catch (DataAccessException ex) {
+            lag = Long.MAX_VALUE;
+        }
+
+        try {
+            if (!tableReady) {
+                primary.execute("create table if not exists latidos_replica (id int primary key, marca bigint not null)");
+                tableReady = true;
+            }
+            if (primary.update("update latidos_replica set marca = ? where id = 1", ahora) == 0) {
+                primary.update("insert into latidos_replica (id, marca) values (1, ?)", ahora);
+            }
+        } catch (DataAccessException ex) {
+            System.out.println("[Replica] No se pudo escribir el latido en el primario: " + ex.getMessage());
+        }
+
+        lagMs = lag;
+
+        boolean ok = lag <= maxLagMs;
+        if (ok != usable) {
+            System.out.println(ok
+                    ? "[Replica] Réplica al día (" + lag + "ms); lecturas de solo lectura a la réplica"
+                    : "[Replica] Retraso de la réplica " + (lag == Long.MAX_VALUE ? "desconocido" : lag + "ms")
+                      + " > " + maxLagMs + "ms; lecturas al primario");
+        }
+        usable = ok;
+    }
+
+    public boolean isReplicaUsable() {
+        return usable;
+    }
+
+    // Último retraso medido en ms (Long.MAX_VALUE si la réplica no respondió).
+    public long lagMs() {
+        return lagMs;
+    }
+}
@@ -0,0 +1,61 @@
+package com.grupobb.biblioteca.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envía las transacciones {@code @Transactional(readOnly = true)} de las peticiones HTTP al pool
+ * de la réplica y todo lo demás al primario.
+ *
+ * La réplica se usa solo si además:
+ * - la petición no escribió antes ni viene "pegada" al primario (ver {@link ReadRouting});
+ * - el retraso medido por {@link ReplicaLagMonitor} está dentro de la tolerancia.
+ *
+ * Debe envolverse en un LazyConnectionDataSourceProxy: el marcador readOnly de la transacción se
+ * fija después de que el gestor de transacciones pide la conexión, así que la conexión física
+ * (y por tanto la decisión de ruta) tiene que esperar a la primera sentencia.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final AtomicLong primaryReads = new AtomicLong();
+    private final AtomicLong replicaReads = new AtomicLong();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor lagMonitor) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean inTx = TransactionSynchronizationManager.isActualTransactionActive();
+        if (!inTx || !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (inTx) {
+                ReadRouting.writeStarted();
+            }
+            return Route.PRIMARY;
+        }
+        if (ReadRouting.replicaAllowed() && lagMonitor.isReplicaUsable()) {
+            replicaReads.incrementAndGet();
+            return Route.REPLICA;
+        }
+        primaryReads.incrementAndGet();
+        return Route.PRIMARY;
+    }
+
+    // Lecturas de solo lectura servidas por cada pool desde el arranque (para métricas/logs).
+    public long replicaReads() {
+        return replicaReads.get();
+    }
+
+    public long primaryReads() {
+        return primaryReads.get();
+    }
+}
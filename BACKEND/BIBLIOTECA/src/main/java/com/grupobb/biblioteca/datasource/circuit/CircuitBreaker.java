@@ -0,0 +1,150 @@
+package com.grupobb.biblioteca.datasource.circuit;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Máquina de estados de un circuito: CLOSED, OPEN y HALF_OPEN.
+ *
+ * - CLOSED: todo pasa; se guardan los resultados de las últimas {@code window} llamadas y, con
+ *   al menos {@code minCalls}, si la proporción de fallos llega a {@code failureRate} se abre.
+ * - OPEN: nada pasa durante {@code openNanos}; después pasa a HALF_OPEN.
+ * - HALF_OPEN: solo {@code probes} lecturas de prueba a la vez. Si {@code probes} seguidas
+ *   salen bien se cierra con la ventana vacía; un fallo vuelve a abrir (y reinicia la espera).
+ *
+ * Cada llamada recibe un {@link Permit} y debe informar su resultado con el mismo permiso: una
+ * llamada admitida con el circuito cerrado que termina ya en HALF_OPEN no cuenta como prueba.
+ * Las secciones críticas son de unas pocas asignaciones, así que basta con synchronized.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    public enum Permit { REJECTED, CALL, PROBE }
+
+    public interface Listener {
+        void onTransition(State from, State to);
+    }
+
+    private final int minCalls;
+    private final double failureRate;
+    private final long openNanos;
+    private final int probes;
+    private final LongSupplier clock;
+    private final Listener listener;
+
+    private final boolean[] outcomes;
+    private int size;
+    private int pos;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int probesInFlight;
+    private int probeSuccesses;
+
+    public CircuitBreaker(int window, int minCalls, double failureRate, long openNanos, int probes,
+                          LongSupplier clock, Listener listener) {
+        if (window < 1 || minCalls < 1 || minCalls > window || probes < 1) {
+            throw new IllegalArgumentException("Configuración de circuito inválida: window=" + window
+                    + " minCalls=" + minCalls + " probes=" + probes);
+        }
+        this.outcomes = new boolean[window];
+        this.minCalls = minCalls;
+        this.failureRate = failureRate;
+        this.openNanos = openNanos;
+        this.probes = probes;
+        this.clock = clock;
+        this.listener = listener;
+    }
+
+    // Permiso para una lectura: pasa cerrado, como prueba en HALF_OPEN, o se rechaza.
+    public synchronized Permit tryRead() {
+        expireOpen();
+        switch (state) {
+            case CLOSED:
+                return Permit.CALL;
+            case HALF_OPEN:
+                if (probesInFlight < probes) {
+                    probesInFlight++;
+                    return Permit.PROBE;
+                }
+                return Permit.REJECTED;
+            default:
+                return Permit.REJECTED;
+        }
+    }
+
+    // Las escrituras no sirven de prueba: solo pasan con el circuito cerrado.
+    public synchronized Permit tryWrite() {
+        expireOpen();
+        return state == State.CLOSED ? Permit.CALL : Permit.REJECTED;
+    }
+
+    public synchronized void onResult(Permit permit, boolean success) {
+        if (permit == Permit.PROBE) {
+            if (state != State.HALF_OPEN) {
+                return;
+            }
+            probesInFlight--;
+            if (!success) {
+                open();
+            } else if (++probeSuccesses >= probes) {
+                transition(State.CLOSED);
+            }
+        } else if (permit == Permit.CALL && state == State.CLOSED) {
+            record(success);
+            if (size >= minCalls && failures >= failureRate * size) {
+                open();
+            }
+        }
+    }
+
+    public synchronized State state() {
+        expireOpen();
+        return state;
+    }
+
+    // Nanosegundos hasta la próxima prueba (0 si no está abierto).
+    public synchronized long remainingOpenNanos() {
+        return state == State.OPEN ? Math.max(0, openedAt + openNanos - clock.getAsLong()) : 0;
+    }
+
+    private void record(boolean success) {
+        if (size == outcomes.length) {
+            if (!outcomes[pos]) {
+                failures--;
+            }
+        } else {
+            size++;
+        }
+        outcomes[pos] = success;
+        if (!success) {
+            failures++;
+        }
+        pos = (pos + 1) % outcomes.length;
+    }
+
+    private void expireOpen() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openNanos) {
+            transition(State.HALF_OPEN);
+        }
+    }
+
+    private void open() {
+        openedAt = clock.getAsLong();
+        transition(State.OPEN);
+    }
+
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        size = 0;
+        pos = 0;
+        failures = 0;
+        probesInFlight = 0;
+        probeSuccesses = 0;
+        if (from != to) {
+            listener.onTransition(from, to);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.grupobb.biblioteca.datasource.circuit;
+
+import com.grupobb.biblioteca.datasource.BranchContext;
+import com.grupobb.biblioteca.web.advice.ServiceUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTimeoutException;
+import java.sql.SQLTransientConnectionException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Circuito delante de la base de datos para los controladores de libros y autores.
+ *
+ * Si MySQL se cuelga, cada petición retiene un hilo de Tomcat hasta agotar el connection-timeout
+ * de Hikari. Con el circuito abierto (ver {@link CircuitBreaker}) no se intenta:
+ * - Lecturas de colecciones: se sirve la última copia buena de esa colección en la sede actual,
+ *   marcada como obsoleta. También se sirve si la lectura falla con el circuito cerrado.
+ * - Lecturas por id: se buscan en la copia de su colección.
+ * - Escrituras y lecturas sin copia: 503 inmediato con Retry-After.
+ * En HALF_OPEN unas pocas lecturas reales hacen de prueba; si salen bien, las copias se renuevan.
+ *
+ * Solo cuentan como fallo los errores de conexión o de tiempo agotado y las llamadas más lentas
+ * que {@code circuit-breaker.slow-call-ms}; un 404 o una violación de integridad son respuestas
+ * normales de una BD sana.
+ *
+ * Métricas: db.circuit.state (0 cerrado, 1 abierto, 2 medio abierto),
+ * db.circuit.transitions{from,to}, db.circuit.stale{collection} y db.circuit.rejected{kind}.
+ */
+@Component
+public class DatabaseCircuitBreaker {
+
+    private final boolean enabled;
+    private final long slowCallNanos;
+    private final CircuitBreaker breaker;
+    private final MeterRegistry registry;
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Counter rejectedReads;
+    private final Counter rejectedWrites;
+
+    public DatabaseCircuitBreaker(@Value("${circuit-breaker.enabled:true}") boolean enabled,
+                                  @Value("${circuit-breaker.window:20}") int window,
+                                  @Value("${circuit-breaker.min-calls:10}") int minCalls,
+                                  @Value("${circuit-breaker.failure-rate:0.5}") double failureRate,
+                                  @Value("${circuit-breaker.slow-call-ms:2000}") long slowCallMs,
+                                  @Value("${circuit-breaker.open-ms:10000}") long openMs,
+                                  @Value("${circuit-breaker.half-open-probes:3}") int probes,
+                                  MeterRegistry registry) {
+        this.enabled = enabled;
+        this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+        this.registry = registry;
+        this.breaker = new CircuitBreaker(window, minCalls, failureRate, TimeUnit.MILLISECONDS.toNanos(openMs),
+                probes, System::nanoTime, this::onTransition);
+        this.rejectedReads = Counter.builder("db.circuit.rejected").tag("kind", "read")
+                .description("Lecturas no intentadas con el circuito abierto").register(registry);
+        this.rejectedWrites = Counter.builder("db.circuit.rejected").tag("kind", "write")
+                .description("Escrituras rechazadas con 503 con el circuito abierto").register(registry);
+        Gauge.builder("db.circuit.state", breaker, b -> b.state().ordinal())
+                .description("0 cerrado, 1 abierto, 2 medio abierto").register(registry);
+    }
+
+    // Lectura de una colección completa; guarda la copia si sale bien.
+    public <T> ReadResult<T> read(String collection, Supplier<T> query) {
+        String key = collection + "@" + BranchContext.current();
+        if (!enabled) {
+            return new ReadResult<>(query.get(), false, 0);
+        }
+        CircuitBreaker.Permit permit = breaker.tryRead();
+        if (permit == CircuitBreaker.Permit.REJECTED) {
+            rejectedReads.increment();
+            return stale(collection, key, null);
+        }
+        T value;
+        try {
+            value = call(permit, query);
+        } catch (RuntimeException ex) {
+            if (isDatabaseFailure(ex)) {
+                return stale(collection, key, ex);
+            }
+            throw ex;
+        }
+        snapshots.put(key, new Snapshot(value, System.currentTimeMillis()));
+        return new ReadResult<>(value, false, 0);
+    }
+
+    // Lectura de un elemento; sin BD se busca con {@code match} en la copia de su colección.
+    @SuppressWarnings("unchecked")
+    public <E> ReadResult<E> readItem(String collection, Supplier<E> query, Predicate<E> match) {
+        if (!enabled) {
+            return new ReadResult<>(query.get(), false, 0);
+        }
+        CircuitBreaker.Permit permit = breaker.tryRead();
+        RuntimeException failure = null;
+        if (permit == CircuitBreaker.Permit.REJECTED) {
+            rejectedReads.increment();
+        } else {
+            try {
+                return new ReadResult<>(call(permit, query), false, 0);
+            } catch (RuntimeException ex) {
+                if (!isDatabaseFailure(ex)) {
+                    throw ex;
+                }
+                failure = ex;
+            }
+        }
+        ReadResult<Object> copia = stale(collection, collection + "@" + BranchContext.current(), failure);
+        if (copia.getValue() instanceof List) {
+            for (Object item : (List<?>) copia.getValue()) {
+                if (match.test((E) item)) {
+                    return new ReadResult<>((E) item, true, copia.getAgeSeconds());
+                }
+            }
+        }
+        throw unavailable("El elemento no está en la última copia de " + collection, failure);
+    }
+
+    // Escritura: solo con el circuito cerrado; si no, 503 sin tocar la BD.
+    public <T> T write(Supplier<T> command) {
+        if (!enabled) {
+            return command.get();
+        }
+        CircuitBreaker.Permit permit = breaker.tryWrite();
+        if (permit == CircuitBreaker.Permit.REJECTED) {
+            rejectedWrites.increment();
+            throw unavailable("Base de datos no disponible: escrituras suspendidas", null);
+        }
+        return call(permit, command);
+    }
+
+    public void write(Runnable command) {
+        write(() -> {
+            command.run();
+            return null;
+        });
+    }
+
+    public CircuitBreaker.State state() {
+        return breaker.state();
+    }
+
+    private <T> T call(CircuitBreaker.Permit permit, Supplier<T> action) {
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            T value = action.get();
+            ok = System.nanoTime() - t0 <= slowCallNanos;
+            return value;
+        } catch (RuntimeException ex) {
+            ok = !isDatabaseFailure(ex);
+            throw ex;
+        } finally {
+            breaker.onResult(permit, ok);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> ReadResult<T> stale(String collection, String key, RuntimeException failure) {
+        Snapshot s = snapshots.get(key);
+        if (s == null) {
+            throw unavailable("Base de datos no disponible y sin copia de " + collection, failure);
+        }
+        registry.counter("db.circuit.stale", "collection", collection).increment();
+        long age = (System.currentTimeMillis() - s.takenAt) / 1000;
+        return new ReadResult<>((T) s.value, true, age);
+    }
+
+    private ServiceUnavailableException unavailable(String message, RuntimeException failure) {
+        if (failure != null) {
+            System.out.println("[Circuito] " + message + ": " + failure.getMessage());
+        }
+        long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(breaker.remainingOpenNanos() + 999_999_999L));
+        return new ServiceUnavailableException(message, seconds);
+    }
+
+    private void onTransition(CircuitBreaker.State from, CircuitBreaker.State to) {
+        System.out.println("[Circuito] BD " + from + " -> " + to);
+        registry.counter("db.circuit.transitions", "from", from.name(), "to", to.name()).increment();
+    }
+
+    // Errores de conexión o de tiempo agotado, en cualquier nivel de la cadena de causas.
+    static boolean isDatabaseFailure(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause() == t ? null : t.getCause()) {
+            if (t instanceof CannotCreateTransactionException
+                    || t instanceof DataAccessResourceFailureException
+                    || t instanceof TransientDataAccessResourceException
+                    || t instanceof QueryTimeoutException
+                    || t instanceof SQLTransientConnectionException
+                    || t instanceof SQLNonTransientConnectionException
+                    || t instanceof SQLTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Snapshot {
+        final Object value;
+        final long takenAt;
+
+        Snapshot(Object value, long takenAt) {
+            this.value = value;
+            this.takenAt = takenAt;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.grupobb.biblioteca.datasource.circuit;
+
+/**
+ * Resultado de una lectura protegida por DatabaseCircuitBreaker: el valor recién leído o, con la
+ * base de datos caída, la última copia buena y su antigüedad.
+ */
+public class ReadResult<T> {
+
+    private final T value;
+    private final boolean stale;
+    private final long ageSeconds;
+
+    ReadResult(T value, boolean stale, long ageSeconds) {
+        this.value = value;
+        this.stale = stale;
+        this.ageSeconds = ageSeconds;
+    }
+
+    public T getValue() { return value; }
+    public boolean isStale() { return stale; }
+    public long getAgeSeconds() { return ageSeconds; }
+}
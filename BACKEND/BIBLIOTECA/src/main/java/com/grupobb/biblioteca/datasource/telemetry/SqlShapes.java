@@ -0,0 +1,124 @@
+package com.grupobb.biblioteca.datasource.telemetry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Forma ("shape") de una sentencia SQL: la misma consulta con otros valores da la misma forma.
+ *
+ * - Literales de texto y numéricos pasan a {@code ?} (Hibernate ya usa parámetros, pero las
+ *   consultas nativas o de JdbcTemplate pueden llevar literales).
+ * - Listas de parámetros (IN, VALUES) se reducen a {@code (?...)}: IN de 3 o de 300 ids es la
+ *   misma forma.
+ * - Espacios y saltos de línea se colapsan.
+ *
+ * Las formas se cachean por texto de la sentencia (Hibernate repite exactamente las mismas
+ * cadenas); la caché se vacía al llegar a {@code maxEntries}.
+ */
+public final class SqlShapes {
+
+    private final int maxEntries;
+    private final Map<String, String> cache = new ConcurrentHashMap<>();
+
+    public SqlShapes(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public String of(String sql) {
+        if (sql == null) {
+            return "?";
+        }
+        String shape = cache.get(sql);
+        if (shape == null) {
+            if (cache.size() >= maxEntries) {
+                cache.clear();
+            }
+            shape = normalize(sql);
+            cache.put(sql, shape);
+        }
+        return shape;
+    }
+
+    static String normalize(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int n = sql.length();
+        int i = 0;
+        while (i < n) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                // Literal de texto ('' dentro del literal es una comilla escapada)
+                i++;
+                while (i < n) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < n && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                out.append('?');
+            } else if (Character.isDigit(c) && !partOfIdentifier(out)) {
+                while (i < n && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                out.append('?');
+            } else if (Character.isWhitespace(c)) {
+                while (i < n && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (out.length() > 0) {
+                    out.append(' ');
+                }
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return collapseInLists(out.toString().trim());
+    }
+
+    // Un dígito pegado a letras o '_' es parte de un identificador (p. ej. alias b1_0).
+    private static boolean partOfIdentifier(StringBuilder out) {
+        if (out.length() == 0) {
+            return false;
+        }
+        char prev = out.charAt(out.length() - 1);
+        return Character.isLetterOrDigit(prev) || prev == '_' || prev == '$';
+    }
+
+    // "(?, ?, ?)" -> "(?...)"
+    private static String collapseInLists(String sql) {
+        StringBuilder out = new StringBuilder(sql.length());
+        int n = sql.length();
+        int i = 0;
+        while (i < n) {
+            char c = sql.charAt(i);
+            if (c == '(') {
+                int j = i + 1;
+                int params = 0;
+                boolean soloParams = true;
+                while (j < n && sql.charAt(j) != ')') {
+                    char d = sql.charAt(j);
+                    if (d == '?') {
+                        params++;
+                    } else if (d != ',' && d != ' ') {
+                        soloParams = false;
+                        break;
+                    }
+                    j++;
+                }
+                if (soloParams && j < n && params > 1) {
+                    out.append("(?...)");
+                    i = j + 1;
+                    continue;
+                }
+            }
+            out.append(c);
+            i++;
+        }
+        return out.toString();
+    }
+}
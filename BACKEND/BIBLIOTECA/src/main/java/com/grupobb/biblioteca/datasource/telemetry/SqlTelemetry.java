@@ -0,0 +1,161 @@
+package com.grupobb.biblioteca.datasource.telemetry;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.temporal.Temporal;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Agregados de las sentencias SQL que pasan por {@link TelemetryDataSource}.
+ *
+ * - Por forma de sentencia ({@link SqlShapes}): sql.query (cantidad y latencia, con percentiles)
+ *   y sql.rows (filas leídas o afectadas). Se etiquetan hasta {@code sql.telemetry.max-shapes}
+ *   formas; el resto se agrupa como "otras".
+ * - Log de sentencias lentas (≥ {@code sql.telemetry.slow-ms}) con los parámetros: con
+ *   {@code sql.telemetry.redact=true} (por defecto) los de texto se muestran como '***'
+ *   (nombres, emails), los numéricos y fechas tal cual.
+ * - {@link Scope}: cuenta las sentencias del hilo actual mientras está abierto. Lo usan
+ *   SqlStatementsFilter (sentencias por petición HTTP) y los tests de presupuesto (SqlBudget).
+ */
+@Component
+public class SqlTelemetry {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+    private static final String OTRAS = "otras";
+
+    private final MeterRegistry registry;
+    private final SqlShapes shapes;
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+    private final int maxShapes;
+    private final long slowNanos;
+    private final boolean redact;
+
+    public SqlTelemetry(MeterRegistry registry,
+                        @Value("${sql.telemetry.max-shapes:300}") int maxShapes,
+                        @Value("${sql.telemetry.slow-ms:200}") long slowMs,
+                        @Value("${sql.telemetry.redact:true}") boolean redact) {
+        this.registry = registry;
+        this.shapes = new SqlShapes(maxShapes * 10);
+        this.maxShapes = maxShapes;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowMs);
+        this.redact = redact;
+    }
+
+    // Una ida a la BD: sentencia suelta o batch completo (params = los del último registro).
+    void executed(String sql, long nanos, long filasAfectadas, List<Object> params) {
+        String shape = shapes.of(sql);
+        Meters m = meters(shape);
+        m.latency.record(nanos, TimeUnit.NANOSECONDS);
+        if (filasAfectadas >= 0) {
+            m.rows.record(filasAfectadas);
+        }
+        for (Scope s = CURRENT.get(); s != null; s = s.parent) {
+            s.add(shape);
+        }
+        if (nanos >= slowNanos) {
+            System.out.println("[SQL lento] " + TimeUnit.NANOSECONDS.toMillis(nanos) + " ms: " + shape
+                    + (params.isEmpty() ? "" : " | parámetros: " + format(params)));
+        }
+    }
+
+    // Filas leídas de un ResultSet (se informa al cerrarlo).
+    void rowsRead(String sql, long filas) {
+        meters(shapes.of(sql)).rows.record(filas);
+    }
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    private Meters meters(String shape) {
+        Meters m = meters.get(shape);
+        if (m != null) {
+            return m;
+        }
+        String tag = meters.size() < maxShapes ? shape : OTRAS;
+        return meters.computeIfAbsent(tag, t -> new Meters(registry, t));
+    }
+
+    private String format(List<Object> params) {
+        return params.stream().map(p -> {
+            if (p == null) {
+                return "NULL";
+            }
+            if (p instanceof Number || p instanceof Boolean || p instanceof Date || p instanceof Temporal) {
+                return p.toString();
+            }
+            if (p instanceof byte[] bytes) {
+                return "<" + bytes.length + " bytes>";
+            }
+            return redact ? "'***'" : "'" + p + "'";
+        }).collect(Collectors.joining(", ", "[", "]"));
+    }
+
+    private static final class Meters {
+        final Timer latency;
+        final DistributionSummary rows;
+
+        Meters(MeterRegistry registry, String shape) {
+            this.latency = Timer.builder("sql.query").tag("shape", shape)
+                    .publishPercentiles(0.5, 0.99).register(registry);
+            this.rows = DistributionSummary.builder("sql.rows").tag("shape", shape).register(registry);
+        }
+    }
+
+    /**
+     * Sentencias ejecutadas en el hilo actual desde {@link #open()} hasta {@link #close()}.
+     * Los scopes se anidan: una sentencia cuenta en todos los abiertos.
+     */
+    public static final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private final Map<String, Integer> porForma = new LinkedHashMap<>();
+        private int statements;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        void add(String shape) {
+            statements++;
+            porForma.merge(shape, 1, Integer::sum);
+        }
+
+        public int statements() {
+            return statements;
+        }
+
+        // Formas ejecutadas y cuántas veces, en orden de primera aparición.
+        public Map<String, Integer> byShape() {
+            return porForma;
+        }
+
+        // La forma más repetida, p. ej. "12x select ... where u1_0.id=?" (candidata a N+1).
+        public String mostRepeated() {
+            return porForma.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(e -> e.getValue() + "x " + e.getKey())
+                    .orElse("");
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.grupobb.biblioteca.datasource.telemetry;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DataSource que envuelve conexiones, sentencias y ResultSets con proxies dinámicos para medir
+ * cada ida a la BD e informarla a {@link SqlTelemetry}. No cambia el comportamiento: todo se
+ * delega tal cual y las excepciones llegan sin envolver.
+ *
+ * Se mide execute/executeQuery/executeUpdate/executeBatch; un batch cuenta como una sentencia
+ * (es una sola ida a la BD). Los parámetros solo se guardan para el log de sentencias lentas.
+ */
+public class TelemetryDataSource extends DelegatingDataSource {
+
+    private final SqlTelemetry telemetry;
+
+    public TelemetryDataSource(DataSource target, SqlTelemetry telemetry) {
+        super(target);
+        this.telemetry = telemetry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(TelemetryDataSource.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ConnectionHandler(connection));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+        private final Connection target;
+
+        ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = TelemetryDataSource.invoke(target, method, args);
+            switch (method.getName()) {
+                case "prepareStatement":
+                    return statement(PreparedStatement.class, result, (String) args[0]);
+                case "prepareCall":
+                    return statement(CallableStatement.class, result, (String) args[0]);
+                case "createStatement":
+                    return statement(Statement.class, result, null);
+                default:
+                    return result;
+            }
+        }
+
+        private Object statement(Class<?> type, Object target, String sql) {
+            return Proxy.newProxyInstance(TelemetryDataSource.class.getClassLoader(), new Class<?>[]{type},
+                    new StatementHandler((Statement) target, sql));
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private String sql;
+        private final List<Object> params = new ArrayList<>();
+
+        StatementHandler(Statement target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer index) {
+                // setString(1, x), setLong(2, y), setNull(3, tipo)...
+                while (params.size() < index) {
+                    params.add(null);
+                }
+                params.set(index - 1, name.equals("setNull") ? null : args[1]);
+            } else if (name.equals("clearParameters")) {
+                params.clear();
+            } else if (name.equals("addBatch") && args != null && args.length == 1) {
+                sql = (String) args[0];
+            }
+            if (!name.startsWith("execute")) {
+                Object result = TelemetryDataSource.invoke(target, method, args);
+                return name.equals("getResultSet") && result != null ? resultSet((ResultSet) result) : result;
+            }
+
+            String ejecutada = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+            long t0 = System.nanoTime();
+            Object result;
+            try {
+                result = TelemetryDataSource.invoke(target, method, args);
+            } catch (Throwable e) {
+                // Las fallidas también cuentan (y suelen ser las lentas)
+                telemetry.executed(ejecutada, System.nanoTime() - t0, -1, params);
+                throw e;
+            }
+            long nanos = System.nanoTime() - t0;
+            long filas = -1;
+            if (result instanceof Integer n) {
+                filas = n;
+            } else if (result instanceof Long n) {
+                filas = n;
+            } else if (result instanceof int[] ns) {
+                filas = 0;
+                for (int n : ns) {
+                    filas += Math.max(n, 0);
+                }
+            } else if (result instanceof long[] ns) {
+                filas = 0;
+                for (long n : ns) {
+                    filas += Math.max(n, 0);
+                }
+            }
+            telemetry.executed(ejecutada, nanos, filas, params);
+            if (result instanceof ResultSet rs) {
+                sql = ejecutada;
+                return resultSet(rs);
+            }
+            return result;
+        }
+
+        private ResultSet resultSet(ResultSet rs) {
+            return (ResultSet) Proxy.newProxyInstance(TelemetryDataSource.class.getClassLoader(), new Class<?>[]{ResultSet.class},
+                    new ResultSetHandler(rs, sql));
+        }
+    }
+
+    private final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final String sql;
+        private long filas;
+        private boolean informado;
+
+        ResultSetHandler(ResultSet target, String sql) {
+            this.target = target;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = TelemetryDataSource.invoke(target, method, args);
+            String name = method.getName();
+            if (name.equals("next") && Boolean.TRUE.equals(result)) {
+                filas++;
+            } else if (name.equals("close") && !informado) {
+                informado = true;
+                telemetry.rowsRead(sql, filas);
+            }
+            return result;
+        }
+    }
+}
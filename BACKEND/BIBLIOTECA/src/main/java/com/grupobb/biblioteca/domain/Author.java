@@ -1,5 +1,6 @@
 package com.grupobb.biblioteca.domain;
 
+import com.grupobb.biblioteca.datasource.BranchStampListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 
@@ -14,7 +15,8 @@ import jakarta.validation.constraints.NotBlank;
 //bien
 @Entity
 @Table(name = "autores")
-public class Author {
+@EntityListeners(BranchStampListener.class)
+public class Author implements BranchScoped {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -27,6 +29,10 @@ public class Author {
     // Nacionalidad (cadena libre).
     private String nacionalidad;
 
+    // Sede a la que pertenece el registro (null si solo hay una sede; ver BranchContext).
+    @Column(length = 32)
+    private String sede;
+
     public Author() {}
 
     // Getters y setters simples para JPA y uso por Jackson al serializar/deserializar.
@@ -36,4 +42,6 @@ public class Author {
     public void setNombre(String nombre) { this.nombre = nombre; }
     public String getNacionalidad() { return nacionalidad; }
     public void setNacionalidad(String nacionalidad) { this.nacionalidad = nacionalidad; }
+    public String getSede() { return sede; }
+    public void setSede(String sede) { this.sede = sede; }
 }
@@ -1,8 +1,11 @@
 package com.grupobb.biblioteca.domain;
 
+import com.grupobb.biblioteca.datasource.BranchStampListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 /**
  * Entidad JPA que representa la tabla `libros`.
@@ -11,11 +14,21 @@ import jakarta.validation.constraints.NotNull;
  * - id: PK autogenerada
  * - titulo: título del libro
  * - autor: relación ManyToOne hacia `Author` (clave foránea `autor_id`)
- * - disponible: indicador si el libro está disponible para préstamo
+ * - disponible: indicador si queda al menos un ejemplar para préstamo
+ * - ejemplaresTotales / ejemplaresDisponibles: contadores de copias físicas (ver {@link BookCopy})
+ *
+ * Los contadores y `disponible` solo se modifican con los UPDATE atómicos de BookRepository
+ * (o con la fila bloqueada). @DynamicUpdate evita que guardar el libro por otro motivo
+ * (p. ej. cambiar el título) sobrescriba los contadores con valores leídos antes.
  */
 @Entity
-@Table(name = "libros")
-public class Book {
+@Table(name = "libros", indexes = {
+        // existsByAutor al borrar un autor
+        @Index(name = "idx_libros_autor", columnList = "autor_id")
+})
+@DynamicUpdate
+@EntityListeners(BranchStampListener.class)
+public class Book implements BranchScoped {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,9 +43,21 @@ public class Book {
     @JoinColumn(name = "autor_id")
     private Author autor;
 
-    // Verdadero si el libro puede ser prestado.
+    // Verdadero si el libro puede ser prestado (ejemplaresDisponibles > 0).
     private boolean disponible = true;
 
+    @ColumnDefault("1")
+    @Column(nullable = false)
+    private int ejemplaresTotales = 1;
+
+    @ColumnDefault("1")
+    @Column(nullable = false)
+    private int ejemplaresDisponibles = 1;
+
+    // Sede a la que pertenece el registro (null si solo hay una sede; ver BranchContext).
+    @Column(length = 32)
+    private String sede;
+
     public Book() {}
 
     // Getters y setters usados por JPA y Jackson.
@@ -44,4 +69,10 @@ public class Book {
     public void setAutor(Author autor) { this.autor = autor; }
     public boolean isDisponible() { return disponible; }
     public void setDisponible(boolean disponible) { this.disponible = disponible; }
+    public int getEjemplaresTotales() { return ejemplaresTotales; }
+    public void setEjemplaresTotales(int ejemplaresTotales) { this.ejemplaresTotales = ejemplaresTotales; }
+    public int getEjemplaresDisponibles() { return ejemplaresDisponibles; }
+    public void setEjemplaresDisponibles(int ejemplaresDisponibles) { this.ejemplaresDisponibles = ejemplaresDisponibles; }
+    public String getSede() { return sede; }
+    public void setSede(String sede) { this.sede = sede; }
 }
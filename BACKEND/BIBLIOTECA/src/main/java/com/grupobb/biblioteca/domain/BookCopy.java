@@ -0,0 +1,51 @@
+package com.grupobb.biblioteca.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Entidad JPA que representa la tabla `ejemplares`.
+ *
+ * Cada fila es una copia física de un título de `libros`. Los préstamos apuntan al ejemplar
+ * concreto (prestamos.ejemplar_id); los contadores por título viven en el propio libro
+ * (ejemplares_totales / ejemplares_disponibles) para que prestar y devolver sean un único
+ * UPDATE atómico sobre una fila.
+ */
+@Entity
+@Table(name = "ejemplares", indexes = {
+        @Index(name = "idx_ejemplares_libro_disponible", columnList = "libro_id, disponible")
+})
+public class BookCopy {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Título al que pertenece (FK libro_id).
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "libro_id")
+    private Book libro;
+
+    // Verdadero si el ejemplar está en la estantería.
+    private boolean disponible = true;
+
+    // Ejemplar dado de baja: no se presta ni se borra (puede tener préstamos históricos).
+    private boolean retirado = false;
+
+    public BookCopy() {}
+
+    public BookCopy(Book libro) {
+        this.libro = libro;
+    }
+
+    // Getters y setters.
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Book getLibro() { return libro; }
+    public void setLibro(Book libro) { this.libro = libro; }
+    public boolean isDisponible() { return disponible; }
+    public void setDisponible(boolean disponible) { this.disponible = disponible; }
+    public boolean isRetirado() { return retirado; }
+    public void setRetirado(boolean retirado) { this.retirado = retirado; }
+}
@@ -0,0 +1,88 @@
+package com.grupobb.biblioteca.domain;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Entidad JPA que representa la tabla `sketches_prestatarios`.
+ *
+ * Guarda un HyperLogLog serializado por (tipo, clave, periodo):
+ * - tipo: LIBRO o AUTOR
+ * - clave: libro_id o autor_id
+ * - periodo: mes como año * 12 + (mes - 1), para poder unir rangos de meses
+ */
+@Entity
+@Table(name = "sketches_prestatarios")
+@IdClass(BorrowerSketch.Key.class)
+public class BorrowerSketch {
+
+    public enum Tipo { LIBRO, AUTOR }
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 10)
+    private Tipo tipo;
+
+    @Id
+    private Long clave;
+
+    @Id
+    private Integer periodo;
+
+    // Registros del sketch (HyperLogLog.toBytes); decenas de bytes en modo disperso, ~2 KB en denso.
+    @Lob
+    @Column(nullable = false)
+    private byte[] registros;
+
+    public BorrowerSketch() {}
+
+    public BorrowerSketch(Tipo tipo, Long clave, Integer periodo, byte[] registros) {
+        this.tipo = tipo;
+        this.clave = clave;
+        this.periodo = periodo;
+        this.registros = registros;
+    }
+
+    public Tipo getTipo() { return tipo; }
+    public void setTipo(Tipo tipo) { this.tipo = tipo; }
+    public Long getClave() { return clave; }
+    public void setClave(Long clave) { this.clave = clave; }
+    public Integer getPeriodo() { return periodo; }
+    public void setPeriodo(Integer periodo) { this.periodo = periodo; }
+    public byte[] getRegistros() { return registros; }
+    public void setRegistros(byte[] registros) { this.registros = registros; }
+
+    // Clave compuesta requerida por @IdClass.
+    public static class Key implements Serializable {
+        private Tipo tipo;
+        private Long clave;
+        private Integer periodo;
+
+        public Key() {}
+
+        public Key(Tipo tipo, Long clave, Integer periodo) {
+            this.tipo = tipo;
+            this.clave = clave;
+            this.periodo = periodo;
+        }
+
+        public Tipo getTipo() { return tipo; }
+        public Long getClave() { return clave; }
+        public Integer getPeriodo() { return periodo; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return tipo == key.tipo && Objects.equals(clave, key.clave) && Objects.equals(periodo, key.periodo);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tipo, clave, periodo);
+        }
+    }
+}
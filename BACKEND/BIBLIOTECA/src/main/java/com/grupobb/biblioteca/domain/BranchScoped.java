@@ -0,0 +1,12 @@
+package com.grupobb.biblioteca.domain;
+
+/**
+ * Entidad que guarda la sede (sucursal) a la que pertenece.
+ * La completa {@link com.grupobb.biblioteca.datasource.BranchStampListener} al insertar.
+ */
+public interface BranchScoped {
+
+    String getSede();
+
+    void setSede(String sede);
+}
@@ -0,0 +1,59 @@
+package com.grupobb.biblioteca.domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad JPA que representa la tabla `claves_idempotencia`.
+ *
+ * Respaldo opcional (idempotency.persistent=true) de las respuestas guardadas por Idempotency-Key,
+ * para que un reintento siga obteniendo la respuesta original tras un reinicio.
+ */
+@Entity
+@Table(name = "claves_idempotencia", indexes = {
+        @Index(name = "idx_claves_idempotencia_expira", columnList = "expira")
+})
+public class IdempotencyRecord {
+
+    // "<método> <ruta> <Idempotency-Key>"
+    @Id
+    @Column(length = 300)
+    private String clave;
+
+    // SHA-256 del cuerpo de la petición original.
+    @Column(length = 64, nullable = false)
+    private String huella;
+
+    private int estado;
+
+    @Column(length = 100)
+    private String contentType;
+
+    @Column(length = 300)
+    private String location;
+
+    @Lob
+    private byte[] cuerpo;
+
+    @Column(nullable = false)
+    private LocalDateTime expira;
+
+    public IdempotencyRecord() {}
+
+    // Getters y setters.
+    public String getClave() { return clave; }
+    public void setClave(String clave) { this.clave = clave; }
+    public String getHuella() { return huella; }
+    public void setHuella(String huella) { this.huella = huella; }
+    public int getEstado() { return estado; }
+    public void setEstado(int estado) { this.estado = estado; }
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+    public byte[] getCuerpo() { return cuerpo; }
+    public void setCuerpo(byte[] cuerpo) { this.cuerpo = cuerpo; }
+    public LocalDateTime getExpira() { return expira; }
+    public void setExpira(LocalDateTime expira) { this.expira = expira; }
+}
@@ -0,0 +1,95 @@
+package com.grupobb.biblioteca.domain;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Entidad JPA que representa la tabla `checkpoints_tareas`.
+ *
+ * Progreso de un job batch particionado: una fila por (tarea, partición) con el rango de ids
+ * asignado y el último id procesado. Si el proceso se reinicia a mitad de una ejecución, cada
+ * partición continúa desde {@code ultimoId}.
+ */
+@Entity
+@Table(name = "checkpoints_tareas")
+@IdClass(JobCheckpoint.Key.class)
+public class JobCheckpoint {
+
+    @Id
+    @Column(length = 40)
+    private String tarea;
+
+    @Id
+    private Integer particion;
+
+    // Día de la ejecución a la que pertenece la partición.
+    private LocalDate ejecucion;
+
+    // Rango (desdeId, hastaId] de la partición y último id ya procesado.
+    private Long desdeId;
+    private Long hastaId;
+    private Long ultimoId;
+
+    private boolean completada;
+
+    private LocalDateTime actualizado;
+
+    public JobCheckpoint() {}
+
+    public JobCheckpoint(String tarea, int particion, LocalDate ejecucion, long desdeId, long hastaId) {
+        this.tarea = tarea;
+        this.particion = particion;
+        this.ejecucion = ejecucion;
+        this.desdeId = desdeId;
+        this.hastaId = hastaId;
+        this.ultimoId = desdeId;
+        this.actualizado = LocalDateTime.now();
+    }
+
+    // Getters y setters.
+    public String getTarea() { return tarea; }
+    public void setTarea(String tarea) { this.tarea = tarea; }
+    public Integer getParticion() { return particion; }
+    public void setParticion(Integer particion) { this.particion = particion; }
+    public LocalDate getEjecucion() { return ejecucion; }
+    public void setEjecucion(LocalDate ejecucion) { this.ejecucion = ejecucion; }
+    public Long getDesdeId() { return desdeId; }
+    public void setDesdeId(Long desdeId) { this.desdeId = desdeId; }
+    public Long getHastaId() { return hastaId; }
+    public void setHastaId(Long hastaId) { this.hastaId = hastaId; }
+    public Long getUltimoId() { return ultimoId; }
+    public void setUltimoId(Long ultimoId) { this.ultimoId = ultimoId; }
+    public boolean isCompletada() { return completada; }
+    public void setCompletada(boolean completada) { this.completada = completada; }
+    public LocalDateTime getActualizado() { return actualizado; }
+    public void setActualizado(LocalDateTime actualizado) { this.actualizado = actualizado; }
+
+    // Clave compuesta (tarea, particion).
+    public static class Key implements Serializable {
+        private String tarea;
+        private Integer particion;
+
+        public Key() {}
+
+        public Key(String tarea, Integer particion) {
+            this.tarea = tarea;
+            this.particion = particion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key k)) return false;
+            return Objects.equals(tarea, k.tarea) && Objects.equals(particion, k.particion);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tarea, particion);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.grupobb.biblioteca.domain;
 
+import com.grupobb.biblioteca.datasource.BranchStampListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 /**
@@ -10,8 +12,17 @@ import java.time.LocalDate;
  * Esta entidad enlaza `usuarios` y `libros` y contiene fechas de préstamo y devolución.
  */
 @Entity
-@Table(name = "prestamos")
-public class Loan {
+@Table(name = "prestamos", indexes = {
+        // Préstamos activos por rango de id (particiones del job de vencidos)
+        @Index(name = "idx_prestamos_activos", columnList = "fecha_devolucion, id"),
+        @Index(name = "idx_prestamos_vencimiento", columnList = "fecha_devolucion, fecha_vencimiento"),
+        // ¿Tiene préstamos activos? (borrado de libro / usuario, validación al prestar).
+        // Cubren la consulta: el IS NULL se resuelve en el índice sin leer filas.
+        @Index(name = "idx_prestamos_libro", columnList = "libro_id, fecha_devolucion"),
+        @Index(name = "idx_prestamos_usuario", columnList = "usuario_id, fecha_devolucion")
+})
+@EntityListeners(BranchStampListener.class)
+public class Loan implements BranchScoped {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -29,6 +40,11 @@ public class Loan {
     @JoinColumn(name = "libro_id")
     private Book libro;
 
+    // Ejemplar concreto prestado (FK ejemplar_id); null en préstamos anteriores a los ejemplares.
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ejemplar_id")
+    private BookCopy ejemplar;
+
     // Fecha en que se realizó el préstamo.
     @NotNull(message = "La fecha de préstamo es obligatoria")
     private LocalDate fechaPrestamo;
@@ -36,6 +52,19 @@ public class Loan {
     // Fecha en que se devolvió el libro (null si aún no fue devuelto).
     private LocalDate fechaDevolucion;
 
+    // Fecha límite de devolución (null en préstamos anteriores; el job de vencidos la completa).
+    private LocalDate fechaVencimiento;
+
+    // Días de atraso y multa: los recalcula el job a diario y quedan fijos al devolver.
+    private Integer diasAtraso;
+
+    @Column(precision = 10, scale = 2)
+    private BigDecimal multa;
+
+    // Sede a la que pertenece el registro (null si solo hay una sede; ver BranchContext).
+    @Column(length = 32)
+    private String sede;
+
     public Loan() {}
 
     // Getters y setters.
@@ -45,8 +74,18 @@ public class Loan {
     public void setUsuario(User usuario) { this.usuario = usuario; }
     public Book getLibro() { return libro; }
     public void setLibro(Book libro) { this.libro = libro; }
+    public BookCopy getEjemplar() { return ejemplar; }
+    public void setEjemplar(BookCopy ejemplar) { this.ejemplar = ejemplar; }
     public LocalDate getFechaPrestamo() { return fechaPrestamo; }
     public void setFechaPrestamo(LocalDate fechaPrestamo) { this.fechaPrestamo = fechaPrestamo; }
     public LocalDate getFechaDevolucion() { return fechaDevolucion; }
     public void setFechaDevolucion(LocalDate fechaDevolucion) { this.fechaDevolucion = fechaDevolucion; }
+    public LocalDate getFechaVencimiento() { return fechaVencimiento; }
+    public void setFechaVencimiento(LocalDate fechaVencimiento) { this.fechaVencimiento = fechaVencimiento; }
+    public Integer getDiasAtraso() { return diasAtraso; }
+    public void setDiasAtraso(Integer diasAtraso) { this.diasAtraso = diasAtraso; }
+    public BigDecimal getMulta() { return multa; }
+    public void setMulta(BigDecimal multa) { this.multa = multa; }
+    public String getSede() { return sede; }
+    public void setSede(String sede) { this.sede = sede; }
 }
@@ -0,0 +1,69 @@
+package com.grupobb.biblioteca.domain;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Entidad JPA que representa la tabla `estadisticas_prestamo`.
+ *
+ * Contadores materializados de préstamos, mantenidos en la misma transacción que
+ * `createLoan`/`returnLoan`. Clave compuesta (tipo, clave).
+ */
+@Entity
+@Table(name = "estadisticas_prestamo")
+@IdClass(LoanStat.Key.class)
+public class LoanStat {
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private LoanStatType tipo;
+
+    @Id
+    private Long clave;
+
+    private long valor;
+
+    public LoanStat() {}
+
+    public LoanStat(LoanStatType tipo, Long clave, long valor) {
+        this.tipo = tipo;
+        this.clave = clave;
+        this.valor = valor;
+    }
+
+    public LoanStatType getTipo() { return tipo; }
+    public void setTipo(LoanStatType tipo) { this.tipo = tipo; }
+    public Long getClave() { return clave; }
+    public void setClave(Long clave) { this.clave = clave; }
+    public long getValor() { return valor; }
+    public void setValor(long valor) { this.valor = valor; }
+
+    // Clave compuesta requerida por @IdClass.
+    public static class Key implements Serializable {
+        private LoanStatType tipo;
+        private Long clave;
+
+        public Key() {}
+
+        public Key(LoanStatType tipo, Long clave) {
+            this.tipo = tipo;
+            this.clave = clave;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+            Key key = (Key) o;
+            return tipo == key.tipo && Objects.equals(clave, key.clave);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tipo, clave);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.grupobb.biblioteca.domain;
+
+/**
+ * Tipos de contador de la tabla `estadisticas_prestamo`.
+ * El significado de `clave` depende del tipo.
+ */
+public enum LoanStatType {
+    // clave = usuario_id, valor = préstamos activos
+    USUARIO_ACTIVOS,
+    // clave = libro_id, valor = préstamos históricos
+    LIBRO_TOTAL,
+    // clave = autor_id, valor = préstamos históricos
+    AUTOR_TOTAL,
+    // clave = día (epoch day), valor = préstamos creados ese día
+    DIA_TOTAL,
+    // clave = GLOBAL_ACTIVOS o GLOBAL_TOTAL
+    GLOBAL;
+
+    public static final long GLOBAL_ACTIVOS = 0L;
+    public static final long GLOBAL_TOTAL = 1L;
+}
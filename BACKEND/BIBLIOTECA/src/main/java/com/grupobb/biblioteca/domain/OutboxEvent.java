@@ -0,0 +1,60 @@
+package com.grupobb.biblioteca.domain;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad JPA que representa la tabla `outbox_eventos`.
+ *
+ * Evento de dominio pendiente de publicar. Se inserta en la misma transacción que la escritura
+ * que lo origina, así que solo existe si esa escritura se confirmó; OutboxRelay lo publica y lo
+ * borra. Los pendientes se leen en orden de id (clave primaria), sin índice adicional.
+ */
+@Entity
+@Table(name = "outbox_eventos")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // p. ej. PRESTAMO_CREADO, LIBRO_ACTUALIZADO, RESERVA_ASIGNADA
+    @Column(nullable = false, length = 40)
+    private String tipo;
+
+    private Long agregadoId;
+
+    // Datos del evento en JSON
+    @Column(length = 2000)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime creado;
+
+    // Publicaciones fallidas; al llegar a outbox.max-attempts el evento se descarta
+    private int intentos;
+
+    public OutboxEvent() {}
+
+    public OutboxEvent(String tipo, Long agregadoId, String payload) {
+        this.tipo = tipo;
+        this.agregadoId = agregadoId;
+        this.payload = payload;
+        this.creado = LocalDateTime.now();
+    }
+
+    // Getters y setters.
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTipo() { return tipo; }
+    public void setTipo(String tipo) { this.tipo = tipo; }
+    public Long getAgregadoId() { return agregadoId; }
+    public void setAgregadoId(Long agregadoId) { this.agregadoId = agregadoId; }
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    public LocalDateTime getCreado() { return creado; }
+    public void setCreado(LocalDateTime creado) { this.creado = creado; }
+    public int getIntentos() { return intentos; }
+    public void setIntentos(int intentos) { this.intentos = intentos; }
+}
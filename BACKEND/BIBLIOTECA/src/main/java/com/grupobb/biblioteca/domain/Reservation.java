@@ -0,0 +1,70 @@
+package com.grupobb.biblioteca.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+
+/**
+ * Entidad JPA que representa la tabla `reservas`.
+ *
+ * Cada libro no disponible tiene una cola FIFO de reservas: el orden es el id (autoincremental)
+ * entre las reservas EN_ESPERA. El índice (libro_id, estado, id) permite leer la cabeza de la
+ * cola sin recorrerla.
+ */
+@Entity
+@Table(name = "reservas", indexes = {
+        @Index(name = "idx_reservas_cola", columnList = "libro_id, estado, id"),
+        @Index(name = "idx_reservas_usuario", columnList = "usuario_id, estado")
+})
+public class Reservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Usuario que espera el libro (FK usuario_id).
+    @NotNull
+    @ManyToOne
+    @JoinColumn(name = "usuario_id")
+    private User usuario;
+
+    // Libro reservado (FK libro_id).
+    @NotNull
+    @ManyToOne
+    @JoinColumn(name = "libro_id")
+    private Book libro;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(length = 12)
+    private ReservationStatus estado;
+
+    @NotNull
+    private LocalDateTime fechaReserva;
+
+    // Momento en que se entregó el libro (null mientras espera).
+    private LocalDateTime fechaAsignacion;
+
+    // Préstamo creado al entregar el libro (FK prestamo_id, null mientras espera).
+    @OneToOne
+    @JoinColumn(name = "prestamo_id")
+    private Loan prestamo;
+
+    public Reservation() {}
+
+    // Getters y setters.
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public User getUsuario() { return usuario; }
+    public void setUsuario(User usuario) { this.usuario = usuario; }
+    public Book getLibro() { return libro; }
+    public void setLibro(Book libro) { this.libro = libro; }
+    public ReservationStatus getEstado() { return estado; }
+    public void setEstado(ReservationStatus estado) { this.estado = estado; }
+    public LocalDateTime getFechaReserva() { return fechaReserva; }
+    public void setFechaReserva(LocalDateTime fechaReserva) { this.fechaReserva = fechaReserva; }
+    public LocalDateTime getFechaAsignacion() { return fechaAsignacion; }
+    public void setFechaAsignacion(LocalDateTime fechaAsignacion) { this.fechaAsignacion = fechaAsignacion; }
+    public Loan getPrestamo() { return prestamo; }
+    public void setPrestamo(Loan prestamo) { this.prestamo = prestamo; }
+}
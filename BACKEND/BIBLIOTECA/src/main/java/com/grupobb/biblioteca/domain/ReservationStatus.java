@@ -0,0 +1,13 @@
+package com.grupobb.biblioteca.domain;
+
+/**
+ * Estados de una reserva en la tabla `reservas`.
+ */
+public enum ReservationStatus {
+    // En la cola del libro, esperando la devolución
+    EN_ESPERA,
+    // El libro se le prestó al devolverse (ver prestamo_id)
+    ASIGNADA,
+    // Cancelada por el usuario antes de recibir el libro
+    CANCELADA
+}
@@ -1,5 +1,6 @@
 package com.grupobb.biblioteca.domain;
 
+import com.grupobb.biblioteca.datasource.BranchStampListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -14,7 +15,8 @@ import jakarta.validation.constraints.NotBlank;
  */
 @Entity
 @Table(name = "usuarios")
-public class User {
+@EntityListeners(BranchStampListener.class)
+public class User implements BranchScoped {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -28,6 +30,10 @@ public class User {
     @Column(unique = true)
     private String email;
 
+    // Sede a la que pertenece el registro (null si solo hay una sede; ver BranchContext).
+    @Column(length = 32)
+    private String sede;
+
     public User() {}
 
     // Getters y setters básicos.
@@ -37,4 +43,6 @@ public class User {
     public void setNombre(String nombre) { this.nombre = nombre; }
     public String getEmail() { return email; }
     public void setEmail(String email) { this.email = email; }
+    public String getSede() { return sede; }
+    public void setSede(String sede) { this.sede = sede; }
 }
@@ -0,0 +1,65 @@
+package com.grupobb.biblioteca.dto.Book;
+
+import java.util.List;
+
+/**
+ * Respuesta de las consultas de disponibilidad servidas desde memoria.
+ * Los campos nulos no se serializan (default-property-inclusion: non_null).
+ */
+public class AvailabilityResponse {
+
+    private Long libroId;
+    private Boolean disponible;
+    private Long autorId;
+    private Long disponibles;
+    private Long total;
+    private List<Long> libroIds;
+
+    public Long getLibroId() {
+        return libroId;
+    }
+
+    public void setLibroId(Long libroId) {
+        this.libroId = libroId;
+    }
+
+    public Boolean getDisponible() {
+        return disponible;
+    }
+
+    public void setDisponible(Boolean disponible) {
+        this.disponible = disponible;
+    }
+
+    public Long getAutorId() {
+        return autorId;
+    }
+
+    public void setAutorId(Long autorId) {
+        this.autorId = autorId;
+    }
+
+    public Long getDisponibles() {
+        return disponibles;
+    }
+
+    public void setDisponibles(Long disponibles) {
+        this.disponibles = disponibles;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    public List<Long> getLibroIds() {
+        return libroIds;
+    }
+
+    public void setLibroIds(List<Long> libroIds) {
+        this.libroIds = libroIds;
+    }
+}
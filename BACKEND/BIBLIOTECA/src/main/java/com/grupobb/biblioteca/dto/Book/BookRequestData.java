@@ -1,6 +1,7 @@
 package com.grupobb.biblioteca.dto.Book;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -13,11 +14,14 @@ public class BookRequestData {
     @JsonProperty("autorId") // Indica a Jackson que use "autorId" en el JSON
     private Long autorId;
 
-    // Opcional: permite controlar si el libro está disponible o no.
-    // Si no quieres que el cliente lo maneje, puedes eliminar este campo
-    // y manejar siempre disponible = true en el create.
+    // Obsoleto: la disponibilidad se deriva de los ejemplares libres y este campo se ignora.
+    // Se mantiene para no romper a los clientes que aún lo envían.
     private Boolean disponible;
 
+    // Opcional: número total de ejemplares (1 por defecto al crear; al actualizar, null = sin cambio).
+    @Min(value = 1, message = "Debe haber al menos un ejemplar")
+    private Integer ejemplares;
+
     public String getTitulo() {
         return titulo;
     }
@@ -41,4 +45,12 @@ public class BookRequestData {
     public void setDisponible(Boolean disponible) {
         this.disponible = disponible;
     }
+
+    public Integer getEjemplares() {
+        return ejemplares;
+    }
+
+    public void setEjemplares(Integer ejemplares) {
+        this.ejemplares = ejemplares;
+    }
 }
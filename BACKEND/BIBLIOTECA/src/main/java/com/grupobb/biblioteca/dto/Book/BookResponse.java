@@ -7,6 +7,8 @@ public class BookResponse {
     private Long autorId;
     private String autorNombre;
     private boolean disponible;
+    private Integer ejemplaresTotales;
+    private Integer ejemplaresDisponibles;
 
     public Long getId() {
         return id;
@@ -47,4 +49,20 @@ public class BookResponse {
     public void setDisponible(boolean disponible) {
         this.disponible = disponible;
     }
+
+    public Integer getEjemplaresTotales() {
+        return ejemplaresTotales;
+    }
+
+    public void setEjemplaresTotales(Integer ejemplaresTotales) {
+        this.ejemplaresTotales = ejemplaresTotales;
+    }
+
+    public Integer getEjemplaresDisponibles() {
+        return ejemplaresDisponibles;
+    }
+
+    public void setEjemplaresDisponibles(Integer ejemplaresDisponibles) {
+        this.ejemplaresDisponibles = ejemplaresDisponibles;
+    }
 }
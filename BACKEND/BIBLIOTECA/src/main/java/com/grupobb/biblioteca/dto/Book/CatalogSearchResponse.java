@@ -0,0 +1,26 @@
+package com.grupobb.biblioteca.dto.Book;
+
+import java.util.List;
+
+public class CatalogSearchResponse {
+
+    private List<CatalogBookResponse> resultados;
+    // Sedes que fallaron o no respondieron a tiempo (resultados parciales)
+    private List<String> sedesSinRespuesta;
+
+    public List<CatalogBookResponse> getResultados() {
+        return resultados;
+    }
+
+    public void setResultados(List<CatalogBookResponse> resultados) {
+        this.resultados = resultados;
+    }
+
+    public List<String> getSedesSinRespuesta() {
+        return sedesSinRespuesta;
+    }
+
+    public void setSedesSinRespuesta(List<String> sedesSinRespuesta) {
+        this.sedesSinRespuesta = sedesSinRespuesta;
+    }
+}
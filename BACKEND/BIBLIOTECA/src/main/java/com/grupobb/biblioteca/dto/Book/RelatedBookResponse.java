@@ -0,0 +1,32 @@
+package com.grupobb.biblioteca.dto.Book;
+
+public class RelatedBookResponse {
+
+    private Long libroId;
+    private String titulo;
+    private long coPrestamos;
+
+    public Long getLibroId() {
+        return libroId;
+    }
+
+    public void setLibroId(Long libroId) {
+        this.libroId = libroId;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public long getCoPrestamos() {
+        return coPrestamos;
+    }
+
+    public void setCoPrestamos(long coPrestamos) {
+        this.coPrestamos = coPrestamos;
+    }
+}
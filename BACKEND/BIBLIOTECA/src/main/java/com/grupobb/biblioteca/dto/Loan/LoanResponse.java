@@ -1,5 +1,6 @@
 package com.grupobb.biblioteca.dto.Loan;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 public class LoanResponse {
@@ -7,10 +8,14 @@ public class LoanResponse {
     private Long id;
     private Long usuarioId;
     private Long libroId;
+    private Long ejemplarId;
     private String usuarioNombre;
     private String libroTitulo;
     private LocalDate fechaPrestamo;
     private LocalDate fechaDevolucion;
+    private LocalDate fechaVencimiento;
+    private Integer diasAtraso;
+    private BigDecimal multa;
 
     public Long getId() {
         return id;
@@ -53,4 +58,36 @@ public class LoanResponse {
     public void setFechaDevolucion(LocalDate fechaDevolucion) {
         this.fechaDevolucion = fechaDevolucion;
     }
+
+    public Long getEjemplarId() {
+        return ejemplarId;
+    }
+
+    public void setEjemplarId(Long ejemplarId) {
+        this.ejemplarId = ejemplarId;
+    }
+
+    public LocalDate getFechaVencimiento() {
+        return fechaVencimiento;
+    }
+
+    public void setFechaVencimiento(LocalDate fechaVencimiento) {
+        this.fechaVencimiento = fechaVencimiento;
+    }
+
+    public Integer getDiasAtraso() {
+        return diasAtraso;
+    }
+
+    public void setDiasAtraso(Integer diasAtraso) {
+        this.diasAtraso = diasAtraso;
+    }
+
+    public BigDecimal getMulta() {
+        return multa;
+    }
+
+    public void setMulta(BigDecimal multa) {
+        this.multa = multa;
+    }
 }
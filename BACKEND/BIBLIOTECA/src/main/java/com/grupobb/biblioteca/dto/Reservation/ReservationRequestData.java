@@ -0,0 +1,31 @@
+package com.grupobb.biblioteca.dto.Reservation;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotNull;
+
+public class ReservationRequestData {
+
+    @NotNull(message = "El usuarioId es obligatorio")
+    @JsonProperty("usuarioId")
+    private Long usuarioId;
+
+    @NotNull(message = "El libroId es obligatorio")
+    @JsonProperty("libroId")
+    private Long libroId;
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public Long getLibroId() {
+        return libroId;
+    }
+
+    public void setLibroId(Long libroId) {
+        this.libroId = libroId;
+    }
+}
@@ -0,0 +1,110 @@
+package com.grupobb.biblioteca.dto.Reservation;
+
+import java.time.LocalDateTime;
+
+/**
+ * Respuesta de reservas. posicion/enCola solo aplican a reservas EN_ESPERA
+ * (los nulos no se serializan); prestamoId solo a las ASIGNADAS.
+ */
+public class ReservationResponse {
+
+    private Long id;
+    private Long usuarioId;
+    private String usuarioNombre;
+    private Long libroId;
+    private String libroTitulo;
+    private String estado;
+    private Integer posicion;
+    private Integer enCola;
+    private LocalDateTime fechaReserva;
+    private LocalDateTime fechaAsignacion;
+    private Long prestamoId;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public String getUsuarioNombre() {
+        return usuarioNombre;
+    }
+
+    public void setUsuarioNombre(String usuarioNombre) {
+        this.usuarioNombre = usuarioNombre;
+    }
+
+    public Long getLibroId() {
+        return libroId;
+    }
+
+    public void setLibroId(Long libroId) {
+        this.libroId = libroId;
+    }
+
+    public String getLibroTitulo() {
+        return libroTitulo;
+    }
+
+    public void setLibroTitulo(String libroTitulo) {
+        this.libroTitulo = libroTitulo;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public Integer getPosicion() {
+        return posicion;
+    }
+
+    public void setPosicion(Integer posicion) {
+        this.posicion = posicion;
+    }
+
+    public Integer getEnCola() {
+        return enCola;
+    }
+
+    public void setEnCola(Integer enCola) {
+        this.enCola = enCola;
+    }
+
+    public LocalDateTime getFechaReserva() {
+        return fechaReserva;
+    }
+
+    public void setFechaReserva(LocalDateTime fechaReserva) {
+        this.fechaReserva = fechaReserva;
+    }
+
+    public LocalDateTime getFechaAsignacion() {
+        return fechaAsignacion;
+    }
+
+    public void setFechaAsignacion(LocalDateTime fechaAsignacion) {
+        this.fechaAsignacion = fechaAsignacion;
+    }
+
+    public Long getPrestamoId() {
+        return prestamoId;
+    }
+
+    public void setPrestamoId(Long prestamoId) {
+        this.prestamoId = prestamoId;
+    }
+}
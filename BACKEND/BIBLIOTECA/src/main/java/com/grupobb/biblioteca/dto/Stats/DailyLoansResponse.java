@@ -0,0 +1,25 @@
+package com.grupobb.biblioteca.dto.Stats;
+
+import java.time.LocalDate;
+
+public class DailyLoansResponse {
+
+    private LocalDate fecha;
+    private long prestamos;
+
+    public LocalDate getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDate fecha) {
+        this.fecha = fecha;
+    }
+
+    public long getPrestamos() {
+        return prestamos;
+    }
+
+    public void setPrestamos(long prestamos) {
+        this.prestamos = prestamos;
+    }
+}
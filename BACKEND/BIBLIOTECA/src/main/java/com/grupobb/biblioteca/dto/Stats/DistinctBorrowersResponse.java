@@ -0,0 +1,63 @@
+package com.grupobb.biblioteca.dto.Stats;
+
+import java.util.List;
+
+public class DistinctBorrowersResponse {
+
+    private Long libroId;
+    private List<Long> autorIds;
+    // Rango de meses consultado (yyyy-MM)
+    private String desde;
+    private String hasta;
+    private long prestatariosDistintos;
+    // Error estándar relativo de la estimación (p. ej. 0.023 = ±2.3 %)
+    private double errorRelativo;
+
+    public Long getLibroId() {
+        return libroId;
+    }
+
+    public void setLibroId(Long libroId) {
+        this.libroId = libroId;
+    }
+
+    public List<Long> getAutorIds() {
+        return autorIds;
+    }
+
+    public void setAutorIds(List<Long> autorIds) {
+        this.autorIds = autorIds;
+    }
+
+    public String getDesde() {
+        return desde;
+    }
+
+    public void setDesde(String desde) {
+        this.desde = desde;
+    }
+
+    public String getHasta() {
+        return hasta;
+    }
+
+    public void setHasta(String hasta) {
+        this.hasta = hasta;
+    }
+
+    public long getPrestatariosDistintos() {
+        return prestatariosDistintos;
+    }
+
+    public void setPrestatariosDistintos(long prestatariosDistintos) {
+        this.prestatariosDistintos = prestatariosDistintos;
+    }
+
+    public double getErrorRelativo() {
+        return errorRelativo;
+    }
+
+    public void setErrorRelativo(double errorRelativo) {
+        this.errorRelativo = errorRelativo;
+    }
+}
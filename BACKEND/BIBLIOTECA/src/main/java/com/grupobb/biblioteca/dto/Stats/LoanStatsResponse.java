@@ -0,0 +1,54 @@
+package com.grupobb.biblioteca.dto.Stats;
+
+/**
+ * Contadores de préstamos de un usuario, libro, autor o del sistema completo.
+ * Solo se serializan los campos que aplican (default-property-inclusion: non_null).
+ */
+public class LoanStatsResponse {
+
+    private Long usuarioId;
+    private Long libroId;
+    private Long autorId;
+    private Long prestamosActivos;
+    private Long prestamosTotales;
+
+    public Long getUsuarioId() {
+        return usuarioId;
+    }
+
+    public void setUsuarioId(Long usuarioId) {
+        this.usuarioId = usuarioId;
+    }
+
+    public Long getLibroId() {
+        return libroId;
+    }
+
+    public void setLibroId(Long libroId) {
+        this.libroId = libroId;
+    }
+
+    public Long getAutorId() {
+        return autorId;
+    }
+
+    public void setAutorId(Long autorId) {
+        this.autorId = autorId;
+    }
+
+    public Long getPrestamosActivos() {
+        return prestamosActivos;
+    }
+
+    public void setPrestamosActivos(Long prestamosActivos) {
+        this.prestamosActivos = prestamosActivos;
+    }
+
+    public Long getPrestamosTotales() {
+        return prestamosTotales;
+    }
+
+    public void setPrestamosTotales(Long prestamosTotales) {
+        this.prestamosTotales = prestamosTotales;
+    }
+}
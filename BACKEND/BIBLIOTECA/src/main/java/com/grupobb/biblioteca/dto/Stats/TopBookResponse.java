@@ -0,0 +1,42 @@
+package com.grupobb.biblioteca.dto.Stats;
+
+public class TopBookResponse {
+
+    private Long libroId;
+    private String titulo;
+    private long prestamos;
+    // Sobreestimación máxima de `prestamos` (el valor real está en [prestamos - error, prestamos])
+    private long error;
+
+    public Long getLibroId() {
+        return libroId;
+    }
+
+    public void setLibroId(Long libroId) {
+        this.libroId = libroId;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public long getPrestamos() {
+        return prestamos;
+    }
+
+    public void setPrestamos(long prestamos) {
+        this.prestamos = prestamos;
+    }
+
+    public long getError() {
+        return error;
+    }
+
+    public void setError(long error) {
+        this.error = error;
+    }
+}
@@ -0,0 +1,45 @@
+package com.grupobb.biblioteca.dto.Stats;
+
+import java.util.List;
+
+public class TopBooksResponse {
+
+    private String ventana;
+    // Préstamos registrados en la ventana
+    private long total;
+    // Cota de error de cualquier conteo de la ventana (total / capacidad del sketch)
+    private long errorMaximo;
+    private List<TopBookResponse> libros;
+
+    public String getVentana() {
+        return ventana;
+    }
+
+    public void setVentana(String ventana) {
+        this.ventana = ventana;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getErrorMaximo() {
+        return errorMaximo;
+    }
+
+    public void setErrorMaximo(long errorMaximo) {
+        this.errorMaximo = errorMaximo;
+    }
+
+    public List<TopBookResponse> getLibros() {
+        return libros;
+    }
+
+    public void setLibros(List<TopBookResponse> libros) {
+        this.libros = libros;
+    }
+}
@@ -0,0 +1,49 @@
+package com.grupobb.biblioteca.repository;
+
+import com.grupobb.biblioteca.domain.Book;
+import com.grupobb.biblioteca.domain.BookCopy;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para la entidad BookCopy (ejemplares).
+ */
+public interface BookCopyRepository extends JpaRepository<BookCopy, Long> {
+
+    // Lecturas bloqueantes: se usan después de ajustar el contador del libro, con su fila ya
+    // bloqueada, así que no compiten entre sí y siempre ven lo último confirmado.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<BookCopy> findFirstByLibroAndDisponibleTrueAndRetiradoFalseOrderByIdAsc(Book libro);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<BookCopy> findFirstByLibroAndDisponibleFalseAndRetiradoFalseOrderByIdAsc(Book libro);
+
+    List<BookCopy> findByLibroAndDisponibleTrueAndRetiradoFalseOrderByIdDesc(Book libro);
+
+    void deleteByLibro(Book libro);
+
+    // Migración de datos previos a los ejemplares (un ejemplar por fila de `libros`).
+    @Modifying
+    @Query(value = "update libros set ejemplares_totales = 1, ejemplares_disponibles = "
+            + "case when disponible then 1 else 0 end "
+            + "where not exists (select 1 from ejemplares e where e.libro_id = libros.id)", nativeQuery = true)
+    int backfillCounters();
+
+    @Modifying
+    @Query(value = "insert into ejemplares (libro_id, disponible, retirado) "
+            + "select l.id, l.disponible, false from libros l "
+            + "where not exists (select 1 from ejemplares e where e.libro_id = l.id)", nativeQuery = true)
+    int backfillCopies();
+
+    @Modifying
+    @Query(value = "update prestamos set ejemplar_id = "
+            + "(select min(e.id) from ejemplares e where e.libro_id = prestamos.libro_id) "
+            + "where ejemplar_id is null and fecha_devolucion is null", nativeQuery = true)
+    int backfillActiveLoans();
+}
@@ -2,7 +2,18 @@ package com.grupobb.biblioteca.repository;
 
 import com.grupobb.biblioteca.domain.Author;
 import com.grupobb.biblioteca.domain.Book;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
 
 /**
  * Repositorio Spring Data para la entidad Book.
@@ -10,4 +21,51 @@ import org.springframework.data.jpa.repository.JpaRepository;
  */
 public interface BookRepository extends JpaRepository<Book, Long> {
     boolean existsByAutor(Author autor);
+
+    // Autor en el mismo SELECT (join) en lugar de uno por autor distinto del listado.
+    @Override
+    @EntityGraph(attributePaths = "autor")
+    List<Book> findAll();
+
+    // Igual para la carga por páginas de los índices en memoria.
+    @Override
+    @EntityGraph(attributePaths = "autor")
+    Page<Book> findAll(Pageable pageable);
+
+    // SELECT ... FOR UPDATE sobre la fila del libro: serializa reservas y devoluciones del mismo libro.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Book b where b.id = :id")
+    Optional<Book> findByIdForUpdate(@Param("id") Long id);
+
+    // Préstamo atómico: descuenta un ejemplar solo si queda alguno (1 = conseguido, 0 = agotado).
+    // `disponible` va primero porque MySQL evalúa el SET de izquierda a derecha.
+    @Modifying(flushAutomatically = true)
+    @Query("update Book b set b.disponible = case when b.ejemplaresDisponibles > 1 then true else false end, "
+            + "b.ejemplaresDisponibles = b.ejemplaresDisponibles - 1 "
+            + "where b.id = :id and b.ejemplaresDisponibles > 0")
+    int checkoutCopy(@Param("id") Long id);
+
+    // Devolución atómica: vuelve a sumar el ejemplar (sin pasar del total).
+    @Modifying(flushAutomatically = true)
+    @Query("update Book b set b.disponible = true, b.ejemplaresDisponibles = b.ejemplaresDisponibles + 1 "
+            + "where b.id = :id and b.ejemplaresDisponibles < b.ejemplaresTotales")
+    int returnCopy(@Param("id") Long id);
+
+    // Lectura directa del contador (no pasa por la entidad, que puede estar desactualizada).
+    @Query("select b.ejemplaresDisponibles from Book b where b.id = :id")
+    int availableCopies(@Param("id") Long id);
+
+    // Búsqueda por título o autor en la BD de la sede actual (la usa la búsqueda en todas las sedes).
+    @Query("select b from Book b join fetch b.autor a "
+            + "where lower(b.titulo) like lower(concat('%', :q, '%')) "
+            + "or lower(a.nombre) like lower(concat('%', :q, '%')) order by b.titulo, b.id")
+    List<Book> searchCatalog(@Param("q") String q, Pageable pageable);
+
+    // Disponibilidad leída de la BD de la sede actual (fuera de la sede principal no hay índice).
+    long countByDisponibleTrue();
+
+    long countByAutorId(Long autorId);
+
+    @Query("select b.id from Book b where b.autor.id = :autorId and b.disponible = true order by b.id")
+    List<Long> findAvailableIdsByAutor(@Param("autorId") Long autorId);
 }
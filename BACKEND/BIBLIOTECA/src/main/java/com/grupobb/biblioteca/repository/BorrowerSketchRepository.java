@@ -0,0 +1,10 @@
+package com.grupobb.biblioteca.repository;
+
+import com.grupobb.biblioteca.domain.BorrowerSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repositorio de los sketches HyperLogLog de prestatarios distintos.
+ */
+public interface BorrowerSketchRepository extends JpaRepository<BorrowerSketch, BorrowerSketch.Key> {
+}
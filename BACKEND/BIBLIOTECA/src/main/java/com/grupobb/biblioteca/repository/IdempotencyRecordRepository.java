@@ -0,0 +1,21 @@
+package com.grupobb.biblioteca.repository;
+
+import com.grupobb.biblioteca.domain.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repositorio de las respuestas idempotentes persistidas.
+ */
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord r where r.expira < :ahora")
+    int deleteExpired(@Param("ahora") LocalDateTime ahora);
+}
@@ -0,0 +1,28 @@
+package com.grupobb.biblioteca.repository;
+
+import com.grupobb.biblioteca.domain.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repositorio de los checkpoints de jobs batch.
+ */
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, JobCheckpoint.Key> {
+
+    List<JobCheckpoint> findByTareaOrderByParticionAsc(String tarea);
+
+    void deleteByTarea(String tarea);
+
+    // Avance de una partición; se ejecuta en la misma transacción que el lote procesado.
+    @Modifying
+    @Query("update JobCheckpoint c set c.ultimoId = :ultimoId, c.completada = :completada, c.actualizado = :ahora "
+            + "where c.tarea = :tarea and c.particion = :particion")
+    int advance(@Param("tarea") String tarea, @Param("particion") int particion,
+                @Param("ultimoId") long ultimoId, @Param("completada") boolean completada,
+                @Param("ahora") LocalDateTime ahora);
+}
@@ -3,7 +3,18 @@ package com.grupobb.biblioteca.repository;
 import com.grupobb.biblioteca.domain.Book;
 import com.grupobb.biblioteca.domain.Loan;
 import com.grupobb.biblioteca.domain.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la entidad Loan (prestamos).
@@ -11,4 +22,38 @@ import org.springframework.data.jpa.repository.JpaRepository;
 public interface LoanRepository extends JpaRepository<Loan, Long> {
     boolean existsByUsuarioAndFechaDevolucionIsNull(User usuario);
     boolean existsByLibroAndFechaDevolucionIsNull(Book libro);
+    boolean existsByUsuarioAndLibroAndFechaDevolucionIsNull(User usuario, Book libro);
+    long countByFechaDevolucionIsNull();
+
+    // Lectura bloqueante para devolver: dos devoluciones del mismo préstamo se serializan y la
+    // segunda ya ve la fecha de devolución de la primera.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select l from Loan l where l.id = :id")
+    Optional<Loan> findByIdForUpdate(@Param("id") Long id);
+
+    // usuario, libro y autor son EAGER: sin el grafo, Hibernate los trae con un SELECT por fila distinta.
+    @Override
+    @EntityGraph(attributePaths = {"usuario", "libro", "libro.autor"})
+    List<Loan> findAll();
+
+    // Activos con la fecha límite ya pasada, los más atrasados primero (idx_prestamos_vencimiento).
+    @Query("select l from Loan l where l.fechaDevolucion is null and l.fechaVencimiento < :hoy order by l.fechaVencimiento")
+    List<Loan> findOverdue(@Param("hoy") LocalDate hoy, Pageable pageable);
+
+    // Agregados usados solo para reconstruir `estadisticas_prestamo` (una vez, al arrancar).
+    @Query("select l.usuario.id, count(l) from Loan l where l.fechaDevolucion is null group by l.usuario.id")
+    List<Object[]> countActiveByUsuario();
+
+    @Query("select l.libro.id, count(l) from Loan l group by l.libro.id")
+    List<Object[]> countByLibro();
+
+    @Query("select l.libro.autor.id, count(l) from Loan l group by l.libro.autor.id")
+    List<Object[]> countByAutor();
+
+    @Query("select l.fechaPrestamo, count(l) from Loan l group by l.fechaPrestamo")
+    List<Object[]> countByFechaPrestamo();
+
+    // Historial (usuario_id, libro_id) en orden cronológico por usuario; requiere transacción abierta.
+    @Query("select l.usuario.id, l.libro.id from Loan l order by l.usuario.id, l.fechaPrestamo, l.id")
+    Stream<Object[]> streamHistoryByUsuario();
 }
@@ -0,0 +1,11 @@
+package com.grupobb.biblioteca.repository;
+
+import com.grupobb.biblioteca.domain.LoanStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repositorio de los contadores materializados de préstamos.
+ * Los incrementos los escribe LoanAggregates en batch antes del commit.
+ */
+public interface LoanStatRepository extends JpaRepository<LoanStat, LoanStat.Key> {
+}
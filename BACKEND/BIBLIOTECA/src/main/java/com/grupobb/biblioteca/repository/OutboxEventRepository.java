@@ -0,0 +1,10 @@
+package com.grupobb.biblioteca.repository;
+
+import com.grupobb.biblioteca.domain.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repositorio de la tabla outbox; el reclamo y borrado por lotes los hace OutboxRelay con SQL.
+ */
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+}
@@ -0,0 +1,43 @@
+package com.grupobb.biblioteca.repository;
+
+import com.grupobb.biblioteca.domain.Book;
+import com.grupobb.biblioteca.domain.Reservation;
+import com.grupobb.biblioteca.domain.ReservationStatus;
+import com.grupobb.biblioteca.domain.User;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repositorio para la entidad Reservation (reservas).
+ */
+public interface ReservationRepository extends JpaRepository<Reservation, Long> {
+
+    // Cabeza de la cola con lectura bloqueante: ve reservas confirmadas por otras transacciones
+    // aunque la nuestra ya tenga una instantánea, y evita entregar dos veces la misma reserva.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Reservation> findFirstByLibroAndEstadoOrderByIdAsc(Book libro, ReservationStatus estado);
+
+    // Para cancelar: espera a una entrega en curso (returnLoan bloquea la misma fila) y ve su estado.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from Reservation r where r.id = :id")
+    Optional<Reservation> findByIdForUpdate(@Param("id") Long id);
+
+    List<Reservation> findByLibroAndEstadoOrderByIdAsc(Book libro, ReservationStatus estado);
+
+    boolean existsByUsuarioAndLibroAndEstado(User usuario, Book libro, ReservationStatus estado);
+
+    // Posición y tamaño de la cola en la BD (sedes sin espejo en memoria).
+    long countByLibroAndEstado(Book libro, ReservationStatus estado);
+
+    long countByLibroAndEstadoAndIdLessThanEqual(Book libro, ReservationStatus estado, Long id);
+
+    Page<Reservation> findByEstado(ReservationStatus estado, Pageable pageable);
+}
@@ -2,8 +2,10 @@ package com.grupobb.biblioteca.repository;
 
 import com.grupobb.biblioteca.domain.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositorio para la entidad User.
@@ -14,4 +16,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    // Todos los emails, para construir el filtro de Bloom; requiere transacción abierta.
+    @Query("select u.email from User u")
+    Stream<String> streamEmails();
 }
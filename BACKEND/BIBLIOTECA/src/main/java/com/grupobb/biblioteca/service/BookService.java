@@ -1,7 +1,11 @@
 package com.grupobb.biblioteca.service;
 
+import com.grupobb.biblioteca.dto.Book.AvailabilityResponse;
 import com.grupobb.biblioteca.dto.Book.BookRequestData;
 import com.grupobb.biblioteca.dto.Book.BookResponse;
+import com.grupobb.biblioteca.dto.Book.BookSearchResult;
+import com.grupobb.biblioteca.dto.Book.CatalogSearchResponse;
+import com.grupobb.biblioteca.dto.Book.RelatedBookResponse;
 
 import java.util.List;
 
@@ -16,4 +20,14 @@ public interface BookService {
     BookResponse update(Long id, BookRequestData request);
 
     void delete(Long id);
+
+    List<BookSearchResult> search(String query, int limit);
+
+    AvailabilityResponse availability(Long autorId);
+
+    AvailabilityResponse availabilityOf(Long id);
+
+    List<RelatedBookResponse> related(Long id, int limit);
+
+    CatalogSearchResponse catalog(String query, int limit);
 }
@@ -14,4 +14,6 @@ public interface LoanService {
     List<LoanResponse> list();
 
     LoanResponse getById(Long loanId);
+
+    List<LoanResponse> overdue(int limit);
 }
@@ -0,0 +1,17 @@
+package com.grupobb.biblioteca.service;
+
+import com.grupobb.biblioteca.dto.Reservation.ReservationRequestData;
+import com.grupobb.biblioteca.dto.Reservation.ReservationResponse;
+
+import java.util.List;
+
+public interface ReservationService {
+
+    ReservationResponse reserve(ReservationRequestData request);
+
+    ReservationResponse getById(Long id);
+
+    ReservationResponse cancel(Long id);
+
+    List<ReservationResponse> queueOf(Long libroId);
+}
@@ -0,0 +1,29 @@
+package com.grupobb.biblioteca.service;
+
+import com.grupobb.biblioteca.dto.Stats.DailyLoansResponse;
+import com.grupobb.biblioteca.dto.Stats.DistinctBorrowersResponse;
+import com.grupobb.biblioteca.dto.Stats.LoanStatsResponse;
+import com.grupobb.biblioteca.dto.Stats.TopBooksResponse;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+public interface StatsService {
+
+    LoanStatsResponse summary();
+
+    LoanStatsResponse byUser(Long usuarioId);
+
+    LoanStatsResponse byBook(Long libroId);
+
+    LoanStatsResponse byAuthor(Long autorId);
+
+    List<DailyLoansResponse> daily(LocalDate desde, LocalDate hasta);
+
+    TopBooksResponse topBooks(String window, int limit);
+
+    DistinctBorrowersResponse distinctBorrowersByBook(Long libroId, YearMonth desde, YearMonth hasta);
+
+    DistinctBorrowersResponse distinctBorrowersByAuthors(List<Long> autorIds, YearMonth desde, YearMonth hasta);
+}
@@ -0,0 +1,201 @@
+package com.grupobb.biblioteca.service.availability;
+
+import com.grupobb.biblioteca.util.LongIntHashMap;
+import com.grupobb.biblioteca.util.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice de disponibilidad en memoria basado en bitmaps comprimidos ({@link RoaringBitmap}).
+ *
+ * - `available`: ids de libros con `disponible = true`.
+ * - `byAuthor`: por cada autor, los ids de todos sus libros; "disponibles del autor X"
+ *   es la intersección de ambos bitmaps, sin tocar la BD.
+ *
+ * Es una vista derivada: la BD sigue siendo la fuente de verdad al prestar.
+ * Se actualiza después del commit con valores leídos dentro de cada transacción, y esos
+ * callbacks no están ordenados entre préstamos y devoluciones concurrentes: una entrada puede
+ * quedar desfasada hasta el siguiente evento del libro. Por eso un "no disponible" nunca
+ * rechaza un préstamo sin confirmarlo en la BD (LoanServiceImpl.createLoan), que además lo corrige.
+ */
+@Component
+public class AvailabilityIndex {
+
+    private static final int UNKNOWN = -1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final RoaringBitmap available = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byAuthor = new HashMap<>();
+    private final LongIntHashMap authorOfBook = new LongIntHashMap(UNKNOWN);
+
+    // Registra o actualiza un libro (alta, edición o carga inicial).
+    public void putBook(long bookId, long authorId, boolean disponible) {
+        int id = toInt(bookId);
+        lock.writeLock().lock();
+        try {
+            int previousAuthor = authorOfBook.put(bookId, toInt(authorId));
+            if (previousAuthor != UNKNOWN && previousAuthor != authorId) {
+                removeFromAuthor(previousAuthor, id);
+            }
+            byAuthor.computeIfAbsent(authorId, k -> new RoaringBitmap()).add(id);
+            if (disponible) {
+                available.add(id);
+            } else {
+                available.remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBook(long bookId) {
+        int id = toInt(bookId);
+        lock.writeLock().lock();
+        try {
+            int author = authorOfBook.remove(bookId);
+            if (author != UNKNOWN) {
+                removeFromAuthor(author, id);
+            }
+            available.remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Cambio de disponibilidad por préstamo/devolución; ignora libros desconocidos.
+    public void setAvailable(long bookId, boolean disponible) {
+        int id = toInt(bookId);
+        lock.writeLock().lock();
+        try {
+            if (!authorOfBook.containsKey(bookId)) {
+                return;
+            }
+            if (disponible) {
+                available.add(id);
+            } else {
+                available.remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isAvailable(long bookId) {
+        if (bookId < 0 || bookId > Integer.MAX_VALUE) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return available.contains((int) bookId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean knows(long bookId) {
+        lock.readLock().lock();
+        try {
+            return authorOfBook.containsKey(bookId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // True solo si el libro es conocido por el índice y figura como prestado.
+    public boolean isKnownUnavailable(long bookId) {
+        if (bookId < 0 || bookId > Integer.MAX_VALUE) {
+            return false;
+        }
+        lock.readLock().lock();
+        try {
+            return authorOfBook.containsKey(bookId) && !available.contains((int) bookId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long countAvailable() {
+        lock.readLock().lock();
+        try {
+            return available.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long countBooks() {
+        lock.readLock().lock();
+        try {
+            return authorOfBook.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long countByAuthor(long authorId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap books = byAuthor.get(authorId);
+            return books == null ? 0 : books.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long countAvailableByAuthor(long authorId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap books = byAuthor.get(authorId);
+            return books == null ? 0 : RoaringBitmap.andCardinality(books, available);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ids (ascendentes) de los libros disponibles del autor.
+    public long[] availableByAuthor(long authorId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap books = byAuthor.get(authorId);
+            if (books == null) {
+                return new long[0];
+            }
+            int[] ids = RoaringBitmap.and(books, available).toArray();
+            long[] out = new long[ids.length];
+            for (int i = 0; i < ids.length; i++) {
+                out[i] = ids[i];
+            }
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            available.clear();
+            byAuthor.clear();
+            authorOfBook.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeFromAuthor(long authorId, int bookId) {
+        RoaringBitmap books = byAuthor.get(authorId);
+        if (books != null) {
+            books.remove(bookId);
+            if (books.isEmpty()) {
+                byAuthor.remove(authorId);
+            }
+        }
+    }
+
+    private static int toInt(long id) {
+        return Math.toIntExact(id);
+    }
+}
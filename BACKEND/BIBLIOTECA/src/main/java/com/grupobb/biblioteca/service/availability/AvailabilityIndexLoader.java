@@ -0,0 +1,50 @@
+package com.grupobb.biblioteca.service.availability;
+
+import com.grupobb.biblioteca.domain.Book;
+import com.grupobb.biblioteca.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carga el {@link AvailabilityIndex} desde la tabla `libros` al arrancar.
+ */
+@Component
+public class AvailabilityIndexLoader {
+
+    private final AvailabilityIndex index;
+    private final BookRepository bookRepository;
+
+    @Value("${availability.load-page-size:5000}")
+    private int pageSize;
+
+    public AvailabilityIndexLoader(AvailabilityIndex index, BookRepository bookRepository) {
+        this.index = index;
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long t0 = System.currentTimeMillis();
+        index.clear();
+
+        Page<Book> page = bookRepository.findAll(PageRequest.of(0, pageSize, Sort.by("id")));
+        while (true) {
+            for (Book book : page.getContent()) {
+                long autorId = book.getAutor() != null ? book.getAutor().getId() : 0L;
+                index.putBook(book.getId(), autorId, book.isDisponible());
+            }
+            if (!page.hasNext()) {
+                break;
+            }
+            page = bookRepository.findAll(page.nextPageable());
+        }
+
+        System.out.println("[Availability] Índice cargado: " + index.countAvailable() + " disponibles de "
+                + index.countBooks() + " libros en " + (System.currentTimeMillis() - t0) + "ms");
+    }
+}
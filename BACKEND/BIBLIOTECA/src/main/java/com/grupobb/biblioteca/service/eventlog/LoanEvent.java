@@ -0,0 +1,71 @@
+package com.grupobb.biblioteca.service.eventlog;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Evento de préstamo en formato binario fijo (52 bytes de carga útil, 64 con seq y CRC).
+ *
+ * | off | campo         | tipo |
+ * |   0 | marca (ms)    | long |
+ * |   8 | prestamo_id   | long |
+ * |  16 | usuario_id    | long |
+ * |  24 | libro_id      | long |
+ * |  32 | autor_id      | long |
+ * |  40 | día (epoch)   | int  |
+ * |  44 | ejemplares disponibles del libro tras el evento (-1 si no se conoce) | int |
+ * |  48 | tipo          | byte |
+ */
+public final class LoanEvent {
+
+    public static final int RECORD_SIZE = 64;
+
+    public static final byte PRESTAMO = 1;
+    public static final byte DEVOLUCION = 2;
+
+    public long marca;
+    public long prestamoId;
+    public long usuarioId;
+    public long libroId;
+    public long autorId;
+    public int dia;
+    public int disponibles;
+    public byte tipo;
+
+    public static LoanEvent of(byte tipo, long prestamoId, long usuarioId, long libroId, long autorId,
+                               int dia, int disponibles) {
+        LoanEvent e = new LoanEvent();
+        e.marca = System.currentTimeMillis();
+        e.tipo = tipo;
+        e.prestamoId = prestamoId;
+        e.usuarioId = usuarioId;
+        e.libroId = libroId;
+        e.autorId = autorId;
+        e.dia = dia;
+        e.disponibles = disponibles;
+        return e;
+    }
+
+    public void writeTo(ByteBuffer buf, int base) {
+        buf.putLong(base, marca);
+        buf.putLong(base + 8, prestamoId);
+        buf.putLong(base + 16, usuarioId);
+        buf.putLong(base + 24, libroId);
+        buf.putLong(base + 32, autorId);
+        buf.putInt(base + 40, dia);
+        buf.putInt(base + 44, disponibles);
+        buf.put(base + 48, tipo);
+    }
+
+    // Reutiliza la instancia durante el replay para no crear un objeto por registro.
+    public LoanEvent readFrom(ByteBuffer buf, int base) {
+        marca = buf.getLong(base);
+        prestamoId = buf.getLong(base + 8);
+        usuarioId = buf.getLong(base + 16);
+        libroId = buf.getLong(base + 24);
+        autorId = buf.getLong(base + 32);
+        dia = buf.getInt(base + 40);
+        disponibles = buf.getInt(base + 44);
+        tipo = buf.get(base + 48);
+        return this;
+    }
+}
@@ -0,0 +1,326 @@
+package com.grupobb.biblioteca.service.eventlog;
+
+import com.grupobb.biblioteca.config.BranchProperties;
+import com.grupobb.biblioteca.domain.LoanStat;
+import com.grupobb.biblioteca.domain.LoanStatType;
+import com.grupobb.biblioteca.util.SegmentLog;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Log de eventos de préstamo (altas y devoluciones) de solo anexado sobre {@link SegmentLog}.
+ *
+ * - Cada evento confirmado en la BD se anexa tras el commit; el fsync lo hace en segundo plano
+ *   el hilo de group commit de SegmentLog. Con {@code eventlog.fsync=group} la petición además
+ *   lo espera, pero los callbacks tras el commit aún retienen la conexión de la transacción.
+ * - El log mantiene en memoria su proyección ({@link LoanLogState}: contadores y ejemplares
+ *   disponibles por libro) y cada {@code eventlog.snapshot-every} eventos la guarda como snapshot.
+ * - Al arrancar se carga el último snapshot y se reaplica solo la cola del log, y la proyección
+ *   se compara con dos conteos baratos de `prestamos` (totales y activos).
+ *
+ * La BD sigue siendo la fuente de verdad: un corte entre el commit y el anexo deja el log atrás.
+ * Si al arrancar la proyección no coincide con esos conteos (o el log está vacío y `prestamos`
+ * no), el log se descarta y se vuelve a sembrar desde la BD. LoanAggregatesLoader carga los
+ * contadores desde la proyección cuando {@link #matches} confirma que sigue al día.
+ *
+ * La proyección solo tiene contadores y ejemplares por libro: el índice de disponibilidad
+ * necesita también los libros nunca prestados y el de co-préstamos el historial por usuario,
+ * así que ambos siguen cargándose desde la BD. Con varias sedes el log se desactiva (un
+ * proceso, varias BD).
+ */
+@Component
+public class LoanEventLog implements SmartInitializingSingleton {
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    private static final String TOTALES =
+            "select count(*), count(fecha_devolucion) from prestamos";
+
+    private static final String HISTORIAL =
+            "select p.id, p.usuario_id, p.libro_id, l.autor_id, p.fecha_prestamo, p.fecha_devolucion "
+            + "from prestamos p join libros l on l.id = p.libro_id order by p.id";
+
+    private final JdbcTemplate jdbc;
+    private final BranchProperties branches;
+
+    @Value("${eventlog.enabled:true}")
+    private boolean enabled;
+
+    @Value("${eventlog.dir:data/eventlog}")
+    private String dir;
+
+    // 1M registros de 64 bytes = segmentos de 64 MB
+    @Value("${eventlog.segment-records:1000000}")
+    private int segmentRecords;
+
+    @Value("${eventlog.group-commit-micros:500}")
+    private long groupCommitMicros;
+
+    // async: el fsync corre en segundo plano; group: la petición lo espera (con la conexión tomada)
+    @Value("${eventlog.fsync:async}")
+    private String fsync;
+
+    @Value("${eventlog.snapshot-every:100000}")
+    private long snapshotEvery;
+
+    private volatile SegmentLog log;
+    private LoanLogState state = new LoanLogState();
+    private volatile long snapshotSeq;
+
+    public LoanEventLog(JdbcTemplate jdbc, BranchProperties branches) {
+        this.jdbc = jdbc;
+        this.branches = branches;
+    }
+
+    // Antes de que el servidor acepte peticiones: nadie anexa mientras se reaplica o se siembra.
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!enabled || branches.isEnabled()) {
+            System.out.println("[EventLog] Desactivado");
+            return;
+        }
+        try {
+            open();
+        } catch (IOException | RuntimeException e) {
+            System.out.println("[EventLog] No se pudo abrir el log, se continúa sin él: " + e.getMessage());
+            log = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return log != null;
+    }
+
+    public void loanCreated(long prestamoId, long usuarioId, long libroId, long autorId, LocalDate fecha, int disponibles) {
+        append(LoanEvent.of(LoanEvent.PRESTAMO, prestamoId, usuarioId, libroId, autorId, (int) fecha.toEpochDay(), disponibles));
+    }
+
+    public void loanReturned(long prestamoId, long usuarioId, long libroId, long autorId, LocalDate fecha, int disponibles) {
+        append(LoanEvent.of(LoanEvent.DEVOLUCION, prestamoId, usuarioId, libroId, autorId, (int) fecha.toEpochDay(), disponibles));
+    }
+
+    // true si la proyección coincide con los totales de la BD (el log no perdió eventos).
+    public boolean matches(long prestamosTotales, long prestamosActivos) {
+        synchronized (this) {
+            return log != null
+                    && state.get(LoanStatType.GLOBAL, LoanStatType.GLOBAL_TOTAL) == prestamosTotales
+                    && state.get(LoanStatType.GLOBAL, LoanStatType.GLOBAL_ACTIVOS) == prestamosActivos;
+        }
+    }
+
+    // Contadores de la proyección en el formato de `estadisticas_prestamo`.
+    public synchronized List<LoanStat> toStats() {
+        return state.toStats();
+    }
+
+    @Scheduled(fixedDelayString = "${eventlog.snapshot-check-ms:10000}")
+    public void maybeSnapshot() {
+        SegmentLog l = log;
+        if (l != null && l.lastSeq() - snapshotSeq >= snapshotEvery) {
+            try {
+                snapshot();
+            } catch (IOException e) {
+                System.out.println("[EventLog] Error al guardar snapshot: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        SegmentLog l = log;
+        if (l != null) {
+            log = null;
+            l.close();
+        }
+    }
+
+    private void append(LoanEvent event) {
+        SegmentLog l = log;
+        if (l == null) {
+            return;
+        }
+        try {
+            long seq;
+            synchronized (this) {
+                seq = l.append(event::writeTo);
+                state.apply(seq, event);
+            }
+            if ("group".equals(fsync)) {
+                l.awaitDurable(seq);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // El préstamo ya está confirmado en la BD; el log queda atrás y matches() lo detectará
+            System.out.println("[EventLog] No se pudo anexar el evento: " + e.getMessage());
+        }
+    }
+
+    private void open() throws IOException {
+        long t0 = System.currentTimeMillis();
+        Path base = Paths.get(dir);
+        SegmentLog l = new SegmentLog(base, LoanEvent.RECORD_SIZE, segmentRecords, groupCommitMicros);
+
+        LoanLogState loaded = loadSnapshot(base, l.lastSeq());
+        long desde = loaded.seq() + 1;
+        LoanEvent scratch = new LoanEvent();
+        l.replay(desde, (seq, buf, off) -> loaded.apply(seq, scratch.readFrom(buf, off)));
+        synchronized (this) {
+            state = loaded;
+            snapshotSeq = desde - 1;
+        }
+        log = l;
+        System.out.println("[EventLog] " + l.lastSeq() + " eventos; snapshot en " + (desde - 1) + ", "
+                + (l.lastSeq() - desde + 1) + " reaplicados en " + (System.currentTimeMillis() - t0) + "ms");
+
+        long[] totales = jdbc.queryForObject(TOTALES, (rs, i) -> new long[]{rs.getLong(1), rs.getLong(1) - rs.getLong(2)});
+        if (!matches(totales[0], totales[1])) {
+            if (l.lastSeq() > 0) {
+                System.out.println("[EventLog] El log no coincide con prestamos (" + totales[0] + " préstamos, "
+                        + totales[1] + " activos); se descarta y se vuelve a sembrar");
+                discard(base);
+            }
+            seed();
+        }
+    }
+
+    // Borra segmentos y snapshots y deja un log vacío en el mismo directorio.
+    private void discard(Path base) throws IOException {
+        SegmentLog l = log;
+        log = null;
+        l.delete();
+        for (Path snapshot : snapshots(base)) {
+            Files.deleteIfExists(snapshot);
+        }
+        SegmentLog nuevo = new SegmentLog(base, LoanEvent.RECORD_SIZE, segmentRecords, groupCommitMicros);
+        synchronized (this) {
+            state = new LoanLogState();
+            snapshotSeq = 0;
+        }
+        log = nuevo;
+    }
+
+    // Primer arranque con préstamos existentes: vuelca el historial de `prestamos` como eventos.
+    private void seed() {
+        long t0 = System.currentTimeMillis();
+        long[] n = {0};
+        jdbc.query(HISTORIAL, rs -> {
+            long prestamoId = rs.getLong(1);
+            long usuarioId = rs.getLong(2);
+            long libroId = rs.getLong(3);
+            long autorId = rs.getLong(4);
+            Date prestamo = rs.getDate(5);
+            Date devolucion = rs.getDate(6);
+            appendQuiet(LoanEvent.of(LoanEvent.PRESTAMO, prestamoId, usuarioId, libroId, autorId,
+                    (int) prestamo.toLocalDate().toEpochDay(), -1));
+            if (devolucion != null) {
+                appendQuiet(LoanEvent.of(LoanEvent.DEVOLUCION, prestamoId, usuarioId, libroId, autorId,
+                        (int) devolucion.toLocalDate().toEpochDay(), -1));
+            }
+            n[0]++;
+        });
+        if (n[0] == 0) {
+            return;
+        }
+        try {
+            snapshot();
+        } catch (IOException | InterruptedException e) {
+            System.out.println("[EventLog] Error al guardar snapshot inicial: " + e.getMessage());
+        }
+        System.out.println("[EventLog] Sembrado desde prestamos: " + n[0] + " préstamos en "
+                + (System.currentTimeMillis() - t0) + "ms");
+    }
+
+    // Sin esperar fsync por evento: el snapshot final espera una sola vez
+    private void appendQuiet(LoanEvent event) {
+        synchronized (this) {
+            long seq = log.append(event::writeTo);
+            state.apply(seq, event);
+        }
+    }
+
+    // Escribe el snapshot cuando los eventos que cubre ya están en disco, para que nunca vaya
+    // por delante del log. Se conservan los dos últimos.
+    private void snapshot() throws IOException, InterruptedException {
+        SegmentLog l = log;
+        byte[] bytes;
+        long seq;
+        synchronized (this) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            state.writeTo(new DataOutputStream(buffer));
+            bytes = buffer.toByteArray();
+            seq = state.seq();
+        }
+        l.awaitDurable(seq);
+
+        Path base = Paths.get(dir);
+        Path tmp = base.resolve(SNAPSHOT_PREFIX + "tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ch.write(ByteBuffer.wrap(bytes));
+            ch.force(true);
+        }
+        Files.move(tmp, snapshotPath(base, seq), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        snapshotSeq = seq;
+
+        List<Path> snapshots = snapshots(base);
+        for (int i = 0; i < snapshots.size() - 2; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+        System.out.println("[EventLog] Snapshot en el evento " + seq + " (" + bytes.length / 1024 + " KB)");
+    }
+
+    // Último snapshot legible que no vaya por delante del log; si no hay, estado vacío.
+    private LoanLogState loadSnapshot(Path base, long lastSeq) throws IOException {
+        List<Path> snapshots = snapshots(base);
+        for (int i = snapshots.size() - 1; i >= 0; i--) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(snapshots.get(i)))) {
+                LoanLogState s = LoanLogState.readFrom(new DataInputStream(in));
+                if (s.seq() <= lastSeq) {
+                    return s;
+                }
+            } catch (IOException e) {
+                System.out.println("[EventLog] Snapshot ilegible " + snapshots.get(i).getFileName() + ": " + e.getMessage());
+            }
+        }
+        return new LoanLogState();
+    }
+
+    private static List<Path> snapshots(Path base) throws IOException {
+        try (Stream<Path> files = Files.list(base)) {
+            return files.filter(p -> {
+                String n = p.getFileName().toString();
+                return n.startsWith(SNAPSHOT_PREFIX) && n.endsWith(SNAPSHOT_SUFFIX);
+            }).sorted().toList();
+        }
+    }
+
+    private static Path snapshotPath(Path base, long seq) {
+        return base.resolve(String.format("%s%020d%s", SNAPSHOT_PREFIX, seq, SNAPSHOT_SUFFIX));
+    }
+}
@@ -0,0 +1,128 @@
+package com.grupobb.biblioteca.service.eventlog;
+
+import com.grupobb.biblioteca.domain.LoanStat;
+import com.grupobb.biblioteca.domain.LoanStatType;
+import com.grupobb.biblioteca.util.LongLongHashMap;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estado derivado del log de préstamos: los mismos contadores que {@code LoanAggregates}
+ * y los ejemplares disponibles de cada libro según su último evento.
+ *
+ * Se reconstruye aplicando eventos en orden y se guarda como snapshot compacto
+ * (pares clave/valor por tipo de contador). No es thread-safe: el llamador sincroniza.
+ */
+public final class LoanLogState {
+
+    private static final int FORMAT = 1;
+
+    private final Map<LoanStatType, LongLongHashMap> counters = new EnumMap<>(LoanStatType.class);
+    private final LongLongHashMap disponibles = new LongLongHashMap(-1L);
+    private long seq;
+
+    public LoanLogState() {
+        for (LoanStatType type : LoanStatType.values()) {
+            counters.put(type, new LongLongHashMap(0L));
+        }
+    }
+
+    // Seq del último evento aplicado.
+    public long seq() {
+        return seq;
+    }
+
+    public void apply(long eventSeq, LoanEvent e) {
+        if (e.tipo == LoanEvent.PRESTAMO) {
+            add(LoanStatType.USUARIO_ACTIVOS, e.usuarioId, 1);
+            add(LoanStatType.LIBRO_TOTAL, e.libroId, 1);
+            add(LoanStatType.AUTOR_TOTAL, e.autorId, 1);
+            add(LoanStatType.DIA_TOTAL, e.dia, 1);
+            add(LoanStatType.GLOBAL, LoanStatType.GLOBAL_ACTIVOS, 1);
+            add(LoanStatType.GLOBAL, LoanStatType.GLOBAL_TOTAL, 1);
+        } else if (e.tipo == LoanEvent.DEVOLUCION) {
+            add(LoanStatType.USUARIO_ACTIVOS, e.usuarioId, -1);
+            add(LoanStatType.GLOBAL, LoanStatType.GLOBAL_ACTIVOS, -1);
+        }
+        if (e.disponibles >= 0) {
+            disponibles.put(e.libroId, e.disponibles);
+        }
+        seq = eventSeq;
+    }
+
+    public long get(LoanStatType type, long clave) {
+        return counters.get(type).get(clave);
+    }
+
+    // Ejemplares disponibles según el último evento del libro; -1 si no hay eventos con ese dato.
+    public long availableCopies(long libroId) {
+        return disponibles.get(libroId);
+    }
+
+    // Contadores en el formato de `estadisticas_prestamo` (sin los que quedaron en cero).
+    public List<LoanStat> toStats() {
+        List<LoanStat> out = new ArrayList<>();
+        counters.forEach((type, map) -> map.forEach((clave, valor) -> {
+            if (valor != 0) {
+                out.add(new LoanStat(type, clave, valor));
+            }
+        }));
+        return out;
+    }
+
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(FORMAT);
+        out.writeLong(seq);
+        for (LoanStatType type : LoanStatType.values()) {
+            writeMap(out, counters.get(type));
+        }
+        writeMap(out, disponibles);
+    }
+
+    public static LoanLogState readFrom(DataInputStream in) throws IOException {
+        int format = in.readInt();
+        if (format != FORMAT) {
+            throw new IOException("Formato de snapshot desconocido: " + format);
+        }
+        LoanLogState state = new LoanLogState();
+        state.seq = in.readLong();
+        for (LoanStatType type : LoanStatType.values()) {
+            readMap(in, state.counters.get(type));
+        }
+        readMap(in, state.disponibles);
+        return state;
+    }
+
+    private void add(LoanStatType type, long clave, long delta) {
+        counters.get(type).addTo(clave, delta);
+    }
+
+    private static void writeMap(DataOutputStream out, LongLongHashMap map) throws IOException {
+        out.writeInt(map.size());
+        IOException[] error = new IOException[1];
+        map.forEach((k, v) -> {
+            try {
+                out.writeLong(k);
+                out.writeLong(v);
+            } catch (IOException e) {
+                error[0] = e;
+            }
+        });
+        if (error[0] != null) {
+            throw error[0];
+        }
+    }
+
+    private static void readMap(DataInputStream in, LongLongHashMap map) throws IOException {
+        int n = in.readInt();
+        for (int i = 0; i < n; i++) {
+            map.put(in.readLong(), in.readLong());
+        }
+    }
+}
@@ -1,15 +1,22 @@
 package com.grupobb.biblioteca.service.impl;
 
+import com.grupobb.biblioteca.datasource.BranchContext;
 import com.grupobb.biblioteca.domain.Author;
 import com.grupobb.biblioteca.dto.Author.AuthorRequestData;
 import com.grupobb.biblioteca.dto.Author.AuthorResponse;
 import com.grupobb.biblioteca.repository.AuthorRepository;
 import com.grupobb.biblioteca.repository.BookRepository;
 import com.grupobb.biblioteca.service.AuthorService;
+import com.grupobb.biblioteca.service.outbox.Outbox;
+import com.grupobb.biblioteca.service.outbox.OutboxMessage;
+import com.grupobb.biblioteca.service.search.BookSearchIndex;
 import com.grupobb.biblioteca.service.subscriber.AuthorSubscriber;
+import com.grupobb.biblioteca.service.support.AfterCommit;
+import com.grupobb.biblioteca.service.support.SideEffects;
 import com.grupobb.biblioteca.web.advice.BadRequestException;
 import com.grupobb.biblioteca.web.advice.NotFoundException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
@@ -22,18 +29,29 @@ import java.util.concurrent.atomic.AtomicInteger;
 @Service
 public class AuthorServiceImpl implements AuthorService {
 
+    // Retardo simulado por elemento en el análisis reactivo
+    private static final Duration RETARDO_ANALISIS = Duration.ofMillis(100);
+
     private final AuthorRepository repository;
     private final BookRepository bookRepository;
+    private final BookSearchIndex searchIndex;
+    private final Outbox outbox;
+    private final SideEffects sideEffects;
 
     @Value("${author.batch-size:2}")
     private int authorBatchSize;
 
-    public AuthorServiceImpl(AuthorRepository repository, BookRepository bookRepository) {
+    public AuthorServiceImpl(AuthorRepository repository, BookRepository bookRepository,
+                             BookSearchIndex searchIndex, Outbox outbox, SideEffects sideEffects) {
         this.repository = repository;
         this.bookRepository = bookRepository;
+        this.searchIndex = searchIndex;
+        this.outbox = outbox;
+        this.sideEffects = sideEffects;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<AuthorResponse> findAll() {
         // 1) Traer sincrónico
         List<Author> authors = repository.findAll();
@@ -43,22 +61,27 @@ public class AuthorServiceImpl implements AuthorService {
 
         // 3) Retornar normal al frontend
         return authors.stream()
-                .map(this::toResponse)
+                .map(AuthorServiceImpl::toResponse)
                 .toList();
     }
 
     private void ejecutarAnalisisReactivo(List<Author> authors) {
+        analisisReactivo(authors, RETARDO_ANALISIS).subscribe(new AuthorSubscriber(authorBatchSize));
+    }
+
+    // Pipeline sin suscribir; visible en el paquete para el benchmark (que lo corre sin retardo)
+    static Flux<Author> analisisReactivo(List<Author> authors, Duration retardo) {
         AtomicInteger metricProcessed = new AtomicInteger(0);
         AtomicInteger metricErrores = new AtomicInteger(0);
 
-        Flux.fromIterable(authors)
+        return Flux.fromIterable(authors)
                 .parallel()
                 .runOn(Schedulers.parallel())
                 .sequential()
                 .subscribeOn(Schedulers.boundedElastic())
 
                 // Simular retardo como en loans
-                .delayElements(Duration.ofMillis(100))
+                .delayElements(retardo)
 
                 // Filtro ejemplo: solo analizar autores con nacionalidad (puedes cambiarlo)
                 .filter(a -> a.getNacionalidad() != null && !a.getNacionalidad().isBlank())
@@ -88,12 +111,11 @@ public class AuthorServiceImpl implements AuthorService {
                 .onErrorResume(err -> {
                     System.out.println("[Reactive] Error en el flujo de autores: " + err.getMessage());
                     return Flux.empty();
-                })
-
-                .subscribe(new AuthorSubscriber(authorBatchSize));
+                });
     }
 
     @Override
+    @Transactional(readOnly = true)
     public AuthorResponse findById(Long id) {
         Author author = repository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Autor no encontrado con id " + id));
@@ -108,9 +130,10 @@ public class AuthorServiceImpl implements AuthorService {
         author.setNacionalidad(request.getNacionalidad());
 
         Author saved = repository.save(author);
+        indexarTrasCommit(saved);
 
-        // Disparar análisis reactivo tras crear
-        ejecutarAnalisisReactivo(repository.findAll());
+        // El análisis reactivo corre al publicarse el evento (solo si la transacción se confirma)
+        outbox.record("AUTOR_CREADO", saved.getId());
 
         return toResponse(saved);
     }
@@ -125,9 +148,9 @@ public class AuthorServiceImpl implements AuthorService {
         author.setNacionalidad(request.getNacionalidad());
 
         Author updated = repository.save(author);
+        indexarTrasCommit(updated);
 
-        // Disparar análisis reactivo tras actualizar
-        ejecutarAnalisisReactivo(repository.findAll());
+        outbox.record("AUTOR_ACTUALIZADO", updated.getId());
 
         return toResponse(updated);
     }
@@ -143,12 +166,34 @@ public class AuthorServiceImpl implements AuthorService {
         }
 
         repository.deleteById(id);
+        if (BranchContext.isHome()) {
+            AfterCommit.run(() -> searchIndex.removeAuthor(id));
+        }
 
-        // Disparar análisis reactivo tras eliminar
-        ejecutarAnalisisReactivo(repository.findAll());
+        outbox.record("AUTOR_ELIMINADO", id);
+    }
+
+    // Análisis reactivo sobre datos ya confirmados (eventos publicados por OutboxRelay)
+    @EventListener
+    public void onOutbox(OutboxMessage message) {
+        if (message.startsWith("AUTOR_")) {
+            // Fuera de la transacción del relay; una ráfaga de eventos lanza un solo análisis
+            sideEffects.coalesce("analisis-autores", () -> ejecutarAnalisisReactivo(repository.findAll()));
+        }
+    }
+
+    // Renombrar un autor actualiza la búsqueda de todos sus libros sin reindexarlos
+    private void indexarTrasCommit(Author author) {
+        if (!BranchContext.isHome()) {
+            return;
+        }
+        long id = author.getId();
+        String nombre = author.getNombre();
+        AfterCommit.run(() -> searchIndex.putAuthor(id, nombre));
     }
 
-    private AuthorResponse toResponse(Author author) {
+    // Estático y visible en el paquete para medirlo aislado (src/jmh: ResponseMappingBenchmark)
+    static AuthorResponse toResponse(Author author) {
         AuthorResponse dto = new AuthorResponse();
         dto.setId(author.getId());
         dto.setNombre(author.getNombre());
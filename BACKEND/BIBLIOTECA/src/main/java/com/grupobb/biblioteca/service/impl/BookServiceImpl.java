@@ -1,32 +1,61 @@
 package com.grupobb.biblioteca.service.impl;
 
+import com.grupobb.biblioteca.datasource.BranchContext;
 import com.grupobb.biblioteca.domain.Author;
 import com.grupobb.biblioteca.domain.Book;
+import com.grupobb.biblioteca.dto.Book.AvailabilityResponse;
 import com.grupobb.biblioteca.dto.Book.BookRequestData;
 import com.grupobb.biblioteca.dto.Book.BookResponse;
+import com.grupobb.biblioteca.dto.Book.BookSearchResult;
+import com.grupobb.biblioteca.dto.Book.CatalogBookResponse;
+import com.grupobb.biblioteca.dto.Book.CatalogSearchResponse;
+import com.grupobb.biblioteca.dto.Book.RelatedBookResponse;
 import com.grupobb.biblioteca.repository.AuthorRepository;
 import com.grupobb.biblioteca.repository.BookRepository;
 import com.grupobb.biblioteca.repository.LoanRepository;
 import com.grupobb.biblioteca.service.BookService;
+import com.grupobb.biblioteca.service.availability.AvailabilityIndex;
+import com.grupobb.biblioteca.service.inventory.CopyInventory;
+import com.grupobb.biblioteca.service.outbox.Outbox;
+import com.grupobb.biblioteca.service.outbox.OutboxMessage;
+import com.grupobb.biblioteca.service.recommendation.CoBorrowingIndex;
+import com.grupobb.biblioteca.service.search.BookSearchIndex;
 import com.grupobb.biblioteca.service.subscriber.BookSubscriber;
+import com.grupobb.biblioteca.service.support.AfterCommit;
+import com.grupobb.biblioteca.service.support.BranchFanOut;
+import com.grupobb.biblioteca.service.support.SideEffects;
 import com.grupobb.biblioteca.web.advice.BadRequestException;
 import com.grupobb.biblioteca.web.advice.NotFoundException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
 import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class BookServiceImpl implements BookService {
 
+    // Retardo simulado por elemento en el análisis reactivo
+    private static final Duration RETARDO_ANALISIS = Duration.ofMillis(100);
+
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
     private final LoanRepository loanRepository;
+    private final BookSearchIndex searchIndex;
+    private final AvailabilityIndex availabilityIndex;
+    private final CoBorrowingIndex coBorrowingIndex;
+    private final CopyInventory copyInventory;
+    private final BranchFanOut branchFanOut;
+    private final Outbox outbox;
+    private final SideEffects sideEffects;
 
     @Value("${book.batch-size:2}")
     private int bookBatchSize;
@@ -34,30 +63,50 @@ public class BookServiceImpl implements BookService {
 
     public BookServiceImpl(BookRepository bookRepository,
                            AuthorRepository authorRepository,
-                           LoanRepository loanRepository) {
+                           LoanRepository loanRepository,
+                           BookSearchIndex searchIndex,
+                           AvailabilityIndex availabilityIndex,
+                           CoBorrowingIndex coBorrowingIndex,
+                           CopyInventory copyInventory,
+                           BranchFanOut branchFanOut,
+                           Outbox outbox,
+                           SideEffects sideEffects) {
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
         this.loanRepository = loanRepository;
+        this.searchIndex = searchIndex;
+        this.availabilityIndex = availabilityIndex;
+        this.coBorrowingIndex = coBorrowingIndex;
+        this.copyInventory = copyInventory;
+        this.branchFanOut = branchFanOut;
+        this.outbox = outbox;
+        this.sideEffects = sideEffects;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<BookResponse> findAll() {
         List<Book> books = bookRepository.findAll();
 
         ejecutarAnalisisReactivoLibros(books);
 
         return books.stream()
-                .map(this::toResponse)
+                .map(BookServiceImpl::toResponse)
                 .toList();
     }
 
 
     private void ejecutarAnalisisReactivoLibros(List<Book> books) {
+        analisisReactivo(books, RETARDO_ANALISIS).subscribe(new BookSubscriber(bookBatchSize));
+    }
+
+    // Pipeline sin suscribir; visible en el paquete para el benchmark (que lo corre sin retardo)
+    static Flux<Book> analisisReactivo(List<Book> books, Duration retardo) {
 
         AtomicInteger metricProcessed = new AtomicInteger(0);
         AtomicInteger metricErrores = new AtomicInteger(0);
 
-        Flux.fromIterable(books)
+        return Flux.fromIterable(books)
 
                 .parallel()
                 .runOn(Schedulers.parallel())
@@ -65,7 +114,7 @@ public class BookServiceImpl implements BookService {
                 .subscribeOn(Schedulers.boundedElastic())
 
                 // Simular procesamiento
-                .delayElements(Duration.ofMillis(100))
+                .delayElements(retardo)
 
                 // Filtro: solo libros disponibles
                 .filter(Book::isDisponible)
@@ -98,13 +147,21 @@ public class BookServiceImpl implements BookService {
                 .onErrorResume(err -> {
                     System.out.println("[Reactive] Error en análisis de libros: " + err.getMessage());
                     return Flux.empty();
-                })
-
-                .subscribe(new BookSubscriber(bookBatchSize));
+                });
     }
 
 
+    // Análisis reactivo sobre datos ya confirmados (eventos publicados por OutboxRelay)
+    @EventListener
+    public void onOutbox(OutboxMessage message) {
+        if (message.startsWith("LIBRO_")) {
+            // Fuera de la transacción del relay; una ráfaga de eventos lanza un solo análisis
+            sideEffects.coalesce("analisis-libros", () -> ejecutarAnalisisReactivoLibros(bookRepository.findAll()));
+        }
+    }
+
     @Override
+    @Transactional(readOnly = true)
     public BookResponse findById(Long id) {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Libro no encontrado con id " + id));
@@ -123,11 +180,17 @@ public class BookServiceImpl implements BookService {
         Book book = new Book();
         book.setTitulo(request.getTitulo());
         book.setAutor(autor);
-        // si viene null, por defecto true
-        book.setDisponible(request.getDisponible() != null ? request.getDisponible() : true);
+        // Disponible mientras quede algún ejemplar; por defecto uno
+        int ejemplares = request.getEjemplares() != null ? request.getEjemplares() : 1;
+        book.setEjemplaresTotales(ejemplares);
+        book.setEjemplaresDisponibles(ejemplares);
+        book.setDisponible(true);
 
         Book saved = bookRepository.save(book);
-        ejecutarAnalisisReactivoLibros(bookRepository.findAll());
+        copyInventory.createCopies(saved, ejemplares);
+        indexarTrasCommit(saved);
+        // El análisis reactivo corre al publicarse el evento (solo si la transacción se confirma)
+        outbox.record("LIBRO_CREADO", saved.getId());
 
         return toResponse(saved);
     }
@@ -135,7 +198,8 @@ public class BookServiceImpl implements BookService {
     @Override
     @Transactional
     public BookResponse update(Long id, BookRequestData request) {
-        Book book = bookRepository.findById(id)
+        // Con la fila bloqueada los contadores leídos son los vigentes
+        Book book = bookRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new NotFoundException("Libro no encontrado con id " + id));
 
         book.setTitulo(request.getTitulo());
@@ -146,12 +210,13 @@ public class BookServiceImpl implements BookService {
             book.setAutor(autor);
         }
 
-        if (request.getDisponible() != null) {
-            book.setDisponible(request.getDisponible());
+        if (request.getEjemplares() != null) {
+            copyInventory.resize(book, request.getEjemplares());
         }
 
         Book updated = bookRepository.save(book);
-        ejecutarAnalisisReactivoLibros(bookRepository.findAll());
+        indexarTrasCommit(updated);
+        outbox.record("LIBRO_ACTUALIZADO", updated.getId());
 
         return toResponse(updated);
     }
@@ -166,13 +231,169 @@ public class BookServiceImpl implements BookService {
         if (loanRepository.existsByLibroAndFechaDevolucionIsNull(book)) {
             throw new BadRequestException("No se puede eliminar el libro porque tiene préstamos activos");
         }
-        ejecutarAnalisisReactivoLibros(bookRepository.findAll());
+        outbox.record("LIBRO_ELIMINADO", id);
 
+        copyInventory.deleteCopies(book);
         bookRepository.deleteById(id);
+        if (BranchContext.isHome()) {
+            AfterCommit.run(() -> {
+                searchIndex.removeBook(id);
+                availabilityIndex.removeBook(id);
+            });
+        }
     }
 
-    // Mapper privado: Entity -> DTO
-    private BookResponse toResponse(Book book) {
+    @Override
+    public List<BookSearchResult> search(String query, int limit) {
+        if (!BranchContext.isHome()) {
+            return searchInBranch(query, limit);
+        }
+        return searchIndex.search(query, limit).stream()
+                .map(this::toSearchResult)
+                .toList();
+    }
+
+    @Override
+    public AvailabilityResponse availability(Long autorId) {
+        if (!BranchContext.isHome()) {
+            return availabilityInBranch(autorId);
+        }
+        AvailabilityResponse dto = new AvailabilityResponse();
+        if (autorId == null) {
+            dto.setDisponibles(availabilityIndex.countAvailable());
+            dto.setTotal(availabilityIndex.countBooks());
+            return dto;
+        }
+        long[] ids = availabilityIndex.availableByAuthor(autorId);
+        dto.setAutorId(autorId);
+        dto.setDisponibles((long) ids.length);
+        dto.setTotal(availabilityIndex.countByAuthor(autorId));
+        dto.setLibroIds(Arrays.stream(ids).boxed().toList());
+        return dto;
+    }
+
+    @Override
+    public AvailabilityResponse availabilityOf(Long id) {
+        boolean disponible;
+        if (BranchContext.isHome()) {
+            if (!availabilityIndex.knows(id)) {
+                throw new NotFoundException("Libro no encontrado con id " + id);
+            }
+            disponible = availabilityIndex.isAvailable(id);
+        } else {
+            disponible = bookRepository.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Libro no encontrado con id " + id))
+                    .isDisponible();
+        }
+        AvailabilityResponse dto = new AvailabilityResponse();
+        dto.setLibroId(id);
+        dto.setDisponible(disponible);
+        return dto;
+    }
+
+    @Override
+    public List<RelatedBookResponse> related(Long id, int limit) {
+        if (!BranchContext.isHome()) {
+            throw new BadRequestException("Las recomendaciones solo están disponibles en la sede principal ("
+                    + BranchContext.defaultBranch() + ")");
+        }
+        if (!availabilityIndex.knows(id)) {
+            throw new NotFoundException("Libro no encontrado con id " + id);
+        }
+        return Arrays.stream(coBorrowingIndex.related(id, limit))
+                .map(pair -> {
+                    RelatedBookResponse dto = new RelatedBookResponse();
+                    dto.setLibroId(pair[0]);
+                    dto.setTitulo(searchIndex.title(pair[0]));
+                    dto.setCoPrestamos(pair[1]);
+                    return dto;
+                })
+                .toList();
+    }
+
+    // Búsqueda en todas las sedes: la misma consulta en paralelo en cada BD, mezclada por título
+    @Override
+    public CatalogSearchResponse catalog(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("El parámetro q es obligatorio");
+        }
+        String q = query.trim();
+        BranchFanOut.Result<CatalogBookResponse> result = branchFanOut.query(sede ->
+                bookRepository.searchCatalog(q, PageRequest.of(0, limit)).stream()
+                        .map(book -> toCatalogResult(book, sede))
+                        .toList());
+
+        CatalogSearchResponse dto = new CatalogSearchResponse();
+        dto.setResultados(result.getItems().stream()
+                .sorted(Comparator.comparing(CatalogBookResponse::getTitulo, String.CASE_INSENSITIVE_ORDER)
+                        .thenComparing(CatalogBookResponse::getSede))
+                .limit(limit)
+                .toList());
+        dto.setSedesSinRespuesta(result.getFailed());
+        return dto;
+    }
+
+    private CatalogBookResponse toCatalogResult(Book book, String sede) {
+        CatalogBookResponse dto = new CatalogBookResponse();
+        dto.setSede(sede);
+        dto.setLibroId(book.getId());
+        dto.setTitulo(book.getTitulo());
+        dto.setAutorNombre(book.getAutor().getNombre());
+        dto.setEjemplaresDisponibles(book.getEjemplaresDisponibles());
+        return dto;
+    }
+
+    // Sin índices en memoria (sede distinta de la principal): la misma consulta que el catálogo
+    private List<BookSearchResult> searchInBranch(String query, int limit) {
+        if (query == null || query.isBlank() || limit <= 0) {
+            return List.of();
+        }
+        return bookRepository.searchCatalog(query.trim(), PageRequest.of(0, limit)).stream()
+                .map(book -> {
+                    BookSearchResult dto = new BookSearchResult();
+                    dto.setId(book.getId());
+                    dto.setTitulo(book.getTitulo());
+                    dto.setAutorId(book.getAutor().getId());
+                    dto.setAutorNombre(book.getAutor().getNombre());
+                    dto.setDisponible(book.isDisponible());
+                    return dto;
+                })
+                .toList();
+    }
+
+    private AvailabilityResponse availabilityInBranch(Long autorId) {
+        AvailabilityResponse dto = new AvailabilityResponse();
+        if (autorId == null) {
+            dto.setDisponibles(bookRepository.countByDisponibleTrue());
+            dto.setTotal(bookRepository.count());
+            return dto;
+        }
+        List<Long> ids = bookRepository.findAvailableIdsByAutor(autorId);
+        dto.setAutorId(autorId);
+        dto.setDisponibles((long) ids.size());
+        dto.setTotal(bookRepository.countByAutorId(autorId));
+        dto.setLibroIds(ids);
+        return dto;
+    }
+
+    // Los índices en memoria solo deben ver datos confirmados, y solo los de la sede principal
+    private void indexarTrasCommit(Book book) {
+        if (!BranchContext.isHome()) {
+            return;
+        }
+        long id = book.getId();
+        String titulo = book.getTitulo();
+        long autorId = book.getAutor().getId();
+        String autorNombre = book.getAutor().getNombre();
+        boolean disponible = book.isDisponible();
+        AfterCommit.run(() -> {
+            searchIndex.putBook(id, titulo, autorId, autorNombre);
+            availabilityIndex.putBook(id, autorId, disponible);
+        });
+    }
+
+    // Mapper Entity -> DTO
+    static BookResponse toResponse(Book book) {
         BookResponse dto = new BookResponse();
         dto.setId(book.getId());
         dto.setTitulo(book.getTitulo());
@@ -181,6 +402,19 @@ public class BookServiceImpl implements BookService {
             dto.setAutorNombre(book.getAutor().getNombre());
         }
         dto.setDisponible(book.isDisponible());
+        dto.setEjemplaresTotales(book.getEjemplaresTotales());
+        dto.setEjemplaresDisponibles(book.getEjemplaresDisponibles());
+        return dto;
+    }
+
+    private BookSearchResult toSearchResult(BookSearchIndex.Hit hit) {
+        BookSearchResult dto = new BookSearchResult();
+        dto.setId(hit.getBookId());
+        dto.setTitulo(hit.getTitulo());
+        dto.setAutorId(hit.getAutorId());
+        dto.setAutorNombre(hit.getAutorNombre());
+        dto.setDisponible(availabilityIndex.isAvailable(hit.getBookId()));
+        dto.setScore(hit.getScore());
         return dto;
     }
 }
@@ -1,19 +1,40 @@
 package com.grupobb.biblioteca.service.impl;
 
+import com.grupobb.biblioteca.datasource.BranchContext;
 import com.grupobb.biblioteca.domain.Book;
+import com.grupobb.biblioteca.domain.BookCopy;
 import com.grupobb.biblioteca.domain.Loan;
+import com.grupobb.biblioteca.domain.Reservation;
+import com.grupobb.biblioteca.domain.ReservationStatus;
 import com.grupobb.biblioteca.domain.User;
 import com.grupobb.biblioteca.dto.Loan.LoanRequestData;
 import com.grupobb.biblioteca.dto.Loan.LoanResponse;
 import com.grupobb.biblioteca.repository.BookRepository;
 import com.grupobb.biblioteca.repository.LoanRepository;
+import com.grupobb.biblioteca.repository.ReservationRepository;
 import com.grupobb.biblioteca.repository.UserRepository;
 import com.grupobb.biblioteca.service.LoanService;
+import com.grupobb.biblioteca.service.availability.AvailabilityIndex;
+import com.grupobb.biblioteca.service.eventlog.LoanEventLog;
+import com.grupobb.biblioteca.service.inventory.CopyInventory;
+import com.grupobb.biblioteca.service.outbox.Outbox;
+import com.grupobb.biblioteca.service.outbox.OutboxMessage;
+import com.grupobb.biblioteca.service.overdue.FinePolicy;
+import com.grupobb.biblioteca.service.recommendation.CoBorrowingIndex;
+import com.grupobb.biblioteca.service.reservation.ReservationNotifier;
+import com.grupobb.biblioteca.service.reservation.ReservationQueues;
+import com.grupobb.biblioteca.service.stats.DistinctBorrowers;
+import com.grupobb.biblioteca.service.stats.LoanAggregates;
+import com.grupobb.biblioteca.service.stats.TopBooksLeaderboard;
 import com.grupobb.biblioteca.service.subscriber.LoanSubscriber;
+import com.grupobb.biblioteca.service.support.AfterCommit;
+import com.grupobb.biblioteca.service.support.SideEffects;
 import com.grupobb.biblioteca.web.advice.AlreadyReturnedException;
 import com.grupobb.biblioteca.web.advice.BookNotAvailableException;
 import com.grupobb.biblioteca.web.advice.NotFoundException;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import reactor.core.publisher.Flux;
@@ -22,31 +43,72 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @Service
 
 public class LoanServiceImpl implements LoanService {
 
+    // Retardo simulado por elemento en el análisis reactivo
+    private static final Duration RETARDO_ANALISIS = Duration.ofMillis(100);
+
     private final LoanRepository loanRepository;
     private final UserRepository userRepository;
     private final BookRepository bookRepository;
-
+    private final AvailabilityIndex availabilityIndex;
+    private final LoanAggregates loanAggregates;
+    private final TopBooksLeaderboard topBooks;
+    private final DistinctBorrowers distinctBorrowers;
+    private final CoBorrowingIndex coBorrowingIndex;
+    private final ReservationRepository reservationRepository;
+    private final ReservationQueues reservationQueues;
+    private final CopyInventory copyInventory;
+    private final FinePolicy finePolicy;
+    private final LoanEventLog eventLog;
+    private final Outbox outbox;
+    private final SideEffects sideEffects;
 
     @Value("${loan.batch-size:2}")
     private int loanBatchSize;
 
     public LoanServiceImpl(LoanRepository loanRepository,
                            UserRepository userRepository,
-                           BookRepository bookRepository) {
+                           BookRepository bookRepository,
+                           AvailabilityIndex availabilityIndex,
+                           LoanAggregates loanAggregates,
+                           TopBooksLeaderboard topBooks,
+                           DistinctBorrowers distinctBorrowers,
+                           CoBorrowingIndex coBorrowingIndex,
+                           ReservationRepository reservationRepository,
+                           ReservationQueues reservationQueues,
+                           CopyInventory copyInventory,
+                           FinePolicy finePolicy,
+                           LoanEventLog eventLog,
+                           Outbox outbox,
+                           SideEffects sideEffects) {
         this.loanRepository = loanRepository;
         this.userRepository = userRepository;
         this.bookRepository = bookRepository;
+        this.availabilityIndex = availabilityIndex;
+        this.loanAggregates = loanAggregates;
+        this.topBooks = topBooks;
+        this.distinctBorrowers = distinctBorrowers;
+        this.coBorrowingIndex = coBorrowingIndex;
+        this.reservationRepository = reservationRepository;
+        this.reservationQueues = reservationQueues;
+        this.copyInventory = copyInventory;
+        this.finePolicy = finePolicy;
+        this.eventLog = eventLog;
+        this.outbox = outbox;
+        this.sideEffects = sideEffects;
     }
 
     // ... (Mantén createLoan y returnLoan exactamente igual que antes) ...
 
     @Override
+    @Transactional(readOnly = true)
     public List<LoanResponse> list() {
         // 1. Obtener datos de la BD (Sincrónico, como siempre)
         List<Loan> loans = loanRepository.findAll();
@@ -58,7 +120,7 @@ public class LoanServiceImpl implements LoanService {
 
         // 3. Retornar al frontend tal como espera (no rompemos nada)
         return loans.stream()
-                .map(this::toResponse)
+                .map(LoanServiceImpl::toResponse)
                 .toList();
     }
 
@@ -67,11 +129,16 @@ public class LoanServiceImpl implements LoanService {
      * Se ejecuta en segundo plano.
      */
     private void ejecutarAnalisisReactivo(List<Loan> loans) {
+        analisisReactivo(loans, RETARDO_ANALISIS).subscribe(new LoanSubscriber(loanBatchSize));
+    }
+
+    // Pipeline sin suscribir; visible en el paquete para el benchmark (que lo corre sin retardo)
+    static Flux<Loan> analisisReactivo(List<Loan> loans, Duration retardo) {
         // Métricas
         AtomicInteger metricProcessed = new AtomicInteger(0);
         AtomicInteger metricErrores = new AtomicInteger(0);
 
-        Flux.fromIterable(loans)
+        return Flux.fromIterable(loans)
                 // Ejecutar en un pool de hilos alterno para no frenar la respuesta HTTP
                 .parallel()
                 .runOn(Schedulers.parallel())
@@ -79,7 +146,7 @@ public class LoanServiceImpl implements LoanService {
                 .subscribeOn(Schedulers.boundedElastic())
 
                 // Simular retardo de procesamiento
-                .delayElements(Duration.ofMillis(100))
+                .delayElements(retardo)
 
                 // Filtro: solo analizar préstamos que NO han sido devueltos
                 .filter(loan -> loan.getFechaDevolucion() == null)
@@ -113,10 +180,7 @@ public class LoanServiceImpl implements LoanService {
                 .onErrorResume(err -> {
                     System.out.println("[Reactive] Error en el flujo de préstamos: " + err.getMessage());
                     return Flux.empty();
-                })
-
-                // Suscripción usando tu clase personalizada
-                .subscribe(new LoanSubscriber(loanBatchSize));
+                });
     }
 
     // ... (Mantén getById y toResponse igual que antes) ...
@@ -129,23 +193,22 @@ public class LoanServiceImpl implements LoanService {
         Book book = bookRepository.findById(request.getLibroId())
             .orElseThrow(() -> new NotFoundException("Libro no encontrado"));
 
-        if (!book.isDisponible()) {
-            throw new BookNotAvailableException("El libro no está disponible");
+        // El índice es solo una pista: sus callbacks tras el commit llevan valores leídos antes y
+        // pueden llegar desordenados con los de una devolución. Un "no disponible" se confirma con
+        // el contador recién leído; si quedan ejemplares se corrige el índice y se sigue.
+        // (El índice es de la sede principal: en otra sede el mismo id es otro libro.)
+        if (BranchContext.isHome() && availabilityIndex.isKnownUnavailable(book.getId())) {
+            if (book.getEjemplaresDisponibles() == 0) {
+                throw new BookNotAvailableException("El libro no está disponible");
+            }
+            availabilityIndex.setAvailable(book.getId(), true);
         }
 
-        Loan loan = new Loan();
-        loan.setUsuario(user);
-        loan.setLibro(book);
-        loan.setFechaPrestamo(LocalDate.now());
-        loan.setFechaDevolucion(null);
+        // Descuento atómico del contador del título; lanza BookNotAvailableException si no quedan
+        BookCopy copia = copyInventory.checkout(book);
+        int disponibles = copyInventory.available(book.getId());
 
-        book.setDisponible(false);
-        bookRepository.save(book);
-
-        Loan saved = loanRepository.save(loan);
-
-        // Disparar análisis reactivo tras crear préstamo
-        ejecutarAnalisisReactivo(loanRepository.findAll());
+        Loan saved = registrarPrestamo(user, book, copia, disponibles);
 
         return toResponse(saved);
     }
@@ -153,41 +216,162 @@ public class LoanServiceImpl implements LoanService {
     @Override
     @Transactional
     public LoanResponse returnLoan(Long loanId) {
-        Loan loan = loanRepository.findById(loanId)
+        // Lock de la fila del préstamo (antes que la del libro): sin él dos devoluciones
+        // simultáneas pasan la comprobación y entregan o liberan el mismo ejemplar dos veces
+        Loan loan = loanRepository.findByIdForUpdate(loanId)
             .orElseThrow(() -> new NotFoundException("Préstamo no encontrado"));
 
         if (loan.getFechaDevolucion() != null) {
             throw new AlreadyReturnedException("El libro ya fue devuelto");
         }
 
-        loan.setFechaDevolucion(LocalDate.now());
-
-        Book book = loan.getLibro();
-        book.setDisponible(true);
-        bookRepository.save(book);
-
+        LocalDate hoy = LocalDate.now();
+        loan.setFechaDevolucion(hoy);
+        // Multa definitiva al devolver (el job diario solo la mantiene mientras está activo)
+        LocalDate vencimiento = loan.getFechaVencimiento() != null
+            ? loan.getFechaVencimiento()
+            : finePolicy.dueDate(loan.getFechaPrestamo());
+        int diasAtraso = finePolicy.daysOverdue(vencimiento, hoy);
+        loan.setFechaVencimiento(vencimiento);
+        loan.setDiasAtraso(diasAtraso);
+        loan.setMulta(finePolicy.fine(diasAtraso));
         Loan updated = loanRepository.save(loan);
+        loanAggregates.onLoanReturned(loan.getUsuario().getId());
 
-        // Disparar análisis reactivo tras devolución
-        ejecutarAnalisisReactivo(loanRepository.findAll());
+        // Lock de la fila del libro: serializa con ReservationServiceImpl.reserve
+        Book book = bookRepository.findByIdForUpdate(loan.getLibro().getId())
+            .orElseThrow(() -> new NotFoundException("Libro no encontrado"));
+        long libroId = book.getId();
+        long prestamoId = loan.getId();
+        long usuarioId = loan.getUsuario().getId();
+        long autorId = book.getAutor().getId();
+
+        Reservation siguiente = reservationRepository
+            .findFirstByLibroAndEstadoOrderByIdAsc(book, ReservationStatus.EN_ESPERA)
+            .orElse(null);
+        if (siguiente != null) {
+            // Hay cola: el ejemplar pasa a la cabeza sin volver a la estantería
+            int disponibles = copyInventory.available(libroId);
+            if (BranchContext.isHome()) {
+                AfterCommit.run(() -> eventLog.loanReturned(prestamoId, usuarioId, libroId, autorId, hoy, disponibles));
+            }
+            entregarAReserva(siguiente, book, loan.getEjemplar(), disponibles);
+        } else {
+            copyInventory.release(book, loan.getEjemplar());
+            int disponibles = copyInventory.available(libroId);
+            if (BranchContext.isHome()) {
+                AfterCommit.run(() -> {
+                    availabilityIndex.setAvailable(libroId, true);
+                    eventLog.loanReturned(prestamoId, usuarioId, libroId, autorId, hoy, disponibles);
+                });
+            }
+        }
+
+        // El análisis reactivo corre al publicarse el evento (solo si la transacción se confirma)
+        outbox.record("PRESTAMO_DEVUELTO", prestamoId, Map.of("usuario_id", usuarioId, "libro_id", libroId));
 
         return toResponse(updated);
     }
 
+    // Crea el préstamo y actualiza contadores e índices (estos últimos tras el commit)
+    // (el ejemplar ya viene descontado del contador del título)
+    private Loan registrarPrestamo(User user, Book book, BookCopy copia, int disponibles) {
+        Loan loan = new Loan();
+        loan.setUsuario(user);
+        loan.setLibro(book);
+        loan.setEjemplar(copia);
+        loan.setFechaPrestamo(LocalDate.now());
+        loan.setFechaVencimiento(finePolicy.dueDate(loan.getFechaPrestamo()));
+        loan.setFechaDevolucion(null);
+
+        Loan saved = loanRepository.save(loan);
+        long libroId = book.getId();
+        long usuarioId = user.getId();
+        long autorId = book.getAutor().getId();
+        long prestamoId = saved.getId();
+        LocalDate fecha = saved.getFechaPrestamo();
+
+        // Contadores en la misma transacción que el préstamo (se escriben justo antes del commit)
+        loanAggregates.onLoanCreated(usuarioId, libroId, autorId, fecha);
+        outbox.record("PRESTAMO_CREADO", prestamoId, Map.of("usuario_id", usuarioId, "libro_id", libroId));
+        // Índices en memoria y log: solo en la sede principal (los ids de otra sede son otros libros)
+        if (!BranchContext.isHome()) {
+            return saved;
+        }
+        // Tras el commit, en el hilo de la petición solo lo que debe verse en la respuesta
+        // siguiente (disponibilidad) o conservar el orden (log); el resto va al pool
+        AfterCommit.run(() -> {
+            availabilityIndex.setAvailable(libroId, disponibles > 0);
+            eventLog.loanCreated(prestamoId, usuarioId, libroId, autorId, fecha, disponibles);
+        });
+        sideEffects.afterCommit("indices-prestamo", () -> {
+            topBooks.record(libroId);
+            distinctBorrowers.record(usuarioId, libroId, autorId, fecha);
+            coBorrowingIndex.record(usuarioId, libroId);
+        });
+        return saved;
+    }
+
+    // Presta el ejemplar devuelto al primero de la cola y le avisa por /ws tras el commit
+    // (el ejemplar no vuelve a la estantería: los disponibles no cambian)
+    private void entregarAReserva(Reservation reservation, Book book, BookCopy copia, int disponibles) {
+        Loan prestamo = registrarPrestamo(reservation.getUsuario(), book, copia, disponibles);
+        reservation.setEstado(ReservationStatus.ASIGNADA);
+        reservation.setFechaAsignacion(LocalDateTime.now());
+        reservation.setPrestamo(prestamo);
+        reservationRepository.save(reservation);
+
+        long reservaId = reservation.getId();
+        long usuarioId = reservation.getUsuario().getId();
+        long libroId = book.getId();
+        String titulo = book.getTitulo();
+        long prestamoId = prestamo.getId();
+        if (BranchContext.isHome()) {
+            AfterCommit.run(() -> reservationQueues.remove(libroId, reservaId));
+        }
+        // El aviso por /ws sale del outbox: se entrega aunque el proceso caiga tras el commit
+        outbox.record(ReservationNotifier.RESERVA_ASIGNADA, reservaId, Map.of(
+                "usuario_id", usuarioId, "libro_id", libroId, "libro_titulo", titulo, "prestamo_id", prestamoId));
+    }
+
+    // Análisis reactivo sobre datos ya confirmados (eventos publicados por OutboxRelay)
+    @EventListener
+    public void onOutbox(OutboxMessage message) {
+        if (message.startsWith("PRESTAMO_")) {
+            // Fuera de la transacción del relay; una ráfaga de eventos lanza un solo análisis
+            sideEffects.coalesce("analisis-prestamos", () -> ejecutarAnalisisReactivo(loanRepository.findAll()));
+        }
+    }
+
     @Override
+    @Transactional(readOnly = true)
+    public List<LoanResponse> overdue(int limit) {
+        return loanRepository.findOverdue(LocalDate.now(), PageRequest.of(0, limit)).stream()
+                .map(LoanServiceImpl::toResponse)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public LoanResponse getById(Long loanId) {
         Loan loan = loanRepository.findById(loanId)
                 .orElseThrow(() -> new NotFoundException("Préstamo no encontrado"));
         return toResponse(loan);
     }
 
-    private LoanResponse toResponse(Loan loan) {
+    static LoanResponse toResponse(Loan loan) {
         LoanResponse r = new LoanResponse();
         r.setId(loan.getId());
         r.setUsuarioNombre(loan.getUsuario().getNombre());
         r.setLibroTitulo(loan.getLibro().getTitulo());
+        if (loan.getEjemplar() != null) {
+            r.setEjemplarId(loan.getEjemplar().getId());
+        }
         r.setFechaPrestamo(loan.getFechaPrestamo());
         r.setFechaDevolucion(loan.getFechaDevolucion());
+        r.setFechaVencimiento(loan.getFechaVencimiento());
+        r.setDiasAtraso(loan.getDiasAtraso());
+        r.setMulta(loan.getMulta());
         return r;
     }
 }
\ No newline at end of file
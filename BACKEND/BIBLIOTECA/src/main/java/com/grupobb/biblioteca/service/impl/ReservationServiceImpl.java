@@ -0,0 +1,175 @@
+package com.grupobb.biblioteca.service.impl;
+
+import com.grupobb.biblioteca.datasource.BranchContext;
+import com.grupobb.biblioteca.domain.Book;
+import com.grupobb.biblioteca.domain.Reservation;
+import com.grupobb.biblioteca.domain.ReservationStatus;
+import com.grupobb.biblioteca.domain.User;
+import com.grupobb.biblioteca.dto.Reservation.ReservationRequestData;
+import com.grupobb.biblioteca.dto.Reservation.ReservationResponse;
+import com.grupobb.biblioteca.repository.BookRepository;
+import com.grupobb.biblioteca.repository.LoanRepository;
+import com.grupobb.biblioteca.repository.ReservationRepository;
+import com.grupobb.biblioteca.repository.UserRepository;
+import com.grupobb.biblioteca.service.ReservationService;
+import com.grupobb.biblioteca.service.reservation.ReservationQueues;
+import com.grupobb.biblioteca.service.support.AfterCommit;
+import com.grupobb.biblioteca.web.advice.ConflictException;
+import com.grupobb.biblioteca.web.advice.NotFoundException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reservas de libros no disponibles.
+ *
+ * La entrega al devolver el libro ocurre en {@link LoanServiceImpl#returnLoan}. Reservar y devolver
+ * toman el lock de la fila del libro, así que una reserva nunca queda en una cola que la
+ * devolución ya no va a ver.
+ *
+ * El espejo en memoria de las colas es de la sede principal; en las demás la posición se cuenta
+ * en la BD de la sede.
+ */
+@Service
+public class ReservationServiceImpl implements ReservationService {
+
+    private final ReservationRepository reservationRepository;
+    private final UserRepository userRepository;
+    private final BookRepository bookRepository;
+    private final LoanRepository loanRepository;
+    private final ReservationQueues queues;
+
+    public ReservationServiceImpl(ReservationRepository reservationRepository,
+                                  UserRepository userRepository,
+                                  BookRepository bookRepository,
+                                  LoanRepository loanRepository,
+                                  ReservationQueues queues) {
+        this.reservationRepository = reservationRepository;
+        this.userRepository = userRepository;
+        this.bookRepository = bookRepository;
+        this.loanRepository = loanRepository;
+        this.queues = queues;
+    }
+
+    @Override
+    @Transactional
+    public ReservationResponse reserve(ReservationRequestData request) {
+        User user = userRepository.findById(request.getUsuarioId())
+                .orElseThrow(() -> new NotFoundException("Usuario no encontrado"));
+        Book book = bookRepository.findByIdForUpdate(request.getLibroId())
+                .orElseThrow(() -> new NotFoundException("Libro no encontrado"));
+
+        if (book.isDisponible()) {
+            throw new ConflictException("El libro está disponible; solicite el préstamo directamente");
+        }
+        if (loanRepository.existsByUsuarioAndLibroAndFechaDevolucionIsNull(user, book)) {
+            throw new ConflictException("El usuario ya tiene este libro en préstamo");
+        }
+        if (reservationRepository.existsByUsuarioAndLibroAndEstado(user, book, ReservationStatus.EN_ESPERA)) {
+            throw new ConflictException("El usuario ya está en la cola de este libro");
+        }
+
+        Reservation reservation = new Reservation();
+        reservation.setUsuario(user);
+        reservation.setLibro(book);
+        reservation.setEstado(ReservationStatus.EN_ESPERA);
+        reservation.setFechaReserva(LocalDateTime.now());
+        Reservation saved = reservationRepository.save(reservation);
+
+        ReservationResponse response = toResponse(saved);
+        if (BranchContext.isHome()) {
+            long libroId = book.getId();
+            long reservaId = saved.getId();
+            AfterCommit.run(() -> queues.enqueue(libroId, reservaId));
+            // Aún no está en el espejo (se agrega tras el commit): va al final de la cola
+            response.setEnCola(queues.depth(libroId) + 1);
+            response.setPosicion(response.getEnCola());
+        }
+        return response;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ReservationResponse getById(Long id) {
+        Reservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException("Reserva no encontrada"));
+        return toResponse(reservation);
+    }
+
+    @Override
+    @Transactional
+    public ReservationResponse cancel(Long id) {
+        // Lock de la fila: una devolución que la está asignando termina antes y aquí se ve ASIGNADA
+        Reservation reservation = reservationRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new NotFoundException("Reserva no encontrada"));
+        if (reservation.getEstado() != ReservationStatus.EN_ESPERA) {
+            throw new ConflictException("Solo se pueden cancelar reservas en espera (estado: "
+                    + reservation.getEstado() + ")");
+        }
+        reservation.setEstado(ReservationStatus.CANCELADA);
+        Reservation saved = reservationRepository.save(reservation);
+
+        if (BranchContext.isHome()) {
+            long libroId = reservation.getLibro().getId();
+            AfterCommit.run(() -> queues.remove(libroId, id));
+        }
+        return toResponse(saved);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ReservationResponse> queueOf(Long libroId) {
+        Book book = bookRepository.findById(libroId)
+                .orElseThrow(() -> new NotFoundException("Libro no encontrado con id " + libroId));
+        List<Reservation> cola = reservationRepository.findByLibroAndEstadoOrderByIdAsc(book, ReservationStatus.EN_ESPERA);
+        List<ReservationResponse> out = new ArrayList<>(cola.size());
+        for (int i = 0; i < cola.size(); i++) {
+            ReservationResponse dto = toDto(cola.get(i));
+            dto.setPosicion(i + 1);
+            dto.setEnCola(cola.size());
+            out.add(dto);
+        }
+        return out;
+    }
+
+    // Mapper privado: Entity -> DTO (posición desde el espejo en memoria o, fuera de la sede
+    // principal, contada en la BD)
+    private ReservationResponse toResponse(Reservation r) {
+        ReservationResponse dto = toDto(r);
+        if (r.getEstado() != ReservationStatus.EN_ESPERA) {
+            return dto;
+        }
+        if (BranchContext.isHome()) {
+            int posicion = queues.position(r.getLibro().getId(), r.getId());
+            if (posicion > 0) {
+                dto.setPosicion(posicion);
+                dto.setEnCola(queues.depth(r.getLibro().getId()));
+            }
+        } else {
+            dto.setPosicion((int) reservationRepository.countByLibroAndEstadoAndIdLessThanEqual(
+                    r.getLibro(), ReservationStatus.EN_ESPERA, r.getId()));
+            dto.setEnCola((int) reservationRepository.countByLibroAndEstado(r.getLibro(), ReservationStatus.EN_ESPERA));
+        }
+        return dto;
+    }
+
+    // Campos de la entidad, sin posición en la cola
+    private static ReservationResponse toDto(Reservation r) {
+        ReservationResponse dto = new ReservationResponse();
+        dto.setId(r.getId());
+        dto.setUsuarioId(r.getUsuario().getId());
+        dto.setUsuarioNombre(r.getUsuario().getNombre());
+        dto.setLibroId(r.getLibro().getId());
+        dto.setLibroTitulo(r.getLibro().getTitulo());
+        dto.setEstado(r.getEstado().name());
+        dto.setFechaReserva(r.getFechaReserva());
+        dto.setFechaAsignacion(r.getFechaAsignacion());
+        if (r.getPrestamo() != null) {
+            dto.setPrestamoId(r.getPrestamo().getId());
+        }
+        return dto;
+    }
+}
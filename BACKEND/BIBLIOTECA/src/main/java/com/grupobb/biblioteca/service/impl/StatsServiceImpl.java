@@ -0,0 +1,172 @@
+package com.grupobb.biblioteca.service.impl;
+
+import com.grupobb.biblioteca.datasource.BranchContext;
+import com.grupobb.biblioteca.domain.BorrowerSketch;
+import com.grupobb.biblioteca.domain.LoanStatType;
+import com.grupobb.biblioteca.dto.Stats.DailyLoansResponse;
+import com.grupobb.biblioteca.dto.Stats.DistinctBorrowersResponse;
+import com.grupobb.biblioteca.dto.Stats.LoanStatsResponse;
+import com.grupobb.biblioteca.dto.Stats.TopBookResponse;
+import com.grupobb.biblioteca.dto.Stats.TopBooksResponse;
+import com.grupobb.biblioteca.service.StatsService;
+import com.grupobb.biblioteca.service.search.BookSearchIndex;
+import com.grupobb.biblioteca.service.stats.DistinctBorrowers;
+import com.grupobb.biblioteca.service.stats.LoanAggregates;
+import com.grupobb.biblioteca.service.stats.TopBooksLeaderboard;
+import com.grupobb.biblioteca.web.advice.BadRequestException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Estadísticas de préstamos servidas desde los contadores en memoria (sin consultar `prestamos`).
+ *
+ * Con varias sedes los contadores de otra sede salen de su tabla `estadisticas_prestamo`
+ * (LoanAggregates); el ranking y los prestatarios distintos solo existen para la principal.
+ */
+@Service
+public class StatsServiceImpl implements StatsService {
+
+    // Evita que un rango enorme genere respuestas gigantes
+    private static final int MAX_DAYS = 366;
+
+    private final LoanAggregates aggregates;
+    private final TopBooksLeaderboard leaderboard;
+    private final BookSearchIndex searchIndex;
+    private final DistinctBorrowers distinctBorrowers;
+
+    public StatsServiceImpl(LoanAggregates aggregates,
+                            TopBooksLeaderboard leaderboard,
+                            BookSearchIndex searchIndex,
+                            DistinctBorrowers distinctBorrowers) {
+        this.aggregates = aggregates;
+        this.leaderboard = leaderboard;
+        this.searchIndex = searchIndex;
+        this.distinctBorrowers = distinctBorrowers;
+    }
+
+    @Override
+    public LoanStatsResponse summary() {
+        LoanStatsResponse dto = new LoanStatsResponse();
+        dto.setPrestamosActivos(aggregates.get(LoanStatType.GLOBAL, LoanStatType.GLOBAL_ACTIVOS));
+        dto.setPrestamosTotales(aggregates.get(LoanStatType.GLOBAL, LoanStatType.GLOBAL_TOTAL));
+        return dto;
+    }
+
+    @Override
+    public LoanStatsResponse byUser(Long usuarioId) {
+        LoanStatsResponse dto = new LoanStatsResponse();
+        dto.setUsuarioId(usuarioId);
+        dto.setPrestamosActivos(aggregates.get(LoanStatType.USUARIO_ACTIVOS, usuarioId));
+        return dto;
+    }
+
+    @Override
+    public LoanStatsResponse byBook(Long libroId) {
+        LoanStatsResponse dto = new LoanStatsResponse();
+        dto.setLibroId(libroId);
+        dto.setPrestamosTotales(aggregates.get(LoanStatType.LIBRO_TOTAL, libroId));
+        return dto;
+    }
+
+    @Override
+    public LoanStatsResponse byAuthor(Long autorId) {
+        LoanStatsResponse dto = new LoanStatsResponse();
+        dto.setAutorId(autorId);
+        dto.setPrestamosTotales(aggregates.get(LoanStatType.AUTOR_TOTAL, autorId));
+        return dto;
+    }
+
+    @Override
+    public List<DailyLoansResponse> daily(LocalDate desde, LocalDate hasta) {
+        if (hasta.isBefore(desde)) {
+            throw new BadRequestException("La fecha 'hasta' no puede ser anterior a 'desde'");
+        }
+        if (hasta.toEpochDay() - desde.toEpochDay() >= MAX_DAYS) {
+            throw new BadRequestException("El rango máximo es de " + MAX_DAYS + " días");
+        }
+        long[] counts = aggregates.perDay(desde, hasta);
+        List<DailyLoansResponse> out = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            DailyLoansResponse dto = new DailyLoansResponse();
+            dto.setFecha(desde.plusDays(i));
+            dto.setPrestamos(counts[i]);
+            out.add(dto);
+        }
+        return out;
+    }
+
+    @Override
+    public TopBooksResponse topBooks(String window, int limit) {
+        requireHome("El ranking de libros");
+        TopBooksLeaderboard.Window w = TopBooksLeaderboard.Window.parse(window);
+        if (w == null) {
+            throw new BadRequestException("Ventana inválida: " + window + " (use 1h, 24h o 7d)");
+        }
+        TopBooksLeaderboard.Ranking ranking = leaderboard.top(w, limit);
+
+        TopBooksResponse dto = new TopBooksResponse();
+        dto.setVentana(w.label());
+        dto.setTotal(ranking.getTotal());
+        dto.setErrorMaximo(ranking.getMaxError());
+        dto.setLibros(ranking.getEntries().stream()
+                .map(this::toTopBook)
+                .toList());
+        return dto;
+    }
+
+    @Override
+    public DistinctBorrowersResponse distinctBorrowersByBook(Long libroId, YearMonth desde, YearMonth hasta) {
+        DistinctBorrowersResponse dto = distinctBorrowers(BorrowerSketch.Tipo.LIBRO, List.of(libroId), desde, hasta);
+        dto.setLibroId(libroId);
+        return dto;
+    }
+
+    @Override
+    public DistinctBorrowersResponse distinctBorrowersByAuthors(List<Long> autorIds, YearMonth desde, YearMonth hasta) {
+        if (autorIds == null || autorIds.isEmpty()) {
+            throw new BadRequestException("Debe indicar al menos un autor");
+        }
+        DistinctBorrowersResponse dto = distinctBorrowers(BorrowerSketch.Tipo.AUTOR, autorIds, desde, hasta);
+        dto.setAutorIds(autorIds);
+        return dto;
+    }
+
+    private DistinctBorrowersResponse distinctBorrowers(BorrowerSketch.Tipo tipo, List<Long> claves,
+                                                        YearMonth desde, YearMonth hasta) {
+        requireHome("El conteo de prestatarios distintos");
+        if (hasta.isBefore(desde)) {
+            throw new BadRequestException("El mes 'hasta' no puede ser anterior a 'desde'");
+        }
+        DistinctBorrowers.Estimate estimate = distinctBorrowers.estimate(tipo, claves,
+                DistinctBorrowers.periodOf(desde.getYear(), desde.getMonthValue()),
+                DistinctBorrowers.periodOf(hasta.getYear(), hasta.getMonthValue()));
+
+        DistinctBorrowersResponse dto = new DistinctBorrowersResponse();
+        dto.setDesde(desde.toString());
+        dto.setHasta(hasta.toString());
+        dto.setPrestatariosDistintos(estimate.getDistinct());
+        dto.setErrorRelativo(estimate.getRelativeError());
+        return dto;
+    }
+
+    private static void requireHome(String que) {
+        if (!BranchContext.isHome()) {
+            throw new BadRequestException(que + " solo está disponible en la sede principal ("
+                    + BranchContext.defaultBranch() + ")");
+        }
+    }
+
+    // El título sale del índice de búsqueda en memoria, no de la BD
+    private TopBookResponse toTopBook(TopBooksLeaderboard.Entry entry) {
+        TopBookResponse dto = new TopBookResponse();
+        dto.setLibroId(entry.getBookId());
+        dto.setTitulo(searchIndex.title(entry.getBookId()));
+        dto.setPrestamos(entry.getCount());
+        dto.setError(entry.getError());
+        return dto;
+    }
+}
@@ -6,9 +6,12 @@ import com.grupobb.biblioteca.dto.User.UserResponseData;
 import com.grupobb.biblioteca.repository.LoanRepository;
 import com.grupobb.biblioteca.repository.UserRepository;
 import com.grupobb.biblioteca.service.UserService;
+import com.grupobb.biblioteca.service.support.AfterCommit;
+import com.grupobb.biblioteca.service.user.EmailBloomFilter;
 import com.grupobb.biblioteca.web.advice.BadRequestException;
 import com.grupobb.biblioteca.web.advice.ConflictException;
 import com.grupobb.biblioteca.web.advice.NotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,18 +22,20 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository repo;
     private final LoanRepository loanRepository;
+    private final EmailBloomFilter emailFilter;
 
-    public UserServiceImpl(UserRepository repo, LoanRepository loanRepository) {
+    public UserServiceImpl(UserRepository repo, LoanRepository loanRepository, EmailBloomFilter emailFilter) {
         this.repo = repo;
         this.loanRepository = loanRepository;
+        this.emailFilter = emailFilter;
     }
 
     @Override
     @Transactional
     public UserResponseData create(UserRequestData request) {
 
-        // Validar email único
-        if (repo.existsByEmail(request.getEmail())) {
+        // Validar email único: solo se consulta la BD si el filtro no descarta el email
+        if (emailFilter.mightExist(request.getEmail()) && repo.existsByEmail(request.getEmail())) {
             throw new ConflictException("El email ya está registrado");
         }
 
@@ -38,12 +43,16 @@ public class UserServiceImpl implements UserService {
         user.setNombre(request.getNombre());
         user.setEmail(request.getEmail());
 
-        User saved = repo.save(user);
+        // La restricción única es la validación definitiva (dos altas simultáneas)
+        User saved = saveUnique(user, "El email ya está registrado");
+        String email = saved.getEmail();
+        AfterCommit.run(() -> emailFilter.added(email));
 
         return toResponse(saved);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserResponseData getById(Long id) {
         User user = repo.findById(id)
                 .orElseThrow(() -> new NotFoundException("Usuario no encontrado"));
@@ -52,10 +61,11 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserResponseData> list() {
         return repo.findAll()
                 .stream()
-                .map(this::toResponse)
+                .map(UserServiceImpl::toResponse)
                 .toList();
     }
 
@@ -67,7 +77,10 @@ public class UserServiceImpl implements UserService {
                 .orElseThrow(() -> new NotFoundException("Usuario no encontrado"));
 
         // Validar email único si cambia
-        if (!user.getEmail().equals(request.getEmail())
+        String anterior = user.getEmail();
+        boolean cambiaEmail = !anterior.equals(request.getEmail());
+        if (cambiaEmail
+                && emailFilter.mightExist(request.getEmail())
                 && repo.existsByEmail(request.getEmail())) {
             throw new ConflictException("El email ya está en uso");
         }
@@ -75,7 +88,14 @@ public class UserServiceImpl implements UserService {
         user.setNombre(request.getNombre());
         user.setEmail(request.getEmail());
 
-        User updated = repo.save(user);
+        User updated = saveUnique(user, "El email ya está en uso");
+        if (cambiaEmail) {
+            String nuevo = updated.getEmail();
+            AfterCommit.run(() -> {
+                emailFilter.added(nuevo);
+                emailFilter.removed(anterior);
+            });
+        }
 
         return toResponse(updated);
     }
@@ -93,9 +113,20 @@ public class UserServiceImpl implements UserService {
         }
 
         repo.delete(user);
+        String email = user.getEmail();
+        AfterCommit.run(() -> emailFilter.removed(email));
+    }
+
+    // saveAndFlush para que la violación de la restricción única salga aquí y no en el commit
+    private User saveUnique(User user, String mensaje) {
+        try {
+            return repo.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw new ConflictException(mensaje);
+        }
     }
 
-    private UserResponseData toResponse(User user) {
+    static UserResponseData toResponse(User user) {
         UserResponseData dto = new UserResponseData();
         dto.setId(user.getId());
         dto.setNombre(user.getNombre());
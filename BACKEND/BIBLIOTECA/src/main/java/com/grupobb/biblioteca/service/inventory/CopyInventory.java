@@ -0,0 +1,103 @@
+package com.grupobb.biblioteca.service.inventory;
+
+import com.grupobb.biblioteca.domain.Book;
+import com.grupobb.biblioteca.domain.BookCopy;
+import com.grupobb.biblioteca.repository.BookCopyRepository;
+import com.grupobb.biblioteca.repository.BookRepository;
+import com.grupobb.biblioteca.web.advice.BadRequestException;
+import com.grupobb.biblioteca.web.advice.BookNotAvailableException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ejemplares por título.
+ *
+ * Prestar = un UPDATE condicional que descuenta el contador del libro (sin leer-modificar-escribir
+ * desde la aplicación) y luego tomar un ejemplar libre. El UPDATE deja bloqueada la fila del
+ * título hasta el commit, así que la elección del ejemplar no compite con otros préstamos del
+ * mismo título. Todos los métodos deben llamarse dentro de una transacción.
+ */
+@Component
+public class CopyInventory {
+
+    private final BookRepository bookRepository;
+    private final BookCopyRepository copyRepository;
+
+    public CopyInventory(BookRepository bookRepository, BookCopyRepository copyRepository) {
+        this.bookRepository = bookRepository;
+        this.copyRepository = copyRepository;
+    }
+
+    // Reserva un ejemplar del título o lanza BookNotAvailableException si no queda ninguno.
+    public BookCopy checkout(Book book) {
+        if (bookRepository.checkoutCopy(book.getId()) == 0) {
+            throw new BookNotAvailableException("El libro no está disponible");
+        }
+        BookCopy copia = copyRepository.findFirstByLibroAndDisponibleTrueAndRetiradoFalseOrderByIdAsc(book)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Contador de ejemplares desincronizado para el libro " + book.getId()));
+        copia.setDisponible(false);
+        return copia;
+    }
+
+    // Devuelve el ejemplar a la estantería. Préstamos antiguos sin ejemplar liberan uno cualquiera.
+    public void release(Book book, BookCopy copia) {
+        if (copia == null) {
+            copia = copyRepository.findFirstByLibroAndDisponibleFalseAndRetiradoFalseOrderByIdAsc(book).orElse(null);
+        }
+        if (copia != null) {
+            copia.setDisponible(true);
+        }
+        bookRepository.returnCopy(book.getId());
+    }
+
+    // Ejemplares libres según la BD (no la entidad en memoria).
+    public int available(Long libroId) {
+        return bookRepository.availableCopies(libroId);
+    }
+
+    // Crea los ejemplares de un título recién insertado.
+    public void createCopies(Book book, int cantidad) {
+        List<BookCopy> copias = new ArrayList<>(cantidad);
+        for (int i = 0; i < cantidad; i++) {
+            copias.add(new BookCopy(book));
+        }
+        copyRepository.saveAll(copias);
+    }
+
+    // Solo para borrar el título completo (los préstamos históricos siguen impidiéndolo por FK).
+    public void deleteCopies(Book book) {
+        copyRepository.deleteByLibro(book);
+    }
+
+    /**
+     * Ajusta el total de ejemplares. {@code book} debe venir de findByIdForUpdate (fila bloqueada
+     * y contadores frescos). Solo se pueden retirar ejemplares que estén en la estantería.
+     */
+    public void resize(Book book, int total) {
+        if (total < 1) {
+            throw new BadRequestException("Un libro debe tener al menos un ejemplar");
+        }
+        int delta = total - book.getEjemplaresTotales();
+        if (delta > 0) {
+            createCopies(book, delta);
+        } else if (delta < 0) {
+            List<BookCopy> libres = copyRepository.findByLibroAndDisponibleTrueAndRetiradoFalseOrderByIdDesc(book);
+            if (libres.size() < -delta) {
+                throw new BadRequestException("No se pueden retirar ejemplares que están prestados");
+            }
+            for (int i = 0; i < -delta; i++) {
+                BookCopy copia = libres.get(i);
+                copia.setDisponible(false);
+                copia.setRetirado(true);
+            }
+        } else {
+            return;
+        }
+        book.setEjemplaresTotales(total);
+        book.setEjemplaresDisponibles(book.getEjemplaresDisponibles() + delta);
+        book.setDisponible(book.getEjemplaresDisponibles() > 0);
+    }
+}
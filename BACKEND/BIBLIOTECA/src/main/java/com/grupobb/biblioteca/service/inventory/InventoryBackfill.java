@@ -0,0 +1,50 @@
+package com.grupobb.biblioteca.service.inventory;
+
+import com.grupobb.biblioteca.config.BranchProperties;
+import com.grupobb.biblioteca.datasource.BranchContext;
+import com.grupobb.biblioteca.repository.BookCopyRepository;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Migra los libros creados antes de los ejemplares: cada fila de `libros` pasa a tener un
+ * ejemplar (prestado si el libro no estaba disponible) y los préstamos activos apuntan a él.
+ * Es idempotente; corre como ApplicationRunner para terminar antes de que los índices en
+ * memoria se carguen en ApplicationReadyEvent. Con varias sedes se aplica a cada una.
+ */
+@Component
+public class InventoryBackfill implements ApplicationRunner {
+
+    private final BookCopyRepository copyRepository;
+    private final TransactionTemplate tx;
+    private final BranchProperties branches;
+
+    public InventoryBackfill(BookCopyRepository copyRepository,
+                             PlatformTransactionManager transactionManager,
+                             BranchProperties branches) {
+        this.copyRepository = copyRepository;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.branches = branches;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (String sede : branches.ids()) {
+            BranchContext.run(sede, () -> tx.executeWithoutResult(status -> migrar(sede)));
+        }
+    }
+
+    private void migrar(String sede) {
+        int libros = copyRepository.backfillCounters();
+        if (libros == 0) {
+            return;
+        }
+        int ejemplares = copyRepository.backfillCopies();
+        int prestamos = copyRepository.backfillActiveLoans();
+        System.out.println("[Inventory] Sede '" + sede + "': migrados " + libros + " libros a ejemplares ("
+                + ejemplares + " ejemplares, " + prestamos + " préstamos activos enlazados)");
+    }
+}
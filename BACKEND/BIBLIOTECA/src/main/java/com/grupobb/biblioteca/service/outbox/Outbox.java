@@ -0,0 +1,42 @@
+package com.grupobb.biblioteca.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupobb.biblioteca.domain.OutboxEvent;
+import com.grupobb.biblioteca.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+/**
+ * Registra eventos de dominio en `outbox_eventos` dentro de la transacción del llamador.
+ *
+ * Exige una transacción abierta (MANDATORY): si la escritura hace rollback el evento desaparece
+ * con ella, y si se confirma OutboxRelay lo publicará aunque el proceso caiga justo después.
+ */
+@Component
+public class Outbox {
+
+    private final OutboxEventRepository repository;
+    private final ObjectMapper objectMapper;
+
+    public Outbox(OutboxEventRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String tipo, Long agregadoId, Map<String, ?> datos) {
+        try {
+            repository.save(new OutboxEvent(tipo, agregadoId, objectMapper.writeValueAsString(datos)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Datos de evento no serializables: " + tipo, e);
+        }
+    }
+
+    public void record(String tipo, Long agregadoId) {
+        record(tipo, agregadoId, Map.of());
+    }
+}
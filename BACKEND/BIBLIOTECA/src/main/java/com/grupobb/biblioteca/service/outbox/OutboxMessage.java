@@ -0,0 +1,41 @@
+package com.grupobb.biblioteca.service.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento del outbox ya confirmado, tal como lo reciben los suscriptores en proceso
+ * ({@code @EventListener} sobre este tipo). Llegan en orden de id y al menos una vez:
+ * si el proceso cae tras publicar pero antes de borrar el lote, se vuelven a entregar.
+ */
+public class OutboxMessage {
+
+    private final long id;
+    private final String tipo;
+    private final Long agregadoId;
+    private final JsonNode datos;
+    private final LocalDateTime creado;
+
+    public OutboxMessage(long id, String tipo, Long agregadoId, JsonNode datos, LocalDateTime creado) {
+        this.id = id;
+        this.tipo = tipo;
+        this.agregadoId = agregadoId;
+        this.datos = datos;
+        this.creado = creado;
+    }
+
+    public long getId() { return id; }
+    public String getTipo() { return tipo; }
+    public Long getAgregadoId() { return agregadoId; }
+    public JsonNode getDatos() { return datos; }
+    public LocalDateTime getCreado() { return creado; }
+
+    public boolean is(String t) {
+        return tipo.equals(t);
+    }
+
+    public boolean startsWith(String prefijo) {
+        return tipo.startsWith(prefijo);
+    }
+}
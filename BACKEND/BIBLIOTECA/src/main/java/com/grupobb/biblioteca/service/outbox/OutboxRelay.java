@@ -0,0 +1,180 @@
+package com.grupobb.biblioteca.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupobb.biblioteca.config.BranchProperties;
+import com.grupobb.biblioteca.datasource.BranchContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drena `outbox_eventos` y publica cada evento a los suscriptores en proceso.
+ *
+ * - Cada lote es una transacción: reclama hasta {@code outbox.batch-size} eventos en orden de id
+ *   con FOR UPDATE SKIP LOCKED (otra instancia que drene a la vez salta esas filas en lugar de
+ *   esperar), los publica con {@link ApplicationEventPublisher} y los borra.
+ * - Mientras los lotes salgan llenos se sigue drenando; si no, se espera {@code outbox.poll-ms}.
+ * - Si un suscriptor falla, el lote se corta ahí (los anteriores se confirman) y el evento se
+ *   reintenta en la siguiente pasada; tras {@code outbox.max-attempts} fallos se descarta.
+ *
+ * El orden es el de los ids: dos transacciones concurrentes pueden confirmarse en orden
+ * distinto al de sus ids, y con varias instancias el orden solo se respeta dentro de cada lote.
+ *
+ * Métricas (Micrometer, /actuator/metrics): outbox.published, outbox.failed, outbox.discarded,
+ * outbox.batch (duración de cada lote), outbox.publish.lag (de la escritura a la publicación)
+ * y outbox.lag (antigüedad del evento pendiente más viejo en la última pasada).
+ */
+@Component
+public class OutboxRelay {
+
+    private static final String SELECT_LOTE =
+            "select id, tipo, agregado_id, payload, creado, intentos from outbox_eventos "
+            + "order by id limit ? for update skip locked";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ApplicationEventPublisher publisher;
+    private final ObjectMapper objectMapper;
+    private final BranchProperties branches;
+
+    private final Counter published;
+    private final Counter failed;
+    private final Counter discarded;
+    private final Timer batchTimer;
+    private final Timer publishLag;
+    private final AtomicLong oldestPendingMs = new AtomicLong();
+
+    @Value("${outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${outbox.max-attempts:5}")
+    private int maxAttempts;
+
+    public OutboxRelay(JdbcTemplate jdbc,
+                       PlatformTransactionManager transactionManager,
+                       ApplicationEventPublisher publisher,
+                       ObjectMapper objectMapper,
+                       BranchProperties branches,
+                       MeterRegistry registry) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.publisher = publisher;
+        this.objectMapper = objectMapper;
+        this.branches = branches;
+        this.published = Counter.builder("outbox.published").description("Eventos publicados").register(registry);
+        this.failed = Counter.builder("outbox.failed").description("Publicaciones fallidas").register(registry);
+        this.discarded = Counter.builder("outbox.discarded").description("Eventos descartados tras agotar reintentos").register(registry);
+        this.batchTimer = Timer.builder("outbox.batch").description("Duración de cada lote del relay").register(registry);
+        this.publishLag = Timer.builder("outbox.publish.lag").description("Tiempo entre la escritura y la publicación")
+                .publishPercentiles(0.5, 0.99).register(registry);
+        Gauge.builder("outbox.lag", oldestPendingMs, AtomicLong::get).baseUnit("milliseconds")
+                .description("Antigüedad del evento pendiente más viejo").register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.poll-ms:200}")
+    public void drain() {
+        long maxLag = 0;
+        // Cada sede tiene su propio outbox
+        for (String sede : branches.ids()) {
+            maxLag = Math.max(maxLag, BranchContext.call(sede, this::drenarSede));
+        }
+        oldestPendingMs.set(maxLag);
+    }
+
+    // Devuelve la antigüedad del primer evento encontrado (0 si no había pendientes).
+    private long drenarSede() {
+        long lag = -1;
+        while (true) {
+            Lote lote = batchTimer.record(() -> tx.execute(status -> procesarLote()));
+            if (lag < 0) {
+                lag = lote.primeraAntiguedadMs;
+            }
+            if (lote.leidos < batchSize || lote.cortado) {
+                return Math.max(lag, 0);
+            }
+        }
+    }
+
+    private Lote procesarLote() {
+        List<Pendiente> pendientes = jdbc.query(SELECT_LOTE, (rs, i) -> new Pendiente(
+                rs.getLong("id"), rs.getString("tipo"), (Long) rs.getObject("agregado_id"),
+                rs.getString("payload"), rs.getTimestamp("creado").toLocalDateTime(), rs.getInt("intentos")), batchSize);
+        Lote lote = new Lote(pendientes.size());
+        if (pendientes.isEmpty()) {
+            return lote;
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        lote.primeraAntiguedadMs = Duration.between(pendientes.get(0).creado, ahora).toMillis();
+
+        List<Object[]> borrar = new ArrayList<>();
+        for (Pendiente p : pendientes) {
+            try {
+                publisher.publishEvent(new OutboxMessage(p.id, p.tipo, p.agregadoId,
+                        objectMapper.readTree(p.payload == null ? "{}" : p.payload), p.creado));
+                publishLag.record(Duration.between(p.creado, LocalDateTime.now()));
+                published.increment();
+                borrar.add(new Object[]{p.id});
+            } catch (RuntimeException | JsonProcessingException e) {
+                failed.increment();
+                if (p.intentos + 1 >= maxAttempts) {
+                    System.out.println("[Outbox] Evento " + p.id + " (" + p.tipo + ") descartado tras "
+                            + maxAttempts + " intentos: " + e.getMessage());
+                    discarded.increment();
+                    borrar.add(new Object[]{p.id});
+                } else {
+                    System.out.println("[Outbox] Error al publicar el evento " + p.id + " (" + p.tipo + "), se reintentará: "
+                            + e.getMessage());
+                    jdbc.update("update outbox_eventos set intentos = intentos + 1 where id = ?", p.id);
+                }
+                // Los siguientes esperan para no adelantarse al que falló
+                lote.cortado = true;
+                break;
+            }
+        }
+        jdbc.batchUpdate("delete from outbox_eventos where id = ?", borrar);
+        return lote;
+    }
+
+    private static final class Pendiente {
+        final long id;
+        final String tipo;
+        final Long agregadoId;
+        final String payload;
+        final LocalDateTime creado;
+        final int intentos;
+
+        Pendiente(long id, String tipo, Long agregadoId, String payload, LocalDateTime creado, int intentos) {
+            this.id = id;
+            this.tipo = tipo;
+            this.agregadoId = agregadoId;
+            this.payload = payload;
+            this.creado = creado;
+            this.intentos = intentos;
+        }
+    }
+
+    private static final class Lote {
+        final int leidos;
+        long primeraAntiguedadMs = -1;
+        boolean cortado;
+
+        Lote(int leidos) {
+            this.leidos = leidos;
+        }
+    }
+}
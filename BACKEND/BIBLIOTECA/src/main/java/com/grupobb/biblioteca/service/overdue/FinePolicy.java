@@ -0,0 +1,44 @@
+package com.grupobb.biblioteca.service.overdue;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Plazo de préstamo y cálculo de multas (tarifa diaria con tope).
+ * Lo usan tanto el job de vencidos como la devolución, para que ambos den el mismo resultado.
+ */
+@Component
+public class FinePolicy {
+
+    private final int loanDays;
+    private final BigDecimal dailyRate;
+    private final BigDecimal maxFine;
+
+    public FinePolicy(@Value("${loan.duration-days:14}") int loanDays,
+                      @Value("${fines.daily-rate:0.50}") BigDecimal dailyRate,
+                      @Value("${fines.max:20.00}") BigDecimal maxFine) {
+        this.loanDays = loanDays;
+        this.dailyRate = dailyRate;
+        this.maxFine = maxFine;
+    }
+
+    public LocalDate dueDate(LocalDate fechaPrestamo) {
+        return fechaPrestamo.plusDays(loanDays);
+    }
+
+    // Días completos de atraso a la fecha indicada (0 si aún está en plazo).
+    public int daysOverdue(LocalDate fechaVencimiento, LocalDate hoy) {
+        return (int) Math.max(0, ChronoUnit.DAYS.between(fechaVencimiento, hoy));
+    }
+
+    public BigDecimal fine(int diasAtraso) {
+        if (diasAtraso <= 0) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        return dailyRate.multiply(BigDecimal.valueOf(diasAtraso)).min(maxFine).setScale(2);
+    }
+}
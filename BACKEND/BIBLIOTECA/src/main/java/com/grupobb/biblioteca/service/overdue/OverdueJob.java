@@ -0,0 +1,244 @@
+package com.grupobb.biblioteca.service.overdue;
+
+import com.grupobb.biblioteca.config.BranchProperties;
+import com.grupobb.biblioteca.datasource.BranchContext;
+import com.grupobb.biblioteca.domain.JobCheckpoint;
+import com.grupobb.biblioteca.repository.JobCheckpointRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Job diario de préstamos vencidos y multas.
+ *
+ * - Solo recorre préstamos activos (fecha_devolucion IS NULL, índice idx_prestamos_activos),
+ *   repartidos en {@code overdue.partitions} rangos de id.
+ * - Las particiones se procesan en paralelo con {@code overdue.threads} hilos: es también el
+ *   máximo de conexiones que el job le quita al pool de Hikari (10 por defecto).
+ * - Cada lote es una transacción corta: lee hasta {@code overdue.chunk-size} préstamos por
+ *   keyset (id > cursor), calcula la multa, escribe con un batch UPDATE y avanza el checkpoint
+ *   en la misma transacción. Si el proceso muere, la siguiente ejecución sigue desde el
+ *   último lote confirmado de cada partición.
+ */
+@Component
+public class OverdueJob {
+
+    static final String TAREA = "multas_vencidos";
+
+    private static final String SELECT_LOTE =
+            "select id, fecha_prestamo, fecha_vencimiento from prestamos "
+            + "where fecha_devolucion is null and id > ? and id <= ? "
+            + "and (fecha_vencimiento is null or fecha_vencimiento < ?) "
+            + "order by id limit ?";
+
+    private static final String UPDATE_MULTA =
+            "update prestamos set fecha_vencimiento = ?, dias_atraso = ?, multa = ? "
+            + "where id = ? and fecha_devolucion is null";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final JobCheckpointRepository checkpoints;
+    private final FinePolicy finePolicy;
+    private final BranchProperties branches;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(r -> new Thread(r, "overdue-job"));
+
+    @Value("${overdue.partitions:8}")
+    private int partitions;
+
+    @Value("${overdue.threads:2}")
+    private int threads;
+
+    @Value("${overdue.chunk-size:500}")
+    private int chunkSize;
+
+    // Pausa entre lotes de una misma partición para no acaparar la BD
+    @Value("${overdue.pause-ms:20}")
+    private long pauseMs;
+
+    public OverdueJob(JdbcTemplate jdbc,
+                      PlatformTransactionManager transactionManager,
+                      JobCheckpointRepository checkpoints,
+                      FinePolicy finePolicy,
+                      BranchProperties branches) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.checkpoints = checkpoints;
+        this.finePolicy = finePolicy;
+        this.branches = branches;
+    }
+
+    // Una ejecución interrumpida (reinicio, caída) se retoma al arrancar, sin bloquear el arranque.
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeIfInterrupted() {
+        boolean pendiente = branches.ids().stream().anyMatch(sede -> BranchContext.call(sede, () ->
+                checkpoints.findByTareaOrderByParticionAsc(TAREA).stream().anyMatch(cp -> !cp.isCompletada())));
+        if (pendiente) {
+            coordinator.submit(this::run);
+        }
+    }
+
+    // El cron solo encola: el hilo del planificador lo comparten el outbox, el latido de la réplica
+    // y los flush periódicos, y la pasada completa por todas las sedes puede durar minutos.
+    @Scheduled(cron = "${overdue.cron:0 15 2 * * *}")
+    public void schedule() {
+        coordinator.submit(this::run);
+    }
+
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            System.out.println("[Overdue] Ya hay una ejecución en curso");
+            return;
+        }
+        try {
+            // Cada sede tiene sus préstamos y sus checkpoints; se recorren una tras otra
+            for (String sede : branches.ids()) {
+                BranchContext.run(sede, () -> ejecutar(sede));
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void ejecutar(String sede) {
+        LocalDate hoy = LocalDate.now();
+        List<JobCheckpoint> pendientes = planificar(hoy);
+        if (pendientes.isEmpty()) {
+            return;
+        }
+        long t0 = System.currentTimeMillis();
+        AtomicLong actualizados = new AtomicLong();
+        AtomicInteger fallidas = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, pendientes.size()));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (JobCheckpoint cp : pendientes) {
+                futures.add(pool.submit(() -> BranchContext.run(sede,
+                        () -> actualizados.addAndGet(procesarParticion(cp, hoy)))));
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (Exception e) {
+                    fallidas.incrementAndGet();
+                    System.out.println("[Overdue] Partición fallida (se retomará): " + e.getMessage());
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        System.out.println("[Overdue] Sede '" + sede + "': " + pendientes.size() + " particiones, "
+                + actualizados.get() + " préstamos vencidos actualizados, " + fallidas.get() + " fallidas, en "
+                + (System.currentTimeMillis() - t0) + "ms");
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coordinator.shutdownNow();
+    }
+
+    // Particiones incompletas de la ejecución anterior, o un plan nuevo si la anterior terminó.
+    private List<JobCheckpoint> planificar(LocalDate hoy) {
+        List<JobCheckpoint> existentes = checkpoints.findByTareaOrderByParticionAsc(TAREA);
+        List<JobCheckpoint> incompletas = existentes.stream().filter(cp -> !cp.isCompletada()).toList();
+        if (!incompletas.isEmpty()) {
+            System.out.println("[Overdue] Retomando " + incompletas.size() + " particiones de la ejecución del "
+                    + incompletas.get(0).getEjecucion());
+            return incompletas;
+        }
+        if (!existentes.isEmpty() && hoy.equals(existentes.get(0).getEjecucion())) {
+            return List.of();
+        }
+
+        Map<String, Object> rango = jdbc.queryForMap(
+                "select min(id) as lo, max(id) as hi from prestamos where fecha_devolucion is null");
+        if (rango.get("lo") == null) {
+            return List.of();
+        }
+        long lo = ((Number) rango.get("lo")).longValue() - 1;
+        long hi = ((Number) rango.get("hi")).longValue();
+        long paso = Math.max(1, (hi - lo + partitions - 1) / partitions);
+        int n = (int) ((hi - lo + paso - 1) / paso);
+
+        List<JobCheckpoint> plan = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long desde = lo + i * paso;
+            plan.add(new JobCheckpoint(TAREA, i, hoy, desde, Math.min(hi, desde + paso)));
+        }
+        tx.executeWithoutResult(status -> {
+            checkpoints.deleteByTarea(TAREA);
+            checkpoints.flush();
+            checkpoints.saveAll(plan);
+        });
+        return plan;
+    }
+
+    private long procesarParticion(JobCheckpoint cp, LocalDate hoy) {
+        long cursor = cp.getUltimoId();
+        long hasta = cp.getHastaId();
+        long total = 0;
+        while (true) {
+            long desde = cursor;
+            long[] resultado = tx.execute(status -> procesarLote(cp.getParticion(), desde, hasta, hoy));
+            total += resultado[1];
+            if (resultado[0] >= hasta) {
+                return total;
+            }
+            cursor = resultado[0];
+            if (pauseMs > 0) {
+                try {
+                    Thread.sleep(pauseMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return total;
+                }
+            }
+        }
+    }
+
+    // Devuelve [nuevo cursor, filas actualizadas]; cursor == hasta cuando la partición terminó.
+    private long[] procesarLote(int particion, long desde, long hasta, LocalDate hoy) {
+        List<Object[]> filas = new ArrayList<>(chunkSize);
+        jdbc.query(SELECT_LOTE, rs -> {
+            long id = rs.getLong(1);
+            LocalDate prestamo = rs.getObject(2, LocalDate.class);
+            LocalDate vencimiento = rs.getObject(3, LocalDate.class);
+            if (vencimiento == null) {
+                vencimiento = finePolicy.dueDate(prestamo);
+            }
+            int dias = finePolicy.daysOverdue(vencimiento, hoy);
+            BigDecimal multa = finePolicy.fine(dias);
+            filas.add(new Object[]{Date.valueOf(vencimiento), dias, multa, id});
+        }, desde, hasta, Date.valueOf(hoy), chunkSize);
+
+        if (!filas.isEmpty()) {
+            jdbc.batchUpdate(UPDATE_MULTA, filas);
+        }
+        boolean fin = filas.size() < chunkSize;
+        long cursor = fin ? hasta : (Long) filas.get(filas.size() - 1)[3];
+        checkpoints.advance(TAREA, particion, cursor, fin, LocalDateTime.now());
+        return new long[]{cursor, filas.size()};
+    }
+}
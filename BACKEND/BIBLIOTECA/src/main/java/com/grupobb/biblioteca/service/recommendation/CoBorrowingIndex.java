@@ -0,0 +1,234 @@
+package com.grupobb.biblioteca.service.recommendation;
+
+import com.grupobb.biblioteca.util.Hashing;
+import com.grupobb.biblioteca.util.SpaceSaving;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * "Quienes prestaron X también prestaron Y", mantenido de forma incremental.
+ *
+ * - Cada usuario conserva sus últimos {@code historySize} libros prestados.
+ * - Al prestar el libro B, se suma 1 al par (B, A) y (A, B) para cada A de ese historial.
+ * - Los conteos de cada libro viven en un {@link SpaceSaving} de {@code candidates} contadores
+ *   (memoria acotada por libro) y además se mantiene ordenado su top-{@code topK}, de modo que
+ *   leer los relacionados es O(K).
+ * - Los libros se reparten en particiones por hash, cada una con su propio lock: un préstamo solo
+ *   bloquea las particiones que toca y la reconstrucción inicial llena cada partición en paralelo
+ *   sin contención (una tarea fork-join por partición).
+ */
+@Component
+public class CoBorrowingIndex {
+
+    private final int historySize;
+    private final int candidates;
+    private final int topK;
+    private final Partition[] partitions;
+    private final Map<Long, ArrayDeque<Long>> histories = new HashMap<>();
+
+    public CoBorrowingIndex(@Value("${recommendations.history-size:20}") int historySize,
+                            @Value("${recommendations.candidates:32}") int candidates,
+                            @Value("${recommendations.top-k:10}") int topK,
+                            @Value("${recommendations.partitions:64}") int partitions) {
+        this.historySize = historySize;
+        this.candidates = candidates;
+        this.topK = Math.min(topK, candidates);
+        this.partitions = new Partition[partitions];
+        for (int i = 0; i < partitions; i++) {
+            this.partitions[i] = new Partition();
+        }
+    }
+
+    // Préstamo nuevo: relaciona el libro con el historial reciente del usuario.
+    public void record(long usuarioId, long libroId) {
+        long[] previous;
+        synchronized (histories) {
+            ArrayDeque<Long> history = histories.computeIfAbsent(usuarioId, k -> new ArrayDeque<>());
+            previous = history.stream().mapToLong(Long::longValue).distinct().toArray();
+            history.remove(libroId);
+            history.addLast(libroId);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+        }
+        for (long other : previous) {
+            if (other != libroId) {
+                increment(libroId, other);
+                increment(other, libroId);
+            }
+        }
+    }
+
+    /**
+     * Relacionados de un libro: pares [libroId, coPréstamos] de mayor a menor.
+     */
+    public long[][] related(long libroId, int limit) {
+        Partition p = partitionOf(libroId);
+        synchronized (p) {
+            Related r = p.books.get(libroId);
+            if (r == null) {
+                return new long[0][];
+            }
+            int n = Math.min(limit, r.topSize);
+            long[][] out = new long[n][];
+            for (int i = 0; i < n; i++) {
+                out[i] = new long[]{r.topIds[i], r.topCounts[i]};
+            }
+            return out;
+        }
+    }
+
+    /**
+     * Reconstruye todo desde el historial completo.
+     *
+     * @param books   libros prestados, agrupados por usuario y en orden cronológico
+     * @param offsets inicio de cada usuario en {@code books}; offsets[n] = books.length
+     * @param users   usuario_id de cada grupo (para recuperar el historial reciente)
+     */
+    public void rebuild(long[] books, int[] offsets, long[] users, int userCount, ForkJoinPool pool) {
+        for (Partition p : partitions) {
+            synchronized (p) {
+                p.books.clear();
+            }
+        }
+        pool.invoke(new RebuildTask(books, offsets, userCount, 0, partitions.length));
+
+        synchronized (histories) {
+            histories.clear();
+            for (int u = 0; u < userCount; u++) {
+                ArrayDeque<Long> history = new ArrayDeque<>();
+                for (int i = Math.max(offsets[u], offsets[u + 1] - historySize); i < offsets[u + 1]; i++) {
+                    history.remove(books[i]);
+                    history.addLast(books[i]);
+                }
+                histories.put(users[u], history);
+            }
+        }
+    }
+
+    public int partitionCount() {
+        return partitions.length;
+    }
+
+    private void increment(long libroId, long other) {
+        Partition p = partitionOf(libroId);
+        synchronized (p) {
+            p.books.computeIfAbsent(libroId, k -> new Related(candidates, topK)).add(other);
+        }
+    }
+
+    private int partitionIndex(long libroId) {
+        return (Hashing.mix(libroId) & Integer.MAX_VALUE) % partitions.length;
+    }
+
+    private Partition partitionOf(long libroId) {
+        return partitions[partitionIndex(libroId)];
+    }
+
+    private static final class Partition {
+        final Map<Long, Related> books = new HashMap<>();
+    }
+
+    // Conteos acotados de un libro + su top-K ordenado (mayor primero).
+    private static final class Related {
+        final SpaceSaving counts;
+        final long[] topIds;
+        final long[] topCounts;
+        int topSize;
+
+        Related(int candidates, int topK) {
+            this.counts = new SpaceSaving(candidates);
+            this.topIds = new long[topK];
+            this.topCounts = new long[topK];
+        }
+
+        void add(long other) {
+            long count = counts.add(other, 1);
+            int pos = -1;
+            for (int i = 0; i < topSize; i++) {
+                if (topIds[i] == other) {
+                    pos = i;
+                    break;
+                }
+            }
+            if (pos < 0) {
+                if (topSize < topIds.length) {
+                    pos = topSize++;
+                } else if (count > topCounts[topSize - 1]) {
+                    pos = topSize - 1;
+                } else {
+                    return;
+                }
+                topIds[pos] = other;
+            }
+            topCounts[pos] = count;
+            // Sube la entrada hasta su lugar (O(K))
+            while (pos > 0 && topCounts[pos - 1] < topCounts[pos]) {
+                long id = topIds[pos - 1];
+                long c = topCounts[pos - 1];
+                topIds[pos - 1] = topIds[pos];
+                topCounts[pos - 1] = topCounts[pos];
+                topIds[pos] = id;
+                topCounts[pos] = c;
+                pos--;
+            }
+        }
+    }
+
+    // Divide el rango de particiones hasta llegar a una; cada hoja recorre el historial
+    // completo pero solo acumula los pares cuyo libro destino cae en su partición.
+    private final class RebuildTask extends RecursiveAction {
+        private final long[] books;
+        private final int[] offsets;
+        private final int userCount;
+        private final int from;
+        private final int to;
+
+        RebuildTask(long[] books, int[] offsets, int userCount, int from, int to) {
+            this.books = books;
+            this.offsets = offsets;
+            this.userCount = userCount;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RebuildTask(books, offsets, userCount, from, mid),
+                        new RebuildTask(books, offsets, userCount, mid, to));
+                return;
+            }
+            Partition p = partitions[from];
+            Map<Long, Related> local = new HashMap<>();
+            for (int u = 0; u < userCount; u++) {
+                int start = offsets[u];
+                int end = offsets[u + 1];
+                for (int i = start; i < end; i++) {
+                    long book = books[i];
+                    if (partitionIndex(book) != from) {
+                        continue;
+                    }
+                    // Mismos pares que generaría el camino incremental: ventana de historySize antes y después
+                    int lo = Math.max(start, i - historySize);
+                    int hi = Math.min(end - 1, i + historySize);
+                    for (int j = lo; j <= hi; j++) {
+                        if (j != i && books[j] != book) {
+                            local.computeIfAbsent(book, k -> new Related(candidates, topK)).add(books[j]);
+                        }
+                    }
+                }
+            }
+            synchronized (p) {
+                p.books.putAll(local);
+            }
+        }
+    }
+}
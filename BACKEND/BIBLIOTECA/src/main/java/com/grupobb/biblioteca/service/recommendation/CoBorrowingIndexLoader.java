@@ -0,0 +1,74 @@
+package com.grupobb.biblioteca.service.recommendation;
+
+import com.grupobb.biblioteca.repository.LoanRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+/**
+ * Reconstruye el {@link CoBorrowingIndex} desde `prestamos` al arrancar.
+ *
+ * El historial se lee en streaming (solo usuario_id y libro_id) hacia arreglos primitivos
+ * y luego se reparte entre las particiones del índice con un pool fork-join.
+ */
+@Component
+public class CoBorrowingIndexLoader {
+
+    private final CoBorrowingIndex index;
+    private final LoanRepository loanRepository;
+
+    public CoBorrowingIndexLoader(CoBorrowingIndex index, LoanRepository loanRepository) {
+        this.index = index;
+        this.loanRepository = loanRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long t0 = System.currentTimeMillis();
+
+        long[] books = new long[1024];
+        int[] offsets = new int[64];
+        long[] users = new long[64];
+        int n = 0;
+        int userCount = 0;
+        long currentUser = Long.MIN_VALUE;
+
+        try (Stream<Object[]> rows = loanRepository.streamHistoryByUsuario()) {
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                long usuarioId = ((Number) row[0]).longValue();
+                long libroId = ((Number) row[1]).longValue();
+                if (usuarioId != currentUser) {
+                    if (userCount + 1 >= offsets.length) {
+                        offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                        users = Arrays.copyOf(users, users.length * 2);
+                    }
+                    offsets[userCount] = n;
+                    users[userCount] = usuarioId;
+                    userCount++;
+                    currentUser = usuarioId;
+                }
+                if (n == books.length) {
+                    books = Arrays.copyOf(books, n * 2);
+                }
+                books[n++] = libroId;
+            }
+        }
+        offsets[userCount] = n;
+
+        ForkJoinPool pool = new ForkJoinPool(Math.min(Runtime.getRuntime().availableProcessors(), index.partitionCount()));
+        try {
+            index.rebuild(books, offsets, users, userCount, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        System.out.println("[Recommendations] Co-préstamos reconstruidos desde " + n + " préstamos de "
+                + userCount + " usuarios en " + (System.currentTimeMillis() - t0) + "ms");
+    }
+}
@@ -0,0 +1,56 @@
+package com.grupobb.biblioteca.service.reservation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.grupobb.biblioteca.service.outbox.OutboxMessage;
+import com.grupobb.biblioteca.websocket.SimpleWebSocketHandler;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Avisa por /ws al usuario cuya reserva recibió el libro, para que el frontend no tenga que
+ * consultar la disponibilidad en bucle. Recibe el evento {@value #RESERVA_ASIGNADA} del outbox,
+ * que solo existe si la devolución se confirmó.
+ */
+@Component
+public class ReservationNotifier {
+
+    public static final String RESERVA_ASIGNADA = "RESERVA_ASIGNADA";
+
+    private final SimpleWebSocketHandler webSocketHandler;
+    private final ObjectMapper objectMapper;
+
+    public ReservationNotifier(SimpleWebSocketHandler webSocketHandler, ObjectMapper objectMapper) {
+        this.webSocketHandler = webSocketHandler;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    public void onOutbox(OutboxMessage message) {
+        if (message.is(RESERVA_ASIGNADA)) {
+            JsonNode d = message.getDatos();
+            reservaAsignada(d.path("usuario_id").asLong(), message.getAgregadoId(), d.path("libro_id").asLong(),
+                    d.path("libro_titulo").asText(), d.path("prestamo_id").asLong());
+        }
+    }
+
+    public void reservaAsignada(long usuarioId, long reservaId, long libroId, String libroTitulo, long prestamoId) {
+        Map<String, Object> mensaje = new LinkedHashMap<>();
+        mensaje.put("tipo", RESERVA_ASIGNADA);
+        mensaje.put("reserva_id", reservaId);
+        mensaje.put("libro_id", libroId);
+        mensaje.put("libro_titulo", libroTitulo);
+        mensaje.put("prestamo_id", prestamoId);
+        try {
+            int sesiones = webSocketHandler.notificar(usuarioId, objectMapper.writeValueAsString(mensaje));
+            System.out.println("[Reservations] Libro " + libroId + " entregado a la reserva " + reservaId
+                    + " (usuario " + usuarioId + ", " + sesiones + " sesiones notificadas)");
+        } catch (JsonProcessingException e) {
+            System.out.println("[Reservations] No se pudo serializar la notificación: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.grupobb.biblioteca.service.reservation;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Espejo en memoria de las colas de `reservas` (solo las EN_ESPERA), por libro.
+ *
+ * Sirve las consultas de posición y profundidad sin ir a la BD. Cada libro tiene su propia
+ * cola y su propio lock, así que una cola muy larga en un título popular no bloquea a los demás;
+ * las operaciones son O(1) salvo la posición, que es O(posición).
+ * La BD sigue siendo la fuente de verdad para la entrega: este espejo se actualiza tras el commit.
+ */
+@Component
+public class ReservationQueues {
+
+    private final ConcurrentHashMap<Long, BookQueue> queues = new ConcurrentHashMap<>();
+
+    public void enqueue(long libroId, long reservaId) {
+        BookQueue q = queues.computeIfAbsent(libroId, k -> new BookQueue());
+        synchronized (q) {
+            q.ids.add(reservaId);
+        }
+    }
+
+    public void remove(long libroId, long reservaId) {
+        BookQueue q = queues.get(libroId);
+        if (q == null) {
+            return;
+        }
+        synchronized (q) {
+            q.ids.remove(reservaId);
+        }
+    }
+
+    // Posición 1-based dentro de la cola; 0 si la reserva no está esperando.
+    public int position(long libroId, long reservaId) {
+        BookQueue q = queues.get(libroId);
+        if (q == null) {
+            return 0;
+        }
+        synchronized (q) {
+            int pos = 1;
+            for (long id : q.ids) {
+                if (id == reservaId) {
+                    return pos;
+                }
+                pos++;
+            }
+            return 0;
+        }
+    }
+
+    public int depth(long libroId) {
+        BookQueue q = queues.get(libroId);
+        if (q == null) {
+            return 0;
+        }
+        synchronized (q) {
+            return q.ids.size();
+        }
+    }
+
+    public void clear() {
+        queues.clear();
+    }
+
+    // Las colas vacías se conservan (una por libro que alguna vez tuvo reservas) para no
+    // competir entre quien la vacía y quien encola de nuevo.
+    private static final class BookQueue {
+        final LinkedHashSet<Long> ids = new LinkedHashSet<>();
+    }
+}
@@ -0,0 +1,53 @@
+package com.grupobb.biblioteca.service.reservation;
+
+import com.grupobb.biblioteca.domain.Reservation;
+import com.grupobb.biblioteca.domain.ReservationStatus;
+import com.grupobb.biblioteca.repository.ReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Carga {@link ReservationQueues} con las reservas EN_ESPERA al arrancar (en orden de llegada).
+ */
+@Component
+public class ReservationQueuesLoader {
+
+    private final ReservationQueues queues;
+    private final ReservationRepository reservationRepository;
+
+    @Value("${reservations.load-page-size:5000}")
+    private int pageSize;
+
+    public ReservationQueuesLoader(ReservationQueues queues, ReservationRepository reservationRepository) {
+        this.queues = queues;
+        this.reservationRepository = reservationRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long t0 = System.currentTimeMillis();
+        queues.clear();
+
+        long total = 0;
+        Page<Reservation> page = reservationRepository.findByEstado(ReservationStatus.EN_ESPERA,
+                PageRequest.of(0, pageSize, Sort.by("id")));
+        while (true) {
+            for (Reservation r : page.getContent()) {
+                queues.enqueue(r.getLibro().getId(), r.getId());
+                total++;
+            }
+            if (!page.hasNext()) {
+                break;
+            }
+            page = reservationRepository.findByEstado(ReservationStatus.EN_ESPERA, page.nextPageable());
+        }
+
+        System.out.println("[Reservations] Colas cargadas: " + total + " reservas en espera en "
+                + (System.currentTimeMillis() - t0) + "ms");
+    }
+}
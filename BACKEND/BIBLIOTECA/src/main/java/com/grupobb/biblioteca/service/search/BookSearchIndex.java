@@ -0,0 +1,547 @@
+package com.grupobb.biblioteca.service.search;
+
+import com.grupobb.biblioteca.util.IntList;
+import com.grupobb.biblioteca.util.LongIntHashMap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido en memoria para buscar libros por palabras del título o del nombre del autor.
+ *
+ * Estructura:
+ * - Cada libro recibe un ordinal denso (int). Las listas de posting son {@link IntList}
+ *   ordenadas, porque los ordinales se asignan siempre de forma creciente.
+ * - Por cada token se indexa la forma exacta y sus prefijos (edge n-grams de
+ *   {@value #MIN_PREFIX} a {@value #MAX_PREFIX} caracteres) para búsqueda "mientras se escribe".
+ *   Un término de consulta más largo usa la lista de sus primeros {@value #MAX_PREFIX}
+ *   caracteres y descarta los candidatos sin una palabra que empiece con el término completo.
+ * - Los autores tienen su propio índice (token -> ordinales de autor) y cada autor
+ *   conoce sus libros; así renombrar un autor no obliga a reindexar sus libros.
+ * - Actualizar o borrar un libro deja una "lápida" en el ordinal viejo; cuando las lápidas
+ *   superan a los vivos se compacta reconstruyendo todo desde los datos guardados.
+ *
+ * Consulta: todos los tokens deben coincidir (AND). Se recorre solo la lista del token
+ * más selectivo y el resto se verifica con búsqueda binaria, acumulando un top-K en un heap.
+ */
+@Component
+public class BookSearchIndex {
+
+    static final int MIN_PREFIX = 2;
+    static final int MAX_PREFIX = 12;
+
+    // Bits de coincidencia por token; el puntaje se deriva de ellos.
+    private static final int TITLE_EXACT = 1;
+    private static final int TITLE_PREFIX = 2;
+    private static final int AUTHOR_EXACT = 4;
+    private static final int AUTHOR_PREFIX = 8;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // --- Libros (por ordinal) ---
+    private long[] docBookIds = new long[1024];
+    private int[] docAuthorOrds = new int[1024];
+    private String[] docTitles = new String[1024];
+    private final BitSet live = new BitSet();
+    private int docCount;
+    private int liveCount;
+    private final LongIntHashMap bookOrdinals = new LongIntHashMap(-1);
+    private final Map<String, IntList> titleExact = new HashMap<>();
+    private final Map<String, IntList> titlePrefix = new HashMap<>();
+
+    // --- Autores (por ordinal) ---
+    private long[] authorIds = new long[256];
+    private String[] authorNames = new String[256];
+    private IntList[] authorBooks = new IntList[256];
+    private int authorCount;
+    private final LongIntHashMap authorOrdinals = new LongIntHashMap(-1);
+    private final Map<String, IntList> authorExact = new HashMap<>();
+    private final Map<String, IntList> authorPrefix = new HashMap<>();
+
+    /**
+     * Resultado de búsqueda; contiene todo lo necesario para responder sin ir a la BD.
+     */
+    public static final class Hit {
+        private final long bookId;
+        private final String titulo;
+        private final long autorId;
+        private final String autorNombre;
+        private final int score;
+
+        Hit(long bookId, String titulo, long autorId, String autorNombre, int score) {
+            this.bookId = bookId;
+            this.titulo = titulo;
+            this.autorId = autorId;
+            this.autorNombre = autorNombre;
+            this.score = score;
+        }
+
+        public long getBookId() { return bookId; }
+        public String getTitulo() { return titulo; }
+        public long getAutorId() { return autorId; }
+        public String getAutorNombre() { return autorNombre; }
+        public int getScore() { return score; }
+    }
+
+    // ------------------------------------------------------------------ escritura
+
+    public void putAuthor(long authorId, String nombre) {
+        lock.writeLock().lock();
+        try {
+            int ord = authorOrdinals.get(authorId);
+            if (ord < 0) {
+                ord = newAuthor(authorId);
+            } else if (authorNames[ord] != null) {
+                if (authorNames[ord].equals(nombre)) {
+                    return;
+                }
+                unindexTerms(authorNames[ord], ord, authorExact, authorPrefix);
+            }
+            authorNames[ord] = nombre;
+            indexTerms(nombre, ord, authorExact, authorPrefix, false);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeAuthor(long authorId) {
+        lock.writeLock().lock();
+        try {
+            int ord = authorOrdinals.get(authorId);
+            if (ord < 0 || authorNames[ord] == null) {
+                return;
+            }
+            unindexTerms(authorNames[ord], ord, authorExact, authorPrefix);
+            authorNames[ord] = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void putBook(long bookId, String titulo, long authorId, String autorNombre) {
+        lock.writeLock().lock();
+        try {
+            int authorOrd = authorOrdinals.get(authorId);
+            if (authorOrd < 0 || authorNames[authorOrd] == null) {
+                // Autor aún no registrado (p. ej. libro cargado antes que su autor).
+                if (authorOrd < 0) {
+                    authorOrd = newAuthor(authorId);
+                }
+                authorNames[authorOrd] = autorNombre;
+                indexTerms(autorNombre, authorOrd, authorExact, authorPrefix, false);
+            }
+            int previous = bookOrdinals.get(bookId);
+            if (previous >= 0) {
+                kill(previous);
+            }
+            appendBook(bookId, titulo, authorOrd);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeBook(long bookId) {
+        lock.writeLock().lock();
+        try {
+            int ord = bookOrdinals.remove(bookId);
+            if (ord >= 0) {
+                kill(ord);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Título indexado del libro, o null si no está en el índice.
+    public String title(long bookId) {
+        lock.readLock().lock();
+        try {
+            int ord = bookOrdinals.get(bookId);
+            return ord >= 0 ? docTitles[ord] : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Vacía el índice; usado antes de una carga completa desde la BD.
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            docCount = 0;
+            liveCount = 0;
+            live.clear();
+            bookOrdinals.clear();
+            titleExact.clear();
+            titlePrefix.clear();
+            authorCount = 0;
+            authorOrdinals.clear();
+            authorExact.clear();
+            authorPrefix.clear();
+            Arrays.fill(docTitles, null);
+            Arrays.fill(authorNames, null);
+            Arrays.fill(authorBooks, null);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ------------------------------------------------------------------ lectura
+
+    public List<Hit> search(String query, int limit) {
+        Set<String> tokens = new LinkedHashSet<>(TextNormalizer.tokenize(query));
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            TokenMatcher[] matchers = new TokenMatcher[tokens.size()];
+            int i = 0;
+            TokenMatcher driver = null;
+            for (String token : tokens) {
+                TokenMatcher m = new TokenMatcher(token);
+                if (m.estimate == 0) {
+                    return List.of(); // AND: un token sin coincidencias vacía el resultado
+                }
+                matchers[i++] = m;
+                if (driver == null || m.estimate < driver.estimate) {
+                    driver = m;
+                }
+            }
+
+            TopK top = new TopK(limit);
+            // 1) Candidatos por título del token conductor (lista ordenada).
+            IntList titleDocs = driver.titlePrefix != null ? driver.titlePrefix : driver.titleExact;
+            if (titleDocs != null) {
+                int[] docs = titleDocs.rawArray();
+                for (int j = 0, n = titleDocs.size(); j < n; j++) {
+                    evaluate(docs[j], matchers, top);
+                }
+            }
+            // 2) Candidatos por autor que no coincidieron por título (evita duplicados).
+            for (IntList authors : new IntList[]{driver.authorExact, driver.authorPrefix}) {
+                if (authors == null) {
+                    continue;
+                }
+                for (int a = 0; a < authors.size(); a++) {
+                    if (authors == driver.authorPrefix && driver.authorExact != null
+                            && driver.authorExact.containsSorted(authors.get(a))) {
+                        continue;
+                    }
+                    IntList books = authorBooks[authors.get(a)];
+                    if (books == null) {
+                        continue;
+                    }
+                    int[] docs = books.rawArray();
+                    for (int j = 0, n = books.size(); j < n; j++) {
+                        int doc = docs[j];
+                        if ((driver.titleBits(doc)) == 0) {
+                            evaluate(doc, matchers, top);
+                        }
+                    }
+                }
+            }
+            return top.drain(this);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void evaluate(int doc, TokenMatcher[] matchers, TopK top) {
+        if (!live.get(doc)) {
+            return;
+        }
+        int score = 0;
+        for (TokenMatcher m : matchers) {
+            int bits = m.titleBits(doc) | m.authorBits(docAuthorOrds[doc]);
+            if (bits == 0) {
+                return;
+            }
+            score += ((bits & TITLE_EXACT) != 0 ? 4 : (bits & TITLE_PREFIX) != 0 ? 2 : 0)
+                    + ((bits & AUTHOR_EXACT) != 0 ? 2 : (bits & AUTHOR_PREFIX) != 0 ? 1 : 0);
+        }
+        top.offer(score, doc);
+    }
+
+    // Listas de posting de un token de la consulta (solo válidas bajo el read lock).
+    private final class TokenMatcher {
+        final IntList titleExact;
+        final IntList titlePrefix;
+        final IntList authorExact;
+        final IntList authorPrefix;
+        final long estimate;
+
+        TokenMatcher(String token) {
+            this.titleExact = BookSearchIndex.this.titleExact.get(token);
+            this.authorExact = BookSearchIndex.this.authorExact.get(token);
+            if (token.length() < MIN_PREFIX) {
+                this.titlePrefix = null;
+                this.authorPrefix = null;
+            } else if (token.length() <= MAX_PREFIX) {
+                this.titlePrefix = BookSearchIndex.this.titlePrefix.get(token);
+                this.authorPrefix = BookSearchIndex.this.authorPrefix.get(token);
+            } else {
+                // Más largo que los prefijos indexados: candidatos por los primeros MAX_PREFIX
+                // caracteres, filtrados por palabras que empiecen con el token completo
+                String indexed = token.substring(0, MAX_PREFIX);
+                this.titlePrefix = startingWith(BookSearchIndex.this.titlePrefix.get(indexed), docTitles, token);
+                this.authorPrefix = startingWith(BookSearchIndex.this.authorPrefix.get(indexed), authorNames, token);
+            }
+
+            long est = titlePrefix != null ? titlePrefix.size() : titleExact != null ? titleExact.size() : 0;
+            IntList authors = authorPrefix != null ? authorPrefix : authorExact;
+            if (authors != null) {
+                for (int i = 0; i < authors.size(); i++) {
+                    IntList books = authorBooks[authors.get(i)];
+                    est += books == null ? 0 : books.size();
+                }
+            }
+            this.estimate = est;
+        }
+
+        int titleBits(int doc) {
+            if (titleExact != null && titleExact.containsSorted(doc)) {
+                return TITLE_EXACT;
+            }
+            return titlePrefix != null && titlePrefix.containsSorted(doc) ? TITLE_PREFIX : 0;
+        }
+
+        int authorBits(int authorOrd) {
+            if (authorExact != null && authorExact.containsSorted(authorOrd)) {
+                return AUTHOR_EXACT;
+            }
+            return authorPrefix != null && authorPrefix.containsSorted(authorOrd) ? AUTHOR_PREFIX : 0;
+        }
+    }
+
+    // Ordinales de la lista (ordenada) cuyo texto tiene alguna palabra que empieza con el token.
+    private static IntList startingWith(IntList candidates, String[] texts, String token) {
+        if (candidates == null) {
+            return null;
+        }
+        IntList out = new IntList(Math.min(candidates.size(), 16));
+        for (int i = 0; i < candidates.size(); i++) {
+            int ord = candidates.get(i);
+            String text = texts[ord];
+            if (text == null) {
+                continue;
+            }
+            for (String word : TextNormalizer.tokenize(text)) {
+                if (word.startsWith(token)) {
+                    out.add(ord);
+                    break;
+                }
+            }
+        }
+        return out.isEmpty() ? null : out;
+    }
+
+    // Min-heap de tamaño fijo sobre (score, ordinal); a igual puntaje gana el ordinal menor.
+    private static final class TopK {
+        private final long[] heap;
+        private int size;
+
+        TopK(int k) {
+            this.heap = new long[k];
+        }
+
+        void offer(int score, int doc) {
+            long key = ((long) score << 32) | (Integer.MAX_VALUE - doc);
+            if (size < heap.length) {
+                heap[size] = key;
+                siftUp(size++);
+            } else if (key > heap[0]) {
+                heap[0] = key;
+                siftDown(0);
+            }
+        }
+
+        List<Hit> drain(BookSearchIndex index) {
+            long[] sorted = Arrays.copyOf(heap, size);
+            Arrays.sort(sorted);
+            List<Hit> hits = new ArrayList<>(size);
+            for (int i = sorted.length - 1; i >= 0; i--) {
+                int score = (int) (sorted[i] >>> 32);
+                int doc = Integer.MAX_VALUE - (int) sorted[i];
+                int authorOrd = index.docAuthorOrds[doc];
+                hits.add(new Hit(index.docBookIds[doc], index.docTitles[doc],
+                        index.authorIds[authorOrd], index.authorNames[authorOrd], score));
+            }
+            return hits;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= heap[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            while (true) {
+                int l = 2 * i + 1;
+                int r = l + 1;
+                int min = i;
+                if (l < size && heap[l] < heap[min]) min = l;
+                if (r < size && heap[r] < heap[min]) min = r;
+                if (min == i) {
+                    return;
+                }
+                swap(i, min);
+                i = min;
+            }
+        }
+
+        private void swap(int a, int b) {
+            long t = heap[a];
+            heap[a] = heap[b];
+            heap[b] = t;
+        }
+    }
+
+    // ------------------------------------------------------------------ internos
+
+    private int newAuthor(long authorId) {
+        if (authorCount == authorIds.length) {
+            int cap = authorIds.length * 2;
+            authorIds = Arrays.copyOf(authorIds, cap);
+            authorNames = Arrays.copyOf(authorNames, cap);
+            authorBooks = Arrays.copyOf(authorBooks, cap);
+        }
+        int ord = authorCount++;
+        authorIds[ord] = authorId;
+        authorOrdinals.put(authorId, ord);
+        return ord;
+    }
+
+    private void appendBook(long bookId, String titulo, int authorOrd) {
+        if (docCount == docBookIds.length) {
+            int cap = docBookIds.length * 2;
+            docBookIds = Arrays.copyOf(docBookIds, cap);
+            docAuthorOrds = Arrays.copyOf(docAuthorOrds, cap);
+            docTitles = Arrays.copyOf(docTitles, cap);
+        }
+        int ord = docCount++;
+        docBookIds[ord] = bookId;
+        docAuthorOrds[ord] = authorOrd;
+        docTitles[ord] = titulo;
+        live.set(ord);
+        liveCount++;
+        bookOrdinals.put(bookId, ord);
+        if (authorBooks[authorOrd] == null) {
+            authorBooks[authorOrd] = new IntList(4);
+        }
+        authorBooks[authorOrd].add(ord);
+        indexTerms(titulo, ord, titleExact, titlePrefix, true);
+    }
+
+    private void kill(int ord) {
+        if (live.get(ord)) {
+            live.clear(ord);
+            liveCount--;
+            docTitles[ord] = null;
+        }
+    }
+
+    // Agrega el ordinal a las listas de cada token y sus prefijos (sin duplicar por documento).
+    private static void indexTerms(String text, int ord, Map<String, IntList> exact,
+                                   Map<String, IntList> prefix, boolean appendOnly) {
+        Set<String> seenExact = new HashSet<>();
+        Set<String> seenPrefix = new HashSet<>();
+        for (String token : TextNormalizer.tokenize(text)) {
+            if (seenExact.add(token)) {
+                addPosting(exact, token, ord, appendOnly);
+            }
+            int max = Math.min(token.length(), MAX_PREFIX);
+            for (int len = MIN_PREFIX; len <= max; len++) {
+                String p = token.substring(0, len);
+                if (seenPrefix.add(p)) {
+                    addPosting(prefix, p, ord, appendOnly);
+                }
+            }
+        }
+    }
+
+    private static void unindexTerms(String text, int ord, Map<String, IntList> exact, Map<String, IntList> prefix) {
+        for (String token : TextNormalizer.tokenize(text)) {
+            removePosting(exact, token, ord);
+            int max = Math.min(token.length(), MAX_PREFIX);
+            for (int len = MIN_PREFIX; len <= max; len++) {
+                removePosting(prefix, token.substring(0, len), ord);
+            }
+        }
+    }
+
+    private static void addPosting(Map<String, IntList> map, String term, int ord, boolean appendOnly) {
+        IntList list = map.computeIfAbsent(term, k -> new IntList(2));
+        if (appendOnly) {
+            list.add(ord); // los ordinales de libro siempre crecen: la lista queda ordenada
+        } else if (!list.containsSorted(ord)) {
+            list.add(ord);
+            list.sort();
+        }
+    }
+
+    private static void removePosting(Map<String, IntList> map, String term, int ord) {
+        IntList list = map.get(term);
+        if (list != null && list.removeValue(ord) && list.isEmpty()) {
+            map.remove(term);
+        }
+    }
+
+    // Reconstruye las listas de títulos cuando la mitad o más de los ordinales son lápidas.
+    private void compactIfNeeded() {
+        int dead = docCount - liveCount;
+        if (dead < 1024 || dead < liveCount) {
+            return;
+        }
+        long[] oldBookIds = docBookIds;
+        int[] oldAuthorOrds = docAuthorOrds;
+        String[] oldTitles = docTitles;
+        BitSet oldLive = (BitSet) live.clone();
+        int oldCount = docCount;
+
+        int cap = Math.max(1024, Integer.highestOneBit(Math.max(1, liveCount)) << 1);
+        docBookIds = new long[cap];
+        docAuthorOrds = new int[cap];
+        docTitles = new String[cap];
+        docCount = 0;
+        liveCount = 0;
+        live.clear();
+        bookOrdinals.clear();
+        titleExact.clear();
+        titlePrefix.clear();
+        for (int a = 0; a < authorCount; a++) {
+            if (authorBooks[a] != null) {
+                authorBooks[a].clear();
+            }
+        }
+        for (int ord = oldLive.nextSetBit(0); ord >= 0 && ord < oldCount; ord = oldLive.nextSetBit(ord + 1)) {
+            appendBook(oldBookIds[ord], oldTitles[ord], oldAuthorOrds[ord]);
+        }
+    }
+}
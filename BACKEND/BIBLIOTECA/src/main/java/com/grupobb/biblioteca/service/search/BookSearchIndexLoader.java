@@ -0,0 +1,63 @@
+package com.grupobb.biblioteca.service.search;
+
+import com.grupobb.biblioteca.domain.Author;
+import com.grupobb.biblioteca.domain.Book;
+import com.grupobb.biblioteca.repository.AuthorRepository;
+import com.grupobb.biblioteca.repository.BookRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+/**
+ * Construye el {@link BookSearchIndex} desde la BD al arrancar la aplicación.
+ * Lee los libros por páginas ordenadas por id para no cargar toda la tabla en memoria de una vez.
+ */
+@Component
+public class BookSearchIndexLoader {
+
+    private final BookSearchIndex index;
+    private final AuthorRepository authorRepository;
+    private final BookRepository bookRepository;
+
+    @Value("${search.load-page-size:5000}")
+    private int pageSize;
+
+    public BookSearchIndexLoader(BookSearchIndex index,
+                                 AuthorRepository authorRepository,
+                                 BookRepository bookRepository) {
+        this.index = index;
+        this.authorRepository = authorRepository;
+        this.bookRepository = bookRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long t0 = System.currentTimeMillis();
+        index.clear();
+
+        for (Author author : authorRepository.findAll()) {
+            index.putAuthor(author.getId(), author.getNombre());
+        }
+
+        Page<Book> page = bookRepository.findAll(PageRequest.of(0, pageSize, Sort.by("id")));
+        while (true) {
+            for (Book book : page.getContent()) {
+                Author autor = book.getAutor();
+                index.putBook(book.getId(), book.getTitulo(),
+                        autor != null ? autor.getId() : -1L,
+                        autor != null ? autor.getNombre() : null);
+            }
+            if (!page.hasNext()) {
+                break;
+            }
+            page = bookRepository.findAll(page.nextPageable());
+        }
+
+        System.out.println("[Search] Índice de libros construido: " + index.size()
+                + " libros en " + (System.currentTimeMillis() - t0) + "ms");
+    }
+}
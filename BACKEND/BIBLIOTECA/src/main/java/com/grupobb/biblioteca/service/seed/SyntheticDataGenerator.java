@@ -0,0 +1,280 @@
+package com.grupobb.biblioteca.service.seed;
+
+import com.grupobb.biblioteca.datasource.BranchContext;
+import com.grupobb.biblioteca.service.overdue.FinePolicy;
+import com.grupobb.biblioteca.util.Hashing;
+import com.grupobb.biblioteca.util.ZipfSampler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generador de datos sintéticos para pruebas de rendimiento (perfil {@code seed}).
+ * Uso: {@code ./gradlew seedData -Pseed.books=1000000 -Pseed.loans=20000000} contra una base vacía.
+ *
+ * - Determinista: cada lote de {@code batch-size} filas usa su propio generador, derivado de
+ *   {@code seed.seed} y del número de lote, así el resultado no depende de qué hilo lo escribe.
+ * - Sesgo realista: libro y usuario de cada préstamo salen de una Zipf ({@code book-skew},
+ *   {@code user-skew}); los autores reciben libros también con sesgo ({@code author-skew}).
+ *   Los rangos de libros se reparten con una permutación para que los populares no sean ids contiguos.
+ * - Los préstamos activos ({@code active-ratio}) van a libros distintos, empezando por los más
+ *   populares; cada libro tiene un ejemplar con id = id del libro, así los contadores, el ejemplar
+ *   y el préstamo activo quedan consistentes sin pasar por InventoryBackfill.
+ * - Escribe con JdbcTemplate.batchUpdate en {@code threads} hilos, una transacción por lote.
+ *   En MySQL conviene {@code rewriteBatchedStatements=true} en la URL.
+ *
+ * Ids explícitos desde 1 y solo en la sede principal. Las tablas derivadas (estadísticas,
+ * sketches) quedan vacías y se reconstruyen al arrancar la aplicación normalmente.
+ */
+@Component
+@Profile("seed")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    private static final String[] NOMBRES = {"Ana", "Luis", "María", "José", "Lucía", "Carlos", "Elena",
+            "Jorge", "Sofía", "Miguel", "Paula", "Andrés", "Valeria", "Diego", "Camila", "Pablo"};
+    private static final String[] APELLIDOS = {"García", "Pérez", "Rodríguez", "López", "Martínez",
+            "Sánchez", "Torres", "Ramírez", "Flores", "Herrera", "Castro", "Vargas", "Mendoza", "Ortiz"};
+    private static final String[] NACIONALIDADES = {"Ecuador", "Colombia", "Perú", "México", "Argentina",
+            "Chile", "España", "Uruguay"};
+    private static final String[] PALABRAS = {"sombra", "río", "memoria", "ciudad", "viento", "silencio",
+            "noche", "camino", "fuego", "mar", "jardín", "tiempo", "casa", "luz", "sueño", "montaña",
+            "espejo", "invierno", "voces", "puerta", "historia", "isla", "guerra", "amor"};
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final FinePolicy finePolicy;
+    private final ConfigurableApplicationContext context;
+
+    private final long seed;
+    private final int authors;
+    private final int books;
+    private final int users;
+    private final long loans;
+    private final double bookSkew;
+    private final double userSkew;
+    private final double authorSkew;
+    private final double activeRatio;
+    private final int historyDays;
+    private final int threads;
+    private final int batchSize;
+    private final LocalDate hasta;
+    private final boolean exit;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbc,
+                                  PlatformTransactionManager transactionManager,
+                                  FinePolicy finePolicy,
+                                  ConfigurableApplicationContext context,
+                                  @Value("${seed.seed:42}") long seed,
+                                  @Value("${seed.authors:2000}") int authors,
+                                  @Value("${seed.books:50000}") int books,
+                                  @Value("${seed.users:20000}") int users,
+                                  @Value("${seed.loans:500000}") long loans,
+                                  @Value("${seed.book-skew:1.0}") double bookSkew,
+                                  @Value("${seed.user-skew:0.7}") double userSkew,
+                                  @Value("${seed.author-skew:0.8}") double authorSkew,
+                                  @Value("${seed.active-ratio:0.03}") double activeRatio,
+                                  @Value("${seed.history-days:730}") int historyDays,
+                                  @Value("${seed.threads:4}") int threads,
+                                  @Value("${seed.batch-size:5000}") int batchSize,
+                                  @Value("${seed.until:}") String until,
+                                  @Value("${seed.exit:true}") boolean exit) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(transactionManager);
+        this.finePolicy = finePolicy;
+        this.context = context;
+        this.seed = seed;
+        this.authors = authors;
+        this.books = books;
+        this.users = users;
+        this.loans = loans;
+        this.bookSkew = bookSkew;
+        this.userSkew = userSkew;
+        this.authorSkew = authorSkew;
+        this.activeRatio = activeRatio;
+        this.historyDays = historyDays;
+        this.threads = threads;
+        this.batchSize = batchSize;
+        // Fecha fija para repetir exactamente el mismo conjunto otro día
+        this.hasta = until.isBlank() ? LocalDate.now() : LocalDate.parse(until);
+        this.exit = exit;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Long existentes = jdbc.queryForObject("select count(*) from libros", Long.class);
+        if (existentes != null && existentes > 0) {
+            throw new IllegalStateException("[Seed] La base ya tiene " + existentes
+                    + " libros; el generador usa ids explícitos y necesita una base vacía");
+        }
+        System.out.println("[Seed] semilla=" + seed + ": " + authors + " autores, " + books + " libros, "
+                + users + " usuarios, " + loans + " préstamos (" + threads + " hilos, lotes de " + batchSize + ")");
+        long t0 = System.currentTimeMillis();
+        String sede = BranchContext.current();
+
+        ZipfSampler autorZipf = new ZipfSampler(authors, authorSkew);
+        ZipfSampler libroZipf = new ZipfSampler(books, bookSkew);
+        ZipfSampler usuarioZipf = new ZipfSampler(users, userSkew);
+        long activos = Math.min((long) (loans * activeRatio), books);
+        long historicos = loans - activos;
+        long paso = coprimeStep(books);
+        long pasoInverso = books == 1 ? 0 : BigInteger.valueOf(paso).modInverse(BigInteger.valueOf(books)).longValue();
+
+        insertar("autores", authors, 1,
+                "insert into autores (id, nombre, nacionalidad, sede) values (?, ?, ?, ?)",
+                (id, rng) -> new Object[]{id, nombre(rng), NACIONALIDADES[rng.nextInt(NACIONALIDADES.length)], sede});
+
+        insertar("usuarios", users, 2,
+                "insert into usuarios (id, nombre, email, sede) values (?, ?, ?, ?)",
+                (id, rng) -> new Object[]{id, nombre(rng), "usuario" + id + "@example.com", sede});
+
+        // El libro con rango de popularidad r < activos tiene su único ejemplar prestado
+        insertar("libros", books, 3,
+                "insert into libros (id, titulo, autor_id, disponible, ejemplares_totales, ejemplares_disponibles, sede) "
+                        + "values (?, ?, ?, ?, 1, ?, ?)",
+                (id, rng) -> {
+                    boolean prestado = ((id - 1) * pasoInverso) % books < activos;
+                    return new Object[]{id, titulo(rng), autorZipf.sample(rng), !prestado, prestado ? 0 : 1, sede};
+                });
+
+        insertar("ejemplares", books, 4,
+                "insert into ejemplares (id, libro_id, disponible, retirado) values (?, ?, ?, false)",
+                (id, rng) -> new Object[]{id, id, ((id - 1) * pasoInverso) % books >= activos});
+
+        String insertPrestamo = "insert into prestamos (id, usuario_id, libro_id, ejemplar_id, fecha_prestamo, "
+                + "fecha_devolucion, fecha_vencimiento, dias_atraso, multa, sede) values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        insertar("prestamos (históricos)", historicos, 5, insertPrestamo, (id, rng) -> {
+            long libro = libroPorRango(libroZipf.sample(rng), paso);
+            LocalDate prestamo = hasta.minusDays(31 + rng.nextInt(Math.max(1, historyDays)));
+            LocalDate devolucion = prestamo.plusDays(1 + rng.nextInt(28));
+            return prestamo(id, usuarioZipf.sample(rng), libro, prestamo, devolucion, devolucion, sede);
+        });
+        insertar("prestamos (activos)", activos, 6, insertPrestamo, (n, rng) -> {
+            long libro = libroPorRango(n, paso);
+            LocalDate prestamo = hasta.minusDays(rng.nextInt(21));
+            return prestamo(historicos + n, usuarioZipf.sample(rng), libro, prestamo, null, hasta, sede);
+        });
+
+        reiniciarIdentidades(historicos + activos);
+        System.out.println("[Seed] Listo en " + (System.currentTimeMillis() - t0) / 1000 + " s");
+        if (exit) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private Object[] prestamo(long id, long usuario, long libro, LocalDate prestamo, LocalDate devolucion,
+                              LocalDate corte, String sede) {
+        LocalDate vencimiento = finePolicy.dueDate(prestamo);
+        int atraso = finePolicy.daysOverdue(vencimiento, corte);
+        BigDecimal multa = finePolicy.fine(atraso);
+        return new Object[]{id, usuario, libro, libro, Date.valueOf(prestamo),
+                devolucion != null ? Date.valueOf(devolucion) : null,
+                Date.valueOf(vencimiento), atraso, multa, sede};
+    }
+
+    // Rango de popularidad (1 = el más prestado) -> id de libro, permutando con un paso coprimo con books.
+    private long libroPorRango(long rango, long paso) {
+        return 1 + ((rango - 1) * paso) % books;
+    }
+
+    private static long coprimeStep(long n) {
+        long paso = Math.max(1, (long) (n * 0.6180339887)) | 1;
+        while (BigInteger.valueOf(paso).gcd(BigInteger.valueOf(n)).longValue() != 1) {
+            paso += 2;
+        }
+        return paso;
+    }
+
+    // Escribe ids 1..total en lotes paralelos; cada lote es una transacción con un batch JDBC.
+    private void insertar(String tabla, long total, int sal, String sql, RowFactory factory) throws Exception {
+        if (total <= 0) {
+            return;
+        }
+        long t0 = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<?>> lotes = new ArrayList<>();
+        try {
+            for (long desde = 1; desde <= total; desde += batchSize) {
+                long inicio = desde;
+                long fin = Math.min(total, desde + batchSize - 1);
+                long lote = (desde - 1) / batchSize;
+                lotes.add(pool.submit(() -> {
+                    SplittableRandom rng = new SplittableRandom(Hashing.mix64(seed * 1_000_003L + sal) ^ lote);
+                    List<Object[]> filas = new ArrayList<>((int) (fin - inicio + 1));
+                    for (long id = inicio; id <= fin; id++) {
+                        filas.add(factory.row(id, rng));
+                    }
+                    tx.executeWithoutResult(status -> jdbc.batchUpdate(sql, filas));
+                }));
+            }
+            for (Future<?> f : lotes) {
+                f.get();
+            }
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("[Seed] Falló la carga de " + tabla, ex.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        double segundos = (System.nanoTime() - t0) / 1e9;
+        System.out.printf("[Seed] %s: %d filas en %.1f s (%.0f filas/s)%n", tabla, total, segundos, total / segundos);
+    }
+
+    // Con ids explícitos H2 no avanza la identidad (MySQL sí): se reinicia tras el último id.
+    private void reiniciarIdentidades(long prestamos) {
+        String motor = jdbc.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"H2".equalsIgnoreCase(motor)) {
+            return;
+        }
+        jdbc.execute("alter table autores alter column id restart with " + (authors + 1));
+        jdbc.execute("alter table usuarios alter column id restart with " + (users + 1));
+        jdbc.execute("alter table libros alter column id restart with " + (books + 1));
+        jdbc.execute("alter table ejemplares alter column id restart with " + (books + 1));
+        jdbc.execute("alter table prestamos alter column id restart with " + (prestamos + 1));
+    }
+
+    private static String nombre(SplittableRandom rng) {
+        return NOMBRES[rng.nextInt(NOMBRES.length)] + " " + APELLIDOS[rng.nextInt(APELLIDOS.length)]
+                + " " + APELLIDOS[rng.nextInt(APELLIDOS.length)];
+    }
+
+    private static String titulo(SplittableRandom rng) {
+        int n = 2 + rng.nextInt(3);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            String palabra = PALABRAS[rng.nextInt(PALABRAS.length)];
+            if (i == 0) {
+                sb.append(Character.toUpperCase(palabra.charAt(0))).append(palabra, 1, palabra.length());
+            } else {
+                sb.append(i == 1 ? " de la " : " y ").append(palabra);
+            }
+        }
+        return sb.toString();
+    }
+
+    @FunctionalInterface
+    private interface RowFactory {
+        Object[] row(long id, SplittableRandom rng);
+    }
+}
@@ -0,0 +1,137 @@
+package com.grupobb.biblioteca.service.stats;
+
+import com.grupobb.biblioteca.domain.BorrowerSketch;
+import com.grupobb.biblioteca.repository.BorrowerSketchRepository;
+import com.grupobb.biblioteca.util.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Prestatarios distintos aproximados por libro y por autor (HyperLogLog por mes).
+ *
+ * - Se actualiza desde `createLoan` tras el commit: una inserción O(1) por sketch.
+ * - Los sketches por mes se unen al consultar, así que sirven para cualquier rango de meses
+ *   y para varios autores a la vez sin contar dos veces al mismo usuario.
+ * - Se persiste cada {@code stats.hll.flush-ms} (solo los sketches modificados) y al apagar;
+ *   ante una caída se pierden a lo sumo los préstamos de ese intervalo, que es aceptable
+ *   para una métrica aproximada.
+ */
+@Component
+public class DistinctBorrowers {
+
+    public static final class Estimate {
+        private final long distinct;
+        private final double relativeError;
+
+        Estimate(long distinct, double relativeError) {
+            this.distinct = distinct;
+            this.relativeError = relativeError;
+        }
+
+        public long getDistinct() { return distinct; }
+        public double getRelativeError() { return relativeError; }
+    }
+
+    private final BorrowerSketchRepository repository;
+    private final int precision;
+    private final Map<BorrowerSketch.Tipo, Map<Long, NavigableMap<Integer, HyperLogLog>>> sketches =
+            new EnumMap<>(BorrowerSketch.Tipo.class);
+    private final Set<BorrowerSketch.Key> dirty = new HashSet<>();
+
+    public DistinctBorrowers(BorrowerSketchRepository repository,
+                             @Value("${stats.hll.precision:11}") int precision) {
+        this.repository = repository;
+        this.precision = precision;
+        for (BorrowerSketch.Tipo tipo : BorrowerSketch.Tipo.values()) {
+            sketches.put(tipo, new HashMap<>());
+        }
+    }
+
+    public static int periodOf(LocalDate fecha) {
+        return fecha.getYear() * 12 + fecha.getMonthValue() - 1;
+    }
+
+    public static int periodOf(int year, int month) {
+        return year * 12 + month - 1;
+    }
+
+    public synchronized void record(long usuarioId, long libroId, long autorId, LocalDate fecha) {
+        int periodo = periodOf(fecha);
+        sketch(BorrowerSketch.Tipo.LIBRO, libroId, periodo).add(usuarioId);
+        sketch(BorrowerSketch.Tipo.AUTOR, autorId, periodo).add(usuarioId);
+    }
+
+    // Une los sketches de las claves dadas entre los periodos [desde, hasta] (ambos inclusive).
+    public synchronized Estimate estimate(BorrowerSketch.Tipo tipo, Collection<Long> claves, int desde, int hasta) {
+        HyperLogLog union = new HyperLogLog(precision);
+        Map<Long, NavigableMap<Integer, HyperLogLog>> byKey = sketches.get(tipo);
+        for (Long clave : claves) {
+            NavigableMap<Integer, HyperLogLog> periods = byKey.get(clave);
+            if (periods != null) {
+                for (HyperLogLog hll : periods.subMap(desde, true, hasta, true).values()) {
+                    union.merge(hll);
+                }
+            }
+        }
+        return new Estimate(union.estimate(), union.relativeError());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int loaded = 0;
+        synchronized (this) {
+            for (BorrowerSketch row : repository.findAll()) {
+                sketches.get(row.getTipo())
+                        .computeIfAbsent(row.getClave(), k -> new TreeMap<>())
+                        .put(row.getPeriodo(), HyperLogLog.fromBytes(row.getRegistros()));
+                loaded++;
+            }
+        }
+        System.out.println("[Stats] Sketches de prestatarios cargados: " + loaded);
+    }
+
+    // Escribe solo los sketches modificados desde el último flush.
+    @Scheduled(fixedDelayString = "${stats.hll.flush-ms:10000}")
+    @PreDestroy
+    public void flush() {
+        List<BorrowerSketch> rows = new ArrayList<>();
+        synchronized (this) {
+            for (BorrowerSketch.Key key : dirty) {
+                rows.add(snapshot(key));
+            }
+            dirty.clear();
+        }
+        if (!rows.isEmpty()) {
+            repository.saveAll(rows);
+        }
+    }
+
+    private HyperLogLog sketch(BorrowerSketch.Tipo tipo, long clave, int periodo) {
+        dirty.add(new BorrowerSketch.Key(tipo, clave, periodo));
+        return sketches.get(tipo)
+                .computeIfAbsent(clave, k -> new TreeMap<>())
+                .computeIfAbsent(periodo, k -> new HyperLogLog(precision));
+    }
+
+    private BorrowerSketch snapshot(BorrowerSketch.Key key) {
+        BorrowerSketch.Tipo tipo = key.getTipo();
+        HyperLogLog hll = sketches.get(tipo).get(key.getClave()).get(key.getPeriodo());
+        return new BorrowerSketch(tipo, key.getClave(), key.getPeriodo(), hll.toBytes());
+    }
+}
@@ -0,0 +1,191 @@
+package com.grupobb.biblioteca.service.stats;
+
+import com.grupobb.biblioteca.datasource.BranchContext;
+import com.grupobb.biblioteca.domain.LoanStat;
+import com.grupobb.biblioteca.domain.LoanStatType;
+import com.grupobb.biblioteca.util.LongLongHashMap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Contadores de préstamos mantenidos de forma incremental.
+ *
+ * Los incrementos se acumulan por transacción y se escriben en `estadisticas_prestamo` justo
+ * antes del commit, en un único batch de upserts ordenados por (tipo, clave):
+ * - las filas GLOBAL, que tocan todos los préstamos, quedan bloqueadas solo durante el commit
+ *   y no durante toda la transacción;
+ * - el orden fijo evita interbloqueos entre préstamos concurrentes;
+ * - deltas que se anulan (devolución + entrega a reserva) no generan sentencias.
+ * Si la transacción hace rollback el contador tampoco cambia; tras el commit se actualiza la
+ * copia en memoria. Las lecturas son O(1) sobre mapas primitivos.
+ *
+ * Con varias sedes cada una escribe en su propia tabla, pero la copia en memoria es solo de la
+ * sede principal (la que carga LoanAggregatesLoader); en las demás las lecturas van a la tabla.
+ */
+@Component
+public class LoanAggregates {
+
+    private static final String UPSERT =
+            "INSERT INTO estadisticas_prestamo (tipo, clave, valor) VALUES (?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE valor = valor + ?";
+    private static final String SELECT_ONE =
+            "SELECT valor FROM estadisticas_prestamo WHERE tipo = ? AND clave = ?";
+    private static final String SELECT_RANGE =
+            "SELECT clave, valor FROM estadisticas_prestamo WHERE tipo = ? AND clave BETWEEN ? AND ?";
+
+    private final JdbcTemplate jdbc;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<LoanStatType, LongLongHashMap> counters = new EnumMap<>(LoanStatType.class);
+
+    public LoanAggregates(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+        for (LoanStatType type : LoanStatType.values()) {
+            counters.put(type, new LongLongHashMap(0L));
+        }
+    }
+
+    // Llamar dentro de la transacción de createLoan.
+    public void onLoanCreated(long usuarioId, long libroId, long autorId, LocalDate fecha) {
+        long dia = fecha.toEpochDay();
+        increment(LoanStatType.USUARIO_ACTIVOS, usuarioId, 1);
+        increment(LoanStatType.LIBRO_TOTAL, libroId, 1);
+        increment(LoanStatType.AUTOR_TOTAL, autorId, 1);
+        increment(LoanStatType.DIA_TOTAL, dia, 1);
+        increment(LoanStatType.GLOBAL, LoanStatType.GLOBAL_ACTIVOS, 1);
+        increment(LoanStatType.GLOBAL, LoanStatType.GLOBAL_TOTAL, 1);
+    }
+
+    // Llamar dentro de la transacción de returnLoan.
+    public void onLoanReturned(long usuarioId) {
+        increment(LoanStatType.USUARIO_ACTIVOS, usuarioId, -1);
+        increment(LoanStatType.GLOBAL, LoanStatType.GLOBAL_ACTIVOS, -1);
+    }
+
+    public long get(LoanStatType type, long clave) {
+        if (!BranchContext.isHome()) {
+            List<Long> valor = jdbc.queryForList(SELECT_ONE, Long.class, type.name(), clave);
+            return valor.isEmpty() ? 0L : valor.get(0);
+        }
+        lock.readLock().lock();
+        try {
+            return counters.get(type).get(clave);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Suma de un rango de días [desde, hasta]; cada día es una lectura O(1).
+    public long[] perDay(LocalDate desde, LocalDate hasta) {
+        int days = (int) (hasta.toEpochDay() - desde.toEpochDay() + 1);
+        long[] out = new long[Math.max(0, days)];
+        if (!BranchContext.isHome()) {
+            jdbc.query(SELECT_RANGE, rs -> {
+                out[(int) (rs.getLong(1) - desde.toEpochDay())] = rs.getLong(2);
+            }, LoanStatType.DIA_TOTAL.name(), desde.toEpochDay(), hasta.toEpochDay());
+            return out;
+        }
+        lock.readLock().lock();
+        try {
+            LongLongHashMap perDay = counters.get(LoanStatType.DIA_TOTAL);
+            for (int i = 0; i < out.length; i++) {
+                out[i] = perDay.get(desde.toEpochDay() + i);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return out;
+    }
+
+    // Carga la copia en memoria desde la tabla (al arrancar).
+    public void load(Iterable<LoanStat> stats) {
+        lock.writeLock().lock();
+        try {
+            counters.values().forEach(LongLongHashMap::clear);
+            for (LoanStat stat : stats) {
+                counters.get(stat.getTipo()).put(stat.getClave(), stat.getValor());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void increment(LoanStatType type, long clave, long delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            Pending p = new Pending();
+            p.add(type, clave, delta);
+            p.escribir();
+            if (p.home) {
+                p.apply();
+            }
+            return;
+        }
+        Pending p = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (p == null) {
+            p = new Pending();
+            TransactionSynchronizationManager.bindResource(this, p);
+            TransactionSynchronizationManager.registerSynchronization(p);
+        }
+        p.add(type, clave, delta);
+    }
+
+    // Deltas de una transacción, ordenados por (tipo, clave).
+    private final class Pending implements TransactionSynchronization {
+        private final TreeMap<LoanStatType, TreeMap<Long, Long>> deltas = new TreeMap<>();
+        // Sede de la transacción (la de la tabla en la que se escriben los deltas)
+        private final boolean home = BranchContext.isHome();
+
+        void add(LoanStatType type, long clave, long delta) {
+            deltas.computeIfAbsent(type, t -> new TreeMap<>()).merge(clave, delta, Long::sum);
+        }
+
+        // Upsert de los deltas. No se llama flush(): Spring invoca TransactionSynchronization.flush()
+        // en cada flush de la sesión y los deltas se escribirían más de una vez
+        void escribir() {
+            List<Object[]> filas = new ArrayList<>();
+            deltas.forEach((type, porClave) -> porClave.forEach((clave, delta) -> {
+                if (delta != 0) {
+                    filas.add(new Object[]{type.name(), clave, delta, delta});
+                }
+            }));
+            if (!filas.isEmpty()) {
+                jdbc.batchUpdate(UPSERT, filas);
+            }
+        }
+
+        void apply() {
+            lock.writeLock().lock();
+            try {
+                deltas.forEach((type, porClave) -> porClave.forEach((clave, delta) -> counters.get(type).addTo(clave, delta)));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            escribir();
+        }
+
+        @Override
+        public void afterCommit() {
+            if (home) {
+                apply();
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(LoanAggregates.this);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.grupobb.biblioteca.service.stats;
+
+import com.grupobb.biblioteca.domain.LoanStat;
+import com.grupobb.biblioteca.domain.LoanStatType;
+import com.grupobb.biblioteca.repository.LoanRepository;
+import com.grupobb.biblioteca.repository.LoanStatRepository;
+import com.grupobb.biblioteca.service.eventlog.LoanEventLog;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inicializa {@link LoanAggregates} al arrancar.
+ *
+ * Si el log de eventos está al día con `prestamos` (ver {@link LoanEventLog#matches}) y los
+ * totales de `estadisticas_prestamo` también, la copia en memoria sale de su proyección
+ * (snapshot + cola reaplicada) sin leer la tabla entera.
+ * Si `estadisticas_prestamo` está vacía pero ya hay préstamos (primer despliegue), la
+ * reconstruye una única vez: desde esa misma proyección o, sin log, con consultas GROUP BY
+ * sobre `prestamos`.
+ */
+@Component
+public class LoanAggregatesLoader {
+
+    private final LoanAggregates aggregates;
+    private final LoanStatRepository statRepository;
+    private final LoanRepository loanRepository;
+    private final LoanEventLog eventLog;
+
+    public LoanAggregatesLoader(LoanAggregates aggregates,
+                                LoanStatRepository statRepository,
+                                LoanRepository loanRepository,
+                                LoanEventLog eventLog) {
+        this.aggregates = aggregates;
+        this.statRepository = statRepository;
+        this.loanRepository = loanRepository;
+        this.eventLog = eventLog;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void load() {
+        long total = loanRepository.count();
+        long activos = loanRepository.countByFechaDevolucionIsNull();
+        boolean vacia = statRepository.count() == 0;
+        if (eventLog.isEnabled() && eventLog.matches(total, activos)) {
+            List<LoanStat> proyeccion = eventLog.toStats();
+            if (vacia && total > 0) {
+                statRepository.saveAll(proyeccion);
+                System.out.println("[Stats] estadisticas_prestamo reconstruida desde el log de eventos: " + proyeccion.size() + " filas");
+            }
+            // La memoria debe reflejar la tabla: solo si la tabla tiene los mismos totales
+            if (vacia || (global(LoanStatType.GLOBAL_TOTAL) == total && global(LoanStatType.GLOBAL_ACTIVOS) == activos)) {
+                aggregates.load(proyeccion);
+                System.out.println("[Stats] Contadores de préstamos cargados desde el log de eventos: " + proyeccion.size());
+                return;
+            }
+        } else if (vacia && total > 0) {
+            rebuild();
+        }
+        List<LoanStat> stats = statRepository.findAll();
+        aggregates.load(stats);
+        System.out.println("[Stats] Contadores de préstamos cargados: " + stats.size());
+    }
+
+    private long global(long clave) {
+        return statRepository.findById(new LoanStat.Key(LoanStatType.GLOBAL, clave))
+                .map(LoanStat::getValor)
+                .orElse(0L);
+    }
+
+    private void rebuild() {
+        List<LoanStat> stats = new ArrayList<>();
+        long activos = 0;
+        long total = 0;
+        for (Object[] row : loanRepository.countActiveByUsuario()) {
+            stats.add(new LoanStat(LoanStatType.USUARIO_ACTIVOS, (Long) row[0], (Long) row[1]));
+            activos += (Long) row[1];
+        }
+        for (Object[] row : loanRepository.countByLibro()) {
+            stats.add(new LoanStat(LoanStatType.LIBRO_TOTAL, (Long) row[0], (Long) row[1]));
+            total += (Long) row[1];
+        }
+        for (Object[] row : loanRepository.countByAutor()) {
+            stats.add(new LoanStat(LoanStatType.AUTOR_TOTAL, (Long) row[0], (Long) row[1]));
+        }
+        for (Object[] row : loanRepository.countByFechaPrestamo()) {
+            stats.add(new LoanStat(LoanStatType.DIA_TOTAL, ((LocalDate) row[0]).toEpochDay(), (Long) row[1]));
+        }
+        stats.add(new LoanStat(LoanStatType.GLOBAL, LoanStatType.GLOBAL_ACTIVOS, activos));
+        stats.add(new LoanStat(LoanStatType.GLOBAL, LoanStatType.GLOBAL_TOTAL, total));
+        statRepository.saveAll(stats);
+        System.out.println("[Stats] estadisticas_prestamo reconstruida desde prestamos: " + stats.size() + " filas");
+    }
+}
@@ -0,0 +1,188 @@
+package com.grupobb.biblioteca.service.stats;
+
+import com.grupobb.biblioteca.util.LongLongHashMap;
+import com.grupobb.biblioteca.util.SpaceSaving;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Ranking "más prestados" por ventana de tiempo con memoria fija.
+ *
+ * Cada ventana es un anillo de buckets y cada bucket es un {@link SpaceSaving} de
+ * {@code capacity} contadores. Un préstamo incrementa el bucket actual de cada ventana
+ * (O(log k)); al consultar se unen los buckets vigentes. La memoria depende solo de
+ * capacity x buckets, nunca del tamaño del catálogo.
+ *
+ * Cotas de error (N = préstamos en la ventana, k = capacity):
+ * - cada conteo sobreestima el real como máximo en la suma de los errores de sus buckets (≤ N / k);
+ * - la ventana avanza por buckets: cubre entre (B-1)/B y 1 vez su duración nominal.
+ *
+ * El ranking unido se cachea {@code cacheMillis} para que el polling de los dashboards sea barato.
+ */
+@Component
+public class TopBooksLeaderboard {
+
+    public enum Window {
+        HOUR("1h", Duration.ofHours(1), 12),
+        DAY("24h", Duration.ofHours(24), 24),
+        WEEK("7d", Duration.ofDays(7), 28);
+
+        private final String label;
+        private final Duration span;
+        private final int buckets;
+
+        Window(String label, Duration span, int buckets) {
+            this.label = label;
+            this.span = span;
+            this.buckets = buckets;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        // Acepta "1h", "24h", "7d" o el nombre del enum; null si no se reconoce.
+        public static Window parse(String value) {
+            for (Window w : values()) {
+                if (w.label.equalsIgnoreCase(value) || w.name().equalsIgnoreCase(value)) {
+                    return w;
+                }
+            }
+            return null;
+        }
+    }
+
+    public static final class Entry {
+        private final long bookId;
+        private final long count;
+        private final long error;
+
+        Entry(long bookId, long count, long error) {
+            this.bookId = bookId;
+            this.count = count;
+            this.error = error;
+        }
+
+        public long getBookId() { return bookId; }
+        public long getCount() { return count; }
+        public long getError() { return error; }
+    }
+
+    public static final class Ranking {
+        private final List<Entry> entries;
+        private final long total;
+        private final long maxError;
+
+        Ranking(List<Entry> entries, long total, long maxError) {
+            this.entries = entries;
+            this.total = total;
+            this.maxError = maxError;
+        }
+
+        public List<Entry> getEntries() { return entries; }
+        public long getTotal() { return total; }
+        public long getMaxError() { return maxError; }
+    }
+
+    private final int capacity;
+    private final long cacheMillis;
+    private final LongSupplier clock;
+    private final Map<Window, Ring> rings = new EnumMap<>(Window.class);
+
+    @Autowired
+    public TopBooksLeaderboard(@Value("${stats.top-books.capacity:256}") int capacity,
+                               @Value("${stats.top-books.cache-ms:1000}") long cacheMillis) {
+        this(capacity, cacheMillis, System::currentTimeMillis);
+    }
+
+    TopBooksLeaderboard(int capacity, long cacheMillis, LongSupplier clock) {
+        this.capacity = capacity;
+        this.cacheMillis = cacheMillis;
+        this.clock = clock;
+        for (Window w : Window.values()) {
+            rings.put(w, new Ring(w, capacity));
+        }
+    }
+
+    public void record(long bookId) {
+        long now = clock.getAsLong();
+        for (Ring ring : rings.values()) {
+            ring.add(bookId, now);
+        }
+    }
+
+    public Ranking top(Window window, int limit) {
+        Ranking ranking = rings.get(window).ranking(clock.getAsLong(), cacheMillis);
+        List<Entry> entries = ranking.entries;
+        return limit >= entries.size() ? ranking
+                : new Ranking(entries.subList(0, limit), ranking.total, ranking.maxError);
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    private static final class Ring {
+        private final long bucketMillis;
+        private final SpaceSaving[] buckets;
+        private final long[] bucketStart;
+        private final int capacity;
+        private Ranking cached;
+        private long cachedAt = Long.MIN_VALUE;
+
+        Ring(Window window, int capacity) {
+            this.capacity = capacity;
+            this.bucketMillis = window.span.toMillis() / window.buckets;
+            this.buckets = new SpaceSaving[window.buckets];
+            this.bucketStart = new long[window.buckets];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new SpaceSaving(capacity);
+                bucketStart[i] = Long.MIN_VALUE;
+            }
+        }
+
+        synchronized void add(long bookId, long now) {
+            long slot = now / bucketMillis;
+            int idx = (int) (slot % buckets.length);
+            long start = slot * bucketMillis;
+            if (bucketStart[idx] != start) {
+                buckets[idx].clear();
+                bucketStart[idx] = start;
+            }
+            buckets[idx].add(bookId, 1);
+        }
+
+        synchronized Ranking ranking(long now, long cacheMillis) {
+            if (cached != null && now - cachedAt < cacheMillis) {
+                return cached;
+            }
+            long oldest = (now / bucketMillis - (buckets.length - 1)) * bucketMillis;
+            LongLongHashMap counts = new LongLongHashMap(capacity * 2, 0L);
+            LongLongHashMap errors = new LongLongHashMap(capacity * 2, 0L);
+            long total = 0;
+            long maxError = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                if (bucketStart[i] != Long.MIN_VALUE && bucketStart[i] >= oldest) {
+                    buckets[i].mergeInto(counts, errors);
+                    total += buckets[i].total();
+                    maxError += buckets[i].maxError();
+                }
+            }
+            List<Entry> entries = new ArrayList<>(counts.size());
+            counts.forEach((bookId, count) -> entries.add(new Entry(bookId, count, errors.get(bookId))));
+            entries.sort((a, b) -> Long.compare(b.count, a.count));
+            cached = new Ranking(Collections.unmodifiableList(entries), total, maxError);
+            cachedAt = now;
+            return cached;
+        }
+    }
+}
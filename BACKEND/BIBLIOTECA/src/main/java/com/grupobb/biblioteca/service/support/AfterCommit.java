@@ -0,0 +1,28 @@
+package com.grupobb.biblioteca.service.support;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Ejecuta una acción solo cuando la transacción actual hace commit.
+ *
+ * Los índices en memoria deben reflejar únicamente datos confirmados: si la transacción
+ * hace rollback la acción se descarta. Fuera de una transacción se ejecuta de inmediato.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {}
+
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
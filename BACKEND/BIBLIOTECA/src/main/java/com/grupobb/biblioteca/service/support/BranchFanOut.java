@@ -0,0 +1,94 @@
+package com.grupobb.biblioteca.service.support;
+
+import com.grupobb.biblioteca.config.BranchProperties;
+import com.grupobb.biblioteca.datasource.BranchContext;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Ejecuta una misma consulta en todas las sedes en paralelo y junta los resultados.
+ *
+ * Cada sede corre en un hilo del pool con su {@link BranchContext}, así que las conexiones que
+ * abra salen del pool de esa sede. Todas comparten un único plazo ({@code branches.fan-out-timeout-ms}):
+ * una sede caída o lenta no bloquea la respuesta, queda en {@link Result#getFailed()}.
+ * Con una sola sede la consulta se ejecuta directamente en el hilo actual.
+ */
+@Component
+public class BranchFanOut {
+
+    private final BranchProperties branches;
+    private final ExecutorService pool;
+
+    public BranchFanOut(BranchProperties branches) {
+        this.branches = branches;
+        AtomicInteger n = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(Math.max(1, branches.getFanOutThreads()), r -> {
+            Thread t = new Thread(r, "sede-fanout-" + n.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public <T> Result<T> query(Function<String, List<T>> porSede) {
+        List<String> sedes = branches.ids();
+        if (sedes.size() == 1) {
+            String sede = sedes.get(0);
+            return new Result<>(BranchContext.call(sede, () -> porSede.apply(sede)), List.of());
+        }
+
+        Map<String, CompletableFuture<List<T>>> futures = new LinkedHashMap<>();
+        for (String sede : sedes) {
+            futures.put(sede, CompletableFuture.supplyAsync(
+                    () -> BranchContext.call(sede, () -> porSede.apply(sede)), pool));
+        }
+
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(branches.getFanOutTimeoutMs());
+        List<T> items = new ArrayList<>();
+        List<String> fallidas = new ArrayList<>();
+        for (Map.Entry<String, CompletableFuture<List<T>>> e : futures.entrySet()) {
+            try {
+                items.addAll(e.getValue().get(Math.max(0, limite - System.nanoTime()), TimeUnit.NANOSECONDS));
+            } catch (TimeoutException | ExecutionException ex) {
+                e.getValue().cancel(true);
+                fallidas.add(e.getKey());
+                System.out.println("[Sedes] Sin respuesta de '" + e.getKey() + "': "
+                        + (ex instanceof TimeoutException ? "plazo agotado" : ex.getCause().getMessage()));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                fallidas.add(e.getKey());
+            }
+        }
+        return new Result<>(items, fallidas);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public static final class Result<T> {
+        private final List<T> items;
+        private final List<String> failed;
+
+        Result(List<T> items, List<String> failed) {
+            this.items = items;
+            this.failed = failed;
+        }
+
+        public List<T> getItems() { return items; }
+        public List<String> getFailed() { return failed; }
+    }
+}
@@ -0,0 +1,104 @@
+package com.grupobb.biblioteca.service.support;
+
+import com.grupobb.biblioteca.datasource.BranchContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Efectos secundarios no esenciales de una escritura (rankings, sketches, análisis reactivo),
+ * ejecutados tras el commit en un pool acotado en lugar del hilo de la petición.
+ *
+ * Los callbacks de {@link AfterCommit} corren antes de que la transacción libere su conexión,
+ * así que todo lo que se haga ahí alarga el tiempo que la petición retiene una de las 10
+ * conexiones de Hikari. Aquí solo se encola la tarea.
+ *
+ * - Cola de {@code side-effects.queue-capacity} tareas y {@code side-effects.threads} hilos.
+ *   Con la cola llena la tarea se descarta y se cuenta (side_effects.rejected): son efectos
+ *   que se pueden perder, nunca datos.
+ * - {@link #coalesce} deja como mucho una tarea pendiente por clave: una ráfaga de eventos
+ *   del mismo tipo produce una sola ejecución.
+ * - Cada tarea corre en la sede de quien la encoló.
+ */
+@Component
+public class SideEffects {
+
+    private final ThreadPoolExecutor pool;
+    private final Set<String> pendientes = ConcurrentHashMap.newKeySet();
+    private final Counter rejected;
+    private final Counter failed;
+    private final Timer duration;
+
+    public SideEffects(@Value("${side-effects.threads:2}") int threads,
+                       @Value("${side-effects.queue-capacity:10000}") int queueCapacity,
+                       MeterRegistry registry) {
+        AtomicInteger n = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "side-effects-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.rejected = Counter.builder("side_effects.rejected").description("Tareas descartadas con la cola llena").register(registry);
+        this.failed = Counter.builder("side_effects.failed").description("Tareas que lanzaron excepción").register(registry);
+        this.duration = Timer.builder("side_effects.duration").description("Duración de cada tarea").register(registry);
+        Gauge.builder("side_effects.queue", pool, p -> p.getQueue().size()).description("Tareas en cola").register(registry);
+    }
+
+    // Encola la tarea cuando la transacción actual se confirme (de inmediato si no hay transacción).
+    public void afterCommit(String nombre, Runnable tarea) {
+        AfterCommit.run(() -> submit(nombre, tarea));
+    }
+
+    // Como afterCommit, pero descarta la tarea si ya hay otra con la misma clave sin empezar.
+    public void coalesce(String clave, Runnable tarea) {
+        AfterCommit.run(() -> {
+            String k = clave + "@" + BranchContext.current();
+            if (pendientes.add(k)) {
+                if (!submit(clave, () -> {
+                    pendientes.remove(k);
+                    tarea.run();
+                })) {
+                    pendientes.remove(k);
+                }
+            }
+        });
+    }
+
+    private boolean submit(String nombre, Runnable tarea) {
+        String sede = BranchContext.current();
+        try {
+            pool.execute(() -> {
+                try {
+                    duration.record(() -> BranchContext.run(sede, tarea));
+                } catch (RuntimeException e) {
+                    failed.increment();
+                    System.out.println("[SideEffects] Error en '" + nombre + "': " + e.getMessage());
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            System.out.println("[SideEffects] Cola llena, se descarta '" + nombre + "'");
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
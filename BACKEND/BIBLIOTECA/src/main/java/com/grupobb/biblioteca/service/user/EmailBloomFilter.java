@@ -0,0 +1,117 @@
+package com.grupobb.biblioteca.service.user;
+
+import com.grupobb.biblioteca.repository.UserRepository;
+import com.grupobb.biblioteca.util.BloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Filtro de Bloom con los emails registrados, para saltarse la consulta existsByEmail en el caso
+ * común de un email nuevo. Solo es un atajo: la restricción única de `usuarios.email` sigue siendo
+ * la comprobación definitiva (UserServiceImpl la traduce a ConflictException).
+ *
+ * Los borrados y cambios de email no se pueden quitar de un Bloom: dejan bits "sucios" que solo
+ * cuestan una consulta extra. Cuando se acumulan demasiados, o se supera la capacidad prevista,
+ * el filtro se reconstruye desde la BD y se reemplaza de golpe; lo que se agregue mientras tanto
+ * va a los dos filtros.
+ */
+@Component
+public class EmailBloomFilter {
+
+    private final UserRepository userRepository;
+
+    @Value("${users.email-bloom.expected:100000}")
+    private long expected;
+
+    @Value("${users.email-bloom.fpp:0.01}")
+    private double fpp;
+
+    // Fracción de entradas obsoletas que dispara la reconstrucción
+    @Value("${users.email-bloom.stale-ratio:0.2}")
+    private double staleRatio;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+    private volatile long capacity;
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong stale = new AtomicLong();
+
+    public EmailBloomFilter(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    // false = el email seguro no está registrado; true = hay que preguntar a la BD.
+    // Mientras el filtro no está cargado siempre responde true.
+    public boolean mightExist(String email) {
+        BloomFilter f = filter;
+        return f == null || f.mightContain(normalize(email));
+    }
+
+    public void added(String email) {
+        String key = normalize(email);
+        BloomFilter f = filter;
+        if (f != null) {
+            f.put(key);
+        }
+        BloomFilter b = building;
+        if (b != null) {
+            b.put(key);
+        }
+        inserted.incrementAndGet();
+    }
+
+    public void removed(String email) {
+        stale.incrementAndGet();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        rebuild();
+    }
+
+    // Reconstruye si hay demasiadas entradas obsoletas o se superó la capacidad prevista.
+    @Scheduled(fixedDelayString = "${users.email-bloom.check-ms:300000}")
+    @Transactional(readOnly = true)
+    public void maybeRebuild() {
+        long n = inserted.get();
+        if (filter != null && (stale.get() > n * staleRatio || n > capacity)) {
+            rebuild();
+        }
+    }
+
+    private synchronized void rebuild() {
+        long t0 = System.currentTimeMillis();
+        long total = userRepository.count();
+        long size = Math.max(expected, total * 2);
+        BloomFilter next = new BloomFilter(size, fpp);
+        building = next;
+        long n = 0;
+        try (Stream<String> emails = userRepository.streamEmails()) {
+            for (String email : (Iterable<String>) emails::iterator) {
+                next.put(normalize(email));
+                n++;
+            }
+        }
+        filter = next;
+        building = null;
+        capacity = size;
+        inserted.set(n);
+        stale.set(0);
+        System.out.println("[Users] Filtro de emails construido: " + n + " emails, " + next.bitSize() / 8 / 1024
+                + " KB, k=" + next.hashCount() + " en " + (System.currentTimeMillis() - t0) + "ms");
+    }
+
+    // MySQL compara emails sin distinguir mayúsculas: el filtro normaliza igual
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
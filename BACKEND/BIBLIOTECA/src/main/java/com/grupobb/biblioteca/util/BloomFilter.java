@@ -0,0 +1,85 @@
+package com.grupobb.biblioteca.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom para cadenas, thread-safe sin locks.
+ *
+ * Dimensionado para {@code expectedInsertions} elementos con probabilidad de falso positivo
+ * {@code fpp}: m = -n ln p / (ln 2)^2 bits y k = (m / n) ln 2 funciones hash, obtenidas por
+ * doble hashing (h1 + i * h2) de un único hash de 64 bits.
+ * "No está" es definitivo; "puede estar" hay que confirmarlo. No admite borrados.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    public BloomFilter(long expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("Parámetros de BloomFilter inválidos");
+        }
+        long m = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, (m + 63) >>> 6);
+        this.words = new AtomicLongArray(words);
+        this.bits = (long) words << 6;
+        this.hashes = Math.max(1, (int) Math.round((double) bits / expectedInsertions * Math.log(2)));
+    }
+
+    public void put(CharSequence value) {
+        long h = Hashing.hash64(value);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            long bit = index(h1 + i * h2);
+            int w = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            while (((current = words.get(w)) & mask) == 0) {
+                if (words.compareAndSet(w, current, current | mask)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    public boolean mightContain(CharSequence value) {
+        long h = Hashing.hash64(value);
+        int h1 = (int) h;
+        int h2 = (int) (h >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bits;
+    }
+
+    public int hashCount() {
+        return hashes;
+    }
+
+    // Fracción de bits a 1; con ella se estima la tasa real de falsos positivos (fill^k).
+    public double fillRatio() {
+        long set = 0;
+        for (int i = 0; i < words.length(); i++) {
+            set += Long.bitCount(words.get(i));
+        }
+        return (double) set / bits;
+    }
+
+    public double expectedFpp() {
+        return Math.pow(fillRatio(), hashes);
+    }
+
+    private long index(int combined) {
+        // Sin signo y reducido al rango de bits
+        return (combined & 0xFFFFFFFFL) % bits;
+    }
+}
@@ -0,0 +1,34 @@
+package com.grupobb.biblioteca.util;
+
+/**
+ * Funciones de mezcla de bits compartidas por las estructuras en memoria.
+ */
+public final class Hashing {
+
+    private Hashing() {}
+
+    // Finalizador de MurmurHash3 (fmix64) truncado a int.
+    public static int mix(long key) {
+        return (int) mix64(key);
+    }
+
+    public static long mix64(long key) {
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // FNV-1a de 64 bits sobre los caracteres, terminado con fmix64 para repartir bien los bits.
+    public static long hash64(CharSequence s) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < s.length(); i++) {
+            h ^= s.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        return mix64(h);
+    }
+}
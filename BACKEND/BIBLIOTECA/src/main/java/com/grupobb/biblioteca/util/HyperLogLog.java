@@ -0,0 +1,207 @@
+package com.grupobb.biblioteca.util;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * HyperLogLog para contar elementos distintos de forma aproximada.
+ *
+ * Con precisión p hay m = 2^p registros y el error estándar es ~1.04 / sqrt(m)
+ * (p = 11: 2048 registros, ~2.3 %, 2 KB en modo denso).
+ *
+ * Empieza en modo disperso (lista ordenada de pares registro/rango codificados en int)
+ * y pasa a denso cuando la lista ocuparía más que m / 4 bytes; así un libro con pocos
+ * prestatarios ocupa decenas de bytes en lugar de 2 KB.
+ * Dos sketches de igual precisión se pueden unir (máximo por registro) sin perder exactitud.
+ * No es thread-safe: el llamador sincroniza.
+ */
+public final class HyperLogLog {
+
+    private static final byte FORMAT_SPARSE = 1;
+    private static final byte FORMAT_DENSE = 2;
+
+    private final int p;
+    private final int m;
+    private byte[] dense;
+    private int[] sparse = new int[4];
+    private int sparseSize;
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("precisión fuera de rango [4, 16]: " + precision);
+        }
+        this.p = precision;
+        this.m = 1 << precision;
+    }
+
+    public int precision() {
+        return p;
+    }
+
+    // Error estándar relativo teórico de la estimación.
+    public double relativeError() {
+        return 1.04 / Math.sqrt(m);
+    }
+
+    // Agrega un valor (p. ej. un usuario_id); se mezcla con fmix64 antes de usarlo.
+    public void add(long value) {
+        long hash = Hashing.mix64(value);
+        int index = (int) (hash >>> (64 - p));
+        int rank = Math.min(64 - p, Long.numberOfLeadingZeros((hash << p) | (1L << (p - 1)))) + 1;
+        set(index, rank);
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < m; i++) {
+            int r = register(i);
+            sum += 1.0 / (1L << r);
+            if (r == 0) {
+                zeros++;
+            }
+        }
+        double alpha = m == 16 ? 0.673 : m == 32 ? 0.697 : m == 64 ? 0.709 : 0.7213 / (1 + 1.079 / m);
+        double raw = alpha * m * (double) m / sum;
+        // Corrección de rango pequeño: conteo lineal sobre registros vacíos.
+        if (raw <= 2.5 * m && zeros > 0) {
+            return Math.round(m * Math.log((double) m / zeros));
+        }
+        return Math.round(raw);
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.p != p) {
+            throw new IllegalArgumentException("No se pueden unir sketches de distinta precisión");
+        }
+        if (other.dense != null) {
+            toDense();
+            for (int i = 0; i < m; i++) {
+                if (other.dense[i] > dense[i]) {
+                    dense[i] = other.dense[i];
+                }
+            }
+        } else {
+            for (int i = 0; i < other.sparseSize; i++) {
+                set(other.sparse[i] >>> 8, other.sparse[i] & 0xFF);
+            }
+        }
+    }
+
+    public HyperLogLog copy() {
+        HyperLogLog c = new HyperLogLog(p);
+        c.merge(this);
+        return c;
+    }
+
+    public boolean isSparse() {
+        return dense == null;
+    }
+
+    // Serialización compacta: [formato][p] + pares dispersos o los m registros.
+    public byte[] toBytes() {
+        if (dense == null) {
+            ByteBuffer buf = ByteBuffer.allocate(2 + 4 + sparseSize * 4);
+            buf.put(FORMAT_SPARSE).put((byte) p).putInt(sparseSize);
+            for (int i = 0; i < sparseSize; i++) {
+                buf.putInt(sparse[i]);
+            }
+            return buf.array();
+        }
+        ByteBuffer buf = ByteBuffer.allocate(2 + m);
+        buf.put(FORMAT_DENSE).put((byte) p).put(dense);
+        return buf.array();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        byte format = buf.get();
+        HyperLogLog hll = new HyperLogLog(buf.get());
+        if (format == FORMAT_SPARSE) {
+            int n = buf.getInt();
+            hll.sparse = new int[Math.max(4, n)];
+            for (int i = 0; i < n; i++) {
+                hll.sparse[i] = buf.getInt();
+            }
+            hll.sparseSize = n;
+        } else if (format == FORMAT_DENSE) {
+            hll.dense = new byte[hll.m];
+            buf.get(hll.dense);
+            hll.sparse = null;
+        } else {
+            throw new IllegalArgumentException("Formato de HyperLogLog desconocido: " + format);
+        }
+        return hll;
+    }
+
+    // Bytes ocupados en memoria por los registros.
+    public int sizeInBytes() {
+        return dense != null ? m : sparse.length * 4;
+    }
+
+    private int register(int index) {
+        if (dense != null) {
+            return dense[index];
+        }
+        int pos = findSparse(index);
+        return pos >= 0 ? sparse[pos] & 0xFF : 0;
+    }
+
+    private void set(int index, int rank) {
+        if (dense != null) {
+            if (rank > dense[index]) {
+                dense[index] = (byte) rank;
+            }
+            return;
+        }
+        int pos = findSparse(index);
+        if (pos >= 0) {
+            if (rank > (sparse[pos] & 0xFF)) {
+                sparse[pos] = (index << 8) | rank;
+            }
+            return;
+        }
+        if ((sparseSize + 1) * 4 > m / 4) {
+            toDense();
+            set(index, rank);
+            return;
+        }
+        pos = -pos - 1;
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, sparseSize * 2);
+        }
+        System.arraycopy(sparse, pos, sparse, pos + 1, sparseSize - pos);
+        sparse[pos] = (index << 8) | rank;
+        sparseSize++;
+    }
+
+    // Búsqueda binaria por índice de registro (los 24 bits altos de cada entrada).
+    private int findSparse(int index) {
+        int lo = 0;
+        int hi = sparseSize - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int k = sparse[mid] >>> 8;
+            if (k < index) {
+                lo = mid + 1;
+            } else if (k > index) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    private void toDense() {
+        if (dense != null) {
+            return;
+        }
+        dense = new byte[m];
+        for (int i = 0; i < sparseSize; i++) {
+            dense[sparse[i] >>> 8] = (byte) (sparse[i] & 0xFF);
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+}
@@ -0,0 +1,85 @@
+package com.grupobb.biblioteca.util;
+
+import java.util.Arrays;
+
+/**
+ * Lista creciente de enteros primitivos (sin boxing).
+ *
+ * Se usa para listas de posting y otros índices en memoria donde un
+ * `List<Integer>` costaría ~16 bytes extra por elemento.
+ * No es thread-safe: el llamador sincroniza.
+ */
+public final class IntList {
+
+    private int[] data;
+    private int size;
+
+    public IntList() {
+        this(8);
+    }
+
+    public IntList(int initialCapacity) {
+        this.data = new int[Math.max(1, initialCapacity)];
+    }
+
+    public void add(int value) {
+        if (size == data.length) {
+            data = Arrays.copyOf(data, data.length + (data.length >> 1) + 1);
+        }
+        data[size++] = value;
+    }
+
+    public int get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+        return data[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Último valor agregado; útil para evitar duplicados en listas ordenadas.
+    public int last() {
+        return get(size - 1);
+    }
+
+    // Elimina la primera ocurrencia del valor (O(n)); devuelve true si existía.
+    public boolean removeValue(int value) {
+        for (int i = 0; i < size; i++) {
+            if (data[i] == value) {
+                System.arraycopy(data, i + 1, data, i, size - i - 1);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Búsqueda binaria; solo válida si la lista está ordenada ascendentemente.
+    public boolean containsSorted(int value) {
+        return Arrays.binarySearch(data, 0, size, value) >= 0;
+    }
+
+    public void sort() {
+        Arrays.sort(data, 0, size);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    // Arreglo interno (solo lectura); los elementos válidos son [0, size).
+    public int[] rawArray() {
+        return data;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(data, size);
+    }
+}
@@ -0,0 +1,163 @@
+package com.grupobb.biblioteca.util;
+
+import java.util.Arrays;
+
+/**
+ * Mapa hash long -> long con direccionamiento abierto (sondeo lineal).
+ *
+ * Pensado para contadores por id (préstamos por usuario, libro, autor, día)
+ * sin crear objetos Long.
+ * No es thread-safe: el llamador sincroniza.
+ */
+public final class LongLongHashMap {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final long REMOVED = Long.MIN_VALUE + 1;
+
+    private final long missingValue;
+    private long[] keys;
+    private long[] values;
+    private int size;
+    private int used; // ocupadas + lápidas
+
+    public LongLongHashMap(long missingValue) {
+        this(16, missingValue);
+    }
+
+    public LongLongHashMap(int expectedSize, long missingValue) {
+        this.missingValue = missingValue;
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2) - 1) << 1;
+        this.keys = new long[capacity];
+        this.values = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    public long get(long key) {
+        checkKey(key);
+        int mask = keys.length - 1;
+        int i = Hashing.mix(key) & mask;
+        while (true) {
+            long k = keys[i];
+            if (k == key) {
+                return values[i];
+            }
+            if (k == EMPTY) {
+                return missingValue;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(long key) {
+        return indexOf(key) >= 0;
+    }
+
+    public long put(long key, long value) {
+        checkKey(key);
+        int existing = indexOf(key);
+        if (existing >= 0) {
+            long old = values[existing];
+            values[existing] = value;
+            return old;
+        }
+        if ((used + 1) * 4 > keys.length * 3) {
+            rehash(size * 2 + 1 > keys.length / 2 ? keys.length * 2 : keys.length);
+        }
+        int mask = keys.length - 1;
+        int i = Hashing.mix(key) & mask;
+        while (keys[i] != EMPTY && keys[i] != REMOVED) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == EMPTY) {
+            used++;
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+        return missingValue;
+    }
+
+    // Suma delta al valor actual (missingValue si no existe) y devuelve el resultado.
+    public long addTo(long key, long delta) {
+        int existing = indexOf(key);
+        if (existing >= 0) {
+            values[existing] += delta;
+            return values[existing];
+        }
+        put(key, missingValue + delta);
+        return missingValue + delta;
+    }
+
+    public long remove(long key) {
+        int i = indexOf(key);
+        if (i < 0) {
+            return missingValue;
+        }
+        long old = values[i];
+        keys[i] = REMOVED;
+        size--;
+        return old;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        used = 0;
+    }
+
+    public void forEach(Entry consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            long k = keys[i];
+            if (k != EMPTY && k != REMOVED) {
+                consumer.accept(k, values[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Entry {
+        void accept(long key, long value);
+    }
+
+    private int indexOf(long key) {
+        checkKey(key);
+        int mask = keys.length - 1;
+        int i = Hashing.mix(key) & mask;
+        while (true) {
+            long k = keys[i];
+            if (k == key) {
+                return i;
+            }
+            if (k == EMPTY) {
+                return -1;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[newCapacity];
+        values = new long[newCapacity];
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        used = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long k = oldKeys[i];
+            if (k != EMPTY && k != REMOVED) {
+                put(k, oldValues[i]);
+            }
+        }
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY || key == REMOVED) {
+            throw new IllegalArgumentException("Clave reservada: " + key);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package com.grupobb.biblioteca.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Bitmap comprimido estilo Roaring para enteros no negativos.
+ *
+ * El espacio de 32 bits se divide en bloques de 65536 valores (16 bits altos).
+ * Cada bloque usa el contenedor más compacto según su densidad:
+ * - ArrayContainer: arreglo ordenado de 16 bits bajos (hasta {@value #ARRAY_MAX} valores).
+ * - BitmapContainer: 1024 longs (8 KB) cuando el bloque es denso.
+ *
+ * Así un catálogo de ids consecutivos ocupa ~1 bit por libro y uno disperso ~2 bytes por libro.
+ * No es thread-safe: el llamador sincroniza.
+ */
+public final class RoaringBitmap {
+
+    static final int ARRAY_MAX = 4096;
+
+    private char[] keys = new char[4];
+    private Container[] containers = new Container[4];
+    private int size;
+
+    public void add(int value) {
+        checkValue(value);
+        char high = (char) (value >>> 16);
+        int i = indexOf(high);
+        if (i >= 0) {
+            containers[i] = containers[i].add((char) value);
+        } else {
+            insertAt(-i - 1, high, new ArrayContainer().add((char) value));
+        }
+    }
+
+    public void remove(int value) {
+        if (value < 0) {
+            return;
+        }
+        int i = indexOf((char) (value >>> 16));
+        if (i < 0) {
+            return;
+        }
+        Container c = containers[i].remove((char) value);
+        if (c.cardinality() == 0) {
+            removeAt(i);
+        } else {
+            containers[i] = c;
+        }
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) {
+            return false;
+        }
+        int i = indexOf((char) (value >>> 16));
+        return i >= 0 && containers[i].contains((char) value);
+    }
+
+    public long cardinality() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += containers[i].cardinality();
+        }
+        return total;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(containers, 0, size, null);
+        size = 0;
+    }
+
+    // Recorre los valores en orden ascendente.
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+
+    public int[] toArray() {
+        int[] out = new int[(int) cardinality()];
+        int[] pos = {0};
+        forEach(v -> out[pos[0]++] = v);
+        return out;
+    }
+
+    // Intersección sin modificar los operandos.
+    public static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+        RoaringBitmap out = new RoaringBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container c = a.containers[i].and(b.containers[j]);
+                if (c.cardinality() > 0) {
+                    out.insertAt(out.size, a.keys[i], c);
+                }
+                i++;
+                j++;
+            }
+        }
+        return out;
+    }
+
+    // Cardinalidad de la intersección sin materializarla.
+    public static long andCardinality(RoaringBitmap a, RoaringBitmap b) {
+        long total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                total += a.containers[i].andCardinality(b.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    // Bytes aproximados ocupados por los contenedores (para métricas).
+    public long sizeInBytes() {
+        long bytes = (long) keys.length * 2 + (long) containers.length * 8;
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    private int indexOf(char high) {
+        int lo = 0;
+        int hi = size - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            char k = keys[mid];
+            if (k < high) {
+                lo = mid + 1;
+            } else if (k > high) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    private void insertAt(int i, char high, Container c) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, size - i);
+        System.arraycopy(containers, i, containers, i + 1, size - i);
+        keys[i] = high;
+        containers[i] = c;
+        size++;
+    }
+
+    private void removeAt(int i) {
+        System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+        containers[--size] = null;
+    }
+
+    private static void checkValue(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Solo se admiten valores no negativos: " + value);
+        }
+    }
+
+    // ------------------------------------------------------------------ contenedores
+
+    private abstract static class Container {
+        abstract Container add(char low);
+        abstract Container remove(char low);
+        abstract boolean contains(char low);
+        abstract int cardinality();
+        abstract void forEach(int base, IntConsumer consumer);
+        abstract Container and(Container other);
+        abstract int andCardinality(Container other);
+        abstract long sizeInBytes();
+    }
+
+    private static final class ArrayContainer extends Container {
+        private char[] values = new char[4];
+        private int card;
+
+        @Override
+        Container add(char low) {
+            int i = Arrays.binarySearch(values, 0, card, low);
+            if (i >= 0) {
+                return this;
+            }
+            if (card == ARRAY_MAX) {
+                return toBitmap().add(low);
+            }
+            i = -i - 1;
+            if (card == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, Math.max(4, card * 2)));
+            }
+            System.arraycopy(values, i, values, i + 1, card - i);
+            values[i] = low;
+            card++;
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            int i = Arrays.binarySearch(values, 0, card, low);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, card - i - 1);
+                card--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, card, low) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer consumer) {
+            for (int i = 0; i < card; i++) {
+                consumer.accept(base | values[i]);
+            }
+        }
+
+        @Override
+        Container and(Container other) {
+            ArrayContainer out = new ArrayContainer();
+            out.values = new char[Math.max(1, card)];
+            for (int i = 0; i < card; i++) {
+                if (other.contains(values[i])) {
+                    out.values[out.card++] = values[i];
+                }
+            }
+            return out;
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            int n = 0;
+            for (int i = 0; i < card; i++) {
+                if (other.contains(values[i])) {
+                    n++;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16L + values.length * 2L;
+        }
+
+        BitmapContainer toBitmap() {
+            BitmapContainer b = new BitmapContainer();
+            for (int i = 0; i < card; i++) {
+                b.add(values[i]);
+            }
+            return b;
+        }
+    }
+
+    private static final class BitmapContainer extends Container {
+        private final long[] words = new long[1024];
+        private int card;
+
+        @Override
+        Container add(char low) {
+            long bit = 1L << low;
+            int w = low >>> 6;
+            if ((words[w] & bit) == 0) {
+                words[w] |= bit;
+                card++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char low) {
+            long bit = 1L << low;
+            int w = low >>> 6;
+            if ((words[w] & bit) != 0) {
+                words[w] &= ~bit;
+                card--;
+                if (card <= ARRAY_MAX / 2) {
+                    return toArray();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return card;
+        }
+
+        @Override
+        void forEach(int base, IntConsumer consumer) {
+            for (int w = 0; w < words.length; w++) {
+                long word = words[w];
+                while (word != 0) {
+                    consumer.accept(base | (w << 6) | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            BitmapContainer o = (BitmapContainer) other;
+            BitmapContainer out = new BitmapContainer();
+            for (int w = 0; w < words.length; w++) {
+                out.words[w] = words[w] & o.words[w];
+                out.card += Long.bitCount(out.words[w]);
+            }
+            return out.card <= ARRAY_MAX ? out.toArray() : out;
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.andCardinality(this);
+            }
+            BitmapContainer o = (BitmapContainer) other;
+            int n = 0;
+            for (int w = 0; w < words.length; w++) {
+                n += Long.bitCount(words[w] & o.words[w]);
+            }
+            return n;
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16L + words.length * 8L;
+        }
+
+        ArrayContainer toArray() {
+            ArrayContainer a = new ArrayContainer();
+            a.values = new char[Math.max(1, card)];
+            forEach(0, v -> a.values[a.card++] = (char) v);
+            return a;
+        }
+    }
+}
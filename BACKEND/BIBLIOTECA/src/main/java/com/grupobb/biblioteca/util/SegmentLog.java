@@ -0,0 +1,295 @@
+package com.grupobb.biblioteca.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Log binario de solo anexado, en segmentos de tamaño fijo mapeados en memoria.
+ *
+ * - Cada registro ocupa {@code recordSize} bytes: [carga útil][seq (8)][crc32c (4)].
+ *   El seq es consecutivo desde 1; el CRC cubre carga útil + seq.
+ * - Un segmento guarda {@code recordsPerSegment} registros; al llenarse se fuerza a disco y se
+ *   abre el siguiente ({@code segment-<primer seq>.log}).
+ * - Commit en grupo: un hilo hace force() de todo lo escrito desde el último force y despierta a
+ *   los que esperan en {@link #awaitDurable}; N anexos concurrentes comparten un único fsync.
+ * - Al abrir, el último segmento se recorre hasta el primer registro inválido (escritura cortada
+ *   por una caída) y el resto del segmento se pone a cero para que no reaparezcan registros viejos.
+ */
+public final class SegmentLog implements Closeable {
+
+    public interface Writer {
+        // Escribe la carga útil en buf[base, base + payloadSize) con puts absolutos.
+        void write(ByteBuffer buf, int base);
+    }
+
+    public interface Reader {
+        void read(long seq, ByteBuffer buf, int base);
+    }
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".log";
+
+    private final Path dir;
+    private final int recordSize;
+    private final int payloadSize;
+    private final int recordsPerSegment;
+    private final long groupCommitMicros;
+    private final Object lock = new Object();
+    private final Object durable = new Object();
+    private final CRC32C crc = new CRC32C();
+    private final Thread flusher;
+
+    private FileChannel channel;
+    private MappedByteBuffer active;
+    private int activeCount;
+    private int activeForced;
+    private long nextSeq;
+    private volatile long durableSeq;
+    private volatile boolean closed;
+
+    public SegmentLog(Path dir, int recordSize, int recordsPerSegment, long groupCommitMicros) throws IOException {
+        if (recordSize < 16) {
+            throw new IllegalArgumentException("recordSize debe ser >= 16");
+        }
+        this.dir = dir;
+        this.recordSize = recordSize;
+        this.payloadSize = recordSize - 12;
+        this.recordsPerSegment = recordsPerSegment;
+        this.groupCommitMicros = groupCommitMicros;
+        Files.createDirectories(dir);
+        recover();
+        this.flusher = new Thread(this::flushLoop, "segment-log-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public int payloadSize() {
+        return payloadSize;
+    }
+
+    // Seq del último registro escrito (0 si el log está vacío).
+    public long lastSeq() {
+        synchronized (lock) {
+            return nextSeq - 1;
+        }
+    }
+
+    public long durableSeq() {
+        return durableSeq;
+    }
+
+    // Anexa un registro y devuelve su seq; no espera al disco (ver awaitDurable).
+    public long append(Writer writer) {
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("Log cerrado");
+            }
+            if (activeCount == recordsPerSegment) {
+                roll();
+            }
+            long seq = nextSeq++;
+            int base = activeCount * recordSize;
+            writer.write(active, base);
+            active.putLong(base + payloadSize, seq);
+            active.putInt(base + payloadSize + 8, checksum(active, base));
+            activeCount++;
+            lock.notify();
+            return seq;
+        }
+    }
+
+    // Bloquea hasta que el registro seq esté en disco.
+    public void awaitDurable(long seq) throws InterruptedException {
+        synchronized (durable) {
+            while (durableSeq < seq && !closed) {
+                durable.wait();
+            }
+        }
+    }
+
+    // Recorre en orden los registros válidos con seq >= fromSeq.
+    public void replay(long fromSeq, Reader reader) throws IOException {
+        List<Long> segments = segments();
+        for (int i = 0; i < segments.size(); i++) {
+            long first = segments.get(i);
+            if (i + 1 < segments.size() && segments.get(i + 1) <= fromSeq) {
+                continue;
+            }
+            try (FileChannel ch = FileChannel.open(segmentPath(first))) {
+                MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+                int n = (int) (ch.size() / recordSize);
+                for (int slot = 0; slot < n; slot++) {
+                    int base = slot * recordSize;
+                    long seq = first + slot;
+                    if (!valid(buf, base, seq)) {
+                        break;
+                    }
+                    if (seq >= fromSeq) {
+                        reader.read(seq, buf, base);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            active.force();
+            durableSeq = nextSeq - 1;
+            closed = true;
+            lock.notifyAll();
+            channel.close();
+        }
+        synchronized (durable) {
+            durable.notifyAll();
+        }
+        flusher.interrupt();
+    }
+
+    // Cierra el log y borra sus segmentos (para volver a generarlo desde la fuente de verdad).
+    public void delete() throws IOException {
+        close();
+        for (long firstSeq : segments()) {
+            Files.deleteIfExists(segmentPath(firstSeq));
+        }
+    }
+
+    private void flushLoop() {
+        while (true) {
+            MappedByteBuffer buf;
+            int from;
+            int to;
+            long target;
+            try {
+                synchronized (lock) {
+                    while (!closed && nextSeq - 1 == durableSeq) {
+                        lock.wait();
+                    }
+                    if (closed) {
+                        return;
+                    }
+                }
+                // Ventana para juntar más anexos en el mismo fsync
+                if (groupCommitMicros > 0) {
+                    Thread.sleep(groupCommitMicros / 1000, (int) (groupCommitMicros % 1000) * 1000);
+                }
+                synchronized (lock) {
+                    if (closed) {
+                        return;
+                    }
+                    buf = active;
+                    from = activeForced;
+                    to = activeCount;
+                    target = nextSeq - 1;
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (to > from) {
+                buf.force(from * recordSize, (to - from) * recordSize);
+            }
+            synchronized (lock) {
+                if (buf == active && to > activeForced) {
+                    activeForced = to;
+                }
+            }
+            synchronized (durable) {
+                durableSeq = Math.max(durableSeq, target);
+                durable.notifyAll();
+            }
+        }
+    }
+
+    // Llamar con lock tomado. El segmento lleno se fuerza completo antes de abrir el siguiente.
+    private void roll() {
+        active.force();
+        try {
+            channel.close();
+            openSegment(nextSeq);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void openSegment(long firstSeq) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(segmentPath(firstSeq).toFile(), "rw")) {
+            raf.setLength((long) recordSize * recordsPerSegment);
+        }
+        channel = FileChannel.open(segmentPath(firstSeq), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        active = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordSize * recordsPerSegment);
+        activeCount = 0;
+        activeForced = 0;
+    }
+
+    private void recover() throws IOException {
+        List<Long> segments = segments();
+        if (segments.isEmpty()) {
+            openSegment(1);
+            nextSeq = 1;
+            durableSeq = 0;
+            return;
+        }
+        long first = segments.get(segments.size() - 1);
+        openSegment(first);
+        int count = 0;
+        while (count < recordsPerSegment && valid(active, count * recordSize, first + count)) {
+            count++;
+        }
+        // Borra la cola cortada y cualquier registro viejo detrás de ella
+        for (int slot = count; slot < recordsPerSegment && active.getLong(slot * recordSize + payloadSize) != 0; slot++) {
+            for (int i = 0; i < recordSize; i += 4) {
+                active.putInt(slot * recordSize + i, 0);
+            }
+        }
+        active.force();
+        activeCount = count;
+        activeForced = count;
+        nextSeq = first + count;
+        durableSeq = nextSeq - 1;
+    }
+
+    private boolean valid(ByteBuffer buf, int base, long expectedSeq) {
+        return buf.getLong(base + payloadSize) == expectedSeq && buf.getInt(base + payloadSize + 8) == checksum(buf, base);
+    }
+
+    private int checksum(ByteBuffer buf, int base) {
+        ByteBuffer view = buf.duplicate();
+        view.position(base).limit(base + payloadSize + 8);
+        synchronized (crc) {
+            crc.reset();
+            crc.update(view);
+            return (int) crc.getValue();
+        }
+    }
+
+    private List<Long> segments() throws IOException {
+        List<Long> out = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.startsWith(PREFIX) && n.endsWith(SUFFIX))
+                    .forEach(n -> out.add(Long.parseLong(n.substring(PREFIX.length(), n.length() - SUFFIX.length()))));
+        }
+        out.sort(null);
+        return out;
+    }
+
+    private Path segmentPath(long firstSeq) {
+        return dir.resolve(String.format("%s%020d%s", PREFIX, firstSeq, SUFFIX));
+    }
+}
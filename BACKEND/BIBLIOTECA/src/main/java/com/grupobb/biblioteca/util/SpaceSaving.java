@@ -0,0 +1,153 @@
+package com.grupobb.biblioteca.util;
+
+import java.util.Arrays;
+
+/**
+ * Sketch Space-Saving (Metwally et al.) para los elementos más frecuentes de un flujo.
+ *
+ * Usa exactamente {@code capacity} contadores sin importar cuántos elementos distintos lleguen.
+ * Garantías, con N = total de incrementos y k = capacity:
+ * - cada conteo estimado sobreestima el real como máximo en su {@code error} (≤ N / k);
+ * - todo elemento con frecuencia real > N / k está en el sketch.
+ *
+ * Implementación: min-heap indexado sobre los contadores + mapa item -> posición en el heap.
+ * Cada actualización es O(log k) y no crea objetos.
+ * No es thread-safe: el llamador sincroniza.
+ */
+public final class SpaceSaving {
+
+    private final int capacity;
+    private final long[] items;
+    private final long[] counts;
+    private final long[] errors;
+    private final LongIntHashMap positions;
+    private int size;
+    private long total;
+
+    public SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity debe ser > 0");
+        }
+        this.capacity = capacity;
+        this.items = new long[capacity];
+        this.counts = new long[capacity];
+        this.errors = new long[capacity];
+        this.positions = new LongIntHashMap(capacity, -1);
+    }
+
+    // Devuelve el conteo estimado del elemento tras sumarle weight.
+    public long add(long item, long weight) {
+        total += weight;
+        int pos = positions.get(item);
+        if (pos >= 0) {
+            long count = counts[pos] += weight;
+            siftDown(pos);
+            return count;
+        }
+        if (size < capacity) {
+            pos = size++;
+            items[pos] = item;
+            counts[pos] = weight;
+            errors[pos] = 0;
+            positions.put(item, pos);
+            siftUp(pos);
+            return weight;
+        }
+        // Reemplaza al mínimo: hereda su conteo como error máximo.
+        long min = counts[0];
+        positions.remove(items[0]);
+        items[0] = item;
+        counts[0] = min + weight;
+        errors[0] = min;
+        positions.put(item, 0);
+        siftDown(0);
+        return min + weight;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    // Cota superior del error de cualquier conteo (N / k).
+    public long maxError() {
+        return size < capacity ? 0 : counts[0];
+    }
+
+    public void clear() {
+        positions.clear();
+        size = 0;
+        total = 0;
+    }
+
+    // Suma todos los contadores de este sketch en el acumulador (para unir ventanas).
+    public void mergeInto(LongLongHashMap countAcc, LongLongHashMap errorAcc) {
+        for (int i = 0; i < size; i++) {
+            countAcc.addTo(items[i], counts[i]);
+            errorAcc.addTo(items[i], errors[i]);
+        }
+    }
+
+    // Índices de los contadores ordenados de mayor a menor conteo.
+    public long[][] top(int n) {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Long.compare(counts[b], counts[a]));
+        int m = Math.min(n, size);
+        long[][] out = new long[m][];
+        for (int i = 0; i < m; i++) {
+            int p = order[i];
+            out[i] = new long[]{items[p], counts[p], errors[p]};
+        }
+        return out;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (counts[parent] <= counts[i]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int l = 2 * i + 1;
+            int r = l + 1;
+            int min = i;
+            if (l < size && counts[l] < counts[min]) min = l;
+            if (r < size && counts[r] < counts[min]) min = r;
+            if (min == i) {
+                return;
+            }
+            swap(i, min);
+            i = min;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long ti = items[a];
+        items[a] = items[b];
+        items[b] = ti;
+        long tc = counts[a];
+        counts[a] = counts[b];
+        counts[b] = tc;
+        long te = errors[a];
+        errors[a] = errors[b];
+        errors[b] = te;
+        positions.put(items[a], a);
+        positions.put(items[b], b);
+    }
+}
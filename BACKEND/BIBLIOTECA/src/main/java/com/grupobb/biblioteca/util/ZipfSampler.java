@@ -0,0 +1,78 @@
+package com.grupobb.biblioteca.util;
+
+import java.util.SplittableRandom;
+
+/**
+ * Muestreo de una distribución de Zipf sobre los rangos 1..n: P(k) proporcional a 1 / k^s.
+ *
+ * Usa rejection-inversion (Hörmann y Derflinger, 1996): O(1) por muestra y sin tablas, así que
+ * sirve para n de millones. Con s = 1 el rango 1 sale ~n/ln(n) veces más que el último.
+ * No guarda estado mutable: es seguro compartirlo entre hilos si cada uno usa su propio generador.
+ */
+public final class ZipfSampler {
+
+    private final int n;
+    private final double exponent;
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double s;
+
+    public ZipfSampler(int n, double exponent) {
+        if (n <= 0) {
+            throw new IllegalArgumentException("n debe ser > 0: " + n);
+        }
+        if (exponent <= 0) {
+            throw new IllegalArgumentException("El exponente debe ser > 0: " + exponent);
+        }
+        this.n = n;
+        this.exponent = exponent;
+        this.hIntegralX1 = hIntegral(1.5) - 1;
+        this.hIntegralN = hIntegral(n + 0.5);
+        this.s = 2 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    // Rango en [1, n]; 1 es el más frecuente.
+    public int sample(SplittableRandom rng) {
+        while (true) {
+            double u = hIntegralN + rng.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+            if (k < 1) {
+                k = 1;
+            } else if (k > n) {
+                k = n;
+            }
+            if (k - x <= s || u >= hIntegral(k + 0.5) - h(k)) {
+                return k;
+            }
+        }
+    }
+
+    // Primitiva de h(x) = 1 / x^exponent, escrita para ser estable cuando exponent ~ 1.
+    private double hIntegral(double x) {
+        double logX = Math.log(x);
+        return helper2((1 - exponent) * logX) * logX;
+    }
+
+    private double h(double x) {
+        return Math.exp(-exponent * Math.log(x));
+    }
+
+    private double hIntegralInverse(double x) {
+        double t = x * (1 - exponent);
+        if (t < -1) {
+            t = -1;
+        }
+        return Math.exp(helper1(t) * x);
+    }
+
+    // log(1 + x) / x, con su serie cerca de 0
+    private static double helper1(double x) {
+        return Math.abs(x) > 1e-8 ? Math.log1p(x) / x : 1 - x * (0.5 - x * (1.0 / 3 - 0.25 * x));
+    }
+
+    // (e^x - 1) / x, con su serie cerca de 0
+    private static double helper2(double x) {
+        return Math.abs(x) > 1e-8 ? Math.expm1(x) / x : 1 + x * 0.5 * (1 + x * (1.0 / 3) * (1 + 0.25 * x));
+    }
+}
@@ -0,0 +1,88 @@
+package com.grupobb.biblioteca.web.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Límite global de peticiones en curso, ajustado con AIMD según la latencia observada.
+ *
+ * - Arranca cerca del tamaño del pool de Hikari: más peticiones simultáneas que conexiones
+ *   solo hacen cola dentro del pool.
+ * - Suma 1/límite por cada respuesta rápida (≈ +1 por "ronda" completa) mientras el límite se
+ *   está usando de verdad (al menos la mitad ocupado al admitir).
+ * - Multiplica por {@code backoff} cuando una respuesta supera {@code targetLatency}, como
+ *   mucho una vez por ventana de {@code targetLatency}: una ráfaga de respuestas lentas que
+ *   venían de la misma congestión cuenta como una sola señal.
+ *
+ * El límite vive en un AtomicLong (bits del double) y las peticiones en curso en un
+ * AtomicInteger; admitir y ajustar son CAS, sin locks.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetNanos;
+    private final double backoff;
+    private final AtomicLong limitBits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastDecrease = new AtomicLong(Long.MIN_VALUE);
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetNanos, double backoff) {
+        if (minLimit < 1 || maxLimit < minLimit || backoff <= 0 || backoff >= 1) {
+            throw new IllegalArgumentException("Límites inválidos: min=" + minLimit + " max=" + maxLimit
+                    + " backoff=" + backoff);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetNanos = targetNanos;
+        this.backoff = backoff;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(Math.max(minLimit, Math.min(maxLimit, initialLimit))));
+    }
+
+    /**
+     * Reserva un hueco. Devuelve las peticiones en curso contando esta, o 0 si el límite está
+     * lleno (la petición debe rechazarse, no esperar).
+     */
+    public int tryAcquire() {
+        int limit = limit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return 0;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return current + 1;
+            }
+        }
+    }
+
+    /**
+     * Libera el hueco y ajusta el límite con la latencia de la petición.
+     *
+     * @param inFlightAtStart lo que devolvió {@link #tryAcquire()} para esta petición
+     */
+    public void release(long latencyNanos, int inFlightAtStart, long now) {
+        inFlight.decrementAndGet();
+        if (latencyNanos > targetNanos) {
+            long last = lastDecrease.get();
+            if ((last == Long.MIN_VALUE || now - last >= targetNanos) && lastDecrease.compareAndSet(last, now)) {
+                update(l -> Math.max(minLimit, l * backoff));
+            }
+        } else if (inFlightAtStart * 2 >= limit()) {
+            update(l -> Math.min(maxLimit, l + 1 / l));
+        }
+    }
+
+    public int limit() {
+        return (int) Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void update(DoubleUnaryOperator f) {
+        limitBits.updateAndGet(bits -> Double.doubleToRawLongBits(f.applyAsDouble(Double.longBitsToDouble(bits))));
+    }
+}
@@ -0,0 +1,128 @@
+package com.grupobb.biblioteca.web.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupobb.biblioteca.web.advice.ErrorBody;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+
+/**
+ * Control de admisión delante del pool de conexiones (se registra primero en WebConfig).
+ *
+ * Con 10 conexiones en Hikari, aceptar todo lo que llega solo alarga la cola del pool hasta que
+ * las peticiones agotan el connection-timeout: la sobrecarga se vuelve latencia para todos.
+ * Aquí se rechaza de inmediato lo que no se va a poder atender pronto:
+ * - 429 si el cliente (IP remota, o la cabecera {@code admission.client-header} si se configura)
+ *   agotó su cubeta de fichas; Retry-After indica cuándo tendrá la siguiente.
+ * - 503 si el límite global de peticiones en curso está lleno (ver AdaptiveConcurrencyLimit).
+ * Ambos con el cuerpo de error habitual y sin tocar la base de datos.
+ */
+@Component
+public class AdmissionInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT = AdmissionInterceptor.class.getName() + ".permit";
+
+    private final boolean enabled;
+    private final String clientHeader;
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimit limit;
+    private final ObjectMapper objectMapper;
+    private final Counter rateLimited;
+    private final Counter shed;
+
+    public AdmissionInterceptor(@Value("${admission.enabled:true}") boolean enabled,
+                                @Value("${admission.client-header:}") String clientHeader,
+                                @Value("${admission.rate:50}") double rate,
+                                @Value("${admission.burst:100}") int burst,
+                                @Value("${admission.max-clients:10000}") int maxClients,
+                                @Value("${admission.initial-limit:${spring.datasource.hikari.maximum-pool-size:10}}") int initialLimit,
+                                @Value("${admission.min-limit:2}") int minLimit,
+                                @Value("${admission.max-limit:12}") int maxLimit,
+                                @Value("${admission.target-latency-ms:250}") long targetLatencyMs,
+                                @Value("${admission.backoff:0.75}") double backoff,
+                                ObjectMapper objectMapper,
+                                MeterRegistry registry) {
+        this.enabled = enabled;
+        this.clientHeader = clientHeader.isBlank() ? null : clientHeader.trim();
+        this.rateLimiter = new ClientRateLimiter(rate, burst, maxClients);
+        this.limit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit,
+                targetLatencyMs * 1_000_000L, backoff);
+        this.objectMapper = objectMapper;
+        this.rateLimited = Counter.builder("admission.rejected").tag("reason", "rate")
+                .description("Peticiones rechazadas con 429 por cliente").register(registry);
+        this.shed = Counter.builder("admission.rejected").tag("reason", "concurrency")
+                .description("Peticiones rechazadas con 503 por el límite global").register(registry);
+        Gauge.builder("admission.limit", limit, AdaptiveConcurrencyLimit::limit)
+                .description("Límite actual de peticiones en curso").register(registry);
+        Gauge.builder("admission.in_flight", limit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Peticiones admitidas en curso").register(registry);
+        Gauge.builder("admission.clients", rateLimiter, ClientRateLimiter::clients)
+                .description("Clientes con cubeta propia").register(registry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        // El despacho asíncrono sigue con el hueco que se reservó en el original
+        if (!enabled || request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        long now = System.nanoTime();
+        long wait = rateLimiter.tryAcquire(clientOf(request), now);
+        if (wait > 0) {
+            rateLimited.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, wait, "Demasiadas peticiones de este cliente");
+            return false;
+        }
+        int inFlightAtStart = limit.tryAcquire();
+        if (inFlightAtStart == 0) {
+            shed.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 0, "Servidor saturado, reintente en unos instantes");
+            return false;
+        }
+        request.setAttribute(PERMIT, new long[]{now, inFlightAtStart});
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        long[] permit = (long[]) request.getAttribute(PERMIT);
+        if (permit != null) {
+            request.removeAttribute(PERMIT);
+            long now = System.nanoTime();
+            limit.release(now - permit[0], (int) permit[1], now);
+        }
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        if (clientHeader != null) {
+            String value = request.getHeader(clientHeader);
+            if (value != null && !value.isBlank()) {
+                return value;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    // Mismo formato que GlobalExceptionHandler; Retry-After en segundos enteros (mínimo 1)
+    private void reject(HttpServletResponse response, HttpStatus status, long waitNanos, String message)
+            throws IOException {
+        long seconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorBody(status.value(), status.getReasonPhrase(), message, null));
+    }
+}
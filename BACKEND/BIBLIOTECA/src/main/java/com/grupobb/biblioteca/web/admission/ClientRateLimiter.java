@@ -0,0 +1,74 @@
+package com.grupobb.biblioteca.web.admission;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cubeta de fichas por cliente: {@code rate} peticiones/s sostenidas y ráfagas de hasta
+ * {@code burst}.
+ *
+ * Cada cubeta es un solo AtomicLong con el "instante teórico de llegada" (GCRA): equivale a una
+ * cubeta de fichas pero sin guardar fichas y marca de tiempo por separado, así que consumir es
+ * un CAS sin locks. La cubeta está llena cuando ese instante ya pasó.
+ *
+ * El mapa se acota a {@code maxClients}: al llenarse se barren las cubetas llenas (clientes
+ * inactivos), como mucho una vez por segundo. Si aun así no hay sitio, el cliente nuevo pasa
+ * sin límite propio; el límite global de concurrencia sigue protegiendo el pool.
+ */
+public class ClientRateLimiter {
+
+    private static final long SWEEP_EVERY_NANOS = 1_000_000_000L;
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final int maxClients;
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(Long.MIN_VALUE);
+
+    public ClientRateLimiter(double rate, int burst, int maxClients) {
+        if (rate <= 0 || burst < 1) {
+            throw new IllegalArgumentException("rate debe ser > 0 y burst >= 1");
+        }
+        this.intervalNanos = (long) (1_000_000_000L / rate);
+        this.toleranceNanos = intervalNanos * (burst - 1);
+        this.maxClients = maxClients;
+    }
+
+    /**
+     * Consume una ficha del cliente. Devuelve 0 si la petición pasa o los nanosegundos que
+     * faltan para la próxima ficha si la cubeta está vacía.
+     */
+    public long tryAcquire(String client, long now) {
+        AtomicLong tat = buckets.get(client);
+        if (tat == null) {
+            if (buckets.size() >= maxClients && !sweep(now)) {
+                return 0;
+            }
+            tat = buckets.computeIfAbsent(client, k -> new AtomicLong(now));
+        }
+        while (true) {
+            long current = tat.get();
+            long base = Math.max(current, now);
+            long wait = base - now - toleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (tat.compareAndSet(current, base + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    public int clients() {
+        return buckets.size();
+    }
+
+    // Quita las cubetas llenas; true si quedó sitio para otro cliente.
+    private boolean sweep(long now) {
+        long last = lastSweep.get();
+        if ((last == Long.MIN_VALUE || now - last >= SWEEP_EVERY_NANOS) && lastSweep.compareAndSet(last, now)) {
+            buckets.values().removeIf(t -> t.get() <= now);
+        }
+        return buckets.size() < maxClients;
+    }
+}
@@ -1,6 +1,6 @@
 package com.grupobb.biblioteca.web.advice;
 
-public class AlreadyReturnedException extends RuntimeException {
+public class AlreadyReturnedException extends DomainException {
 
     public AlreadyReturnedException(String message) {
         super(message);
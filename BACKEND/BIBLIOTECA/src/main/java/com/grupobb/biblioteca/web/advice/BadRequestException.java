@@ -1,6 +1,6 @@
 package com.grupobb.biblioteca.web.advice;
 
-public class BadRequestException extends RuntimeException {
+public class BadRequestException extends DomainException {
 
     public BadRequestException(String message) {
         super(message);
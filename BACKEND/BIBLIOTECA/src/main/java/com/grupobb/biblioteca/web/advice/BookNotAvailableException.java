@@ -1,6 +1,6 @@
 package com.grupobb.biblioteca.web.advice;
 
-public class BookNotAvailableException extends RuntimeException {
+public class BookNotAvailableException extends DomainException {
 
     public BookNotAvailableException(String message) {
         super(message);
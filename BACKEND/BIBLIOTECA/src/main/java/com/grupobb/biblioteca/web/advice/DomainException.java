@@ -0,0 +1,16 @@
+package com.grupobb.biblioteca.web.advice;
+
+/**
+ * Base de los errores de negocio esperados (no encontrado, sin ejemplares, conflicto...) y
+ * del 503 inmediato con el circuito de la BD abierto.
+ *
+ * Son resultados normales bajo carga (p. ej. cada carrera perdida por el último ejemplar), así
+ * que no capturan la traza de la pila ni admiten excepciones suprimidas: crearlas cuesta lo
+ * mismo que un objeto con un mensaje. GlobalExceptionHandler las traduce sin registrarlas.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    protected DomainException(String message) {
+        super(message, null, false, false);
+    }
+}
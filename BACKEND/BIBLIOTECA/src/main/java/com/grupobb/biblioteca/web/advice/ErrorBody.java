@@ -0,0 +1,56 @@
+package com.grupobb.biblioteca.web.advice;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+
+/**
+ * Cuerpo JSON de error: timestamp, status, error, message y, en validaciones, errors por campo
+ * (los nulos no se serializan). El timestamp es el mismo texto durante cada segundo, así que
+ * se formatea una vez por segundo y no en cada error.
+ */
+public class ErrorBody {
+
+    private static volatile Stamp stamp = new Stamp(-1, "");
+
+    private final String timestamp;
+    private final int status;
+    private final String error;
+    private final String message;
+    private final Map<String, String> errors;
+
+    public ErrorBody(int status, String error, String message, Map<String, String> errors) {
+        this.timestamp = now();
+        this.status = status;
+        this.error = error;
+        this.message = message;
+        this.errors = errors;
+    }
+
+    public String getTimestamp() { return timestamp; }
+    public int getStatus() { return status; }
+    public String getError() { return error; }
+    public String getMessage() { return message; }
+    public Map<String, String> getErrors() { return errors; }
+
+    static String now() {
+        long second = System.currentTimeMillis() / 1000;
+        Stamp s = stamp;
+        if (s.second != second) {
+            s = new Stamp(second, LocalDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneId.systemDefault()).toString());
+            stamp = s;
+        }
+        return s.text;
+    }
+
+    private static final class Stamp {
+        final long second;
+        final String text;
+
+        Stamp(long second, String text) {
+            this.second = second;
+            this.text = text;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package com.grupobb.biblioteca.web.advice;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -7,78 +10,117 @@ import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.http.ResponseEntity;
 
-import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Traduce excepciones a respuestas JSON ({@link ErrorBody}).
+ *
+ * Los errores de negocio (DomainException y validaciones) son 4xx esperados: no se registran.
+ * Solo los 500 imprimen su traza, y como mucho {@code errors.stack-traces-per-minute} por
+ * minuto; el resto se cuenta y se resume en la siguiente traza, para que una avalancha de fallos
+ * no convierta el log en el cuello de botella.
+ */
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final long MINUTO_MS = 60_000;
+
+    private final int tracesPerMinute;
+    private final AtomicLong ventana = new AtomicLong();
+    private final AtomicLong enVentana = new AtomicLong();
+    private final AtomicLong omitidas = new AtomicLong();
+
+    public GlobalExceptionHandler(@Value("${errors.stack-traces-per-minute:10}") int tracesPerMinute) {
+        this.tracesPerMinute = tracesPerMinute;
+    }
+
     //404 cuando no se encuentra un recurso
     @ExceptionHandler(NotFoundException.class)
-    public ResponseEntity<?> handleNotFound(NotFoundException ex){
+    public ResponseEntity<ErrorBody> handleNotFound(NotFoundException ex){
         return error(HttpStatus.NOT_FOUND, ex.getMessage());
     }
 
     //409 cuando existe correos duplicados
     @ExceptionHandler(ConflictException.class)
-    public ResponseEntity<?> handleConflict(ConflictException ex){
+    public ResponseEntity<ErrorBody> handleConflict(ConflictException ex){
         return error(HttpStatus.CONFLICT, ex.getMessage());
     }
 
+    //409 cuando la BD rechaza la operación por una restricción (única, FK) no validada antes
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorBody> handleDataIntegrity(DataIntegrityViolationException ex){
+        return error(HttpStatus.CONFLICT, "La operación viola una restricción de integridad de los datos");
+    }
+
     //400 cuando el libro no está disponible
     @ExceptionHandler(BookNotAvailableException.class)
-    public ResponseEntity<?> handleBookNotAvailable(BookNotAvailableException ex){
+    public ResponseEntity<ErrorBody> handleBookNotAvailable(BookNotAvailableException ex){
         return error(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
     //400 cuando el libro ya fue devuelto
     @ExceptionHandler(AlreadyReturnedException.class)
-    public ResponseEntity<?> handleAlreadyReturned(AlreadyReturnedException ex){
+    public ResponseEntity<ErrorBody> handleAlreadyReturned(AlreadyReturnedException ex){
         return error(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
     //400 para errores de validación de negocio
     @ExceptionHandler(BadRequestException.class)
-    public ResponseEntity<?> handleBadRequest(BadRequestException ex){
+    public ResponseEntity<ErrorBody> handleBadRequest(BadRequestException ex){
         return error(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    //503 inmediato (circuito de la BD abierto), con Retry-After
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorBody> handleUnavailable(ServiceUnavailableException ex){
+        HttpStatus status = HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(new ErrorBody(status.value(), status.getReasonPhrase(), ex.getMessage(), null));
+    }
+
     //400 por validaciones
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<?> handleValidation(MethodArgumentNotValidException ex){
-        // Imprimimos la traza de la excepción en la consola del servidor para depuración
-        ex.printStackTrace();
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", HttpStatus.BAD_REQUEST.value());
-        Map<String, String> errors = new HashMap<>();
+    public ResponseEntity<ErrorBody> handleValidation(MethodArgumentNotValidException ex){
+        Map<String, String> errors = new LinkedHashMap<>();
         for(FieldError field : ex.getBindingResult().getFieldErrors()){
             errors.put(field.getField(), field.getDefaultMessage());
         }
-        body.put("errors", errors);
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorBody(HttpStatus.BAD_REQUEST.value(), null, null, errors));
     }
-    //500 generico
-    @ExceptionHandler(Exception.class)
-    public ResponseEntity<String> handleAll(Exception ex) {
-        // Imprimimos la traza de la excepción en la consola del servidor para depuración
-        ex.printStackTrace();
 
-        // Atrapa cualquier excepción no manejada y devuelve una respuesta 500 simple.
-        // En una aplicación real podrías mapear distintas excepciones a códigos HTTP más precisos
-        // y devolver un JSON con más detalles (timestamp, path, error code, etc.).
-        return ResponseEntity.status(500).body("Error: " + ex.getMessage());
+    //500 generico: fallo real, con traza (limitada)
+    @ExceptionHandler(Exception.class)
+    public ResponseEntity<ErrorBody> handleAll(Exception ex) {
+        logFault(ex);
+        return error(HttpStatus.INTERNAL_SERVER_ERROR, "Error: " + ex.getMessage());
     }
 
     //Construye el JSON estandar de error
-    private ResponseEntity<Map<String, Object>> error(HttpStatus status, String message) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", status.value());
-        body.put("error", status.getReasonPhrase());
-        body.put("message", message);
-        return ResponseEntity.status(status).body(body);
+    private ResponseEntity<ErrorBody> error(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .body(new ErrorBody(status.value(), status.getReasonPhrase(), message, null));
+    }
+
+    // Ventana fija de un minuto: las primeras tracesPerMinute trazas se imprimen, el resto se cuenta.
+    private void logFault(Exception ex) {
+        long actual = System.currentTimeMillis() / MINUTO_MS;
+        long previa = ventana.get();
+        if (previa != actual && ventana.compareAndSet(previa, actual)) {
+            enVentana.set(0);
+        }
+        if (enVentana.incrementAndGet() > tracesPerMinute) {
+            omitidas.incrementAndGet();
+            return;
+        }
+        long sinTraza = omitidas.getAndSet(0);
+        if (sinTraza > 0) {
+            System.out.println("[Error] " + sinTraza + " errores 500 sin traza (límite de "
+                    + tracesPerMinute + " por minuto)");
+        }
+        ex.printStackTrace();
     }
 }
@@ -1,6 +1,6 @@
 package com.grupobb.biblioteca.web.advice;
 
-public class NotFoundException extends RuntimeException {
+public class NotFoundException extends DomainException {
 
     public NotFoundException(String message) {
 
@@ -0,0 +1,16 @@
+package com.grupobb.biblioteca.web.advice;
+
+// 503 inmediato con Retry-After (p. ej. escrituras con el circuito de la BD abierto)
+public class ServiceUnavailableException extends DomainException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -1,5 +1,6 @@
 package com.grupobb.biblioteca.web.controller;
 
+import com.grupobb.biblioteca.datasource.circuit.DatabaseCircuitBreaker;
 import com.grupobb.biblioteca.dto.Author.AuthorRequestData;
 import com.grupobb.biblioteca.dto.Author.AuthorResponse;
 import com.grupobb.biblioteca.service.AuthorService;
@@ -19,34 +20,38 @@ import java.util.List;
  * - POST   /api/authors         -> crea un nuevo autor
  * - PUT    /api/authors/{id}    -> actualiza un autor existente
  * - DELETE /api/authors/{id}    -> elimina un autor
+ *
+ * Como en BookController, todo pasa por DatabaseCircuitBreaker (copia obsoleta o 503 sin BD).
  */
 @RestController
 @RequestMapping("/api/authors")
 public class AuthorController {
 
     private final AuthorService authorService;
+    private final DatabaseCircuitBreaker circuitBreaker;
 
-    public AuthorController(AuthorService authorService) {
+    public AuthorController(AuthorService authorService, DatabaseCircuitBreaker circuitBreaker) {
         this.authorService = authorService;
+        this.circuitBreaker = circuitBreaker;
     }
 
     // Lista todos los autores
     @GetMapping
-    public List<AuthorResponse> list() {
-        return authorService.findAll();
+    public ResponseEntity<List<AuthorResponse>> list() {
+        return StaleReads.ok(circuitBreaker.read("authors", authorService::findAll));
     }
 
     // Obtiene un autor por ID
     @GetMapping("/{id}")
     public ResponseEntity<AuthorResponse> get(@PathVariable Long id) {
-        AuthorResponse author = authorService.findById(id);
-        return ResponseEntity.ok(author);
+        return StaleReads.ok(circuitBreaker.<AuthorResponse>readItem("authors",
+                () -> authorService.findById(id), a -> id.equals(a.getId())));
     }
 
     // Crea un nuevo autor
     @PostMapping
     public ResponseEntity<AuthorResponse> create(@Valid @RequestBody AuthorRequestData request) {
-        AuthorResponse created = authorService.create(request);
+        AuthorResponse created = circuitBreaker.write(() -> authorService.create(request));
         // opcional: devolver Location en header
         return ResponseEntity
                 .created(URI.create("/api/authors/" + created.getId()))
@@ -57,14 +62,14 @@ public class AuthorController {
     @PutMapping("/{id}")
     public ResponseEntity<AuthorResponse> update(@PathVariable Long id,
                                                  @Valid @RequestBody AuthorRequestData request) {
-        AuthorResponse updated = authorService.update(id, request);
+        AuthorResponse updated = circuitBreaker.write(() -> authorService.update(id, request));
         return ResponseEntity.ok(updated);
     }
 
     // Elimina un autor
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        authorService.delete(id);
+        circuitBreaker.write(() -> authorService.delete(id));
         return ResponseEntity.noContent().build();
     }
 }
@@ -1,7 +1,12 @@
 package com.grupobb.biblioteca.web.controller;
 
+import com.grupobb.biblioteca.datasource.circuit.DatabaseCircuitBreaker;
+import com.grupobb.biblioteca.dto.Book.AvailabilityResponse;
 import com.grupobb.biblioteca.dto.Book.BookRequestData;
 import com.grupobb.biblioteca.dto.Book.BookResponse;
+import com.grupobb.biblioteca.dto.Book.BookSearchResult;
+import com.grupobb.biblioteca.dto.Book.CatalogSearchResponse;
+import com.grupobb.biblioteca.dto.Book.RelatedBookResponse;
 import com.grupobb.biblioteca.service.BookService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -15,38 +20,82 @@ import java.util.List;
  *
  * Rutas base: /api/books
  * - GET    /api/books         -> lista todos los libros (incluye campo 'disponible')
+ * - GET    /api/books/search?q= -> busca por palabras del título o del autor (índice en memoria;
+ *                                  fuera de la sede principal, en su BD)
+ * - GET    /api/books/catalog?q= -> busca en la BD de todas las sedes en paralelo
+ * - GET    /api/books/availability[?autorId=] -> conteo de disponibles (global o por autor)
  * - GET    /api/books/{id}    -> obtiene un libro por id
+ * - GET    /api/books/{id}/availability -> disponibilidad de un libro (sin ir a la BD en la sede principal)
+ * - GET    /api/books/{id}/related?limit= -> libros prestados junto a este por los mismos usuarios
  * - POST   /api/books         -> crea un nuevo libro
  * - PUT    /api/books/{id}    -> actualiza un libro existente
  * - DELETE /api/books/{id}    -> elimina un libro
+ *
+ * El listado, la consulta por id y las escrituras pasan por DatabaseCircuitBreaker: con la BD
+ * caída las lecturas salen de la última copia (cabecera X-Stale) y las escrituras dan 503.
  */
 @RestController
 @RequestMapping("/api/books")
 public class BookController {
 
     private final BookService bookService;
+    private final DatabaseCircuitBreaker circuitBreaker;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, DatabaseCircuitBreaker circuitBreaker) {
         this.bookService = bookService;
+        this.circuitBreaker = circuitBreaker;
     }
 
     // Lista todos los libros
     @GetMapping
-    public List<BookResponse> list() {
-        return bookService.findAll();
+    public ResponseEntity<List<BookResponse>> list() {
+        return StaleReads.ok(circuitBreaker.read("books", bookService::findAll));
+    }
+
+    // Búsqueda por texto, ordenada por relevancia
+    @GetMapping("/search")
+    public List<BookSearchResult> search(@RequestParam("q") String q,
+                                         @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return bookService.search(q, Math.min(limit, 100));
+    }
+
+    // Búsqueda en todo el catálogo (todas las sedes)
+    @GetMapping("/catalog")
+    public CatalogSearchResponse catalog(@RequestParam("q") String q,
+                                         @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return bookService.catalog(q, Math.min(limit, 100));
+    }
+
+    // Disponibles en total o de un autor, desde el índice en memoria
+    @GetMapping("/availability")
+    public AvailabilityResponse availability(@RequestParam(value = "autorId", required = false) Long autorId) {
+        return bookService.availability(autorId);
     }
 
     // Obtiene un libro por ID
     @GetMapping("/{id}")
     public ResponseEntity<BookResponse> get(@PathVariable Long id) {
-        BookResponse book = bookService.findById(id);
-        return ResponseEntity.ok(book);
+        return StaleReads.ok(circuitBreaker.<BookResponse>readItem("books",
+                () -> bookService.findById(id), b -> id.equals(b.getId())));
+    }
+
+    // Disponibilidad de un libro
+    @GetMapping("/{id}/availability")
+    public AvailabilityResponse availabilityOf(@PathVariable Long id) {
+        return bookService.availabilityOf(id);
+    }
+
+    // "Quienes prestaron este libro también prestaron..."
+    @GetMapping("/{id}/related")
+    public List<RelatedBookResponse> related(@PathVariable Long id,
+                                             @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return bookService.related(id, Math.min(limit, 50));
     }
 
     // Crea un nuevo libro
     @PostMapping
     public ResponseEntity<BookResponse> create(@Valid @RequestBody BookRequestData request) {
-        BookResponse created = bookService.create(request);
+        BookResponse created = circuitBreaker.write(() -> bookService.create(request));
         return ResponseEntity
                 .created(URI.create("/api/books/" + created.getId()))
                 .body(created);
@@ -56,14 +105,14 @@ public class BookController {
     @PutMapping("/{id}")
     public ResponseEntity<BookResponse> update(@PathVariable Long id,
                                                @Valid @RequestBody BookRequestData request) {
-        BookResponse updated = bookService.update(id, request);
+        BookResponse updated = circuitBreaker.write(() -> bookService.update(id, request));
         return ResponseEntity.ok(updated);
     }
 
     // Elimina un libro
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> delete(@PathVariable Long id) {
-        bookService.delete(id);
+        circuitBreaker.write(() -> bookService.delete(id));
         return ResponseEntity.noContent().build();
     }
 }
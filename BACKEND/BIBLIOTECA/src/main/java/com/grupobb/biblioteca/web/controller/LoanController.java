@@ -36,6 +36,13 @@ public class LoanController {
         return ResponseEntity.ok(loanService.list());
     }
 
+    // Préstamos activos vencidos (multas calculadas por el job diario)
+    @GetMapping("/overdue")
+    public ResponseEntity<List<LoanResponse>> overdue(
+            @RequestParam(value = "limit", defaultValue = "50") int limit) {
+        return ResponseEntity.ok(loanService.overdue(Math.min(limit, 500)));
+    }
+
     // Obtener préstamo por ID
     @GetMapping("/{id}")
     public ResponseEntity<LoanResponse> getById(@PathVariable Long id) {
@@ -0,0 +1,61 @@
+package com.grupobb.biblioteca.web.controller;
+
+import com.grupobb.biblioteca.dto.Reservation.ReservationRequestData;
+import com.grupobb.biblioteca.dto.Reservation.ReservationResponse;
+import com.grupobb.biblioteca.service.ReservationService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+
+/**
+ * Reservas (cola FIFO por libro no disponible).
+ *
+ * Rutas base: /api/reservations
+ * - POST   /api/reservations            -> entra a la cola del libro
+ * - GET    /api/reservations?libroId=   -> cola actual del libro, en orden
+ * - GET    /api/reservations/{id}       -> estado y posición de una reserva
+ * - DELETE /api/reservations/{id}       -> cancela una reserva en espera
+ *
+ * Cuando el libro se devuelve se presta directamente a la cabeza de la cola y se avisa
+ * por /ws?usuarioId= con un mensaje "RESERVA_ASIGNADA".
+ */
+@RestController
+@RequestMapping("/api/reservations")
+public class ReservationController {
+
+    private final ReservationService reservationService;
+
+    public ReservationController(ReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    // Reserva un libro no disponible
+    @PostMapping
+    public ResponseEntity<ReservationResponse> create(@Valid @RequestBody ReservationRequestData request) {
+        ReservationResponse created = reservationService.reserve(request);
+        return ResponseEntity
+                .created(URI.create("/api/reservations/" + created.getId()))
+                .body(created);
+    }
+
+    // Cola de un libro
+    @GetMapping
+    public List<ReservationResponse> queue(@RequestParam("libroId") Long libroId) {
+        return reservationService.queueOf(libroId);
+    }
+
+    // Obtiene una reserva por ID
+    @GetMapping("/{id}")
+    public ReservationResponse get(@PathVariable Long id) {
+        return reservationService.getById(id);
+    }
+
+    // Cancela una reserva
+    @DeleteMapping("/{id}")
+    public ReservationResponse cancel(@PathVariable Long id) {
+        return reservationService.cancel(id);
+    }
+}
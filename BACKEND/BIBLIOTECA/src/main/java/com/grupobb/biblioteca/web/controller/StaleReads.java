@@ -0,0 +1,24 @@
+package com.grupobb.biblioteca.web.controller;
+
+import com.grupobb.biblioteca.datasource.circuit.ReadResult;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+// 200 con el valor; si viene de la última copia buena, X-Stale: true y Age en segundos.
+final class StaleReads {
+
+    static final String STALE_HEADER = "X-Stale";
+
+    private StaleReads() {
+    }
+
+    static <T> ResponseEntity<T> ok(ReadResult<T> result) {
+        if (!result.isStale()) {
+            return ResponseEntity.ok(result.getValue());
+        }
+        return ResponseEntity.ok()
+                .header(STALE_HEADER, "true")
+                .header(HttpHeaders.AGE, Long.toString(result.getAgeSeconds()))
+                .body(result.getValue());
+    }
+}
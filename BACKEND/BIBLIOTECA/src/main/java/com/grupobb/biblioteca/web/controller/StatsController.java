@@ -0,0 +1,97 @@
+package com.grupobb.biblioteca.web.controller;
+
+import com.grupobb.biblioteca.dto.Stats.DailyLoansResponse;
+import com.grupobb.biblioteca.dto.Stats.DistinctBorrowersResponse;
+import com.grupobb.biblioteca.dto.Stats.LoanStatsResponse;
+import com.grupobb.biblioteca.dto.Stats.TopBooksResponse;
+import com.grupobb.biblioteca.service.StatsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Controlador REST de estadísticas de préstamos (lecturas O(1) desde memoria).
+ *
+ * Rutas base: /api/stats
+ * - GET /api/stats/summary            -> préstamos activos y totales
+ * - GET /api/stats/users/{id}         -> préstamos activos del usuario
+ * - GET /api/stats/books/{id}         -> veces que se prestó el libro
+ * - GET /api/stats/authors/{id}       -> veces que se prestaron libros del autor
+ * - GET /api/stats/daily?desde=&hasta= -> préstamos por día (por defecto últimos 30 días)
+ * - GET /api/stats/top-books?window=24h&limit=10 -> más prestados (1h, 24h o 7d; aproximado)
+ * - GET /api/stats/books/{id}/distinct-borrowers?desde=yyyy-MM&hasta=yyyy-MM -> usuarios distintos (aprox.)
+ * - GET /api/stats/authors/distinct-borrowers?ids=1,2&desde=&hasta= -> usuarios distintos de uno o más autores
+ */
+@RestController
+@RequestMapping("/api/stats")
+public class StatsController {
+
+    private final StatsService statsService;
+
+    public StatsController(StatsService statsService) {
+        this.statsService = statsService;
+    }
+
+    @GetMapping("/summary")
+    public LoanStatsResponse summary() {
+        return statsService.summary();
+    }
+
+    @GetMapping("/users/{id}")
+    public LoanStatsResponse byUser(@PathVariable Long id) {
+        return statsService.byUser(id);
+    }
+
+    @GetMapping("/books/{id}")
+    public LoanStatsResponse byBook(@PathVariable Long id) {
+        return statsService.byBook(id);
+    }
+
+    @GetMapping("/authors/{id}")
+    public LoanStatsResponse byAuthor(@PathVariable Long id) {
+        return statsService.byAuthor(id);
+    }
+
+    @GetMapping("/daily")
+    public List<DailyLoansResponse> daily(
+            @RequestParam(value = "desde", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(value = "hasta", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+        LocalDate inicio = desde != null ? desde : fin.minusDays(29);
+        return statsService.daily(inicio, fin);
+    }
+
+    @GetMapping("/top-books")
+    public TopBooksResponse topBooks(@RequestParam(value = "window", defaultValue = "24h") String window,
+                                     @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return statsService.topBooks(window, Math.max(1, Math.min(limit, 100)));
+    }
+
+    @GetMapping("/books/{id}/distinct-borrowers")
+    public DistinctBorrowersResponse distinctBorrowersByBook(
+            @PathVariable Long id,
+            @RequestParam(value = "desde", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth desde,
+            @RequestParam(value = "hasta", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth hasta) {
+        return statsService.distinctBorrowersByBook(id, desdeOrDefault(desde), hastaOrDefault(hasta));
+    }
+
+    @GetMapping("/authors/distinct-borrowers")
+    public DistinctBorrowersResponse distinctBorrowersByAuthors(
+            @RequestParam("ids") List<Long> ids,
+            @RequestParam(value = "desde", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth desde,
+            @RequestParam(value = "hasta", required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth hasta) {
+        return statsService.distinctBorrowersByAuthors(ids, desdeOrDefault(desde), hastaOrDefault(hasta));
+    }
+
+    // Sin rango explícito se consulta todo el histórico
+    private static YearMonth desdeOrDefault(YearMonth desde) {
+        return desde != null ? desde : YearMonth.of(2000, 1);
+    }
+
+    private static YearMonth hastaOrDefault(YearMonth hasta) {
+        return hasta != null ? hasta : YearMonth.now();
+    }
+}
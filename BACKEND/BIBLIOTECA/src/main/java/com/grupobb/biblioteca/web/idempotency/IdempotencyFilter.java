@@ -0,0 +1,165 @@
+package com.grupobb.biblioteca.web.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupobb.biblioteca.datasource.BranchContext;
+import com.grupobb.biblioteca.web.advice.ErrorBody;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Soporte de la cabecera Idempotency-Key en POST/PUT/PATCH/DELETE bajo /api.
+ *
+ * - Primera petición con una clave: se ejecuta normalmente y se guarda su respuesta (salvo 429
+ *   y 5xx, que se pueden reintentar).
+ * - Reintento con la misma clave y el mismo cuerpo: se devuelve la respuesta guardada sin volver
+ *   a ejecutar nada (cabecera Idempotency-Replayed: true).
+ * - Duplicado mientras la primera sigue en curso: espera su resultado hasta
+ *   {@code idempotency.wait-ms}; si se agota, 409.
+ * - Misma clave con otro cuerpo: 422.
+ * La clave vale dentro de su método + ruta, su sede y, si se configura
+ * {@code admission.client-header}, su cliente: dos sedes o dos clientes pueden repetirla sin
+ * recibir la respuesta del otro. Sin la cabecera, la petición pasa sin cambios. Se registra en
+ * WebConfig, después de BranchFilter.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotency-Replayed";
+
+    private static final Set<String> MUTATING = Set.of("POST", "PUT", "PATCH", "DELETE");
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final long waitMs;
+    private final String clientHeader;
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper, long waitMs, String clientHeader) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.waitMs = waitMs;
+        this.clientHeader = clientHeader == null || clientHeader.isBlank() ? null : clientHeader.trim();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getHeader(HEADER) == null || !MUTATING.contains(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(HEADER).trim();
+        if (idempotencyKey.isEmpty() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            error(response, HttpStatus.BAD_REQUEST, "Idempotency-Key debe tener entre 1 y " + MAX_KEY_LENGTH + " caracteres");
+            return;
+        }
+
+        CachedBodyRequest cached = new CachedBodyRequest(request);
+        String key = scopedKey(request, idempotencyKey);
+        String fingerprint = sha256(cached.getBody());
+
+        while (true) {
+            IdempotencyStore.Entry existing = store.claim(key, fingerprint);
+            if (existing == null) {
+                execute(key, cached, response, chain);
+                return;
+            }
+            if (!existing.getFingerprint().equals(fingerprint)) {
+                error(response, HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key reutilizada con un cuerpo distinto");
+                return;
+            }
+            try {
+                replay(existing.getResult().get(waitMs, TimeUnit.MILLISECONDS), response);
+                return;
+            } catch (TimeoutException e) {
+                error(response, HttpStatus.CONFLICT, "Hay una petición en curso con la misma Idempotency-Key");
+                return;
+            } catch (ExecutionException e) {
+                // La primera ejecución falló y liberó la clave: este intento pasa a ser el primero
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error(response, HttpStatus.SERVICE_UNAVAILABLE, "Petición interrumpida");
+                return;
+            }
+        }
+    }
+
+    // Campos fijos separados por espacio y la clave al final: dos ámbitos distintos nunca coinciden
+    private String scopedKey(HttpServletRequest request, String idempotencyKey) {
+        String sede = BranchContext.current();
+        String cliente = clientHeader != null ? request.getHeader(clientHeader) : null;
+        return String.join(" ", request.getMethod(), request.getRequestURI(),
+                sede != null ? sede : "-",
+                // Resumen: el valor de la cabecera no tiene longitud acotada
+                cliente != null && !cliente.isBlank()
+                        ? sha256(cliente.trim().getBytes(StandardCharsets.UTF_8)).substring(0, 16) : "-",
+                idempotencyKey);
+    }
+
+    private void execute(String key, CachedBodyRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapped = new ContentCachingResponseWrapper(response);
+        try {
+            chain.doFilter(request, wrapped);
+        } catch (ServletException | IOException | RuntimeException ex) {
+            store.abandon(key, ex);
+            throw ex;
+        }
+        int status = wrapped.getStatus();
+        // 429/503 (admisión, circuito) y 5xx no ejecutaron nada: el reintento tras Retry-After debe ejecutarse
+        if (status >= 500 || status == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            store.abandon(key, new IllegalStateException("HTTP " + status));
+        } else {
+            store.complete(key, new StoredResponse(status, wrapped.getContentType(),
+                    wrapped.getHeader(HttpHeaders.LOCATION), wrapped.getContentAsByteArray()));
+        }
+        wrapped.copyBodyToResponse();
+    }
+
+    private void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.getStatus());
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        if (stored.getLocation() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.getLocation());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    // Mismo formato que GlobalExceptionHandler
+    private void error(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        ErrorBody body = new ErrorBody(status.value(), status.getReasonPhrase(), message, null);
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    private static String sha256(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
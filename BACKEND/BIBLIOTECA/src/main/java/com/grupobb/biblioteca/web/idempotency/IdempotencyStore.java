@@ -0,0 +1,187 @@
+package com.grupobb.biblioteca.web.idempotency;
+
+import com.grupobb.biblioteca.domain.IdempotencyRecord;
+import com.grupobb.biblioteca.repository.IdempotencyRecordRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Almacén de respuestas por Idempotency-Key.
+ *
+ * - En memoria: LinkedHashMap en orden de inserción, acotado a {@code idempotency.max-entries}
+ *   (se descarta la más antigua) y con TTL {@code idempotency.ttl-minutes}.
+ * - Cada entrada tiene un CompletableFuture: la primera petición lo completa con su respuesta
+ *   y los duplicados concurrentes esperan sobre él en lugar de ejecutar otra vez.
+ * - Con {@code idempotency.persistent=true} las respuestas completadas también se guardan en
+ *   `claves_idempotencia` y un fallo en memoria se busca ahí (sobrevive a reinicios). Las
+ *   peticiones en curso solo se coordinan dentro de la instancia.
+ */
+@Component
+public class IdempotencyStore {
+
+    private final IdempotencyRecordRepository repository;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>();
+
+    @Value("${idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${idempotency.ttl-minutes:60}")
+    private long ttlMinutes;
+
+    @Value("${idempotency.persistent:false}")
+    private boolean persistent;
+
+    public IdempotencyStore(IdempotencyRecordRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Registra la clave como "en curso" y devuelve null si el llamador debe ejecutar la petición;
+     * si ya existe (en curso o completada) devuelve esa entrada.
+     */
+    public Entry claim(String key, String fingerprint) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry existing = live(key, now);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        // La consulta a la BD va fuera del lock
+        IdempotencyRecord persisted = persistent ? loadPersisted(key) : null;
+        synchronized (entries) {
+            Entry existing = live(key, now);
+            if (existing != null) {
+                return existing;
+            }
+            if (persisted != null) {
+                Entry e = new Entry(persisted.getHuella(), now + ttlMillis());
+                e.result.complete(new StoredResponse(persisted.getEstado(), persisted.getContentType(),
+                        persisted.getLocation(), persisted.getCuerpo()));
+                put(key, e);
+                return e;
+            }
+            put(key, new Entry(fingerprint, Long.MAX_VALUE));
+            return null;
+        }
+    }
+
+    // La petición terminó: los duplicados (actuales y futuros) reciben esta respuesta hasta que expire.
+    public void complete(String key, StoredResponse response) {
+        Entry e;
+        synchronized (entries) {
+            e = entries.get(key);
+            if (e == null) {
+                return;
+            }
+            e.expiresAt = System.currentTimeMillis() + ttlMillis();
+        }
+        if (persistent) {
+            persist(key, e.fingerprint, response);
+        }
+        e.result.complete(response);
+    }
+
+    // La petición falló sin respuesta reutilizable (excepción, 429 o 5xx): se libera la clave.
+    public void abandon(String key, Throwable cause) {
+        Entry e;
+        synchronized (entries) {
+            e = entries.remove(key);
+        }
+        if (e != null) {
+            e.result.completeExceptionally(cause);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-ms:60000}")
+    public void purge() {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            entries.values().removeIf(e -> e.expiresAt <= now);
+        }
+        if (persistent) {
+            repository.deleteExpired(LocalDateTime.now());
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Entry live(String key, long now) {
+        Entry e = entries.get(key);
+        if (e != null && e.expiresAt <= now) {
+            entries.remove(key);
+            return null;
+        }
+        return e;
+    }
+
+    private void put(String key, Entry e) {
+        entries.put(key, e);
+        if (entries.size() > maxEntries) {
+            // Descarta la más antigua que ya terminó; las que están en curso no se pueden soltar
+            Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+            while (it.hasNext() && entries.size() > maxEntries) {
+                if (it.next().getValue().result.isDone()) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private long ttlMillis() {
+        return ttlMinutes * 60_000L;
+    }
+
+    private IdempotencyRecord loadPersisted(String key) {
+        return repository.findById(key)
+                .filter(r -> r.getExpira().isAfter(LocalDateTime.now()))
+                .orElse(null);
+    }
+
+    private void persist(String key, String fingerprint, StoredResponse response) {
+        IdempotencyRecord r = new IdempotencyRecord();
+        r.setClave(key);
+        r.setHuella(fingerprint);
+        r.setEstado(response.getStatus());
+        r.setContentType(response.getContentType());
+        r.setLocation(response.getLocation());
+        r.setCuerpo(response.getBody());
+        r.setExpira(LocalDateTime.now().plusMinutes(ttlMinutes));
+        try {
+            repository.save(r);
+        } catch (RuntimeException ex) {
+            // El respaldo es opcional: la respuesta sigue en memoria
+            System.out.println("[Idempotency] No se pudo persistir la clave " + key + ": " + ex.getMessage());
+        }
+    }
+
+    public static final class Entry {
+        final String fingerprint;
+        final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+        volatile long expiresAt;
+
+        Entry(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public CompletableFuture<StoredResponse> getResult() {
+            return result;
+        }
+    }
+}
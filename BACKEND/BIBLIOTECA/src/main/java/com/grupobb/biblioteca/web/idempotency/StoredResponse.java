@@ -0,0 +1,35 @@
+package com.grupobb.biblioteca.web.idempotency;
+
+/**
+ * Respuesta original de una petición con Idempotency-Key, tal como se devolverá en los reintentos.
+ */
+public final class StoredResponse {
+
+    private final int status;
+    private final String contentType;
+    private final String location;
+    private final byte[] body;
+
+    public StoredResponse(int status, String contentType, String location, byte[] body) {
+        this.status = status;
+        this.contentType = contentType;
+        this.location = location;
+        this.body = body;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+}
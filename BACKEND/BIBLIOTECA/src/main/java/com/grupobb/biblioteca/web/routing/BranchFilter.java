@@ -0,0 +1,62 @@
+package com.grupobb.biblioteca.web.routing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.grupobb.biblioteca.datasource.BranchContext;
+import com.grupobb.biblioteca.web.advice.ErrorBody;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resuelve la sede de cada petición bajo /api: cabecera {@code X-Sede} o parámetro {@code sede};
+ * sin ninguno se usa la sede principal. Una sede desconocida responde 400 antes de tocar la BD.
+ * Se registra en BranchRoutingConfig.
+ */
+public class BranchFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Sede";
+    public static final String PARAM = "sede";
+
+    private final Set<String> sedes;
+    private final ObjectMapper objectMapper;
+
+    public BranchFilter(List<String> sedes, ObjectMapper objectMapper) {
+        this.sedes = Set.copyOf(sedes);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        String sede = request.getHeader(HEADER);
+        if (sede == null) {
+            sede = request.getParameter(PARAM);
+        }
+        if (sede != null && !sedes.contains(sede)) {
+            error(response, "Sede desconocida: " + sede);
+            return;
+        }
+        BranchContext.set(sede);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            BranchContext.clear();
+        }
+    }
+
+    private void error(HttpServletResponse response, String message) throws IOException {
+        ErrorBody body = new ErrorBody(HttpStatus.BAD_REQUEST.value(),
+                HttpStatus.BAD_REQUEST.getReasonPhrase(), message, null);
+        response.setStatus(HttpStatus.BAD_REQUEST.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
@@ -0,0 +1,60 @@
+package com.grupobb.biblioteca.web.routing;
+
+import com.grupobb.biblioteca.datasource.ReadRouting;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Read-your-writes entre peticiones cuando hay réplica de lectura.
+ *
+ * Cuando una petición abre su primera transacción de escritura, la respuesta lleva
+ * {@code X-Primary-Until} con el instante (epoch ms) hasta el que ese cliente debe leer del
+ * primario: {@code replica.sticky-ms}, que debería cubrir el retraso tolerado. El frontend
+ * reenvía la cabecera mientras no venza. Valores más lejanos que sticky-ms se ignoran, para que
+ * un cliente no pueda fijarse al primario indefinidamente.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Primary-Until";
+
+    private final long stickyMs;
+
+    public ReadYourWritesFilter(long stickyMs) {
+        this.stickyMs = stickyMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        long ahora = System.currentTimeMillis();
+        long hasta = parse(request.getHeader(HEADER));
+        boolean sticky = hasta > ahora && hasta <= ahora + stickyMs;
+
+        ReadRouting.begin(!sticky, () -> {
+            if (!response.isCommitted()) {
+                response.setHeader(HEADER, Long.toString(System.currentTimeMillis() + stickyMs));
+            }
+        });
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRouting.end();
+        }
+    }
+
+    private static long parse(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+    }
+}
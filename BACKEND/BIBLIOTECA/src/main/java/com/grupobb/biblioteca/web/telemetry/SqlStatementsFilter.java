@@ -0,0 +1,53 @@
+package com.grupobb.biblioteca.web.telemetry;
+
+import com.grupobb.biblioteca.datasource.telemetry.SqlTelemetry;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Sentencias SQL por petición: {@code sql.request.statements} por método y ruta (el patrón del
+ * controlador, p. ej. /api/loans/{id}, para no crear una serie por id).
+ *
+ * Si una petición pasa de {@code sql.telemetry.request-warn} sentencias se avisa con la forma
+ * más repetida: casi siempre es un N+1 (una carga perezosa o EAGER por cada fila del listado).
+ */
+public class SqlStatementsFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry registry;
+    private final int requestWarn;
+
+    public SqlStatementsFilter(MeterRegistry registry, int requestWarn) {
+        this.registry = registry;
+        this.requestWarn = requestWarn;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        try (SqlTelemetry.Scope scope = SqlTelemetry.open()) {
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                String uri = pattern != null ? pattern.toString() : "otra";
+                DistributionSummary.builder("sql.request.statements")
+                        .tag("method", request.getMethod())
+                        .tag("uri", uri)
+                        .register(registry)
+                        .record(scope.statements());
+                if (scope.statements() > requestWarn) {
+                    System.out.println("[SQL] " + request.getMethod() + " " + uri + ": "
+                            + scope.statements() + " sentencias; más repetida: " + scope.mostRepeated());
+                }
+            }
+        }
+    }
+}
@@ -4,23 +4,97 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Handler de /ws.
+ *
+ * Además del eco, un cliente que se conecta con {@code /ws?usuarioId=N} recibe las notificaciones
+ * dirigidas a ese usuario (p. ej. reserva asignada). Los envíos pasan por un
+ * {@link ConcurrentWebSocketSessionDecorator} porque pueden venir de varios hilos a la vez.
+ */
 @Component
 public class SimpleWebSocketHandler extends TextWebSocketHandler {
+
+    private static final String ATTR_USUARIO = "usuarioId";
+    private static final String ATTR_SESION = "sesionConcurrente";
+
+    private final Map<Long, Set<WebSocketSession>> sesionesPorUsuario = new ConcurrentHashMap<>();
+
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
-        session.sendMessage(new TextMessage("[Servidor] Conexión WebSocket establecida."));
+        WebSocketSession concurrente = new ConcurrentWebSocketSessionDecorator(session, 5000, 64 * 1024);
+        session.getAttributes().put(ATTR_SESION, concurrente);
+
+        Long usuarioId = usuarioDe(session);
+        if (usuarioId != null) {
+            session.getAttributes().put(ATTR_USUARIO, usuarioId);
+            sesionesPorUsuario.computeIfAbsent(usuarioId, k -> ConcurrentHashMap.newKeySet()).add(concurrente);
+        }
+        concurrente.sendMessage(new TextMessage("[Servidor] Conexión WebSocket establecida."));
     }
 
     @Override
     protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
         // Eco simple: responde con el mismo mensaje recibido
-        session.sendMessage(new TextMessage("Eco: " + message.getPayload()));
+        sesion(session).sendMessage(new TextMessage("Eco: " + message.getPayload()));
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
-        // Puedes agregar lógica de cierre si lo necesitas
+        Object usuarioId = session.getAttributes().get(ATTR_USUARIO);
+        if (usuarioId != null) {
+            sesionesPorUsuario.computeIfPresent((Long) usuarioId, (k, sesiones) -> {
+                sesiones.remove(sesion(session));
+                return sesiones.isEmpty() ? null : sesiones;
+            });
+        }
+    }
+
+    /**
+     * Envía un mensaje a todas las sesiones abiertas del usuario.
+     *
+     * @return cuántas sesiones lo recibieron (0 si el usuario no está conectado)
+     */
+    public int notificar(long usuarioId, String payload) {
+        Set<WebSocketSession> sesiones = sesionesPorUsuario.get(usuarioId);
+        if (sesiones == null) {
+            return 0;
+        }
+        int enviados = 0;
+        for (WebSocketSession s : sesiones) {
+            try {
+                s.sendMessage(new TextMessage(payload));
+                enviados++;
+            } catch (IOException | RuntimeException e) {
+                System.out.println("[WebSocket] No se pudo notificar al usuario " + usuarioId + ": " + e.getMessage());
+            }
+        }
+        return enviados;
+    }
+
+    private WebSocketSession sesion(WebSocketSession session) {
+        Object s = session.getAttributes().get(ATTR_SESION);
+        return s != null ? (WebSocketSession) s : session;
+    }
+
+    private Long usuarioDe(WebSocketSession session) {
+        if (session.getUri() == null) {
+            return null;
+        }
+        String valor = UriComponentsBuilder.fromUri(session.getUri()).build()
+                .getQueryParams().getFirst(ATTR_USUARIO);
+        try {
+            return valor != null ? Long.valueOf(valor) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
     }
 }
@@ -0,0 +1,94 @@
+package com.grupobb.biblioteca.datasource;
+
+import com.grupobb.biblioteca.config.BranchProperties;
+import com.grupobb.biblioteca.service.support.BranchFanOut;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Tres H2 en memoria, una por sede, cada una con un libro propio.
+public class BranchRoutingDataSourceTest {
+
+    private static final List<String> SEDES = List.of("centro", "norte", "sur");
+
+    private JdbcTemplate jdbc;
+    private BranchProperties properties;
+    private BranchFanOut fanOut;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, DataSource> porSede = new LinkedHashMap<>();
+        properties = new BranchProperties();
+        properties.setEnabled(true);
+        properties.setHome("centro");
+        properties.setFanOutTimeoutMs(500);
+        for (String sede : SEDES) {
+            DataSource ds = new DriverManagerDataSource("jdbc:h2:mem:sede_test_" + sede + ";DB_CLOSE_DELAY=-1;MODE=MySQL", "sa", "");
+            JdbcTemplate t = new JdbcTemplate(ds);
+            t.execute("drop all objects");
+            t.execute("create table libros (titulo varchar(100))");
+            t.update("insert into libros values (?)", "Libro de " + sede);
+            porSede.put(sede, ds);
+            properties.getDatabases().put(sede, new BranchProperties.Database());
+        }
+        BranchRoutingDataSource routing = new BranchRoutingDataSource(porSede, "centro");
+        routing.afterPropertiesSet();
+        jdbc = new JdbcTemplate(routing);
+        fanOut = new BranchFanOut(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fanOut.shutdown();
+    }
+
+    @Test
+    void shouldRouteEachBranchToItsOwnDatabase() {
+        assertThat(titulo()).isEqualTo("Libro de centro");
+        assertThat(BranchContext.call("norte", this::titulo)).isEqualTo("Libro de norte");
+        assertThat(BranchContext.call("sur", this::titulo)).isEqualTo("Libro de sur");
+        assertThatThrownBy(() -> BranchContext.call("este", this::titulo))
+                .isInstanceOf(CannotGetJdbcConnectionException.class)
+                .hasRootCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldFanOutToAllBranchesAndMerge() {
+        BranchFanOut.Result<String> result = fanOut.query(sede -> List.of(titulo()));
+
+        assertThat(result.getItems()).containsExactlyInAnyOrder("Libro de centro", "Libro de norte", "Libro de sur");
+        assertThat(result.getFailed()).isEmpty();
+    }
+
+    @Test
+    void shouldReturnPartialResultsWhenBranchIsSlow() {
+        BranchFanOut.Result<String> result = fanOut.query(sede -> {
+            if (sede.equals("sur")) {
+                try {
+                    Thread.sleep(5_000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return List.of(titulo());
+        });
+
+        assertThat(result.getItems()).containsExactlyInAnyOrder("Libro de centro", "Libro de norte");
+        assertThat(result.getFailed()).containsExactly("sur");
+    }
+
+    private String titulo() {
+        return jdbc.queryForObject("select titulo from libros", String.class);
+    }
+}
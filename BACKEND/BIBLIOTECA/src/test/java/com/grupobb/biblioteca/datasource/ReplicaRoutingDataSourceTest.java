@@ -0,0 +1,109 @@
+package com.grupobb.biblioteca.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Dos H2 independientes: cada una guarda su propio nombre en `origen` para saber a cuál se fue.
+public class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate replicaJdbc;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readTx;
+    private TransactionTemplate writeTx;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("rw_primario");
+        DataSource replica = h2("rw_replica");
+        new JdbcTemplate(primary).execute("insert into origen values ('primario')");
+        replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("insert into origen values ('replica')");
+        // En una réplica real el latido llega por replicación; aquí se escribe a mano
+        replicaJdbc.execute("create table latidos_replica (id int primary key, marca bigint not null)");
+        replicaJdbc.update("insert into latidos_replica values (1, ?)", System.currentTimeMillis());
+
+        monitor = new ReplicaLagMonitor(primary, replica, 1000, 1000);
+        monitor.beat();
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replica, monitor);
+        routing.afterPropertiesSet();
+        DataSource ds = new LazyConnectionDataSourceProxy(routing);
+
+        jdbc = new JdbcTemplate(ds);
+        DataSourceTransactionManager tm = new DataSourceTransactionManager(ds);
+        readTx = new TransactionTemplate(tm);
+        readTx.setReadOnly(true);
+        writeTx = new TransactionTemplate(tm);
+    }
+
+    @Test
+    void shouldSendReadOnlyRequestTransactionsToReplica() {
+        ReadRouting.begin(true, () -> { });
+        try {
+            assertThat(origen(readTx)).isEqualTo("replica");
+        } finally {
+            ReadRouting.end();
+        }
+        // Fuera de una petición (jobs, cargadores) siempre primario
+        assertThat(origen(readTx)).isEqualTo("primario");
+    }
+
+    @Test
+    void shouldStickToPrimaryAfterOwnWrite() {
+        AtomicInteger avisos = new AtomicInteger();
+        ReadRouting.begin(true, avisos::incrementAndGet);
+        try {
+            assertThat(origen(writeTx)).isEqualTo("primario");
+            assertThat(origen(readTx)).isEqualTo("primario");
+            assertThat(avisos.get()).isEqualTo(1);
+        } finally {
+            ReadRouting.end();
+        }
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaLags() {
+        replicaJdbc.update("update latidos_replica set marca = ? where id = 1", System.currentTimeMillis() - 60_000);
+        monitor.beat();
+
+        ReadRouting.begin(true, () -> { });
+        try {
+            assertThat(monitor.isReplicaUsable()).isFalse();
+            assertThat(origen(readTx)).isEqualTo("primario");
+        } finally {
+            ReadRouting.end();
+        }
+    }
+
+    @Test
+    void shouldUseReplicaWhoseLastBeatIsOneIntervalOld() {
+        // Réplica asíncrona al día: tiene el latido anterior, escrito hace un intervalo
+        replicaJdbc.update("update latidos_replica set marca = ? where id = 1", System.currentTimeMillis() - 1000);
+        monitor.beat();
+
+        assertThat(monitor.isReplicaUsable()).isTrue();
+        assertThat(monitor.lagMs()).isLessThan(1000);
+    }
+
+    private String origen(TransactionTemplate tx) {
+        return tx.execute(status -> jdbc.queryForObject("select nombre from origen", String.class));
+    }
+
+    private static DataSource h2(String nombre) {
+        DriverManagerDataSource ds = new DriverManagerDataSource("jdbc:h2:mem:" + nombre + ";DB_CLOSE_DELAY=-1;MODE=MySQL", "sa", "");
+        JdbcTemplate t = new JdbcTemplate(ds);
+        t.execute("drop all objects");
+        t.execute("create table origen (nombre varchar(20))");
+        return ds;
+    }
+}
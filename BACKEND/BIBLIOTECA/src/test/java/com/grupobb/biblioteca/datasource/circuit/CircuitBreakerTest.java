@@ -0,0 +1,81 @@
+package com.grupobb.biblioteca.datasource.circuit;
+
+import com.grupobb.biblioteca.datasource.circuit.CircuitBreaker.Permit;
+import com.grupobb.biblioteca.datasource.circuit.CircuitBreaker.State;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CircuitBreakerTest {
+
+    private long now;
+    private final List<String> transitions = new ArrayList<>();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        breaker = new CircuitBreaker(4, 4, 0.5, 1000, 2, () -> now,
+                (from, to) -> transitions.add(from + "->" + to));
+    }
+
+    @Test
+    void shouldOpenWhenFailureRateIsReached() {
+        fail(1);
+        succeed(2);
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+
+        fail(1);
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.tryRead()).isEqualTo(Permit.REJECTED);
+        assertThat(breaker.tryWrite()).isEqualTo(Permit.REJECTED);
+    }
+
+    @Test
+    void shouldCloseAfterSuccessfulProbes() {
+        fail(4);
+        now += 1000;
+
+        Permit first = breaker.tryRead();
+        Permit second = breaker.tryRead();
+        assertThat(first).isEqualTo(Permit.PROBE);
+        assertThat(second).isEqualTo(Permit.PROBE);
+        assertThat(breaker.tryRead()).isEqualTo(Permit.REJECTED);
+        assertThat(breaker.tryWrite()).isEqualTo(Permit.REJECTED);
+
+        breaker.onResult(first, true);
+        breaker.onResult(second, true);
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(transitions).containsExactly("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED");
+    }
+
+    @Test
+    void shouldReopenWhenProbeFailsAndIgnoreLateCalls() {
+        Permit late = breaker.tryRead();
+        fail(4);
+        now += 1000;
+
+        breaker.onResult(breaker.tryRead(), false);
+        breaker.onResult(late, true);
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.remainingOpenNanos()).isEqualTo(1000);
+    }
+
+    private void fail(int n) {
+        for (int i = 0; i < n; i++) {
+            breaker.onResult(breaker.tryRead(), false);
+        }
+    }
+
+    private void succeed(int n) {
+        for (int i = 0; i < n; i++) {
+            breaker.onResult(breaker.tryRead(), true);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.grupobb.biblioteca.datasource.telemetry;
+
+import com.grupobb.biblioteca.domain.Author;
+import com.grupobb.biblioteca.domain.Book;
+import com.grupobb.biblioteca.domain.Loan;
+import com.grupobb.biblioteca.domain.User;
+import com.grupobb.biblioteca.repository.AuthorRepository;
+import com.grupobb.biblioteca.repository.BookRepository;
+import com.grupobb.biblioteca.repository.LoanRepository;
+import com.grupobb.biblioteca.repository.UserRepository;
+import com.grupobb.biblioteca.support.SqlBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Los listados no deben crecer en sentencias con el número de filas (N+1 por relaciones EAGER).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class ListingSqlBudgetTest {
+
+    private static final int FILAS = 15;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @BeforeEach
+    void seed() {
+        loanRepository.deleteAll();
+        for (int i = 0; i < FILAS; i++) {
+            Author autor = new Author();
+            autor.setNombre("Autor " + i);
+            autor = authorRepository.save(autor);
+
+            Book libro = new Book();
+            libro.setTitulo("Libro " + i);
+            libro.setAutor(autor);
+            libro = bookRepository.save(libro);
+
+            User usuario = new User();
+            usuario.setNombre("Usuario " + i);
+            usuario.setEmail("presupuesto" + i + "-" + System.nanoTime() + "@example.com");
+            usuario = userRepository.save(usuario);
+
+            Loan prestamo = new Loan();
+            prestamo.setUsuario(usuario);
+            prestamo.setLibro(libro);
+            prestamo.setFechaPrestamo(LocalDate.now());
+            loanRepository.save(prestamo);
+        }
+    }
+
+    @Test
+    void listingLoansUsesConstantStatements() throws Exception {
+        SqlBudget.assertAtMost(3, "GET /api/loans", () ->
+                mockMvc.perform(get("/api/loans")).andExpect(status().isOk()));
+    }
+
+    @Test
+    void listingBooksUsesConstantStatements() throws Exception {
+        SqlBudget.assertAtMost(3, "GET /api/books", () ->
+                mockMvc.perform(get("/api/books")).andExpect(status().isOk()));
+    }
+}
@@ -0,0 +1,120 @@
+package com.grupobb.biblioteca.repository;
+
+import com.grupobb.biblioteca.domain.Author;
+import com.grupobb.biblioteca.domain.Book;
+import com.grupobb.biblioteca.domain.User;
+import com.grupobb.biblioteca.support.CapturingStatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Las consultas calientes de los repositorios deben resolverse con un índice (EXPLAIN de H2),
+ * nunca recorriendo la tabla completa. Se ejecuta el método del repositorio, se toma el SQL que
+ * generó Hibernate y se pide su plan con EXPLAIN preparado, enlazando los mismos parámetros
+ * (con su tipo: una fecha no se puede comparar con un número).
+ */
+@DataJpaTest
+@TestPropertySource(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.grupobb.biblioteca.support.CapturingStatementInspector")
+public class QueryPlanTest {
+
+    @Autowired
+    private LoanRepository loanRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private Author autor;
+    private Book libro;
+    private User usuario;
+
+    @BeforeEach
+    void seed() {
+        autor = new Author();
+        autor.setNombre("Autor");
+        autor = authorRepository.save(autor);
+        libro = new Book();
+        libro.setTitulo("Libro");
+        libro.setAutor(autor);
+        libro = bookRepository.save(libro);
+        usuario = new User();
+        usuario.setNombre("Usuario");
+        usuario.setEmail("plan@example.com");
+        usuario = userRepository.save(usuario);
+        authorRepository.flush();
+        CapturingStatementInspector.clear();
+    }
+
+    @Test
+    void activeLoansByBookUseIndex() {
+        assertUsesIndex("prestamos", () -> loanRepository.existsByLibroAndFechaDevolucionIsNull(libro), libro.getId());
+    }
+
+    @Test
+    void activeLoansByUserUseIndex() {
+        assertUsesIndex("prestamos", () -> loanRepository.existsByUsuarioAndFechaDevolucionIsNull(usuario), usuario.getId());
+    }
+
+    @Test
+    void activeLoanOfUserForBookUsesIndex() {
+        assertUsesIndex("prestamos",
+                () -> loanRepository.existsByUsuarioAndLibroAndFechaDevolucionIsNull(usuario, libro),
+                usuario.getId(), libro.getId());
+    }
+
+    @Test
+    void overdueLoansUseIndex() {
+        LocalDate hoy = LocalDate.now();
+        assertUsesIndex("prestamos", () -> loanRepository.findOverdue(hoy, PageRequest.of(0, 10)), hoy);
+    }
+
+    @Test
+    void booksByAuthorUseIndex() {
+        assertUsesIndex("libros", () -> bookRepository.existsByAutor(autor), autor.getId());
+    }
+
+    // parametros: los de la consulta en orden; los que sobran al final son el límite de filas
+    private void assertUsesIndex(String tabla, Runnable consulta, Object... parametros) {
+        consulta.run();
+        List<String> sentencias = CapturingStatementInspector.captured().stream()
+                .filter(sql -> sql.toLowerCase().contains("from " + tabla))
+                .toList();
+        assertThat(sentencias).as("SQL generado sobre " + tabla).isNotEmpty();
+        for (String sql : sentencias) {
+            String plan = jdbc.execute("EXPLAIN " + sql, (PreparedStatement ps) -> {
+                int n = ps.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= n; i++) {
+                    ps.setObject(i, i <= parametros.length ? parametros[i - 1] : 1);
+                }
+                List<String> filas = new ArrayList<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        filas.add(rs.getString(1));
+                    }
+                }
+                return String.join("\n", filas);
+            });
+            // H2 marca el recorrido completo como "/* PUBLIC.TABLA.tableScan */"
+            assertThat(plan).as(sql).doesNotContainIgnoringCase("scan");
+        }
+    }
+}
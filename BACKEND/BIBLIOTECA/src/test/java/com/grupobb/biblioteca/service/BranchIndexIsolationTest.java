@@ -0,0 +1,84 @@
+package com.grupobb.biblioteca.service;
+
+import com.grupobb.biblioteca.datasource.BranchContext;
+import com.grupobb.biblioteca.dto.Author.AuthorRequestData;
+import com.grupobb.biblioteca.dto.Book.BookRequestData;
+import com.grupobb.biblioteca.dto.Loan.LoanRequestData;
+import com.grupobb.biblioteca.dto.Loan.LoanResponse;
+import com.grupobb.biblioteca.dto.User.UserRequestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Multisede: el mismo id de libro en otra sede es otro libro. Los índices en memoria son de la
+ * sede principal (centro) y lo que pase en norte no debe leerlos ni modificarlos.
+ */
+@SpringBootTest
+@ActiveProfiles({"test", "branches"})
+public class BranchIndexIsolationTest {
+
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private LoanService loanService;
+
+    @Test
+    void loansInOtherBranchIgnoreHomeIndexes() {
+        long libroId = BranchContext.call("centro", () -> {
+            long id = libro();
+            prestar(usuario("centro"), id);
+            return id;
+        });
+        assertThat(BranchContext.call("centro", () -> bookService.availabilityOf(libroId).getDisponible())).isFalse();
+
+        BranchContext.run("norte", () -> {
+            // Crea libros en norte hasta llegar al mismo id que el prestado en centro
+            long id = libro();
+            while (id < libroId) {
+                id = libro();
+            }
+            assertThat(id).isEqualTo(libroId);
+            assertThat(bookService.availabilityOf(libroId).getDisponible()).isTrue();
+
+            LoanResponse prestamo = prestar(usuario("norte"), libroId);
+            assertThat(bookService.availabilityOf(libroId).getDisponible()).isFalse();
+            loanService.returnLoan(prestamo.getId());
+            assertThat(bookService.availabilityOf(libroId).getDisponible()).isTrue();
+        });
+
+        // La devolución en norte no libera el libro de centro
+        assertThat(BranchContext.call("centro", () -> bookService.availabilityOf(libroId).getDisponible())).isFalse();
+    }
+
+    private long libro() {
+        AuthorRequestData autor = new AuthorRequestData();
+        autor.setNombre("Autor sede");
+        BookRequestData libro = new BookRequestData();
+        libro.setTitulo("Libro sede " + System.nanoTime());
+        libro.setAutorId(authorService.create(autor).getId());
+        libro.setEjemplares(1);
+        return bookService.create(libro).getId();
+    }
+
+    private long usuario(String nombre) {
+        UserRequestData usuario = new UserRequestData();
+        usuario.setNombre("Usuario " + nombre);
+        usuario.setEmail(nombre + "-" + System.nanoTime() + "@example.com");
+        return userService.create(usuario).getId();
+    }
+
+    private LoanResponse prestar(long usuarioId, long libroId) {
+        LoanRequestData request = new LoanRequestData();
+        request.setUsuarioId(usuarioId);
+        request.setLibroId(libroId);
+        return loanService.createLoan(request);
+    }
+}
@@ -0,0 +1,78 @@
+package com.grupobb.biblioteca.service;
+
+import com.grupobb.biblioteca.dto.Author.AuthorRequestData;
+import com.grupobb.biblioteca.dto.Book.BookRequestData;
+import com.grupobb.biblioteca.dto.Loan.LoanRequestData;
+import com.grupobb.biblioteca.dto.User.UserRequestData;
+import com.grupobb.biblioteca.service.availability.AvailabilityIndex;
+import com.grupobb.biblioteca.web.advice.BookNotAvailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Un "no disponible" desfasado en el índice no debe rechazar préstamos mientras la BD tenga
+ * ejemplares.
+ */
+@SpringBootTest
+public class LoanAvailabilityHintTest {
+
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private AvailabilityIndex availabilityIndex;
+
+    @Test
+    void staleUnavailableEntryIsConfirmedAndRepaired() {
+        long libroId = libro(2);
+        // Como si el callback de un préstamo hubiera llegado después del de una devolución
+        availabilityIndex.setAvailable(libroId, false);
+
+        loanService.createLoan(prestamo(usuario("a"), libroId));
+
+        assertThat(availabilityIndex.isAvailable(libroId)).isTrue();
+    }
+
+    @Test
+    void confirmedUnavailableIsRejected() {
+        long libroId = libro(1);
+        loanService.createLoan(prestamo(usuario("b"), libroId));
+        assertThat(availabilityIndex.isKnownUnavailable(libroId)).isTrue();
+
+        assertThatThrownBy(() -> loanService.createLoan(prestamo(usuario("c"), libroId)))
+                .isInstanceOf(BookNotAvailableException.class);
+    }
+
+    private long libro(int ejemplares) {
+        AuthorRequestData autor = new AuthorRequestData();
+        autor.setNombre("Autor pista");
+        BookRequestData libro = new BookRequestData();
+        libro.setTitulo("Libro pista " + System.nanoTime());
+        libro.setAutorId(authorService.create(autor).getId());
+        libro.setEjemplares(ejemplares);
+        return bookService.create(libro).getId();
+    }
+
+    private long usuario(String nombre) {
+        UserRequestData usuario = new UserRequestData();
+        usuario.setNombre("Usuario " + nombre);
+        usuario.setEmail(nombre + "-" + System.nanoTime() + "@example.com");
+        return userService.create(usuario).getId();
+    }
+
+    private LoanRequestData prestamo(long usuarioId, long libroId) {
+        LoanRequestData request = new LoanRequestData();
+        request.setUsuarioId(usuarioId);
+        request.setLibroId(libroId);
+        return request;
+    }
+}
@@ -0,0 +1,134 @@
+package com.grupobb.biblioteca.service;
+
+import com.grupobb.biblioteca.domain.Reservation;
+import com.grupobb.biblioteca.domain.ReservationStatus;
+import com.grupobb.biblioteca.dto.Author.AuthorRequestData;
+import com.grupobb.biblioteca.dto.Book.BookRequestData;
+import com.grupobb.biblioteca.dto.Loan.LoanRequestData;
+import com.grupobb.biblioteca.dto.Loan.LoanResponse;
+import com.grupobb.biblioteca.dto.Reservation.ReservationRequestData;
+import com.grupobb.biblioteca.dto.User.UserRequestData;
+import com.grupobb.biblioteca.repository.BookRepository;
+import com.grupobb.biblioteca.repository.LoanRepository;
+import com.grupobb.biblioteca.repository.ReservationRepository;
+import com.grupobb.biblioteca.web.advice.AlreadyReturnedException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos devoluciones simultáneas del mismo préstamo: solo una debe liberar o entregar el ejemplar.
+ */
+@SpringBootTest
+public class LoanReturnConcurrencyTest {
+
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private ReservationService reservationService;
+    @Autowired
+    private LoanRepository loanRepository;
+    @Autowired
+    private BookRepository bookRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Test
+    void concurrentReturnsReleaseTheCopyOnce() throws Exception {
+        long libroId = libro();
+        LoanResponse prestamo = prestar(usuario("a"), libroId);
+
+        List<Throwable> errores = devolverDosVeces(prestamo.getId());
+
+        assertThat(errores).hasSize(1).first().isInstanceOf(AlreadyReturnedException.class);
+        assertThat(bookRepository.findById(libroId).orElseThrow().getEjemplaresDisponibles()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentReturnsHandTheCopyToTheQueueOnce() throws Exception {
+        long libroId = libro();
+        LoanResponse prestamo = prestar(usuario("b"), libroId);
+        ReservationRequestData reserva = new ReservationRequestData();
+        reserva.setUsuarioId(usuario("c"));
+        reserva.setLibroId(libroId);
+        long reservaId = reservationService.reserve(reserva).getId();
+
+        List<Throwable> errores = devolverDosVeces(prestamo.getId());
+
+        assertThat(errores).hasSize(1).first().isInstanceOf(AlreadyReturnedException.class);
+        Reservation asignada = reservationRepository.findById(reservaId).orElseThrow();
+        assertThat(asignada.getEstado()).isEqualTo(ReservationStatus.ASIGNADA);
+        long activos = loanRepository.findAll().stream()
+                .filter(l -> l.getLibro().getId() == libroId && l.getFechaDevolucion() == null)
+                .count();
+        assertThat(activos).isEqualTo(1);
+    }
+
+    // Lanza las dos devoluciones a la vez; devuelve las excepciones de las que fallaron.
+    private List<Throwable> devolverDosVeces(long prestamoId) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        CountDownLatch salida = new CountDownLatch(1);
+        try {
+            List<Future<LoanResponse>> futuros = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                futuros.add(pool.submit((Callable<LoanResponse>) () -> {
+                    salida.await();
+                    return loanService.returnLoan(prestamoId);
+                }));
+            }
+            salida.countDown();
+            List<Throwable> errores = new ArrayList<>();
+            for (Future<LoanResponse> f : futuros) {
+                try {
+                    f.get();
+                } catch (ExecutionException e) {
+                    errores.add(e.getCause());
+                }
+            }
+            return errores;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private long libro() {
+        AuthorRequestData autor = new AuthorRequestData();
+        autor.setNombre("Autor concurrencia");
+        BookRequestData libro = new BookRequestData();
+        libro.setTitulo("Libro concurrencia " + System.nanoTime());
+        libro.setAutorId(authorService.create(autor).getId());
+        libro.setEjemplares(1);
+        return bookService.create(libro).getId();
+    }
+
+    private long usuario(String nombre) {
+        UserRequestData usuario = new UserRequestData();
+        usuario.setNombre("Usuario " + nombre);
+        usuario.setEmail(nombre + "-" + System.nanoTime() + "@example.com");
+        return userService.create(usuario).getId();
+    }
+
+    private LoanResponse prestar(long usuarioId, long libroId) {
+        LoanRequestData request = new LoanRequestData();
+        request.setUsuarioId(usuarioId);
+        request.setLibroId(libroId);
+        return loanService.createLoan(request);
+    }
+}
@@ -5,6 +5,7 @@ import com.grupobb.biblioteca.domain.User;
 import com.grupobb.biblioteca.dto.User.UserRequestData;
 import com.grupobb.biblioteca.repository.UserRepository;
 import com.grupobb.biblioteca.service.impl.UserServiceImpl;
+import com.grupobb.biblioteca.service.user.EmailBloomFilter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -13,7 +14,7 @@ import org.springframework.context.annotation.Import;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 
 @DataJpaTest
-@Import({UserServiceImpl.class})
+@Import({UserServiceImpl.class, EmailBloomFilter.class})
 public class UserServiceTest {
     @Autowired
     private UserService userService;
@@ -0,0 +1,68 @@
+package com.grupobb.biblioteca.service.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AvailabilityIndexTest {
+
+    private AvailabilityIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new AvailabilityIndex();
+        index.putBook(1L, 10L, true);
+        index.putBook(2L, 10L, false);
+        index.putBook(3L, 20L, true);
+        // Ids separados por más de 2^16 caen en otro contenedor del bitmap
+        index.putBook(70_000L, 10L, true);
+    }
+
+    @Test
+    void shouldIntersectAuthorAndAvailability() {
+        assertThat(index.countBooks()).isEqualTo(4);
+        assertThat(index.countAvailable()).isEqualTo(3);
+        assertThat(index.countByAuthor(10L)).isEqualTo(3);
+        assertThat(index.countAvailableByAuthor(10L)).isEqualTo(2);
+        assertThat(index.availableByAuthor(10L)).containsExactly(1L, 70_000L);
+        assertThat(index.availableByAuthor(99L)).isEmpty();
+    }
+
+    @Test
+    void shouldFollowLoansAndReturns() {
+        index.setAvailable(1L, false);
+        index.setAvailable(2L, true);
+
+        assertThat(index.isKnownUnavailable(1L)).isTrue();
+        assertThat(index.isAvailable(2L)).isTrue();
+        assertThat(index.availableByAuthor(10L)).containsExactly(2L, 70_000L);
+    }
+
+    @Test
+    void shouldIgnoreUnknownBooks() {
+        index.setAvailable(5L, true);
+
+        assertThat(index.knows(5L)).isFalse();
+        assertThat(index.isAvailable(5L)).isFalse();
+        // Un libro que el índice no conoce nunca se da por prestado
+        assertThat(index.isKnownUnavailable(5L)).isFalse();
+    }
+
+    @Test
+    void shouldMoveBookWhenAuthorChanges() {
+        index.putBook(1L, 20L, true);
+
+        assertThat(index.availableByAuthor(10L)).containsExactly(70_000L);
+        assertThat(index.availableByAuthor(20L)).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void shouldForgetRemovedBooks() {
+        index.removeBook(3L);
+
+        assertThat(index.knows(3L)).isFalse();
+        assertThat(index.countByAuthor(20L)).isZero();
+        assertThat(index.countAvailable()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,114 @@
+package com.grupobb.biblioteca.service.eventlog;
+
+import com.grupobb.biblioteca.dto.Author.AuthorRequestData;
+import com.grupobb.biblioteca.dto.Book.BookRequestData;
+import com.grupobb.biblioteca.dto.Loan.LoanRequestData;
+import com.grupobb.biblioteca.dto.User.UserRequestData;
+import com.grupobb.biblioteca.service.AuthorService;
+import com.grupobb.biblioteca.service.BookService;
+import com.grupobb.biblioteca.service.LoanService;
+import com.grupobb.biblioteca.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Ida y vuelta del log de préstamos: al reabrirlo, snapshot + cola reaplicada dan la misma
+ * proyección que había en memoria; si el log se quedó atrás respecto de `prestamos`, se
+ * descarta y se vuelve a sembrar desde la BD.
+ */
+@SpringBootTest(properties = {
+        "eventlog.enabled=true",
+        "eventlog.fsync=group",
+        "eventlog.snapshot-every=1",
+        // Los snapshots los pide la prueba, no el planificador
+        "eventlog.snapshot-check-ms=3600000"})
+public class LoanEventLogTest {
+
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private LoanEventLog eventLog;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @DynamicPropertySource
+    static void eventLogDir(DynamicPropertyRegistry registry) throws IOException {
+        String dir = Files.createTempDirectory("eventlog-test").toString();
+        registry.add("eventlog.dir", () -> dir);
+    }
+
+    @Test
+    void reopenReplaysSnapshotAndTail() throws IOException {
+        prestar();
+        loanService.returnLoan(prestar());
+        eventLog.maybeSnapshot();
+        // Cola posterior al snapshot
+        prestar();
+        assertThat(alDia()).isTrue();
+        List<String> antes = contadores();
+
+        eventLog.close();
+        eventLog.afterSingletonsInstantiated();
+
+        assertThat(eventLog.isEnabled()).isTrue();
+        assertThat(alDia()).isTrue();
+        assertThat(contadores()).containsExactlyInAnyOrderElementsOf(antes);
+    }
+
+    @Test
+    void logBehindDatabaseIsReseeded() throws IOException {
+        prestar();
+        eventLog.close();
+        // Préstamo confirmado en la BD que nunca llegó al log
+        prestar();
+
+        eventLog.afterSingletonsInstantiated();
+
+        assertThat(eventLog.isEnabled()).isTrue();
+        assertThat(alDia()).isTrue();
+    }
+
+    private boolean alDia() {
+        long[] totales = jdbc.queryForObject("select count(*), count(fecha_devolucion) from prestamos",
+                (rs, i) -> new long[]{rs.getLong(1), rs.getLong(1) - rs.getLong(2)});
+        return eventLog.matches(totales[0], totales[1]);
+    }
+
+    private List<String> contadores() {
+        return eventLog.toStats().stream()
+                .map(s -> s.getTipo() + ":" + s.getClave() + "=" + s.getValor())
+                .toList();
+    }
+
+    private long prestar() {
+        AuthorRequestData autor = new AuthorRequestData();
+        autor.setNombre("Autor log");
+        BookRequestData libro = new BookRequestData();
+        libro.setTitulo("Libro log " + System.nanoTime());
+        libro.setAutorId(authorService.create(autor).getId());
+        libro.setEjemplares(1);
+        UserRequestData usuario = new UserRequestData();
+        usuario.setNombre("Usuario log");
+        usuario.setEmail("log-" + System.nanoTime() + "@example.com");
+        LoanRequestData request = new LoanRequestData();
+        request.setUsuarioId(userService.create(usuario).getId());
+        request.setLibroId(bookService.create(libro).getId());
+        return loanService.createLoan(request).getId();
+    }
+}
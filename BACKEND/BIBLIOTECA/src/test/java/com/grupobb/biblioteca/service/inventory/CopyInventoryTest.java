@@ -0,0 +1,108 @@
+package com.grupobb.biblioteca.service.inventory;
+
+import com.grupobb.biblioteca.dto.Author.AuthorRequestData;
+import com.grupobb.biblioteca.dto.Book.BookRequestData;
+import com.grupobb.biblioteca.dto.Book.BookResponse;
+import com.grupobb.biblioteca.dto.Loan.LoanRequestData;
+import com.grupobb.biblioteca.dto.Loan.LoanResponse;
+import com.grupobb.biblioteca.dto.User.UserRequestData;
+import com.grupobb.biblioteca.service.AuthorService;
+import com.grupobb.biblioteca.service.BookService;
+import com.grupobb.biblioteca.service.LoanService;
+import com.grupobb.biblioteca.service.UserService;
+import com.grupobb.biblioteca.web.advice.BadRequestException;
+import com.grupobb.biblioteca.web.advice.BookNotAvailableException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Ejemplares por título: cada préstamo toma un ejemplar distinto, el contador del libro sigue a
+ * los ejemplares y no se pueden retirar los que están prestados.
+ */
+@SpringBootTest
+public class CopyInventoryTest {
+
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private CopyInventory copyInventory;
+
+    @Test
+    void loansTakeDistinctCopiesUntilNoneLeft() {
+        long libroId = libro(2);
+
+        LoanResponse primero = prestar(usuario("a"), libroId);
+        LoanResponse segundo = prestar(usuario("b"), libroId);
+
+        assertThat(primero.getEjemplarId()).isNotNull();
+        assertThat(segundo.getEjemplarId()).isNotNull().isNotEqualTo(primero.getEjemplarId());
+        assertThat(copyInventory.available(libroId)).isZero();
+        assertThatThrownBy(() -> prestar(usuario("c"), libroId)).isInstanceOf(BookNotAvailableException.class);
+
+        loanService.returnLoan(primero.getId());
+
+        assertThat(copyInventory.available(libroId)).isEqualTo(1);
+        // El ejemplar devuelto vuelve a la estantería y es el próximo en salir
+        assertThat(prestar(usuario("d"), libroId).getEjemplarId()).isEqualTo(primero.getEjemplarId());
+    }
+
+    @Test
+    void resizeOnlyRetiresCopiesOnTheShelf() {
+        long libroId = libro(3);
+        prestar(usuario("e"), libroId);
+        prestar(usuario("f"), libroId);
+
+        assertThatThrownBy(() -> bookService.update(libroId, cambio(libroId, 1)))
+                .isInstanceOf(BadRequestException.class);
+
+        BookResponse reducido = bookService.update(libroId, cambio(libroId, 2));
+        assertThat(reducido.getEjemplaresTotales()).isEqualTo(2);
+        assertThat(reducido.getEjemplaresDisponibles()).isZero();
+        assertThat(reducido.isDisponible()).isFalse();
+
+        BookResponse ampliado = bookService.update(libroId, cambio(libroId, 4));
+        assertThat(ampliado.getEjemplaresDisponibles()).isEqualTo(2);
+        assertThat(copyInventory.available(libroId)).isEqualTo(2);
+    }
+
+    private long libro(int ejemplares) {
+        AuthorRequestData autor = new AuthorRequestData();
+        autor.setNombre("Autor ejemplares");
+        BookRequestData libro = new BookRequestData();
+        libro.setTitulo("Libro ejemplares " + System.nanoTime());
+        libro.setAutorId(authorService.create(autor).getId());
+        libro.setEjemplares(ejemplares);
+        return bookService.create(libro).getId();
+    }
+
+    private BookRequestData cambio(long libroId, int ejemplares) {
+        BookRequestData request = new BookRequestData();
+        request.setTitulo(bookService.findById(libroId).getTitulo());
+        request.setEjemplares(ejemplares);
+        return request;
+    }
+
+    private long usuario(String nombre) {
+        UserRequestData usuario = new UserRequestData();
+        usuario.setNombre("Usuario " + nombre);
+        usuario.setEmail(nombre + "-" + System.nanoTime() + "@example.com");
+        return userService.create(usuario).getId();
+    }
+
+    private LoanResponse prestar(long usuarioId, long libroId) {
+        LoanRequestData request = new LoanRequestData();
+        request.setUsuarioId(usuarioId);
+        request.setLibroId(libroId);
+        return loanService.createLoan(request);
+    }
+}
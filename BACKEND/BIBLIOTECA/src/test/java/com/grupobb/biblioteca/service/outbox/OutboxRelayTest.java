@@ -0,0 +1,137 @@
+package com.grupobb.biblioteca.service.outbox;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El relay reclama los eventos en orden de id, borra los publicados, corta el lote en el
+ * primero que falla (reintentándolo en la siguiente pasada) y lo descarta al agotar los intentos.
+ */
+@SpringBootTest(properties = {
+        "outbox.batch-size=2",
+        "outbox.max-attempts=3",
+        // Las pasadas las hace la prueba, no el planificador
+        "outbox.poll-ms=3600000"})
+public class OutboxRelayTest {
+
+    @TestConfiguration
+    static class Suscriptor {
+        @Bean
+        Recorder outboxRecorder() {
+            return new Recorder();
+        }
+    }
+
+    // Anota los eventos PRUEBA_* recibidos y falla las veces indicadas por tipo
+    static class Recorder {
+        final List<String> recibidos = new CopyOnWriteArrayList<>();
+        final Map<String, Integer> fallos = new ConcurrentHashMap<>();
+
+        @EventListener
+        public void on(OutboxMessage message) {
+            if (!message.startsWith("PRUEBA_")) {
+                return;
+            }
+            if (fallos.getOrDefault(message.getTipo(), 0) > 0) {
+                fallos.merge(message.getTipo(), -1, Integer::sum);
+                throw new IllegalStateException("Fallo simulado en " + message.getTipo());
+            }
+            recibidos.add(message.getTipo() + ":" + message.getAgregadoId());
+        }
+    }
+
+    @Autowired
+    private OutboxRelay relay;
+    @Autowired
+    private Outbox outbox;
+    @Autowired
+    private Recorder recorder;
+    @Autowired
+    private JdbcTemplate jdbc;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void limpiar() {
+        jdbc.update("delete from outbox_eventos");
+        recorder.recibidos.clear();
+        recorder.fallos.clear();
+    }
+
+    @Test
+    void drainsFullBatchesInIdOrderAndDeletesThem() {
+        registrar("PRUEBA_A", 1, 2, 3, 4, 5);
+
+        relay.drain();
+
+        assertThat(recorder.recibidos).containsExactly("PRUEBA_A:1", "PRUEBA_A:2", "PRUEBA_A:3", "PRUEBA_A:4", "PRUEBA_A:5");
+        assertThat(pendientes()).isZero();
+    }
+
+    @Test
+    void failedEventIsRetriedBeforeLaterOnes() {
+        registrar("PRUEBA_A", 1);
+        registrar("PRUEBA_FALLA", 2);
+        registrar("PRUEBA_A", 3);
+        recorder.fallos.put("PRUEBA_FALLA", 1);
+
+        relay.drain();
+
+        // El lote se corta en el que falló: el siguiente no se adelanta
+        assertThat(recorder.recibidos).containsExactly("PRUEBA_A:1");
+        assertThat(pendientes()).isEqualTo(2);
+        assertThat(jdbc.queryForObject("select intentos from outbox_eventos where tipo = 'PRUEBA_FALLA'", Integer.class))
+                .isEqualTo(1);
+
+        relay.drain();
+
+        assertThat(recorder.recibidos).containsExactly("PRUEBA_A:1", "PRUEBA_FALLA:2", "PRUEBA_A:3");
+        assertThat(pendientes()).isZero();
+    }
+
+    @Test
+    void eventIsDiscardedAfterMaxAttempts() {
+        registrar("PRUEBA_FALLA", 1);
+        registrar("PRUEBA_A", 2);
+        recorder.fallos.put("PRUEBA_FALLA", 10);
+
+        relay.drain();
+        relay.drain();
+        assertThat(pendientes()).isEqualTo(2);
+
+        // Tercer fallo = max-attempts: se descarta y el resto sigue en la pasada siguiente
+        relay.drain();
+        assertThat(pendientes()).isEqualTo(1);
+        relay.drain();
+
+        assertThat(recorder.recibidos).containsExactly("PRUEBA_A:2");
+        assertThat(pendientes()).isZero();
+    }
+
+    private void registrar(String tipo, long... agregados) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (long agregadoId : agregados) {
+                outbox.record(tipo, agregadoId);
+            }
+        });
+    }
+
+    private int pendientes() {
+        return jdbc.queryForObject("select count(*) from outbox_eventos where tipo like 'PRUEBA_%'", Integer.class);
+    }
+}
@@ -0,0 +1,33 @@
+package com.grupobb.biblioteca.service.overdue;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FinePolicyTest {
+
+    private final FinePolicy policy = new FinePolicy(14, new BigDecimal("0.50"), new BigDecimal("20.00"));
+
+    @Test
+    void shouldComputeDueDateAndDaysOverdue() {
+        LocalDate prestamo = LocalDate.of(2024, 2, 20);
+        LocalDate vencimiento = policy.dueDate(prestamo);
+
+        assertThat(vencimiento).isEqualTo(LocalDate.of(2024, 3, 5));
+        assertThat(policy.daysOverdue(vencimiento, vencimiento)).isZero();
+        assertThat(policy.daysOverdue(vencimiento, prestamo)).isZero();
+        assertThat(policy.daysOverdue(vencimiento, LocalDate.of(2024, 3, 15))).isEqualTo(10);
+    }
+
+    @Test
+    void shouldChargeDailyRateUpToTheCap() {
+        assertThat(policy.fine(0)).isEqualTo(new BigDecimal("0.00"));
+        assertThat(policy.fine(1)).isEqualTo(new BigDecimal("0.50"));
+        assertThat(policy.fine(16)).isEqualTo(new BigDecimal("8.00"));
+        assertThat(policy.fine(40)).isEqualTo(new BigDecimal("20.00"));
+        assertThat(policy.fine(400)).isEqualTo(new BigDecimal("20.00"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.grupobb.biblioteca.service.overdue;
+
+import com.grupobb.biblioteca.dto.Author.AuthorRequestData;
+import com.grupobb.biblioteca.dto.Book.BookRequestData;
+import com.grupobb.biblioteca.dto.Loan.LoanRequestData;
+import com.grupobb.biblioteca.dto.User.UserRequestData;
+import com.grupobb.biblioteca.service.AuthorService;
+import com.grupobb.biblioteca.service.BookService;
+import com.grupobb.biblioteca.service.LoanService;
+import com.grupobb.biblioteca.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El job de vencidos multa solo los préstamos activos fuera de plazo, recorriendo las particiones
+ * en lotes pequeños, y deja todas las particiones completadas.
+ */
+@SpringBootTest
+@TestPropertySource(properties = {"overdue.chunk-size=2", "overdue.pause-ms=0"})
+public class OverdueJobTest {
+
+    @Autowired
+    private AuthorService authorService;
+    @Autowired
+    private BookService bookService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private LoanService loanService;
+    @Autowired
+    private OverdueJob overdueJob;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    void finesOverdueLoansInSmallChunks() {
+        LocalDate hoy = LocalDate.now();
+        List<Long> vencidos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            long prestamoId = prestar();
+            // 30 días prestado: 16 de atraso con el plazo de 14
+            jdbc.update("update prestamos set fecha_prestamo = ?, fecha_vencimiento = null where id = ?",
+                    Date.valueOf(hoy.minusDays(30)), prestamoId);
+            vencidos.add(prestamoId);
+        }
+        long enPlazo = prestar();
+        long devuelto = prestar();
+        jdbc.update("update prestamos set fecha_prestamo = ? where id = ?", Date.valueOf(hoy.minusDays(30)), devuelto);
+        loanService.returnLoan(devuelto);
+        BigDecimal multaDevuelto = multa(devuelto);
+        // Sin checkpoints: plan nuevo aunque otra prueba ya lo haya ejecutado hoy
+        jdbc.update("delete from checkpoints_tareas where tarea = ?", OverdueJob.TAREA);
+
+        overdueJob.run();
+
+        for (long prestamoId : vencidos) {
+            assertThat(multa(prestamoId)).as("préstamo " + prestamoId).isEqualByComparingTo("8.00");
+            assertThat(jdbc.queryForObject("select dias_atraso from prestamos where id = ?", Integer.class, prestamoId))
+                    .isEqualTo(16);
+        }
+        assertThat(multa(enPlazo)).isNull();
+        // Lo devuelto queda con la multa calculada al devolver
+        assertThat(multa(devuelto)).isEqualByComparingTo(multaDevuelto);
+        assertThat(jdbc.queryForObject(
+                "select count(*) from checkpoints_tareas where tarea = ? and completada = false", Integer.class,
+                OverdueJob.TAREA)).isZero();
+    }
+
+    private BigDecimal multa(long prestamoId) {
+        return jdbc.queryForObject("select multa from prestamos where id = ?", BigDecimal.class, prestamoId);
+    }
+
+    private long prestar() {
+        AuthorRequestData autor = new AuthorRequestData();
+        autor.setNombre("Autor vencidos");
+        BookRequestData libro = new BookRequestData();
+        libro.setTitulo("Libro vencidos " + System.nanoTime());
+        libro.setAutorId(authorService.create(autor).getId());
+        libro.setEjemplares(1);
+        UserRequestData usuario = new UserRequestData();
+        usuario.setNombre("Usuario vencidos");
+        usuario.setEmail("vencidos-" + System.nanoTime() + "@example.com");
+        LoanRequestData request = new LoanRequestData();
+        request.setUsuarioId(userService.create(usuario).getId());
+        request.setLibroId(bookService.create(libro).getId());
+        return loanService.createLoan(request).getId();
+    }
+}
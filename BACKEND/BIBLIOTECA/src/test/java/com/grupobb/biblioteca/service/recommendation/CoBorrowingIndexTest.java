@@ -0,0 +1,79 @@
+package com.grupobb.biblioteca.service.recommendation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CoBorrowingIndexTest {
+
+    @Test
+    void shouldRelateBooksBorrowedByTheSameUser() {
+        CoBorrowingIndex index = new CoBorrowingIndex(20, 32, 10, 4);
+        index.record(1L, 100L);
+        index.record(1L, 200L);
+        index.record(2L, 100L);
+        index.record(2L, 200L);
+        index.record(2L, 300L);
+
+        assertThat(index.related(100L, 10)).isDeepEqualTo(new long[][]{{200L, 2L}, {300L, 1L}});
+        assertThat(index.related(300L, 1).length).isEqualTo(1);
+        assertThat(index.related(999L, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldOnlyPairWithRecentHistory() {
+        CoBorrowingIndex index = new CoBorrowingIndex(2, 32, 10, 4);
+        index.record(1L, 100L);
+        index.record(1L, 200L);
+        index.record(1L, 300L);
+        // 100 ya salió del historial de 2 libros
+        index.record(1L, 400L);
+
+        assertThat(index.related(400L, 10)).isDeepEqualTo(new long[][]{{200L, 1L}, {300L, 1L}});
+    }
+
+    @Test
+    void shouldRebuildSameCountsAsIncrementalPath() {
+        int users = 200;
+        int perUser = 15;
+        long[] books = new long[users * perUser];
+        int[] offsets = new int[users + 1];
+        long[] userIds = new long[users];
+        SplittableRandom rng = new SplittableRandom(7);
+        CoBorrowingIndex incremental = new CoBorrowingIndex(5, 64, 64, 8);
+        for (int u = 0; u < users; u++) {
+            userIds[u] = u + 1;
+            offsets[u] = u * perUser;
+            for (int i = 0; i < perUser; i++) {
+                // Sin repetidos por usuario: ambos caminos usan la misma ventana
+                long libroId = (u * 7L + i * 13L + rng.nextInt(3)) % 500 + i * 500L;
+                books[u * perUser + i] = libroId;
+                incremental.record(userIds[u], libroId);
+            }
+        }
+        offsets[users] = books.length;
+
+        CoBorrowingIndex rebuilt = new CoBorrowingIndex(5, 64, 64, 8);
+        rebuilt.rebuild(books, offsets, userIds, users, new ForkJoinPool(4));
+
+        for (long libroId : books) {
+            // Los empates pueden quedar en otro orden: se comparan ordenados por id
+            assertThat(byId(rebuilt.related(libroId, 64))).as("libro " + libroId)
+                    .isDeepEqualTo(byId(incremental.related(libroId, 64)));
+        }
+        // El historial reconstruido sigue alimentando préstamos nuevos
+        incremental.record(1L, 9_999L);
+        rebuilt.record(1L, 9_999L);
+        assertThat(byId(rebuilt.related(9_999L, 64))).isDeepEqualTo(byId(incremental.related(9_999L, 64)));
+    }
+
+    private static long[][] byId(long[][] related) {
+        Arrays.sort(related, Comparator.comparingLong(par -> par[0]));
+        return related;
+    }
+}
@@ -0,0 +1,69 @@
+package com.grupobb.biblioteca.service.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookSearchIndexTest {
+
+    private BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex();
+        index.putAuthor(1L, "Gabriel García Márquez");
+        index.putAuthor(2L, "Isabel Allende");
+        index.putBook(10L, "Cien años de soledad", 1L, null);
+        index.putBook(11L, "La casa de los espíritus", 2L, null);
+        index.putBook(12L, "El amor en los tiempos del cólera", 1L, null);
+    }
+
+    @Test
+    void shouldIgnoreAccentsAndCase() {
+        List<BookSearchIndex.Hit> hits = index.search("ANOS", 10);
+
+        assertThat(hits).extracting(BookSearchIndex.Hit::getBookId).containsExactly(10L);
+    }
+
+    @Test
+    void shouldMatchPrefixesAndAuthorNames() {
+        List<BookSearchIndex.Hit> hits = index.search("marq col", 10);
+
+        assertThat(hits).extracting(BookSearchIndex.Hit::getBookId).containsExactly(12L);
+    }
+
+    @Test
+    void shouldRankTitleMatchesAboveAuthorMatches() {
+        index.putAuthor(3L, "Ana Soledad");
+        index.putBook(13L, "Poemas", 3L, null);
+
+        List<BookSearchIndex.Hit> hits = index.search("soledad", 10);
+
+        assertThat(hits).extracting(BookSearchIndex.Hit::getBookId).containsExactly(10L, 13L);
+    }
+
+    @Test
+    void shouldReflectAuthorRenameAndBookRemoval() {
+        index.putAuthor(1L, "Gabo");
+        index.removeBook(10L);
+
+        assertThat(index.search("garcia", 10)).isEmpty();
+        assertThat(index.search("gabo", 10)).extracting(BookSearchIndex.Hit::getBookId).containsExactly(12L);
+    }
+
+    @Test
+    void shouldMatchPrefixesLongerThanIndexedPrefixes() {
+        index.putAuthor(4L, "Hrafnkelsdottirsson");
+        index.putBook(14L, "Sagas", 4L, null);
+        index.putBook(15L, "Internacionalismo", 1L, null);
+        index.putBook(16L, "Internacionales", 1L, null);
+
+        assertThat(index.search("internacionalis", 10)).extracting(BookSearchIndex.Hit::getBookId).containsExactly(15L);
+        assertThat(index.search("internacionalismo", 10)).extracting(BookSearchIndex.Hit::getBookId).containsExactly(15L);
+        assertThat(index.search("hrafnkelsdottirs", 10)).extracting(BookSearchIndex.Hit::getBookId).containsExactly(14L);
+        assertThat(index.search("internacionalistas", 10)).isEmpty();
+    }
+}
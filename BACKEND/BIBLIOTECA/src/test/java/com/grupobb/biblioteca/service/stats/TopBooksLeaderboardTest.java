@@ -0,0 +1,78 @@
+package com.grupobb.biblioteca.service.stats;
+
+import com.grupobb.biblioteca.util.ZipfSampler;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TopBooksLeaderboardTest {
+
+    private static final int CAPACITY = 64;
+    private static final int LOANS = 50_000;
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+    private final TopBooksLeaderboard leaderboard = new TopBooksLeaderboard(CAPACITY, 0, now::get);
+
+    @Test
+    void shouldStayWithinSpaceSavingErrorBound() {
+        // Flujo sesgado (Zipf) sobre un catálogo mucho mayor que la capacidad, en un solo bucket
+        ZipfSampler zipf = new ZipfSampler(10_000, 1.1);
+        SplittableRandom rng = new SplittableRandom(42);
+        Map<Long, Long> real = new HashMap<>();
+        for (int i = 0; i < LOANS; i++) {
+            long bookId = zipf.sample(rng);
+            leaderboard.record(bookId);
+            real.merge(bookId, 1L, Long::sum);
+        }
+
+        TopBooksLeaderboard.Ranking ranking = leaderboard.top(TopBooksLeaderboard.Window.HOUR, CAPACITY);
+        long bound = LOANS / CAPACITY;
+        assertThat(ranking.getTotal()).isEqualTo(LOANS);
+        assertThat(ranking.getMaxError()).isLessThanOrEqualTo(bound);
+        for (TopBooksLeaderboard.Entry entry : ranking.getEntries()) {
+            long exact = real.getOrDefault(entry.getBookId(), 0L);
+            // Nunca subestima y la sobreestimación está acotada por su propio error
+            assertThat(entry.getCount()).isGreaterThanOrEqualTo(exact);
+            assertThat(entry.getCount() - entry.getError()).isLessThanOrEqualTo(exact);
+            assertThat(entry.getCount() - exact).isLessThanOrEqualTo(bound);
+        }
+        // Todo libro con más de N/k préstamos tiene que estar en el ranking
+        real.forEach((bookId, exact) -> {
+            if (exact > bound) {
+                assertThat(ranking.getEntries().stream().anyMatch(e -> e.getBookId() == bookId))
+                        .as("libro " + bookId + " con " + exact + " préstamos").isTrue();
+            }
+        });
+        assertThat(ranking.getEntries().get(0).getBookId()).isEqualTo(1L);
+    }
+
+    @Test
+    void shouldBeExactBelowCapacity() {
+        for (long bookId = 1; bookId <= 10; bookId++) {
+            for (int i = 0; i < bookId; i++) {
+                leaderboard.record(bookId);
+            }
+        }
+
+        TopBooksLeaderboard.Ranking ranking = leaderboard.top(TopBooksLeaderboard.Window.DAY, 3);
+        assertThat(ranking.getMaxError()).isZero();
+        assertThat(ranking.getEntries()).extracting(TopBooksLeaderboard.Entry::getBookId).containsExactly(10L, 9L, 8L);
+        assertThat(ranking.getEntries()).extracting(TopBooksLeaderboard.Entry::getCount).containsExactly(10L, 9L, 8L);
+    }
+
+    @Test
+    void shouldDropLoansOutsideTheWindow() {
+        leaderboard.record(1L);
+        now.addAndGet(2 * 3_600_000L);
+        leaderboard.record(2L);
+
+        assertThat(leaderboard.top(TopBooksLeaderboard.Window.HOUR, 10).getEntries())
+                .extracting(TopBooksLeaderboard.Entry::getBookId).containsExactly(2L);
+        assertThat(leaderboard.top(TopBooksLeaderboard.Window.DAY, 10).getTotal()).isEqualTo(2);
+    }
+}
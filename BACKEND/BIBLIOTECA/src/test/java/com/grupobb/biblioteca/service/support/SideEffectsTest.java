@@ -0,0 +1,146 @@
+package com.grupobb.biblioteca.service.support;
+
+import com.grupobb.biblioteca.datasource.BranchContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SideEffectsTest {
+
+    private SimpleMeterRegistry registry;
+    private SideEffects sideEffects;
+    private final CountDownLatch liberar = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        // Un hilo y cola de 2: fácil de llenar
+        sideEffects = new SideEffects(1, 2, registry);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        liberar.countDown();
+        sideEffects.shutdown();
+    }
+
+    @Test
+    void shouldRunOnlyAfterCommitAndOffTheCallerThread() throws Exception {
+        CompletableFuture<String> hilo = new CompletableFuture<>();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            sideEffects.afterCommit("prueba", () -> hilo.complete(Thread.currentThread().getName()));
+            assertThat(hilo.isDone()).isFalse();
+
+            commit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(hilo.get(5, TimeUnit.SECONDS)).startsWith("side-effects-");
+    }
+
+    @Test
+    void shouldDropTasksOnRollback() throws Exception {
+        AtomicInteger ejecutadas = new AtomicInteger();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            sideEffects.afterCommit("prueba", ejecutadas::incrementAndGet);
+        } finally {
+            // Rollback: nadie invoca afterCommit
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        esperarVacio();
+
+        assertThat(ejecutadas.get()).isZero();
+    }
+
+    @Test
+    void shouldRunInTheCallerBranch() throws Exception {
+        CompletableFuture<String> sede = new CompletableFuture<>();
+
+        BranchContext.run("norte", () -> sideEffects.afterCommit("prueba", () -> sede.complete(BranchContext.current())));
+
+        assertThat(sede.get(5, TimeUnit.SECONDS)).isEqualTo("norte");
+    }
+
+    @Test
+    void shouldCoalescePendingTasksWithSameKey() throws Exception {
+        bloquearHilo();
+        AtomicInteger ejecutadas = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            sideEffects.coalesce("analisis", ejecutadas::incrementAndGet);
+        }
+
+        liberar.countDown();
+        esperarVacio();
+
+        assertThat(ejecutadas.get()).isEqualTo(1);
+        // Ya empezó: la siguiente ráfaga vuelve a encolar
+        sideEffects.coalesce("analisis", ejecutadas::incrementAndGet);
+        esperarVacio();
+        assertThat(ejecutadas.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCountRejectedAndFailedTasks() throws Exception {
+        bloquearHilo();
+        AtomicInteger ejecutadas = new AtomicInteger();
+        sideEffects.afterCommit("falla", () -> {
+            throw new IllegalStateException("fallo simulado");
+        });
+        sideEffects.afterCommit("ok", ejecutadas::incrementAndGet);
+        // Cola llena (2): se descarta
+        sideEffects.afterCommit("descartada", ejecutadas::incrementAndGet);
+
+        liberar.countDown();
+        // Con la cola llena no se puede encolar una marca: se espera a las 3 tareas aceptadas
+        long limite = System.currentTimeMillis() + 5_000;
+        while (registry.timer("side_effects.duration").count() < 3 && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+
+        assertThat(ejecutadas.get()).isEqualTo(1);
+        assertThat(registry.counter("side_effects.rejected").count()).isEqualTo(1.0);
+        assertThat(registry.counter("side_effects.failed").count()).isEqualTo(1.0);
+    }
+
+    // Ocupa el único hilo del pool hasta que la prueba lo libere
+    private void bloquearHilo() throws InterruptedException {
+        CountDownLatch ocupado = new CountDownLatch(1);
+        sideEffects.afterCommit("bloqueo", () -> {
+            ocupado.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertThat(ocupado.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    // Encola una marca y espera a que se ejecute: con un hilo, todo lo anterior ya terminó
+    private void esperarVacio() throws Exception {
+        CompletableFuture<Void> marca = new CompletableFuture<>();
+        sideEffects.afterCommit("marca", () -> marca.complete(null));
+        marca.get(5, TimeUnit.SECONDS);
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        for (TransactionSynchronization synchronization : synchronizations) {
+            synchronization.afterCommit();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.grupobb.biblioteca.service.user;
+
+import com.grupobb.biblioteca.domain.User;
+import com.grupobb.biblioteca.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * El filtro se carga desde la BD, normaliza los emails igual que MySQL y, tras muchos borrados,
+ * se reconstruye sin los emails que ya no están.
+ */
+@DataJpaTest
+@Import(EmailBloomFilter.class)
+public class EmailBloomFilterTest {
+
+    @Autowired
+    private EmailBloomFilter emailFilter;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void loadsRegisteredEmailsAndRebuildsAfterRemovals() {
+        User ana = usuario("Ana@Example.com");
+        usuario("luis@example.com");
+        // Al arrancar se cargó vacío: se recarga con los usuarios recién creados
+        emailFilter.load();
+
+        assertThat(emailFilter.mightExist("  ana@EXAMPLE.com ")).isTrue();
+        assertThat(emailFilter.mightExist("luis@example.com")).isTrue();
+        assertThat(emailFilter.mightExist("nadie@example.com")).isFalse();
+
+        emailFilter.added("nueva@example.com");
+        assertThat(emailFilter.mightExist("nueva@example.com")).isTrue();
+
+        userRepository.delete(ana);
+        userRepository.flush();
+        emailFilter.removed(ana.getEmail());
+        // 1 obsoleto de 3 supera la proporción por defecto (0.2)
+        emailFilter.maybeRebuild();
+
+        assertThat(emailFilter.mightExist("ana@example.com")).isFalse();
+        assertThat(emailFilter.mightExist("luis@example.com")).isTrue();
+    }
+
+    private User usuario(String email) {
+        User user = new User();
+        user.setNombre("Usuario bloom");
+        user.setEmail(email);
+        return userRepository.saveAndFlush(user);
+    }
+}
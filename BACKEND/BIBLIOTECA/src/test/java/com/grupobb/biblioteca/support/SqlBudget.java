@@ -0,0 +1,29 @@
+package com.grupobb.biblioteca.support;
+
+import com.grupobb.biblioteca.datasource.telemetry.SqlTelemetry;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Presupuesto de sentencias SQL para tests: falla si el bloque ejecuta más de {@code max}
+ * sentencias en el hilo actual y lista las formas ejecutadas para ubicar el N+1.
+ */
+public final class SqlBudget {
+
+    private SqlBudget() {
+    }
+
+    public static <T> T assertAtMost(int max, String descripcion, Callable<T> bloque) throws Exception {
+        try (SqlTelemetry.Scope scope = SqlTelemetry.open()) {
+            T resultado = bloque.call();
+            if (scope.statements() > max) {
+                StringBuilder sb = new StringBuilder(descripcion)
+                        .append(": ").append(scope.statements())
+                        .append(" sentencias (máximo ").append(max).append(")");
+                scope.byShape().forEach((forma, veces) -> sb.append("\n  ").append(veces).append("x ").append(forma));
+                throw new AssertionError(sb.toString());
+            }
+            return resultado;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.grupobb.biblioteca.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BloomFilterTest {
+
+    private static final int INSERTIONS = 100_000;
+    private static final double FPP = 0.01;
+
+    @Test
+    void shouldNeverReturnFalseNegatives() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, FPP);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("usuario" + i + "@example.com");
+        }
+
+        for (int i = 0; i < INSERTIONS; i++) {
+            assertThat(filter.mightContain("usuario" + i + "@example.com")).isTrue();
+        }
+    }
+
+    @Test
+    void shouldStayWithinFalsePositiveBound() {
+        BloomFilter filter = new BloomFilter(INSERTIONS, FPP);
+        for (int i = 0; i < INSERTIONS; i++) {
+            filter.put("usuario" + i + "@example.com");
+        }
+
+        int falsos = 0;
+        int pruebas = 200_000;
+        for (int i = 0; i < pruebas; i++) {
+            if (filter.mightContain("nuevo" + i + "@example.org")) {
+                falsos++;
+            }
+        }
+        // Lleno hasta la capacidad prevista: la tasa medida y la estimada rondan fpp
+        assertThat((double) falsos / pruebas).isLessThanOrEqualTo(1.5 * FPP);
+        assertThat(filter.expectedFpp()).isLessThanOrEqualTo(1.5 * FPP);
+        assertThat(filter.fillRatio()).isBetween(0.4, 0.6);
+    }
+
+    @Test
+    void shouldNotLoseConcurrentInsertions() throws InterruptedException {
+        BloomFilter filter = new BloomFilter(40_000, FPP);
+        List<Thread> hilos = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int desde = t * 10_000;
+            Thread hilo = new Thread(() -> {
+                for (int i = desde; i < desde + 10_000; i++) {
+                    filter.put("usuario" + i + "@example.com");
+                }
+            });
+            hilos.add(hilo);
+            hilo.start();
+        }
+        for (Thread hilo : hilos) {
+            hilo.join();
+        }
+
+        for (int i = 0; i < 40_000; i++) {
+            assertThat(filter.mightContain("usuario" + i + "@example.com")).isTrue();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.grupobb.biblioteca.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HyperLogLogTest {
+
+    private static final int PRECISION = 11;
+
+    @Test
+    void shouldStayWithinErrorBound() {
+        for (int distinct : new int[]{1_000, 10_000, 100_000, 1_000_000}) {
+            HyperLogLog hll = new HyperLogLog(PRECISION);
+            for (long usuarioId = 1; usuarioId <= distinct; usuarioId++) {
+                hll.add(usuarioId);
+                // Repetidos no cuentan
+                hll.add(usuarioId);
+            }
+            // 3 errores estándar (~7 % con p = 11)
+            double error = Math.abs(hll.estimate() - distinct) / (double) distinct;
+            assertThat(error).as("error con " + distinct + " distintos").isLessThanOrEqualTo(3 * hll.relativeError());
+        }
+    }
+
+    @Test
+    void shouldBeNearlyExactWhileSparse() {
+        HyperLogLog hll = new HyperLogLog(PRECISION);
+        for (long usuarioId = 1; usuarioId <= 50; usuarioId++) {
+            hll.add(usuarioId);
+        }
+
+        assertThat(hll.isSparse()).isTrue();
+        assertThat(hll.estimate()).isBetween(49L, 51L);
+        assertThat(hll.sizeInBytes()).isLessThan(1 << PRECISION);
+    }
+
+    @Test
+    void shouldMergeWithoutCountingOverlapTwice() {
+        HyperLogLog enero = new HyperLogLog(PRECISION);
+        HyperLogLog febrero = new HyperLogLog(PRECISION);
+        HyperLogLog exacto = new HyperLogLog(PRECISION);
+        for (long usuarioId = 1; usuarioId <= 30_000; usuarioId++) {
+            enero.add(usuarioId);
+            exacto.add(usuarioId);
+        }
+        for (long usuarioId = 20_001; usuarioId <= 50_000; usuarioId++) {
+            febrero.add(usuarioId);
+            exacto.add(usuarioId);
+        }
+
+        enero.merge(febrero);
+
+        // La unión por máximo de registros es idéntica a haber agregado todo en un sketch
+        assertThat(enero.estimate()).isEqualTo(exacto.estimate());
+        assertThat(Math.abs(enero.estimate() - 50_000) / 50_000.0).isLessThanOrEqualTo(3 * enero.relativeError());
+    }
+
+    @Test
+    void shouldRoundTripBothFormats() {
+        HyperLogLog hll = new HyperLogLog(PRECISION);
+        for (long usuarioId = 1; usuarioId <= 20; usuarioId++) {
+            hll.add(usuarioId);
+        }
+        HyperLogLog sparse = HyperLogLog.fromBytes(hll.toBytes());
+        assertThat(sparse.isSparse()).isTrue();
+        assertThat(sparse.estimate()).isEqualTo(hll.estimate());
+
+        for (long usuarioId = 21; usuarioId <= 5_000; usuarioId++) {
+            hll.add(usuarioId);
+        }
+        HyperLogLog dense = HyperLogLog.fromBytes(hll.toBytes());
+        assertThat(dense.isSparse()).isFalse();
+        assertThat(dense.estimate()).isEqualTo(hll.estimate());
+    }
+}
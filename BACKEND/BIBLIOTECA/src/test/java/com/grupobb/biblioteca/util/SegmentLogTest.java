@@ -0,0 +1,117 @@
+package com.grupobb.biblioteca.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SegmentLogTest {
+
+    // 12 bytes de carga útil (long + int) + seq + CRC; 4 registros por segmento
+    private static final int RECORD_SIZE = 24;
+    private static final int PER_SEGMENT = 4;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldReplayAcrossSegmentsAfterReopen() throws IOException {
+        try (SegmentLog log = abrir()) {
+            for (long valor = 1; valor <= 10; valor++) {
+                assertThat(anexar(log, valor * 100)).isEqualTo(valor);
+            }
+        }
+
+        try (SegmentLog log = abrir()) {
+            assertThat(log.lastSeq()).isEqualTo(10);
+            assertThat(leer(log, 1)).containsExactly(100L, 200L, 300L, 400L, 500L, 600L, 700L, 800L, 900L, 1000L);
+            // Desde la mitad se saltan los segmentos anteriores completos
+            assertThat(leer(log, 6)).containsExactly(600L, 700L, 800L, 900L, 1000L);
+            assertThat(anexar(log, 1100)).isEqualTo(11);
+        }
+        assertThat(segmentos()).hasSize(3);
+    }
+
+    @Test
+    void shouldDropTornTailOnRecovery() throws IOException {
+        try (SegmentLog log = abrir()) {
+            anexar(log, 1);
+            anexar(log, 2);
+            anexar(log, 3);
+        }
+        // Simula una escritura cortada: el CRC del tercer registro no coincide
+        try (RandomAccessFile raf = new RandomAccessFile(segmentos().get(0).toFile(), "rw")) {
+            raf.seek(2 * RECORD_SIZE + 20);
+            raf.writeInt(0xDEADBEEF);
+        }
+
+        try (SegmentLog log = abrir()) {
+            assertThat(log.lastSeq()).isEqualTo(2);
+            assertThat(anexar(log, 33)).isEqualTo(3);
+            assertThat(leer(log, 1)).containsExactly(1L, 2L, 33L);
+        }
+    }
+
+    @Test
+    void shouldReportDurableAppends() throws Exception {
+        try (SegmentLog log = abrir()) {
+            long seq = 0;
+            for (long valor = 1; valor <= 6; valor++) {
+                seq = anexar(log, valor);
+            }
+            log.awaitDurable(seq);
+
+            assertThat(log.durableSeq()).isGreaterThanOrEqualTo(seq);
+        }
+    }
+
+    @Test
+    void shouldDeleteAllSegments() throws IOException {
+        SegmentLog log = abrir();
+        for (long valor = 1; valor <= 6; valor++) {
+            anexar(log, valor);
+        }
+
+        log.delete();
+
+        assertThat(segmentos()).isEmpty();
+        try (SegmentLog nuevo = abrir()) {
+            assertThat(nuevo.lastSeq()).isZero();
+        }
+    }
+
+    private SegmentLog abrir() throws IOException {
+        return new SegmentLog(dir, RECORD_SIZE, PER_SEGMENT, 0);
+    }
+
+    private static long anexar(SegmentLog log, long valor) {
+        return log.append((buf, base) -> {
+            buf.putLong(base, valor);
+            buf.putInt(base + 8, (int) valor);
+        });
+    }
+
+    private static List<Long> leer(SegmentLog log, long desde) throws IOException {
+        List<Long> valores = new ArrayList<>();
+        log.replay(desde, (seq, buf, base) -> {
+            long valor = buf.getLong(base);
+            assertThat(buf.getInt(base + 8)).isEqualTo((int) valor);
+            valores.add(valor);
+        });
+        return valores;
+    }
+
+    private List<Path> segmentos() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith("segment-")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.grupobb.biblioteca.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.grupobb.biblioteca.domain.Author;
+import com.grupobb.biblioteca.repository.AuthorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Mismo contenido en JSON (por defecto), CBOR y Smile según Accept, con la configuración de
+ * spring.jackson (SNAKE_CASE, non_null).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class BinaryFormatsTest {
+
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @BeforeEach
+    void seed() {
+        Author autor = new Author();
+        autor.setNombre("Autor binario");
+        authorRepository.save(autor);
+    }
+
+    @Test
+    void shouldDefaultToJson() throws Exception {
+        mockMvc.perform(get("/api/authors"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void shouldServeCborAndSmileWithSameFields() throws Exception {
+        JsonNode json = new ObjectMapper().readTree(body(MediaType.APPLICATION_JSON));
+        JsonNode cbor = new ObjectMapper(new CBORFactory()).readTree(body(CBOR));
+        JsonNode smile = new ObjectMapper(new SmileFactory()).readTree(body(SMILE));
+
+        assertThat(cbor).isEqualTo(json);
+        assertThat(smile).isEqualTo(json);
+        assertThat(json.get(0).has("id")).isTrue();
+    }
+
+    private byte[] body(MediaType accept) throws Exception {
+        return mockMvc.perform(get("/api/authors").accept(accept))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(accept))
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+}
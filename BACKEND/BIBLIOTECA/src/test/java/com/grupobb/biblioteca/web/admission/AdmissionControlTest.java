@@ -0,0 +1,67 @@
+package com.grupobb.biblioteca.web.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdmissionControlTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void shouldAllowBurstThenRefillAtRate() {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 3, 100);
+        long t = 0;
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("a", t)).isZero();
+        }
+        long wait = limiter.tryAcquire("a", t);
+
+        assertThat(wait).isEqualTo(100 * MS);
+        assertThat(limiter.tryAcquire("b", t)).isZero();
+        assertThat(limiter.tryAcquire("a", t + wait)).isZero();
+        assertThat(limiter.tryAcquire("a", t + wait)).isPositive();
+    }
+
+    @Test
+    void shouldEvictIdleClientsWhenFull() {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 1, 2);
+        limiter.tryAcquire("a", 0);
+        limiter.tryAcquire("b", 0);
+
+        assertThat(limiter.tryAcquire("c", 1000 * MS)).isZero();
+        assertThat(limiter.clients()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectWhenLimitIsFull() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, 100 * MS, 0.5);
+
+        assertThat(limit.tryAcquire()).isEqualTo(1);
+        assertThat(limit.tryAcquire()).isEqualTo(2);
+        assertThat(limit.tryAcquire()).isZero();
+
+        limit.release(MS, 2, 0);
+        assertThat(limit.tryAcquire()).isPositive();
+    }
+
+    @Test
+    void shouldGrowWhenFastAndShrinkOncePerWindowWhenSlow() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 10, 100 * MS, 0.5);
+        for (int i = 0; i < 40; i++) {
+            int n = limit.tryAcquire();
+            limit.release(MS, Math.max(n, 4), 0);
+        }
+        int grown = limit.limit();
+        assertThat(grown).isGreaterThan(4);
+
+        long now = 1000 * MS;
+        limit.tryAcquire();
+        limit.release(500 * MS, 1, now);
+        limit.tryAcquire();
+        limit.release(500 * MS, 1, now + 10 * MS);
+
+        assertThat(limit.limit()).isEqualTo(grown / 2);
+    }
+}
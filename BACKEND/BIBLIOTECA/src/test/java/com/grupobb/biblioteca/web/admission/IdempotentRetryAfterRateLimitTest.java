@@ -0,0 +1,46 @@
+package com.grupobb.biblioteca.web.admission;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Un 429 del control de admisión no debe quedar guardado para la Idempotency-Key: el reintento
+ * tras Retry-After se ejecuta de verdad.
+ */
+@SpringBootTest(properties = {"admission.rate=1", "admission.burst=1"})
+@AutoConfigureMockMvc
+public class IdempotentRetryAfterRateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void retryAfter429WithSameKeyIsExecuted() throws Exception {
+        mockMvc.perform(get("/api/authors")).andExpect(status().isOk());
+
+        crearAutor().andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        Thread.sleep(1100);
+
+        crearAutor().andExpect(status().isCreated())
+                .andExpect(header().doesNotExist("Idempotency-Replayed"));
+    }
+
+    private ResultActions crearAutor() throws Exception {
+        return mockMvc.perform(post("/api/authors")
+                .header("Idempotency-Key", "reintento-429")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"nombre\":\"Autor reintento\"}"));
+    }
+}
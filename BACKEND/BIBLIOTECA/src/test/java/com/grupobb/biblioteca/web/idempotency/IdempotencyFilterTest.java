@@ -0,0 +1,164 @@
+package com.grupobb.biblioteca.web.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Filtro de Idempotency-Key sobre peticiones simuladas: repetición de la respuesta guardada,
+ * 422 con otro cuerpo, espera (o 409) ante un duplicado en curso y ámbito por ruta y cliente.
+ */
+public class IdempotencyFilterTest {
+
+    private static final String CLIENT_HEADER = "X-Client-Id";
+
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+    private IdempotencyStore store;
+    private IdempotencyFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        store = new IdempotencyStore(null);
+        ReflectionTestUtils.setField(store, "maxEntries", 100);
+        ReflectionTestUtils.setField(store, "ttlMinutes", 60L);
+        filter = new IdempotencyFilter(store, new ObjectMapper(), 100, CLIENT_HEADER);
+    }
+
+    @Test
+    void retryWithSameBodyReplaysStoredResponse() throws Exception {
+        MockHttpServletResponse primera = ejecutar(filter, peticion("clave-1", "{\"nombre\":\"A\"}"), crear());
+        MockHttpServletResponse segunda = ejecutar(filter, peticion("clave-1", "{\"nombre\":\"A\"}"), crear());
+
+        assertThat(ejecuciones.get()).isEqualTo(1);
+        assertThat(primera.getStatus()).isEqualTo(201);
+        assertThat(primera.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(segunda.getStatus()).isEqualTo(201);
+        assertThat(segunda.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(segunda.getHeader("Location")).isEqualTo("/api/authors/1");
+        assertThat(segunda.getContentAsString()).isEqualTo(primera.getContentAsString());
+    }
+
+    @Test
+    void sameKeyWithDifferentBodyIsRejected() throws Exception {
+        ejecutar(filter, peticion("clave-2", "{\"nombre\":\"A\"}"), crear());
+        MockHttpServletResponse otra = ejecutar(filter, peticion("clave-2", "{\"nombre\":\"B\"}"), crear());
+
+        assertThat(otra.getStatus()).isEqualTo(422);
+        assertThat(ejecuciones.get()).isEqualTo(1);
+    }
+
+    @Test
+    void duplicateInFlightWaitsOrGets409() throws Exception {
+        CountDownLatch enCurso = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        FilterChain lenta = (req, res) -> {
+            enCurso.countDown();
+            try {
+                liberar.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            crear().doFilter(req, res);
+        };
+        MockHttpServletResponse[] respuestas = new MockHttpServletResponse[2];
+        Thread primera = new Thread(() -> respuestas[0] = ejecutarSinExcepcion(filter, peticion("clave-3", "{}"), lenta));
+        primera.start();
+        assertThat(enCurso.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // Espera corta (100 ms): la primera sigue en curso
+        MockHttpServletResponse impaciente = ejecutar(filter, peticion("clave-3", "{}"), crear());
+        assertThat(impaciente.getStatus()).isEqualTo(409);
+
+        // Espera larga: recibe la respuesta de la primera sin ejecutar otra vez
+        IdempotencyFilter paciente = new IdempotencyFilter(store, new ObjectMapper(), 5_000, CLIENT_HEADER);
+        Thread segunda = new Thread(() -> respuestas[1] = ejecutarSinExcepcion(paciente, peticion("clave-3", "{}"), crear()));
+        segunda.start();
+        liberar.countDown();
+        primera.join(5_000);
+        segunda.join(5_000);
+
+        assertThat(ejecuciones.get()).isEqualTo(1);
+        assertThat(respuestas[0].getStatus()).isEqualTo(201);
+        assertThat(respuestas[1].getStatus()).isEqualTo(201);
+        assertThat(respuestas[1].getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void keyIsScopedByPathAndClient() throws Exception {
+        ejecutar(filter, peticion("clave-4", "{}"), crear());
+
+        MockHttpServletRequest otraRuta = peticion("clave-4", "{}");
+        otraRuta.setRequestURI("/api/books");
+        MockHttpServletRequest otroCliente = peticion("clave-4", "{}");
+        otroCliente.removeHeader(CLIENT_HEADER);
+        otroCliente.addHeader(CLIENT_HEADER, "cliente-b");
+
+        assertThat(ejecutar(filter, otraRuta, crear()).getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(ejecutar(filter, otroCliente, crear()).getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(ejecuciones.get()).isEqualTo(3);
+    }
+
+    @Test
+    void serverErrorsAreNotStored() throws Exception {
+        FilterChain caida = (req, res) -> {
+            ejecuciones.incrementAndGet();
+            ((HttpServletResponse) res).setStatus(503);
+        };
+        assertThat(ejecutar(filter, peticion("clave-5", "{}"), caida).getStatus()).isEqualTo(503);
+
+        MockHttpServletResponse reintento = ejecutar(filter, peticion("clave-5", "{}"), crear());
+
+        assertThat(reintento.getStatus()).isEqualTo(201);
+        assertThat(reintento.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isNull();
+        assertThat(ejecuciones.get()).isEqualTo(2);
+    }
+
+    // Simula el controlador: cuenta la ejecución y responde 201 con Location
+    private FilterChain crear() {
+        return (req, res) -> {
+            int n = ejecuciones.incrementAndGet();
+            HttpServletResponse http = (HttpServletResponse) res;
+            http.setStatus(201);
+            http.setContentType("application/json");
+            http.setHeader("Location", "/api/authors/" + n);
+            http.getOutputStream().write(("{\"id\":" + n + "}").getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private MockHttpServletRequest peticion(String clave, String cuerpo) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/authors");
+        request.addHeader(IdempotencyFilter.HEADER, clave);
+        request.addHeader(CLIENT_HEADER, "cliente-a");
+        request.setContentType("application/json");
+        request.setContent(cuerpo.getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+
+    private static MockHttpServletResponse ejecutar(IdempotencyFilter filter, MockHttpServletRequest request,
+                                                    FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletResponse ejecutarSinExcepcion(IdempotencyFilter filter, MockHttpServletRequest request,
+                                                                FilterChain chain) {
+        try {
+            return ejecutar(filter, request, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -9,9 +9,37 @@ const api = axios.create({
   },
 });
 
+// Idempotency-Key en escrituras: si la misma petición se reenvía (reintento de red o del
+// cliente), el backend devuelve la respuesta original en lugar de repetir la operación.
+api.interceptors.request.use((config) => {
+  const method = (config.method || 'get').toLowerCase();
+  if (['post', 'put', 'patch', 'delete'].includes(method) && !config.headers['Idempotency-Key']) {
+    config.headers['Idempotency-Key'] = crypto.randomUUID();
+  }
+  return config;
+});
+
+// Read-your-writes: tras una escritura el backend responde X-Primary-Until (epoch ms) y, hasta
+// esa hora, las lecturas de este cliente se reenvían con la cabecera para que salgan del primario
+// y no de una réplica que todavía no tiene el cambio.
+let primaryUntil = 0;
+
+api.interceptors.request.use((config) => {
+  if (primaryUntil > Date.now()) {
+    config.headers['X-Primary-Until'] = String(primaryUntil);
+  }
+  return config;
+});
+
 // Interceptor para manejar errores globalmente
 api.interceptors.response.use(
-  (response) => response,
+  (response) => {
+    const until = Number(response.headers['x-primary-until']);
+    if (until > primaryUntil) {
+      primaryUntil = until;
+    }
+    return response;
+  },
   (error) => {
     if (error.response) {
       // El servidor respondió con un código de error